@@ -53,6 +53,7 @@ import org.neo4j.graphdb.schema.IndexCreator;
 import org.neo4j.graphdb.schema.IndexDefinition;
 import org.neo4j.graphdb.schema.IndexType;
 import org.neo4j.internal.counts.GBPTreeCountsStore;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.collection.IteratorWrapper;
 import org.neo4j.internal.id.DefaultIdGeneratorFactory;
@@ -182,6 +183,7 @@ import org.neo4j.values.storable.Value;
 import static java.util.Collections.emptyIterator;
 import static java.util.Collections.emptyList;
 import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.common.Subject.AUTH_DISABLED;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.databases_root_path;
 import static org.neo4j.configuration.GraphDatabaseSettings.logs_directory;
@@ -426,6 +428,7 @@ public class BatchInserterImpl implements BatchInserter
     public void setNodeProperty( long node, String propertyName, Object propertyValue )
     {
         RecordProxy<NodeRecord,Void> nodeRecord = getNodeRecord( node );
+        propertyCreator.spillInlinedProperties( nodeRecord, recordAccess.getPropertyRecords() );
         setPrimitiveProperty( nodeRecord, propertyName, propertyValue );
 
         flushStrategy.flush();
@@ -444,7 +447,9 @@ public class BatchInserterImpl implements BatchInserter
     public void removeNodeProperty( long node, String propertyName )
     {
         int propertyKey = getOrCreatePropertyKeyId( propertyName );
-        propertyDeletor.removePropertyIfExists( getNodeRecord( node ), propertyKey, recordAccess.getPropertyRecords() );
+        RecordProxy<NodeRecord,Void> nodeRecord = getNodeRecord( node );
+        propertyCreator.spillInlinedProperties( nodeRecord, recordAccess.getPropertyRecords() );
+        propertyDeletor.removePropertyIfExists( nodeRecord, propertyKey, recordAccess.getPropertyRecords() );
         flushStrategy.flush();
     }
 
@@ -833,8 +838,7 @@ public class BatchInserterImpl implements BatchInserter
     private boolean primitiveHasProperty( PrimitiveRecord record, String propertyName )
     {
         int propertyKeyId = tokenHolders.propertyKeyTokens().getIdByName( propertyName );
-        return propertyKeyId != NO_TOKEN && propertyTraverser.findPropertyRecordContaining( record, propertyKeyId,
-                recordAccess.getPropertyRecords(), false ) != Record.NO_NEXT_PROPERTY.intValue();
+        return propertyKeyId != NO_TOKEN && propertyTraverser.hasProperty( record, propertyKeyId, recordAccess.getPropertyRecords() );
     }
 
     private static void rejectAutoUpgrade( Config config )
@@ -983,7 +987,8 @@ public class BatchInserterImpl implements BatchInserter
     {
         long id = relationshipStore.nextId( cursorTracer );
         int typeId = getOrCreateRelationshipTypeId( type.name() );
-        relationshipCreator.relationshipCreate( id, typeId, node1, node2, recordAccess, noopLockClient );
+        // Degrees of relationship groups are built together with the rest of the counts store when shutting down
+        relationshipCreator.relationshipCreate( id, typeId, node1, node2, recordAccess, RelationshipGroupDegreesStore.NO_OP_UPDATER, noopLockClient );
         if ( properties != null && !properties.isEmpty() )
         {
             RelationshipRecord record = recordAccess.getRelRecords().getOrLoad( id, null, cursorTracer ).forChangingData();
@@ -999,6 +1004,8 @@ public class BatchInserterImpl implements BatchInserter
     public void setNodeProperties( long node, Map<String, Object> properties )
     {
         NodeRecord record = getNodeRecord( node ).forChangingData();
+        // All properties are replaced, including the ones inlined in the node record
+        record.setInlinedPropertyBlocks( EMPTY_LONG_ARRAY );
         if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
         {
             propertyDeletor.deletePropertyChain( record, recordAccess.getPropertyRecords() );
@@ -1032,9 +1039,9 @@ public class BatchInserterImpl implements BatchInserter
     public Map<String,Object> getNodeProperties( long nodeId )
     {
         NodeRecord record = getNodeRecord( nodeId ).forReadingData();
-        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
+        if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() || record.hasInlinedProperties() )
         {
-            return getPropertyChain( record.getNextProp() );
+            return getProperties( record );
         }
         return Collections.emptyMap();
     }
@@ -1093,7 +1100,7 @@ public class BatchInserterImpl implements BatchInserter
         RelationshipRecord record = recordAccess.getRelRecords().getOrLoad( relId, null, cursorTracer ).forChangingData();
         if ( record.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
         {
-            return getPropertyChain( record.getNextProp() );
+            return getProperties( record );
         }
         return Collections.emptyMap();
     }
@@ -1164,10 +1171,10 @@ public class BatchInserterImpl implements BatchInserter
         return "EmbeddedBatchInserter[" + databaseLayout + "]";
     }
 
-    private Map<String, Object> getPropertyChain( long nextProp )
+    private Map<String, Object> getProperties( PrimitiveRecord record )
     {
         final Map<String, Object> map = new HashMap<>();
-        propertyTraverser.getPropertyChain( nextProp, recordAccess.getPropertyRecords(), propBlock ->
+        propertyTraverser.getProperties( record, recordAccess.getPropertyRecords(), propBlock ->
         {
             try
             {
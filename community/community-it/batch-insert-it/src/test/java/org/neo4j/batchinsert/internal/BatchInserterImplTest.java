@@ -43,6 +43,7 @@ import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.kernel.database.DatabaseTracers;
 import org.neo4j.kernel.extension.ExtensionFactory;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_3;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.kernel.internal.locker.DatabaseLocker;
 import org.neo4j.kernel.internal.locker.FileLockException;
@@ -57,6 +58,7 @@ import org.neo4j.test.extension.Neo4jLayoutExtension;
 
 import static org.apache.commons.lang3.RandomStringUtils.randomAscii;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -64,6 +66,7 @@ import static org.neo4j.configuration.Config.defaults;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_rotation_threshold;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.configuration.GraphDatabaseSettings.record_format;
 import static org.neo4j.graphdb.Label.label;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 
@@ -193,6 +196,57 @@ class BatchInserterImplTest
         }
     }
 
+    @Test
+    void shouldReadAndChangePropertiesInlinedInNodeRecords() throws Exception
+    {
+        // given a node with properties inlined in its record
+        long nodeId;
+        DatabaseManagementService dbms = new TestDatabaseManagementServiceBuilder( databaseLayout.getNeo4jLayout().homeDirectory() )
+                .setFileSystem( fileSystem ).setConfig( record_format, InlinedPropertiesV4_3.NAME ).build();
+        try
+        {
+            try ( Transaction tx = dbms.database( DEFAULT_DATABASE_NAME ).beginTx() )
+            {
+                Node node = tx.createNode();
+                node.setProperty( "age", 30 );
+                node.setProperty( "active", true );
+                nodeId = node.getId();
+                tx.commit();
+            }
+        }
+        finally
+        {
+            dbms.shutdown();
+        }
+
+        // when
+        try ( var inserter = BatchInserters.inserter( databaseLayout, fileSystem, config ) )
+        {
+            // then
+            assertEquals( Map.of( "age", 30, "active", true ), inserter.getNodeProperties( nodeId ) );
+            assertTrue( inserter.nodeHasProperty( nodeId, "active" ) );
+
+            inserter.setNodeProperty( nodeId, "age", 31 );
+            inserter.removeNodeProperty( nodeId, "active" );
+            assertEquals( Map.of( "age", 31 ), inserter.getNodeProperties( nodeId ) );
+            assertFalse( inserter.nodeHasProperty( nodeId, "active" ) );
+        }
+
+        // and the database sees the changes too
+        dbms = new TestDatabaseManagementServiceBuilder( databaseLayout.getNeo4jLayout().homeDirectory() ).setFileSystem( fileSystem ).build();
+        try
+        {
+            try ( Transaction tx = dbms.database( DEFAULT_DATABASE_NAME ).beginTx() )
+            {
+                assertEquals( Map.of( "age", 31 ), tx.getNodeById( nodeId ).getAllProperties() );
+            }
+        }
+        finally
+        {
+            dbms.shutdown();
+        }
+    }
+
     private Iterable loadExtensions()
     {
         return Services.loadAll( ExtensionFactory.class );
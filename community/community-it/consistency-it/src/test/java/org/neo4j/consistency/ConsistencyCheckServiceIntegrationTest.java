@@ -39,6 +39,7 @@ import org.neo4j.consistency.ConsistencyCheckService.Result;
 import org.neo4j.consistency.checking.GraphStoreFixture;
 import org.neo4j.consistency.checking.full.ConsistencyCheckIncompleteException;
 import org.neo4j.consistency.checking.full.ConsistencyFlags;
+import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
@@ -58,15 +59,18 @@ import org.neo4j.kernel.impl.pagecache.ConfiguringPageCacheFactory;
 import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_3;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.kernel.lifecycle.Lifespan;
 import org.neo4j.logging.NullLog;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.memory.MemoryPools;
 import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
 import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
@@ -81,6 +85,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.experimental_consistency_checker;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.configuration.GraphDatabaseSettings.SchemaIndex.NATIVE_BTREE10;
 import static org.neo4j.configuration.GraphDatabaseSettings.record_format;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
@@ -314,6 +320,41 @@ public class ConsistencyCheckServiceIntegrationTest
         assertTrue( result.isSuccessful() );
     }
 
+    @Test
+    void shouldRefuseLegacyCheckerOnStoreWithInlinedNodeProperties() throws Exception
+    {
+        // given a store of a format with properties inlined in node records
+        DatabaseManagementService managementService = new TestDatabaseManagementServiceBuilder( testDirectory.directory( "inlined" ) )
+                .setConfig( record_format, InlinedPropertiesV4_3.NAME ).build();
+        DatabaseLayout inlinedLayout;
+        try
+        {
+            GraphDatabaseAPI db = (GraphDatabaseAPI) managementService.database( DEFAULT_DATABASE_NAME );
+            try ( org.neo4j.graphdb.Transaction tx = db.beginTx() )
+            {
+                tx.createNode().setProperty( "key", 42 );
+                tx.commit();
+            }
+            inlinedLayout = db.databaseLayout();
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+
+        // when
+        ConsistencyCheckService service = new ConsistencyCheckService();
+        Config configuration = Config.newBuilder()
+                .set( settings() )
+                .set( experimental_consistency_checker, false )
+                .build();
+
+        // then
+        ConsistencyCheckIncompleteException e =
+                assertThrows( ConsistencyCheckIncompleteException.class, () -> runFullConsistencyCheck( service, configuration, inlinedLayout ) );
+        assertThat( e ).hasRootCauseInstanceOf( UnsupportedOperationException.class );
+    }
+
     private void createIndex( Label label, String propKey )
     {
         fixture.apply( tx -> tx.schema().indexFor( label ).on( propKey ).create() );
@@ -25,11 +25,13 @@ import org.neo4j.cypher.internal.CacheTracer
 import org.neo4j.cypher.internal.ExecutionEngineQueryCacheMonitor
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.cypher.internal.ast.Statement
+import org.neo4j.cypher.internal.javacompat.ExecutionEngine
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Label
 import org.neo4j.graphdb.QueryExecutionException
 import org.neo4j.graphdb.config.Setting
 import org.neo4j.internal.helpers.collection.Pair
+import org.neo4j.kernel.impl.query.QueryExecutionEngine
 import org.scalatest.prop.TableDrivenPropertyChecks
 
 import scala.collection.JavaConverters.iterableAsScalaIterableConverter
@@ -522,6 +524,74 @@ class QueryCachingTest extends CypherFunSuite with GraphDatabaseTestSupport with
     actual should equal(expected)
   }
 
+  test("should find queries prewarmed by db.prewarmQueryCaches in the cache") {
+    val cacheListener = new LoggingExecutionEngineQueryCacheListener
+    kernelMonitors.addMonitorListener(cacheListener)
+
+    val query = "MATCH (n:Person {name: $name}) RETURN n"
+    val prewarm = "CALL db.prewarmQueryCaches([{query: $query, parameters: {name: 'Alice'}}])"
+    val prewarmParams: Map[String, AnyRef] = Map("query" -> query)
+    val params: Map[String, AnyRef] = Map("name" -> "Bob")
+
+    graph.withTx( tx => tx.execute(prewarm, prewarmParams.asJava).resultAsString() )
+    cacheListener.clear()
+    graph.withTx( tx => tx.execute(query, params.asJava).resultAsString() )
+
+    val actual = cacheListener.trace.map(str => str.replaceAll("\\s+", " "))
+    actual.head should equal(s"cacheHit: (CYPHER 4.2 $query, Map(name -> class org.neo4j.values.storable.UTF8StringValue))")
+  }
+
+  test("should compile queries recorded by the persistent query cache into the cache") {
+    restartWithConfig(databaseConfig() ++ Map(GraphDatabaseInternalSettings.cypher_persistent_query_cache -> java.lang.Boolean.TRUE))
+    val cacheListener = new LoggingExecutionEngineQueryCacheListener
+    kernelMonitors.addMonitorListener(cacheListener)
+
+    val query = "MATCH (n:Person) WHERE n.age > $age RETURN n"
+    val params: Map[String, AnyRef] = Map("age" -> Long.box(42))
+
+    graph.withTx( tx => tx.execute(query, params.asJava).resultAsString() )
+    val engine = graph.getDependencyResolver.resolveDependency(classOf[QueryExecutionEngine]).asInstanceOf[ExecutionEngine]
+    engine.clearQueryCaches()
+    engine.prewarmQueryCachesFromPersistentQueryCache() should equal(1)
+    cacheListener.clear()
+    graph.withTx( tx => tx.execute(query, params.asJava).resultAsString() )
+
+    val actual = cacheListener.trace.map(str => str.replaceAll("\\s+", " "))
+    actual.head should equal(s"cacheHit: (CYPHER 4.2 $query, Map(age -> class org.neo4j.values.storable.LongValue))")
+  }
+
+  test("should replan once when the cardinality of an operator was misestimated") {
+    restartWithConfig(databaseConfig() ++ Map(
+      GraphDatabaseInternalSettings.cypher_misestimation_replan_factor -> java.lang.Double.valueOf(10),
+      GraphDatabaseInternalSettings.cypher_misestimation_replan_min_rows -> java.lang.Long.valueOf(100)))
+    graph.withTx( tx => (1 to 2000).foreach { _ =>
+      val node = tx.createNode(Label.label("A"))
+      node.setProperty("p", 1)
+      node.setProperty("q", 1)
+    })
+    val cacheListener = new LoggingExecutionEngineQueryCacheListener
+    kernelMonitors.addMonitorListener(cacheListener)
+
+    val query = "MATCH (a:A) WHERE a.p = 1 AND a.q = 1 RETURN a"
+
+    graph.withTx( tx => tx.execute(query).resultAsString() )
+    graph.withTx( tx => tx.execute(query).resultAsString() )
+    graph.withTx( tx => tx.execute(query).resultAsString() )
+
+    val actual = cacheListener.trace.map(str => str.replaceAll("\\s+", " "))
+    actual.filterNot(_ == "cacheFlushDetected") should equal(List(
+      s"cacheMiss: (CYPHER 4.2 $query, $empty_parameters)",
+      s"cacheCompile: (CYPHER 4.2 $query, $empty_parameters)",
+      s"cacheDiscard: (CYPHER 4.2 $query, $empty_parameters)",
+      s"cacheMiss: (CYPHER 4.2 $query, $empty_parameters)",
+      s"cacheCompile: (CYPHER 4.2 $query, $empty_parameters)",
+      s"cacheHit: (CYPHER 4.2 $query, $empty_parameters)",
+      s"cacheCompileWithExpressionCodeGen: (CYPHER 4.2 $query, $empty_parameters)"))
+
+    val estimatedRows = graph.withTx( tx => tx.execute(s"EXPLAIN $query").getExecutionPlanDescription.getArguments.get("EstimatedRows") )
+    estimatedRows should equal(2000.0)
+  }
+
   private class LogginAstLogicalPlanCacheTracer extends CacheTracer[Pair[Statement, ParameterTypeMap]] {
     private val log: mutable.Builder[String, List[String]] = List.newBuilder
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler
+
+import org.neo4j.cypher.ExecutionEngineFunSuite
+
+class IndexValueDistributionAcceptanceTest extends ExecutionEngineFunSuite {
+
+  // 900 of 1000 orders share one status, the other 100 statuses are unique
+  private def givenSkewedStatuses(): Unit = {
+    graph.createIndex("Order", "status")
+    execute("UNWIND range(1, 900) AS i CREATE (:Order {status: 'open'})")
+    execute("UNWIND range(1, 100) AS i CREATE (:Order {status: 'closed-' + i})")
+    resampleIndexes()
+  }
+
+  // Counting distinct values alone would expect 1000 / 101 orders with any status, but a status is most likely the common one
+  private val expectedRowsOfAnyStatus = 1000 * ((900.0 * 900 + 100) / (1000 * 1000))
+
+  private def estimatedRows(query: String, params: (String, Any)*): Double =
+    execute(s"EXPLAIN $query", params: _*).executionPlanDescription().getArguments.get("EstimatedRows").asInstanceOf[Double]
+
+  test("should estimate auto-parameterized literals by the expected selectivity of values") {
+    givenSkewedStatuses()
+
+    estimatedRows("MATCH (o:Order) WHERE o.status = 'closed-1' RETURN o") should equal(expectedRowsOfAnyStatus +- 1)
+    estimatedRows("MATCH (o:Order) WHERE o.status = 'open' RETURN o") should equal(expectedRowsOfAnyStatus +- 1)
+  }
+
+  test("should estimate parameters by the expected selectivity of values") {
+    givenSkewedStatuses()
+
+    estimatedRows("MATCH (o:Order) WHERE o.status = $status RETURN o", "status" -> "closed-1") should equal(expectedRowsOfAnyStatus +- 1)
+  }
+
+  test("should estimate literals that are not auto-parameterized by the selectivity of their values") {
+    givenSkewedStatuses()
+
+    // Literals are only auto-parameterized in queries without parameters of their own
+    estimatedRows("MATCH (o:Order) WHERE o.status = 'open' RETURN o, $p", "p" -> 1) should equal(900.0 +- 1)
+    estimatedRows("MATCH (o:Order) WHERE o.status = 'closed-1' RETURN o, $p", "p" -> 1) should equal(1.0 +- 1)
+  }
+}
@@ -80,6 +80,10 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
       useErrorsOverWarnings = false,
       idpMaxTableSize = 128,
       idpIterationDuration = 1000,
+      idpPlanningBudget = 10000,
+      idpParallelism = 1,
+      misestimationReplanFactor = 0,
+      misestimationReplanMinRows = 1,
       errorIfShortestPathFallbackUsedAtRuntime = false,
       errorIfShortestPathHasCommonNodesAtRuntime = true,
       legacyCsvQuoteEscaping = false,
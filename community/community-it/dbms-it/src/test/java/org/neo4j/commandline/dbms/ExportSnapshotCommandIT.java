@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.commandline.dbms;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import org.neo4j.cli.CommandFailedException;
+import org.neo4j.cli.ExecutionContext;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.ConfigUtils;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshot;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.configuration.GraphDatabaseSettings.default_database;
+
+@Neo4jLayoutExtension
+class ExportSnapshotCommandIT
+{
+    private static final String DATABASE = "foo";
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    private Path homeDir;
+    private Path configDir;
+    private Path snapshotFile;
+    private DatabaseManagementService managementService;
+
+    @BeforeEach
+    void setUp()
+    {
+        homeDir = testDirectory.homePath();
+        configDir = testDirectory.directory( "config-dir" );
+        snapshotFile = testDirectory.file( "foo.snapshot" );
+    }
+
+    @Test
+    void shouldExportStoppedDatabase() throws Exception
+    {
+        // given
+        long alice;
+        long bob;
+        long knows;
+        GraphDatabaseService db = startDatabase();
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node aliceNode = tx.createNode( Label.label( "Person" ) );
+            aliceNode.setProperty( "age", 42 );
+            Node bobNode = tx.createNode( Label.label( "Person" ) );
+            knows = aliceNode.createRelationshipTo( bobNode, RelationshipType.withName( "KNOWS" ) ).getId();
+            tx.getRelationshipById( knows ).setProperty( "weight", 1.5D );
+            alice = aliceNode.getId();
+            bob = bobNode.getId();
+            tx.commit();
+        }
+        managementService.shutdown();
+
+        // when
+        execute( "--database=" + DATABASE, "--to=" + snapshotFile, "--node-property=age", "--relationship-property=weight", "--threads=2" );
+
+        // then
+        try ( ColumnarSnapshot snapshot = ColumnarSnapshot.open( snapshotFile ) )
+        {
+            assertEquals( 1, snapshot.relationshipCount() );
+            assertTrue( snapshot.nodeInUse( alice ) );
+            assertTrue( snapshot.nodeInUse( bob ) );
+            assertEquals( 1, snapshot.labelCount( alice ) );
+            assertThat( snapshot.labelTokens().get( snapshot.label( alice, 0 ) ).name() ).isEqualTo( "Person" );
+            assertEquals( 1, snapshot.degree( alice ) );
+            assertEquals( 0, snapshot.degree( bob ) );
+
+            long position = snapshot.adjacencyOffset( alice );
+            assertEquals( bob, snapshot.target( position ) );
+            assertEquals( knows, snapshot.relationshipId( position ) );
+            assertThat( snapshot.relationshipTypeTokens().get( snapshot.relationshipType( position ) ).name() ).isEqualTo( "KNOWS" );
+            assertEquals( 42, snapshot.nodeProperty( "age" ).longValue( alice ) );
+            assertEquals( 1.5D, snapshot.relationshipProperty( "weight" ).doubleValue( position ) );
+        }
+    }
+
+    @Test
+    void shouldNotExportDatabaseInUse()
+    {
+        startDatabase();
+        try
+        {
+            CommandFailedException e = assertThrows( CommandFailedException.class, () -> execute( "--database=" + DATABASE, "--to=" + snapshotFile ) );
+            assertThat( e.getMessage() ).contains( "The database is in use" );
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotExportNonExistentDatabase()
+    {
+        CommandFailedException e = assertThrows( CommandFailedException.class, () -> execute( "--database=bar", "--to=" + snapshotFile ) );
+        assertThat( e.getMessage() ).contains( "Database does not exist: bar" );
+    }
+
+    @Test
+    void shouldNotExportUnknownPropertyKey()
+    {
+        startDatabase();
+        managementService.shutdown();
+
+        CommandFailedException e = assertThrows( CommandFailedException.class,
+                () -> execute( "--database=" + DATABASE, "--to=" + snapshotFile, "--node-property=unknown" ) );
+        assertThat( e.getMessage() ).contains( "Property key 'unknown' does not exist" );
+    }
+
+    private GraphDatabaseService startDatabase()
+    {
+        Config config = Config.newBuilder()
+                .set( GraphDatabaseSettings.neo4j_home, homeDir.toAbsolutePath() )
+                .build();
+        ConfigUtils.disableAllConnectors( config );
+        managementService = new TestDatabaseManagementServiceBuilder( homeDir )
+                .setConfig( config )
+                .setConfig( default_database, DATABASE )
+                .build();
+        return managementService.database( DATABASE );
+    }
+
+    private void execute( String... args )
+    {
+        ExecutionContext ctx = new ExecutionContext( homeDir, configDir, mock( PrintStream.class ), mock( PrintStream.class ),
+                testDirectory.getFileSystem() );
+        ExportSnapshotCommand command = new ExportSnapshotCommand( ctx );
+        CommandLine.populateCommand( command, args );
+        command.execute();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphdb.inlined;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.graphdb.Node;
+import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.StoreIdProvider;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.Inject;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.graphdb.RelationshipType.withName;
+import static org.neo4j.internal.helpers.collection.Iterators.asList;
+import static org.neo4j.internal.helpers.collection.Iterators.count;
+import static org.neo4j.kernel.impl.store.MetaDataStore.versionLongToString;
+import static org.neo4j.kernel.impl.store.format.StoreVersion.INLINED_PROPERTIES_V4_3;
+import static org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_3.NAME;
+
+@DbmsExtension( configurationCallback = "configure" )
+public class InlinedPropertiesRecordFormatIT
+{
+    @Inject
+    private GraphDatabaseAPI database;
+    @Inject
+    private StoreIdProvider storeIdProvider;
+
+    @ExtensionCallback
+    void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( GraphDatabaseSettings.record_format, NAME );
+    }
+
+    @Test
+    void databaseCanBeStartedWithInlinedPropertiesFormat()
+    {
+        assertEquals( INLINED_PROPERTIES_V4_3.versionString(), versionLongToString( storeIdProvider.getStoreId().getStoreVersion() ) );
+    }
+
+    @Test
+    void nodeWithInlinedAndChainedProperties()
+    {
+        long nodeId;
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode();
+            node.setProperty( "int", 42 );
+            node.setProperty( "double", 0.0 );
+            node.setProperty( "bool", true );
+            node.setProperty( "string", "value" );
+            nodeId = node.getId();
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            assertEquals( Map.of( "int", 42, "double", 0.0, "bool", true, "string", "value" ),
+                    transaction.getNodeById( nodeId ).getAllProperties() );
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.getNodeById( nodeId );
+            node.setProperty( "int", 43 );
+            node.removeProperty( "bool" );
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            assertEquals( Map.of( "int", 43, "double", 0.0, "string", "value" ), transaction.getNodeById( nodeId ).getAllProperties() );
+        }
+    }
+
+    @Test
+    void nodesWithIndexedInlinedProperties()
+    {
+        var indexLabel = label( "indexMarker" );
+        var propertyName = "property";
+        var nodesCount = 100;
+        try ( var tx = database.beginTx() )
+        {
+            tx.schema().indexFor( indexLabel ).on( propertyName ).create();
+            tx.commit();
+        }
+
+        try ( var tx = database.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, HOURS );
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            for ( int i = 0; i < nodesCount; i++ )
+            {
+                transaction.createNode( indexLabel ).setProperty( propertyName, i % 2 );
+            }
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            assertEquals( nodesCount / 2, count( transaction.findNodes( indexLabel, propertyName, 1 ) ) );
+            asList( transaction.findNodes( indexLabel, propertyName, 1 ) ).forEach( node -> node.setProperty( propertyName, 0 ) );
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            assertEquals( nodesCount, count( transaction.findNodes( indexLabel, propertyName, 0 ) ) );
+            asList( transaction.findNodes( indexLabel, propertyName, 0 ) ).forEach( Node::delete );
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            assertFalse( transaction.findNodes( indexLabel, propertyName, 0 ).hasNext() );
+        }
+    }
+
+    @Test
+    void sparseNodeWithRelationshipsOfSeveralTypes()
+    {
+        var knows = withName( "KNOWS" );
+        var likes = withName( "LIKES" );
+        long nodeId;
+        long likesId;
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode();
+            node.createRelationshipTo( transaction.createNode(), knows );
+            likesId = transaction.createNode().createRelationshipTo( node, likes ).getId();
+            nodeId = node.getId();
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.getNodeById( nodeId );
+            assertThat( node.getRelationshipTypes() ).containsExactlyInAnyOrder( knows, likes );
+            assertEquals( 1, Iterables.count( node.getRelationships( likes ) ) );
+            transaction.getRelationshipById( likesId ).delete();
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.getNodeById( nodeId );
+            assertThat( node.getRelationshipTypes() ).containsExactly( knows );
+            assertEquals( 0, Iterables.count( node.getRelationships( likes ) ) );
+            assertEquals( 1, Iterables.count( node.getRelationships( knows ) ) );
+        }
+    }
+
+    @Test
+    void nodeWithManyPropertiesSeeksMissingPropertyWithoutReadingPropertyChain()
+    {
+        long nodeId;
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode();
+            node.setProperty( "missing", 0 );
+            for ( int i = 0; i < 60; i++ )
+            {
+                node.setProperty( "property" + i, i );
+            }
+            node.removeProperty( "missing" );
+            nodeId = node.getId();
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            KernelTransaction ktx = ((InternalTransaction) transaction).kernelTransaction();
+            int missing = ktx.tokenRead().propertyKey( "missing" );
+            int present = ktx.tokenRead().propertyKey( "property55" );
+            try ( NodeCursor nodeCursor = ktx.cursors().allocateNodeCursor( ktx.pageCursorTracer() );
+                  PropertyCursor propertyCursor = ktx.cursors().allocatePropertyCursor( ktx.pageCursorTracer(), ktx.memoryTracker() ) )
+            {
+                ktx.dataRead().singleNode( nodeId, nodeCursor );
+                assertTrue( nodeCursor.next() );
+
+                nodeCursor.properties( propertyCursor );
+                long pinsBefore = ktx.pageCursorTracer().pins();
+                assertFalse( propertyCursor.seekProperty( missing ) );
+                assertEquals( pinsBefore, ktx.pageCursorTracer().pins() );
+
+                nodeCursor.properties( propertyCursor );
+                assertTrue( propertyCursor.seekProperty( present ) );
+                assertEquals( 55, propertyCursor.propertyValue().asObject() );
+            }
+            assertFalse( transaction.getNodeById( nodeId ).hasProperty( "missing" ) );
+            assertEquals( 60, transaction.getNodeById( nodeId ).getAllProperties().size() );
+        }
+    }
+}
@@ -26,11 +26,18 @@ import org.neo4j.dbms.database.DatabaseContext;
 import org.neo4j.dbms.database.DatabaseManager;
 import org.neo4j.dbms.database.DbmsRuntimeRepository;
 import org.neo4j.dbms.database.DbmsRuntimeVersion;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
+import org.neo4j.internal.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.test.extension.DbmsExtension;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.neo4j.kernel.database.DatabaseIdRepository.NAMED_SYSTEM_DATABASE_ID;
 
@@ -44,6 +51,9 @@ class DbmsRuntimeVersionTest
     @Inject
     private DbmsRuntimeRepository dbmsRuntimeRepository;
 
+    @Inject
+    private GraphDatabaseAPI db;
+
     private GraphDatabaseService systemDb;
 
     @BeforeEach
@@ -56,7 +66,7 @@ class DbmsRuntimeVersionTest
     void testBasicVersionLifecycle()
     {
         // the system DB will be initialised with the default version for this binary
-        assertSame( DbmsRuntimeVersion.V4_2, dbmsRuntimeRepository.getVersion() );
+        assertSame( DbmsRuntimeVersion.V4_3, dbmsRuntimeRepository.getVersion() );
 
         // BTW this should never be manipulated directly outside tests
         setRuntimeVersion( DbmsRuntimeVersion.V4_1 );
@@ -64,7 +74,34 @@ class DbmsRuntimeVersionTest
 
         systemDb.executeTransactionally( "CALL dbms.upgrade()" );
 
-        assertSame( DbmsRuntimeVersion.V4_2, dbmsRuntimeRepository.getVersion() );
+        assertSame( DbmsRuntimeVersion.V4_3, dbmsRuntimeRepository.getVersion() );
+    }
+
+    @Test
+    void degreesShouldStayCorrectWhenWrittenWithOlderRuntimeVersion()
+    {
+        setRuntimeVersion( DbmsRuntimeVersion.V4_2 );
+        RelationshipGroupDegreesStore groupDegreesStore =
+                (RelationshipGroupDegreesStore) db.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).countsAccessor();
+
+        // the log format of this runtime version can't carry degree commands, so the degrees store can't be relied upon anymore
+        long nodeId;
+        try ( var tx = db.beginTx() )
+        {
+            var node = tx.createNode();
+            for ( int i = 0; i < 100; i++ )
+            {
+                node.createRelationshipTo( tx.createNode(), RelationshipType.withName( "KNOWS" ) );
+            }
+            nodeId = node.getId();
+            tx.commit();
+        }
+        assertFalse( groupDegreesStore.degreesComplete() );
+
+        try ( var tx = db.beginTx() )
+        {
+            assertEquals( 100, tx.getNodeById( nodeId ).getDegree( Direction.OUTGOING ) );
+        }
     }
 
     private void setRuntimeVersion( DbmsRuntimeVersion runtimeVersion )
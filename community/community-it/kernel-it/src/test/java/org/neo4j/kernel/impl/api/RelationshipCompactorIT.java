@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.internal.id.IdGeneratorFactory;
+import org.neo4j.internal.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.api.Kernel;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+
+@DbmsExtension( configurationCallback = "configure" )
+class RelationshipCompactorIT
+{
+    private static final int TYPES = 5;
+    private static final int RELATIONSHIPS_PER_TYPE = 3;
+
+    @Inject
+    private GraphDatabaseAPI database;
+
+    @ExtensionCallback
+    void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( GraphDatabaseSettings.dense_node_threshold, 1 );
+    }
+
+    @Test
+    void shouldCompactInterleavedGroupChainsOfDenseNodes() throws Exception
+    {
+        // given two dense nodes with their relationship groups interleaved
+        long first;
+        long second;
+        try ( Transaction tx = database.beginTx() )
+        {
+            first = tx.createNode().getId();
+            second = tx.createNode().getId();
+            tx.commit();
+        }
+        for ( int type = 0; type < TYPES; type++ )
+        {
+            try ( Transaction tx = database.beginTx() )
+            {
+                for ( int i = 0; i < RELATIONSHIPS_PER_TYPE; i++ )
+                {
+                    createRelationships( tx, first, type );
+                    createRelationships( tx, second, type );
+                }
+                tx.commit();
+            }
+        }
+        assertThat( groupIds( first ) ).isNotEqualTo( consecutiveIds( groupIds( first ).get( 0 ) ) );
+        Map<String,Integer> degreesBefore = degrees( first, second );
+
+        // when
+        int compacted = newCompactor().compact( 0, second + 1 );
+
+        // then
+        assertThat( compacted ).isEqualTo( 2 );
+        List<Long> firstGroups = groupIds( first );
+        List<Long> secondGroups = groupIds( second );
+        assertThat( firstGroups ).isEqualTo( consecutiveIds( firstGroups.get( 0 ) ) );
+        assertThat( secondGroups ).isEqualTo( consecutiveIds( secondGroups.get( 0 ) ) );
+        assertThat( degrees( first, second ) ).isEqualTo( degreesBefore );
+
+        // and when compacting again, nothing is moved
+        newCompactor().compact( 0, second + 1 );
+        assertThat( groupIds( first ) ).isEqualTo( firstGroups );
+        assertThat( groupIds( second ) ).isEqualTo( secondGroups );
+    }
+
+    @Test
+    void shouldNotMarkSparseNodes() throws Exception
+    {
+        long node;
+        try ( Transaction tx = database.beginTx() )
+        {
+            Node sparse = tx.createNode();
+            sparse.createRelationshipTo( tx.createNode(), RelationshipType.withName( "T" ) );
+            node = sparse.getId();
+            tx.commit();
+        }
+
+        assertThat( newCompactor().compact( node, node + 1 ) ).isZero();
+    }
+
+    private void createRelationships( Transaction tx, long nodeId, int type )
+    {
+        Node node = tx.getNodeById( nodeId );
+        RelationshipType relationshipType = RelationshipType.withName( "TYPE" + type );
+        node.createRelationshipTo( tx.createNode(), relationshipType );
+        tx.createNode().createRelationshipTo( node, relationshipType );
+        node.createRelationshipTo( node, relationshipType );
+    }
+
+    private Map<String,Integer> degrees( long... nodeIds )
+    {
+        Map<String,Integer> degrees = new HashMap<>();
+        try ( Transaction tx = database.beginTx() )
+        {
+            for ( long nodeId : nodeIds )
+            {
+                Node node = tx.getNodeById( nodeId );
+                for ( int type = 0; type < TYPES; type++ )
+                {
+                    RelationshipType relationshipType = RelationshipType.withName( "TYPE" + type );
+                    for ( Direction direction : Direction.values() )
+                    {
+                        degrees.put( nodeId + ":" + type + ":" + direction, node.getDegree( relationshipType, direction ) );
+                    }
+                }
+                degrees.put( nodeId + ":traversed", (int) Iterables.count( node.getRelationships() ) );
+            }
+        }
+        return degrees;
+    }
+
+    private List<Long> groupIds( long nodeId )
+    {
+        NeoStores neoStores = database.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).testAccessNeoStores();
+        RelationshipGroupStore groupStore = neoStores.getRelationshipGroupStore();
+        NodeRecord node = neoStores.getNodeStore().getRecord( nodeId, neoStores.getNodeStore().newRecord(), NORMAL, NULL );
+        List<Long> groupIds = new ArrayList<>();
+        for ( long groupId = node.getNextRel(); !NULL_REFERENCE.is( groupId ); )
+        {
+            RelationshipGroupRecord group = groupStore.getRecord( groupId, groupStore.newRecord(), NORMAL, NULL );
+            assertThat( group.getOwningNode() ).isEqualTo( nodeId );
+            groupIds.add( groupId );
+            groupId = group.getNext();
+        }
+        assertThat( groupIds ).hasSize( TYPES );
+        return groupIds;
+    }
+
+    private static List<Long> consecutiveIds( long firstId )
+    {
+        List<Long> ids = new ArrayList<>();
+        for ( int i = 0; i < TYPES; i++ )
+        {
+            ids.add( firstId + i );
+        }
+        return ids;
+    }
+
+    private RelationshipCompactor newCompactor()
+    {
+        var dependencies = database.getDependencyResolver();
+        return new RelationshipCompactor( dependencies.resolveDependency( Kernel.class ), dependencies.resolveDependency( IdGeneratorFactory.class ),
+                dependencies.resolveDependency( JobScheduler.class ), 0, 1, database.databaseName(), NullLog.getInstance() );
+    }
+}
@@ -106,6 +106,10 @@ public interface ProcedureITBase
                         "WRITE", false ), proc( "db.createRelationshipType", "(newRelationshipType :: STRING?) :: VOID", "Create a RelationshipType",
                         stringArray( "publisher", "architect", "admin" ), "WRITE", false ),
                 proc( "db.clearQueryCaches", "() :: (value :: STRING?)", "Clears all query caches.", stringArray( "admin" ), "DBMS" ),
+                proc( "db.prewarmQueryCaches", "(queries :: LIST? OF MAP?) :: (value :: STRING?)",
+                        "Compiles queries into the query caches without executing them, so that their first executions do not have to plan them. " +
+                                "Every query is given as a map with the query text under `query` and optionally, under `parameters`, " +
+                                "parameters of the types it will be executed with.", stringArray( "admin" ), "DBMS", false ),
                 proc( "db.createIndex",
                         "(indexName :: STRING?, labels :: LIST? OF STRING?, properties :: LIST? OF STRING?, providerName :: STRING?, config = {} :: MAP?) :: " +
                                 "(name :: STRING?, labels :: LIST? OF STRING?, properties :: LIST? OF STRING?, providerName :: STRING?, status :: STRING?)",
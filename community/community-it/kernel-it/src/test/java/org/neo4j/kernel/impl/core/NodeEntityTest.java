@@ -23,6 +23,8 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -43,6 +45,9 @@ import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -85,6 +90,8 @@ public class NodeEntityTest extends EntityTest
             sourceId = source.getId();
             tx.commit();
         }
+        // have the degrees read from the counts store tree rather than its in-memory changes
+        forceCheckpoint();
 
         try ( Transaction tx = db.beginTx() )
         {
@@ -95,8 +102,9 @@ public class NodeEntityTest extends EntityTest
 
             source.getDegree( Direction.OUTGOING );
 
+            // node and group records, plus the counts store tree page holding the degree which is unpinned when the seek is done
             assertThat( cursorTracer.hits() ).isEqualTo( 3 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 0 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 1 );
             assertThat( cursorTracer.pins() ).isEqualTo( 3 );
         }
     }
@@ -116,6 +124,8 @@ public class NodeEntityTest extends EntityTest
             targetId = target.getId();
             tx.commit();
         }
+        // have the degrees read from the counts store tree rather than its in-memory changes
+        forceCheckpoint();
 
         try ( Transaction tx = db.beginTx() )
         {
@@ -126,8 +136,9 @@ public class NodeEntityTest extends EntityTest
 
             source.getDegree( relationshipType, Direction.INCOMING );
 
+            // node and group records, plus the counts store tree page holding the degree which is unpinned when the seek is done
             assertThat( cursorTracer.hits() ).isEqualTo( 3 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 0 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 1 );
             assertThat( cursorTracer.pins() ).isEqualTo( 3 );
         }
     }
@@ -513,6 +524,18 @@ public class NodeEntityTest extends EntityTest
         }
     }
 
+    private void forceCheckpoint()
+    {
+        try
+        {
+            ((GraphDatabaseAPI) db).getDependencyResolver().resolveDependency( CheckPointer.class ).forceCheckPoint( new SimpleTriggerInfo( "test" ) );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     private void assertZeroTracer( PageCursorTracer cursorTracer )
     {
         assertThat( cursorTracer.hits() ).isZero();
@@ -421,6 +421,58 @@ public abstract class NodeTransactionStateTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    void shouldSeekPropertiesChangedInTransaction() throws Exception
+    {
+        // Given
+        long nodeId;
+        int[] propTokens = new int[50];
+        int missingToken;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            nodeId = tx.dataWrite().nodeCreate();
+            for ( int i = 0; i < propTokens.length; i++ )
+            {
+                propTokens[i] = tx.token().propertyKeyGetOrCreateForName( "seek" + i );
+                tx.dataWrite().nodeSetProperty( nodeId, propTokens[i], longValue( i ) );
+            }
+            missingToken = tx.token().propertyKeyGetOrCreateForName( "seekMissing" );
+            tx.commit();
+        }
+
+        // When/Then
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            tx.dataWrite().nodeRemoveProperty( nodeId, propTokens[40] );
+            tx.dataWrite().nodeSetProperty( nodeId, propTokens[30], stringValue( "changed" ) );
+            try ( NodeCursor node = tx.cursors().allocateNodeCursor( tx.pageCursorTracer() );
+                  PropertyCursor property = tx.cursors().allocatePropertyCursor( tx.pageCursorTracer(), tx.memoryTracker() ) )
+            {
+                tx.dataRead().singleNode( nodeId, node );
+                assertTrue( node.next(), "should access node" );
+
+                node.properties( property );
+                long pinsBefore = tx.pageCursorTracer().pins();
+                assertFalse( property.seekProperty( propTokens[40] ), "should not find property removed in transaction" );
+                assertEquals( pinsBefore, tx.pageCursorTracer().pins(), "should not read the property chain for a removed property" );
+                assertFalse( property.next() );
+
+                node.properties( property );
+                assertTrue( property.seekProperty( propTokens[30] ) );
+                assertEquals( stringValue( "changed" ), property.propertyValue() );
+
+                node.properties( property );
+                assertTrue( property.seekProperty( propTokens[45] ) );
+                assertEquals( longValue( 45 ), property.propertyValue() );
+
+                node.properties( property );
+                assertFalse( property.seekProperty( missingToken ) );
+            }
+
+            tx.commit();
+        }
+    }
+
     @Test
     void shouldSeeRemovedThenAddedPropertyInTransaction() throws Exception
     {
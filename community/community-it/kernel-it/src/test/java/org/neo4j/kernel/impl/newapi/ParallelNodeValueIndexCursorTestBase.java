@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.map.primitive.LongIntMap;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.internal.kernel.api.Write;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
+import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.values.storable.Values;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.constrained;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.newapi.TestUtils.assertDistinct;
+import static org.neo4j.kernel.impl.newapi.TestUtils.concat;
+import static org.neo4j.kernel.impl.newapi.TestUtils.partitionedWorker;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+public abstract class ParallelNodeValueIndexCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_NODES = 5000;
+    private static final int DESIRED_PARTITIONS = 8;
+    private static final String INDEX_NAME = "nodeProp";
+    private static final Label LABEL = Label.label( "Node" );
+    private static final String PROPERTY = "prop";
+    private static final ToLongFunction<NodeValueIndexCursor> NODE_GET = NodeValueIndexCursor::nodeReference;
+    private static LongIntMap NODE_VALUES;
+    private static int LABEL_ID;
+    private static int PROPERTY_ID;
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().indexFor( LABEL ).on( PROPERTY ).withName( INDEX_NAME ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, MINUTES );
+        }
+
+        MutableLongIntMap nodeValues = LongIntMaps.mutable.empty();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < NUMBER_OF_NODES; i++ )
+            {
+                nodeValues.put( tx.createNode( LABEL ).getId(), i );
+            }
+            nodeValues.forEachKeyValue( ( node, value ) -> tx.getNodeById( node ).setProperty( PROPERTY, value ) );
+            TokenRead tokenRead = ((InternalTransaction) tx).kernelTransaction().tokenRead();
+            LABEL_ID = tokenRead.nodeLabel( LABEL.name() );
+            PROPERTY_ID = tokenRead.propertyKey( PROPERTY );
+            tx.commit();
+        }
+        NODE_VALUES = nodeValues;
+    }
+
+    @Test
+    void shouldScanAllNodesInPartitions() throws Exception
+    {
+        try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL, INSTANCE ) )
+        {
+            // when
+            PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( indexSession( read ), DESIRED_PARTITIONS, unconstrained() );
+            MutableLongSet found = LongSets.mutable.empty();
+            int partitions = 0;
+            while ( scan.reservePartition( nodes ) )
+            {
+                partitions++;
+                while ( nodes.next() )
+                {
+                    assertTrue( found.add( nodes.nodeReference() ) );
+                }
+            }
+
+            // then
+            assertThat( scan.getNumberOfPartitions() ).isGreaterThan( 1 ).isLessThanOrEqualTo( DESIRED_PARTITIONS );
+            assertEquals( scan.getNumberOfPartitions(), partitions );
+            assertEquals( NODE_VALUES.keySet(), found );
+            assertFalse( scan.reservePartition( nodes ) );
+        }
+    }
+
+    @Test
+    void shouldReturnValuesFromPartitionedSeek() throws Exception
+    {
+        try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL, INSTANCE ) )
+        {
+            // when
+            PartitionedScan<NodeValueIndexCursor> scan =
+                    read.nodeIndexSeek( indexSession( read ), DESIRED_PARTITIONS, unorderedValues(), IndexQuery.range( PROPERTY_ID, 100, true, 200, false ) );
+            int found = 0;
+            while ( scan.reservePartition( nodes ) )
+            {
+                while ( nodes.next() )
+                {
+                    // then
+                    assertTrue( nodes.hasValue() );
+                    assertEquals( Values.intValue( NODE_VALUES.get( nodes.nodeReference() ) ), nodes.propertyValue( 0 ) );
+                    found++;
+                }
+            }
+            assertEquals( 100, found );
+        }
+    }
+
+    @Test
+    void shouldSeekAllNodesInRangeFromMultipleThreads() throws Exception
+    {
+        // given
+        PartitionedScan<NodeValueIndexCursor> scan =
+                read.nodeIndexSeek( indexSession( read ), DESIRED_PARTITIONS, unconstrained(), IndexQuery.range( PROPERTY_ID, 1000, true, 4000, false ) );
+
+        // when
+        List<LongList> lists = seekFromMultipleThreads( scan, testSupport.kernelToTest().cursors() );
+
+        // then
+        assertDistinct( lists );
+        assertEquals( nodesWithValuesIn( 1000, 4000 ), LongSets.immutable.withAll( concat( lists ) ) );
+    }
+
+    @Test
+    void shouldSeeTransactionStateInExactlyOnePartition() throws Exception
+    {
+        // given
+        MutableLongSet expected = LongSets.mutable.withAll( nodesWithValuesIn( 1000, 4000 ) );
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            Write write = tx.dataWrite();
+            for ( int i = 0; i < 10; i++ )
+            {
+                long created = write.nodeCreate();
+                write.nodeAddLabel( created, LABEL_ID );
+                write.nodeSetProperty( created, PROPERTY_ID, Values.intValue( 1000 + i ) );
+                expected.add( created );
+            }
+            long deleted = expected.select( NODE_VALUES::containsKey ).longIterator().next();
+            write.nodeDelete( deleted );
+            expected.remove( deleted );
+            long changedAway = expected.select( NODE_VALUES::containsKey ).longIterator().next();
+            write.nodeSetProperty( changedAway, PROPERTY_ID, Values.intValue( -1 ) );
+            expected.remove( changedAway );
+            long changedInto = NODE_VALUES.keySet().select( node -> NODE_VALUES.get( node ) >= 4000 ).longIterator().next();
+            write.nodeSetProperty( changedInto, PROPERTY_ID, Values.intValue( 2000 ) );
+            expected.add( changedInto );
+
+            // when
+            Read read = tx.dataRead();
+            PartitionedScan<NodeValueIndexCursor> scan =
+                    read.nodeIndexSeek( indexSession( read ), DESIRED_PARTITIONS, unconstrained(), IndexQuery.range( PROPERTY_ID, 1000, true, 4000, false ) );
+            List<LongList> lists = seekFromMultipleThreads( scan, testSupport.kernelToTest().cursors() );
+
+            // then
+            assertDistinct( lists );
+            assertEquals( expected, LongSets.immutable.withAll( concat( lists ) ) );
+        }
+    }
+
+    @Test
+    void shouldNotSupportOrderedPartitionedSeeks() throws Exception
+    {
+        IndexReadSession index = indexSession( read );
+        assertThrows( IndexNotApplicableKernelException.class,
+                () -> read.nodeIndexScan( index, DESIRED_PARTITIONS, constrained( IndexOrder.ASCENDING, false ) ) );
+        assertThrows( IndexNotApplicableKernelException.class,
+                () -> read.nodeIndexSeek( index, DESIRED_PARTITIONS, unconstrained().limit( 10 ), IndexQuery.exists( PROPERTY_ID ) ) );
+    }
+
+    private List<LongList> seekFromMultipleThreads( PartitionedScan<NodeValueIndexCursor> scan, CursorFactory cursors ) throws InterruptedException
+    {
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( service.submit( partitionedWorker( scan, () -> cursors.allocateNodeValueIndexCursor( NULL, INSTANCE ), NODE_GET ) ) );
+            }
+            return futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    private IndexReadSession indexSession( Read read ) throws Exception
+    {
+        return read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+    }
+
+    private static LongSet nodesWithValuesIn( int from, int to )
+    {
+        return NODE_VALUES.keySet().select( node -> NODE_VALUES.get( node ) >= from && NODE_VALUES.get( node ) < to );
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
+import org.neo4j.internal.kernel.api.Scan;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.newapi.TestUtils.assertDistinct;
+import static org.neo4j.kernel.impl.newapi.TestUtils.concat;
+import static org.neo4j.kernel.impl.newapi.TestUtils.randomBatchWorker;
+import static org.neo4j.kernel.impl.newapi.TestUtils.singleBatchWorker;
+
+public abstract class ParallelRelationshipTypeIndexCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_RELATIONSHIPS = 1000;
+    private static int FOO_TYPE;
+    private static int BAR_TYPE;
+    private static LongSet FOO_RELATIONSHIPS;
+    private static LongSet BAR_RELATIONSHIPS;
+    private static final ToLongFunction<RelationshipTypeIndexCursor> REL_GET = RelationshipTypeIndexCursor::relationshipReference;
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        MutableLongSet fooRelationships = LongSets.mutable.empty();
+        MutableLongSet barRelationships = LongSets.mutable.empty();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            RelationshipType foo = RelationshipType.withName( "FOO" );
+            RelationshipType bar = RelationshipType.withName( "BAR" );
+            for ( int i = 0; i < NUMBER_OF_RELATIONSHIPS; i++ )
+            {
+                RelationshipType type = i % 2 == 0 ? foo : bar;
+                long relationship = tx.createNode().createRelationshipTo( tx.createNode(), type ).getId();
+                (type == foo ? fooRelationships : barRelationships).add( relationship );
+            }
+            TokenRead tokenRead = ((InternalTransaction) tx).kernelTransaction().tokenRead();
+            FOO_TYPE = tokenRead.relationshipType( foo.name() );
+            BAR_TYPE = tokenRead.relationshipType( bar.name() );
+            tx.commit();
+        }
+        FOO_RELATIONSHIPS = fooRelationships;
+        BAR_RELATIONSHIPS = barRelationships;
+    }
+
+    @Test
+    void shouldScanASubsetOfRelationships()
+    {
+        try ( RelationshipTypeIndexCursor relationships = cursors.allocateRelationshipTypeIndexCursor() )
+        {
+            // when
+            Scan<RelationshipTypeIndexCursor> scan = read.relationshipTypeScan( FOO_TYPE );
+            assertTrue( scan.reserveBatch( relationships, 11 ) );
+
+            MutableLongList found = LongLists.mutable.empty();
+            while ( relationships.next() )
+            {
+                found.add( relationships.relationshipReference() );
+            }
+
+            // then
+            assertThat( found.size() ).isGreaterThan( 0 );
+            assertTrue( FOO_RELATIONSHIPS.containsAll( found ) );
+            assertTrue( found.noneSatisfy( BAR_RELATIONSHIPS::contains ) );
+        }
+    }
+
+    @Test
+    void shouldHandleSizeHintOverflow()
+    {
+        try ( RelationshipTypeIndexCursor relationships = cursors.allocateRelationshipTypeIndexCursor() )
+        {
+            // when
+            Scan<RelationshipTypeIndexCursor> scan = read.relationshipTypeScan( BAR_TYPE );
+            assertTrue( scan.reserveBatch( relationships, NUMBER_OF_RELATIONSHIPS * 2 ) );
+
+            MutableLongList ids = LongLists.mutable.empty();
+            while ( relationships.next() )
+            {
+                ids.add( relationships.relationshipReference() );
+            }
+
+            // then
+            assertEquals( BAR_RELATIONSHIPS, LongSets.immutable.withAll( ids ) );
+            assertEquals( BAR_RELATIONSHIPS.size(), ids.size() );
+        }
+    }
+
+    @Test
+    void shouldFailForSizeHintZero()
+    {
+        try ( RelationshipTypeIndexCursor relationships = cursors.allocateRelationshipTypeIndexCursor() )
+        {
+            // given
+            Scan<RelationshipTypeIndexCursor> scan = read.relationshipTypeScan( FOO_TYPE );
+
+            // when
+            assertThrows( IllegalArgumentException.class, () -> scan.reserveBatch( relationships, 0 ) );
+        }
+    }
+
+    @Test
+    void shouldScanAllRelationshipsInBatches()
+    {
+        try ( RelationshipTypeIndexCursor relationships = cursors.allocateRelationshipTypeIndexCursor() )
+        {
+            // when
+            Scan<RelationshipTypeIndexCursor> scan = read.relationshipTypeScan( FOO_TYPE );
+            MutableLongList ids = LongLists.mutable.empty();
+            while ( scan.reserveBatch( relationships, 3 ) )
+            {
+                while ( relationships.next() )
+                {
+                    ids.add( relationships.relationshipReference() );
+                }
+            }
+
+            // then
+            assertEquals( FOO_RELATIONSHIPS.size(), ids.size() );
+            assertEquals( FOO_RELATIONSHIPS, LongSets.immutable.withAll( ids ) );
+        }
+    }
+
+    @Test
+    void shouldScanAllRelationshipsFromMultipleThreads() throws InterruptedException, ExecutionException
+    {
+        // given
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        Scan<RelationshipTypeIndexCursor> scan = read.relationshipTypeScan( BAR_TYPE );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        try
+        {
+            // when
+            Supplier<RelationshipTypeIndexCursor> allocateCursor = cursors::allocateRelationshipTypeIndexCursor;
+            Future<LongList> future1 = service.submit( singleBatchWorker( scan, allocateCursor, REL_GET, NUMBER_OF_RELATIONSHIPS ) );
+            Future<LongList> future2 = service.submit( singleBatchWorker( scan, allocateCursor, REL_GET, NUMBER_OF_RELATIONSHIPS ) );
+            Future<LongList> future3 = service.submit( singleBatchWorker( scan, allocateCursor, REL_GET, NUMBER_OF_RELATIONSHIPS ) );
+            Future<LongList> future4 = service.submit( singleBatchWorker( scan, allocateCursor, REL_GET, NUMBER_OF_RELATIONSHIPS ) );
+
+            // then
+            LongList ids1 = future1.get();
+            LongList ids2 = future2.get();
+            LongList ids3 = future3.get();
+            LongList ids4 = future4.get();
+
+            assertDistinct( ids1, ids2, ids3, ids4 );
+            assertEquals( BAR_RELATIONSHIPS, LongSets.immutable.withAll( concat( ids1, ids2, ids3, ids4 ) ) );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    @Test
+    void shouldScanAllRelationshipsFromRandomlySizedWorkers() throws InterruptedException
+    {
+        // given
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        Scan<RelationshipTypeIndexCursor> scan = read.relationshipTypeScan( FOO_TYPE );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        try
+        {
+            // when
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < 10; i++ )
+            {
+                futures.add( service.submit( randomBatchWorker( scan, cursors::allocateRelationshipTypeIndexCursor, REL_GET ) ) );
+            }
+
+            // then
+            List<LongList> lists = futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+
+            assertDistinct( lists );
+            assertEquals( FOO_RELATIONSHIPS, LongSets.immutable.withAll( concat( lists ) ) );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+}
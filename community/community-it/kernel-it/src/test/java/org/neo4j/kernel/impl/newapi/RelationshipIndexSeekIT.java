@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
+import org.neo4j.internal.kernel.api.RelationshipValueIndexCursor;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.internal.kernel.api.IndexQuery.exact;
+import static org.neo4j.internal.kernel.api.IndexQuery.range;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+
+@DbmsExtension
+class RelationshipIndexSeekIT
+{
+    @Inject
+    private GraphDatabaseAPI database;
+
+    private final Label label = Label.label( "marker" );
+    private final RelationshipType type = RelationshipType.withName( "type" );
+    private final RelationshipType otherType = RelationshipType.withName( "otherType" );
+    private final String property = "property";
+    private final String indexName = "relIndex";
+
+    @BeforeEach
+    void createIndex() throws KernelException
+    {
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            KernelTransaction ktx = tx.kernelTransaction();
+            int typeId = ktx.tokenWrite().relationshipTypeGetOrCreateForName( type.name() );
+            int propertyId = ktx.tokenWrite().propertyKeyGetOrCreateForName( property );
+            ktx.schemaWrite().indexCreate( SchemaDescriptor.forRelType( typeId, propertyId ), indexName );
+            tx.commit();
+        }
+        try ( Transaction tx = database.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, MINUTES );
+        }
+    }
+
+    @Test
+    void shouldSeekCommittedRelationships() throws KernelException
+    {
+        // given
+        long first = createRelationship( type, "abc" );
+        createRelationship( type, "xyz" );
+        createRelationship( otherType, "abc" );
+
+        // then
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            assertThat( seek( tx, propertyId -> exact( propertyId, "abc" ) ) ).isEqualTo( LongHashSet.newSetWith( first ) );
+        }
+    }
+
+    @Test
+    void shouldSeeChangesInTransactionState() throws KernelException
+    {
+        // given
+        long deleted = createRelationship( type, "abc" );
+        long changed = createRelationship( type, "xyz" );
+        long changedAway = createRelationship( type, "abc" );
+        long untouched = createRelationship( type, "abc" );
+
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            // when
+            tx.getRelationshipById( deleted ).delete();
+            tx.getRelationshipById( changed ).setProperty( property, "abc" );
+            tx.getRelationshipById( changedAway ).setProperty( property, "xyz" );
+            long created = createRelationship( tx, type, "abc" );
+            createRelationship( tx, type, "def" );
+            createRelationship( tx, otherType, "abc" );
+
+            // then
+            assertThat( seek( tx, propertyId -> exact( propertyId, "abc" ) ) ).isEqualTo( LongHashSet.newSetWith( changed, untouched, created ) );
+        }
+    }
+
+    @Test
+    void shouldSeeChangesInTransactionStateForRangeSeek() throws KernelException
+    {
+        // given
+        long removedProperty = createRelationship( type, "b" );
+        long changedOutOfRange = createRelationship( type, "c" );
+        long changedIntoRange = createRelationship( type, "x" );
+        long untouched = createRelationship( type, "d" );
+
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            // when
+            tx.getRelationshipById( removedProperty ).removeProperty( property );
+            tx.getRelationshipById( changedOutOfRange ).setProperty( property, "y" );
+            tx.getRelationshipById( changedIntoRange ).setProperty( property, "a" );
+            long created = createRelationship( tx, type, "e" );
+            Relationship addedProperty = tx.getRelationshipById( createRelationship( tx, type, "z" ) );
+            addedProperty.removeProperty( property );
+            addedProperty.setProperty( property, "c" );
+
+            // then
+            assertThat( seek( tx, propertyId -> range( propertyId, "a", true, "m", false ) ) )
+                    .isEqualTo( LongHashSet.newSetWith( changedIntoRange, untouched, created, addedProperty.getId() ) );
+            assertThat( seek( tx, IndexQuery::exists ) )
+                    .isEqualTo( LongHashSet.newSetWith( changedOutOfRange, changedIntoRange, untouched, created, addedProperty.getId() ) );
+        }
+    }
+
+    @Test
+    void shouldReturnValuesOfCommittedAndTransactionStateRelationships() throws KernelException
+    {
+        // given
+        long committed = createRelationship( type, "abc" );
+        long changed = createRelationship( type, "xyz" );
+
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            // when
+            tx.getRelationshipById( changed ).setProperty( property, "def" );
+            long created = createRelationship( tx, type, "ghi" );
+
+            // then
+            Map<Long,Value> expected = new HashMap<>();
+            expected.put( committed, Values.stringValue( "abc" ) );
+            expected.put( changed, Values.stringValue( "def" ) );
+            expected.put( created, Values.stringValue( "ghi" ) );
+            assertThat( seekValues( tx, IndexQuery::exists ) ).isEqualTo( expected );
+            assertThat( seekValues( tx, propertyId -> exact( propertyId, "def" ) ) ).isEqualTo( Map.of( changed, Values.stringValue( "def" ) ) );
+            assertThat( seekValues( tx, propertyId -> range( propertyId, "ab", true, "ghi", false ) ) )
+                    .isEqualTo( Map.of( committed, Values.stringValue( "abc" ), changed, Values.stringValue( "def" ) ) );
+        }
+    }
+
+    @Test
+    void shouldTrackTypeAndEndNodesOfRelationships() throws KernelException
+    {
+        // given
+        long committed = createRelationship( type, "abc" );
+
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            long created = createRelationship( tx, type, "abc" );
+            KernelTransaction ktx = tx.kernelTransaction();
+            IndexDescriptor index = ktx.schemaRead().indexGetForName( indexName );
+            int typeId = ktx.tokenRead().relationshipType( type.name() );
+            int propertyId = ktx.tokenRead().propertyKey( property );
+
+            // when
+            MutableLongSet found = new LongHashSet();
+            try ( RelationshipIndexCursor cursor = ktx.cursors().allocateRelationshipIndexCursor( ktx.pageCursorTracer() ) )
+            {
+                ktx.dataRead().relationshipIndexSeek( index, cursor, unconstrained(), exact( propertyId, "abc" ) );
+                while ( cursor.next() )
+                {
+                    // then
+                    Relationship relationship = tx.getRelationshipById( cursor.relationshipReference() );
+                    assertThat( cursor.type() ).isEqualTo( typeId );
+                    assertThat( cursor.sourceNodeReference() ).isEqualTo( relationship.getStartNode().getId() );
+                    assertThat( cursor.targetNodeReference() ).isEqualTo( relationship.getEndNode().getId() );
+                    found.add( cursor.relationshipReference() );
+                }
+            }
+            assertThat( found ).isEqualTo( LongHashSet.newSetWith( committed, created ) );
+        }
+    }
+
+    @Test
+    void shouldFilterLossyNumberValuesOnRelationships() throws KernelException
+    {
+        // given
+        long inRange = createRelationship( type, 10.5 );
+        createRelationship( type, 20.5 );
+
+        // then
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            assertThat( seek( tx, propertyId -> range( propertyId, 10.0, true, 11.0, true ) ) ).isEqualTo( LongHashSet.newSetWith( inRange ) );
+        }
+    }
+
+    @Test
+    void shouldSeekRelationshipsInPartitions() throws KernelException
+    {
+        // given
+        MutableLongSet expected = new LongHashSet();
+        for ( int i = 0; i < 100; i++ )
+        {
+            expected.add( createRelationship( type, "abc" + i ) );
+        }
+        long deleted = createRelationship( type, "abc" );
+
+        try ( InternalTransaction tx = (InternalTransaction) database.beginTx() )
+        {
+            tx.getRelationshipById( deleted ).delete();
+            expected.add( createRelationship( tx, type, "abcd" ) );
+            KernelTransaction ktx = tx.kernelTransaction();
+            IndexDescriptor index = ktx.schemaRead().indexGetForName( indexName );
+            int propertyId = ktx.tokenRead().propertyKey( property );
+
+            // when
+            PartitionedScan<RelationshipValueIndexCursor> scan =
+                    ktx.dataRead().relationshipIndexSeek( index, 4, unconstrained(), IndexQuery.stringPrefix( propertyId, Values.stringValue( "abc" ) ) );
+            MutableLongSet found = new LongHashSet();
+            try ( RelationshipValueIndexCursor cursor = ktx.cursors().allocateRelationshipIndexCursor( ktx.pageCursorTracer() ) )
+            {
+                while ( scan.reservePartition( cursor ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        assertThat( found.add( cursor.relationshipReference() ) ).isTrue();
+                    }
+                }
+            }
+
+            // then
+            assertThat( found ).isEqualTo( expected );
+        }
+    }
+
+    private MutableLongSet seek( InternalTransaction tx, IntFunction<IndexQuery> query ) throws KernelException
+    {
+        KernelTransaction ktx = tx.kernelTransaction();
+        IndexDescriptor index = ktx.schemaRead().indexGetForName( indexName );
+        int propertyId = ktx.tokenRead().propertyKey( property );
+        MutableLongSet result = new LongHashSet();
+        try ( RelationshipIndexCursor cursor = ktx.cursors().allocateRelationshipIndexCursor( ktx.pageCursorTracer() ) )
+        {
+            ktx.dataRead().relationshipIndexSeek( index, cursor, unconstrained(), query.apply( propertyId ) );
+            while ( cursor.next() )
+            {
+                assertThat( result.add( cursor.relationshipReference() ) ).isTrue();
+            }
+        }
+        return result;
+    }
+
+    private Map<Long,Value> seekValues( InternalTransaction tx, IntFunction<IndexQuery> query ) throws KernelException
+    {
+        KernelTransaction ktx = tx.kernelTransaction();
+        IndexDescriptor index = ktx.schemaRead().indexGetForName( indexName );
+        int propertyId = ktx.tokenRead().propertyKey( property );
+        Map<Long,Value> result = new HashMap<>();
+        try ( RelationshipValueIndexCursor cursor = ktx.cursors().allocateRelationshipIndexCursor( ktx.pageCursorTracer() ) )
+        {
+            ktx.dataRead().relationshipIndexSeek( index, cursor, unorderedValues(), query.apply( propertyId ) );
+            while ( cursor.next() )
+            {
+                assertThat( cursor.hasValue() ).isTrue();
+                assertThat( cursor.numberOfProperties() ).isEqualTo( 1 );
+                assertThat( cursor.propertyKey( 0 ) ).isEqualTo( propertyId );
+                assertThat( result.put( cursor.relationshipReference(), cursor.propertyValue( 0 ) ) ).isNull();
+            }
+        }
+        return result;
+    }
+
+    private long createRelationship( RelationshipType relationshipType, Object value )
+    {
+        try ( Transaction tx = database.beginTx() )
+        {
+            long id = createRelationship( tx, relationshipType, value );
+            tx.commit();
+            return id;
+        }
+    }
+
+    private long createRelationship( Transaction tx, RelationshipType relationshipType, Object value )
+    {
+        Node source = tx.createNode( label );
+        Relationship relationship = source.createRelationshipTo( tx.createNode( label ), relationshipType );
+        relationship.setProperty( property, value );
+        return relationship.getId();
+    }
+}
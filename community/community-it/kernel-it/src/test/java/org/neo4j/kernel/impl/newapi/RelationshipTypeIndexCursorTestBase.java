@@ -20,16 +20,20 @@
 package org.neo4j.kernel.impl.newapi;
 
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import org.junit.jupiter.api.Test;
 
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.Read;
 import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
+import org.neo4j.internal.kernel.api.Scan;
 import org.neo4j.internal.kernel.api.Write;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.impl.newapi.TestKernelReadTracer.TraceEvent;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.kernel.impl.newapi.IndexReadAsserts.assertRelationshipCount;
 import static org.neo4j.kernel.impl.newapi.IndexReadAsserts.assertRelationships;
 import static org.neo4j.kernel.impl.newapi.TestKernelReadTracer.TraceEventKind.Relationship;
@@ -130,6 +134,49 @@ abstract class RelationshipTypeIndexCursorTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    void shouldFindRelationshipsByTypeInTxWhenScanningInBatches() throws KernelException
+    {
+        long inStore;
+        long deletedInTx;
+        long createdInTx;
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            inStore = createRelationship( tx.dataWrite(), typeOne );
+            createRelationship( tx.dataWrite(), typeTwo );
+            deletedInTx = createRelationship( tx.dataWrite(), typeOne );
+            tx.commit();
+        }
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            tx.dataWrite().relationshipDelete( deletedInTx );
+            createdInTx = createRelationship( tx.dataWrite(), typeOne );
+
+            createRelationship( tx.dataWrite(), typeTwo );
+
+            Scan<RelationshipTypeIndexCursor> scan = tx.dataRead().relationshipTypeScan( typeOne );
+
+            try ( RelationshipTypeIndexCursor cursor = tx.cursors().allocateRelationshipTypeIndexCursor() )
+            {
+                MutableLongSet found = new LongHashSet();
+
+                // when
+                while ( scan.reserveBatch( cursor, 1 ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        assertTrue( found.add( cursor.relationshipReference() ) );
+                    }
+                }
+
+                // then
+                assertEquals( LongSets.immutable.of( inStore, createdInTx ), found );
+            }
+        }
+    }
+
     @Test
     void shouldTraceRelationshipTypeScanEvents() throws KernelException
     {
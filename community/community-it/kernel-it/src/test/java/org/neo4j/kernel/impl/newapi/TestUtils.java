@@ -38,6 +38,7 @@ import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
 
 import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
 import org.neo4j.internal.kernel.api.Scan;
 
 import static java.lang.String.format;
@@ -115,6 +116,25 @@ final class TestUtils
         };
     }
 
+    static <T extends Cursor> Callable<LongList> partitionedWorker( PartitionedScan<T> scan, Supplier<T> supplier, ToLongFunction<T> producer )
+    {
+        return () -> {
+            try ( T cursor = supplier.get() )
+            {
+                LongArrayList partitions = new LongArrayList();
+                while ( scan.reservePartition( cursor ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        partitions.add( producer.applyAsLong( cursor ) );
+                    }
+                }
+
+                return partitions;
+            }
+        };
+    }
+
     static <T> T unsafeGet( Future<T> future )
     {
         try
@@ -385,8 +385,8 @@ class CountsComputerTest
             int highLabelId = (int) neoStores.getLabelTokenStore().getHighId();
             int highRelationshipTypeId = (int) neoStores.getRelationshipTypeTokenStore().getHighId();
             CountsComputer countsComputer = new CountsComputer(
-                    lastCommittedTransactionId, nodeStore, relationshipStore, highLabelId, highRelationshipTypeId, NumberArrayFactory.AUTO_WITHOUT_PAGECACHE,
-                    databaseLayout, progressReporter, PageCacheTracer.NULL, INSTANCE );
+                    lastCommittedTransactionId, nodeStore, relationshipStore, neoStores.getRelationshipGroupStore(), highLabelId, highRelationshipTypeId,
+                    NumberArrayFactory.AUTO_WITHOUT_PAGECACHE, databaseLayout, progressReporter, PageCacheTracer.NULL, INSTANCE );
             try ( GBPTreeCountsStore countsStore = createCountsStore( countsComputer ) )
             {
                 countsStore.start( NULL, INSTANCE );
@@ -27,6 +27,7 @@ import java.util.Set;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.recordstorage.DirectRecordAccessSet;
@@ -94,7 +95,7 @@ class RelationshipCreatorTest
 
         // WHEN
         relationshipCreator.relationshipCreate( idGeneratorFactory.get( IdType.RELATIONSHIP ).nextId( NULL ), 0,
-                nodeId, nodeId, tracker, tracker );
+                nodeId, nodeId, tracker, RelationshipGroupDegreesStore.NO_OP_UPDATER, tracker );
 
         // THEN
         assertEquals( tracker.relationshipLocksAcquired.size(), tracker.changedRelationships.size() );
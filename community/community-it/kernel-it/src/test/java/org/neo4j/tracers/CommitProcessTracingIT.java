@@ -45,6 +45,7 @@ import static java.util.Collections.emptyList;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_BYTE_ARRAY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.neo4j.internal.kernel.api.security.AuthSubject.ANONYMOUS;
+import static org.neo4j.kernel.impl.transaction.log.entry.TransactionLogVersionSelector.LATEST;
 import static org.neo4j.kernel.impl.transaction.tracing.CommitEvent.NULL;
 import static org.neo4j.lock.ResourceLocker.IGNORE;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
@@ -81,7 +82,7 @@ public class CommitProcessTracingIT
             var txState = new TxState();
             txState.nodeDoAddLabel( 1, sourceId );
 
-            storageEngine.createCommands( commands, txState, reader, context, IGNORE, 0, NO_DECORATION, cursorTracer, INSTANCE );
+            storageEngine.createCommands( commands, txState, reader, context, IGNORE, 0, LATEST.versionByte(), NO_DECORATION, cursorTracer, INSTANCE );
 
             assertCursor( cursorTracer, 1 );
         }
@@ -113,6 +113,7 @@ import static org.neo4j.internal.kernel.api.security.AuthSubject.ANONYMOUS;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
 import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.selectForConfig;
 import static org.neo4j.kernel.impl.store.format.standard.Standard.LATEST_RECORD_FORMATS;
+import static org.neo4j.kernel.impl.transaction.log.entry.TransactionLogVersionSelector.LATEST;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
 import static org.neo4j.token.api.TokenConstants.ANY_LABEL;
@@ -430,7 +431,8 @@ class BatchingNeoStoresTest
         List<StorageCommand> commands = new ArrayList<>();
         try ( RecordStorageReader storageReader = storageEngine.newReader() )
         {
-            storageEngine.createCommands( commands, txState, storageReader, commandCreationContext, ResourceLocker.IGNORE, BASE_TX_ID, v -> v, NULL, INSTANCE );
+            storageEngine.createCommands( commands, txState, storageReader, commandCreationContext, ResourceLocker.IGNORE, BASE_TX_ID, LATEST.versionByte(),
+                    v -> v, NULL, INSTANCE );
             CommandsToApply apply = new TransactionToApply( new PhysicalTransactionRepresentation( commands, new byte[0], 0, 0, 0, 0, ANONYMOUS ), NULL );
             storageEngine.apply( apply, TransactionApplicationMode.INTERNAL );
         }
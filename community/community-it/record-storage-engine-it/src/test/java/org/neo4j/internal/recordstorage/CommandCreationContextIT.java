@@ -101,7 +101,7 @@ public class CommandCreationContextIT
         try ( var commandCreationContext = storageEngine.newCommandCreationContext( NULL, memoryTracker ) )
         {
             var integrityValidator = mock( IntegrityValidator.class );
-            var recordState = commandCreationContext.createTransactionRecordState( integrityValidator, 1, IGNORE );
+            var recordState = commandCreationContext.createTransactionRecordState( integrityValidator, 1, IGNORE, true, true, true, true );
             long heapBefore = memoryTracker.estimatedHeapMemory();
             for ( int i = 1; i < 1024; i++ )
             {
@@ -62,6 +62,7 @@ import static org.neo4j.graphdb.Label.label;
 import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
 import static org.neo4j.internal.schema.SchemaDescriptor.forRelType;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.transaction.log.entry.TransactionLogVersionSelector.LATEST;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 /**
@@ -271,7 +272,8 @@ public abstract class RecordStorageReaderTestBase
     {
         List<StorageCommand> commands = new ArrayList<>();
         long txId = nextTxId.incrementAndGet();
-        storageEngine.createCommands( commands, txState, commitReader, commitContext, IGNORE_LOCKING, txId, state -> state, NULL, INSTANCE );
+        storageEngine.createCommands( commands, txState, commitReader, commitContext, IGNORE_LOCKING, txId, LATEST.versionByte(), state -> state, NULL,
+                INSTANCE );
         storageEngine.apply( new GroupOfCommands( txId, commands.toArray( new StorageCommand[0] ) ), TransactionApplicationMode.EXTERNAL );
     }
 
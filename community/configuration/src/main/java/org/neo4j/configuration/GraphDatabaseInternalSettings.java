@@ -147,6 +147,33 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Long> cypher_idp_solver_duration_threshold =
             newBuilder( "unsupported.cypher.idp_solver_duration_threshold", LONG, 1000L ).addConstraint( min( 10L ) ).build();
 
+    @Internal
+    @Description( "To bound IDP query planning time, we can restrict the total time spent planning one connected component " +
+            "of a pattern. Once the budget is spent, the planner degrades to greedily joining the cheapest pair of sub-plans " +
+            "at a time, which is fast but more likely to produce sub-optimal plans." )
+    public static final Setting<Long> cypher_idp_solver_planning_budget =
+            newBuilder( "unsupported.cypher.idp_solver_planning_budget", LONG, 10000L ).addConstraint( min( 10L ) ).build();
+
+    @Internal
+    @Description( "The number of threads used to cost estimate the candidate plans of the IDP query planner. The candidate " +
+            "plans are still generated by the planning thread, and the resulting plan does not depend on this setting." )
+    public static final Setting<Integer> cypher_idp_solver_parallelism =
+            newBuilder( "unsupported.cypher.idp_solver_parallelism", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "A cached plan is replanned if one of its operators produces more rows than the planner estimated " +
+            "times this factor, or fewer rows than the estimate divided by this factor. The rows that were observed are " +
+            "then used instead of the estimates when the query is replanned. Counting the rows of every operator adds " +
+            "work to each row, so this is disabled by default. Setting this to 0 disables the comparison." )
+    public static final Setting<Double> cypher_misestimation_replan_factor =
+            newBuilder( "unsupported.cypher.misestimation_replan_factor", DOUBLE, 0.0 ).addConstraint( min( 0.0 ) ).build();
+
+    @Internal
+    @Description( "Misestimated cardinalities are only considered for replanning if either the estimated or the actual " +
+            "number of rows of the operator is at least this large. See unsupported.cypher.misestimation_replan_factor." )
+    public static final Setting<Long> cypher_misestimation_replan_min_rows =
+            newBuilder( "unsupported.cypher.misestimation_replan_min_rows", LONG, 10000L ).addConstraint( min( 1L ) ).build();
+
     @Internal
     @Description( "Large databases might change slowly, and to prevent queries from never being replanned " +
             "the divergence threshold set by cypher.statistics_divergence_threshold is configured to " +
@@ -206,6 +233,40 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
                   " for every physical core in the system. If set to -1, no workers will be started and the parallel runtime cannot be used." )
     public static final Setting<Integer> cypher_worker_count = newBuilder( "unsupported.cypher.number_of_workers", INT, 0 ).build();
 
+    @Internal
+    @Description( "The estimated heap size an ORDER BY or grouping aggregation may use before it starts writing its rows to disk. " +
+                  "A value of 0 disables spilling to disk." )
+    public static final Setting<Long> cypher_spill_threshold =
+            newBuilder( "unsupported.cypher.spill_to_disk_threshold", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Directory for the temporary files of ORDER BY and grouping aggregations that spill to disk." )
+    public static final Setting<Path> cypher_spill_directory =
+            newBuilder( "unsupported.cypher.spill_to_disk_directory", PATH, Path.of( "cypher-spill" ) )
+                    .setDependency( GraphDatabaseSettings.data_directory )
+                    .immutable()
+                    .build();
+
+    @Internal
+    @Description( "Build the tables of node hash joins and of distinct over a single node in off-heap memory. The tables share the " +
+                  "off-heap memory of transaction state, so they are only used when dbms.tx_state.memory_allocation is OFF_HEAP." )
+    public static final Setting<Boolean> cypher_off_heap_hash_tables =
+            newBuilder( "unsupported.cypher.off_heap_hash_tables", BOOL, true ).build();
+
+    @Internal
+    @Description( "Keep a record of the queries in the query cache on disk, and compile them into the query cache again when the " +
+                  "database starts, so that they do not all have to be planned on their first execution after a restart." )
+    public static final Setting<Boolean> cypher_persistent_query_cache =
+            newBuilder( "unsupported.cypher.persistent_query_cache", BOOL, false ).build();
+
+    @Internal
+    @Description( "Directory where the persistent query cache keeps one file per database." )
+    public static final Setting<Path> cypher_persistent_query_cache_directory =
+            newBuilder( "unsupported.cypher.persistent_query_cache_directory", PATH, Path.of( "query-cache" ) )
+                    .setDependency( GraphDatabaseSettings.data_directory )
+                    .immutable()
+                    .build();
+
     public enum CypherOperatorEngine
     {
         COMPILED,
@@ -527,4 +588,23 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     @Description( "Whether or not to dump system and database diagnostics. This takes a non-negligible amount of time to do and therefore " +
             "test databases can disable this to reduce startup times" )
     public static final Setting<Boolean> dump_diagnostics = newBuilder( "unsupported.dbms.dump_diagnostics", BOOL, Boolean.TRUE ).build();
+
+    @Internal
+    @Description( "Whether or not to sample the relationship chains of the record store for the database diagnostics. Sampling follows " +
+            "chains through random store pages and delays the start of the database, so it is only done when this is enabled." )
+    public static final Setting<Boolean> relationship_chain_locality_diagnostics =
+            newBuilder( "unsupported.dbms.diagnostics.relationship_chain_locality", BOOL, Boolean.FALSE ).build();
+
+    @Internal
+    @Description( "Interval between runs of the background job that compacts the relationships of dense nodes, so that expanding them " +
+            "touches fewer store pages. Each run visits the next batch of nodes and compacts them in ordinary transactions. " +
+            "The job is disabled when this is 0." )
+    public static final Setting<Duration> relationship_compaction_interval =
+            newBuilder( "unsupported.dbms.relationship_compaction.interval", DURATION, Duration.ZERO ).build();
+
+    @Internal
+    @Description( "Number of node ids the relationship compaction job visits in every run, which bounds the work and the size of the " +
+            "transaction of each run." )
+    public static final Setting<Integer> relationship_compaction_batch_size =
+            newBuilder( "unsupported.dbms.relationship_compaction.batch_size", INT, 1000 ).addConstraint( min( 1 ) ).build();
 }
@@ -70,6 +70,7 @@ import org.neo4j.memory.MemoryTracker;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.experimental_consistency_checker;
 import static org.neo4j.consistency.report.ConsistencyReporter.NO_MONITOR;
+import static org.neo4j.kernel.impl.store.format.RecordStorageCapability.INLINED_NODE_PROPERTIES;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
 
 public class FullCheck
@@ -174,6 +175,12 @@ public class FullCheck
 
             if ( !useExperimentalChecker )
             {
+                if ( directStoreAccess.nativeStores().getRawNeoStores().getRecordFormats().hasCapability( INLINED_NODE_PROPERTIES ) )
+                {
+                    // The checks of this checker only know about property chains, so they would miss properties inlined in node records
+                    throw new UnsupportedOperationException( "Stores with properties inlined in node records can only be checked by the checker " +
+                            "enabled with " + experimental_consistency_checker.name() );
+                }
                 CacheAccess cacheAccess = new DefaultCacheAccess(
                         DefaultCacheAccess.defaultByteArray( directStoreAccess.nativeStores().getNodeStore().getHighId(), memoryTracker ),
                         statistics.getCounts(), threads );
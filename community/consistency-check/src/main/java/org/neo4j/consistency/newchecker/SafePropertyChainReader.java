@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -65,6 +66,7 @@ class SafePropertyChainReader implements AutoCloseable
     private final ConsistencyReport.Reporter reporter;
     private final CheckerContext context;
     private final NeoStores neoStores;
+    private final PropertyRecord inlinedProperties = new PropertyRecord( NULL_REFERENCE.longValue() );
 
     SafePropertyChainReader( CheckerContext context, PageCursorTracer cursorTracer )
     {
@@ -89,6 +91,17 @@ class SafePropertyChainReader implements AutoCloseable
         long propertyRecordId = entity.getNextProp();
         long previousRecordId = NULL_REFERENCE.longValue();
         boolean chainIsOk = true;
+        if ( entity instanceof NodeRecord && ((NodeRecord) entity).hasInlinedProperties() )
+        {
+            // The inlined properties of a node come before its property chain, so read them as a property record in front of the chain
+            inlinedProperties.initialize( true, NULL_REFERENCE.longValue(), propertyRecordId );
+            inlinedProperties.setNodeId( entity.getId() );
+            for ( long block : ((NodeRecord) entity).getInlinedPropertyBlocks() )
+            {
+                inlinedProperties.addLoadedBlock( block );
+            }
+            chainIsOk = readBlocks( intoValues, inlinedProperties, entity, primitiveReporter, cursorTracer );
+        }
         while ( !NULL_REFERENCE.is( propertyRecordId ) && !context.isCancelled() )
         {
             if ( !seenRecords.add( propertyRecordId ) )
@@ -121,76 +134,87 @@ class SafePropertyChainReader implements AutoCloseable
                     chainIsOk = false;
                 }
 
-                for ( PropertyBlock block : propertyRecord )
+                if ( !readBlocks( intoValues, propertyRecord, entity, primitiveReporter, cursorTracer ) )
                 {
-                    int propertyKeyId = block.getKeyIndexId();
-                    if ( !checkValidToken( propertyRecord, propertyKeyId, context.tokenHolders.propertyKeyTokens(), neoStores.getPropertyKeyTokenStore(),
-                            ( property, token ) -> reporter.forProperty( property ).invalidPropertyKey( block ),
-                            ( property, token ) -> reporter.forProperty( property ).keyNotInUse( block, token ), cursorTracer ) )
-                    {
-                        chainIsOk = false;
-                    }
-                    PropertyType type = block.forceGetType();
-                    Value value = Values.NO_VALUE;
-                    if ( type == null )
-                    {
-                        reporter.forProperty( propertyRecord ).invalidPropertyType( block );
-                    }
-                    else
+                    chainIsOk = false;
+                }
+            }
+            previousRecordId = propertyRecordId;
+            propertyRecordId = propertyRecord.getNextProp();
+        }
+        return chainIsOk;
+    }
+
+    private <PRIMITIVE extends PrimitiveRecord> boolean readBlocks( MutableIntObjectMap<Value> intoValues, PropertyRecord propertyRecord, PRIMITIVE entity,
+            Function<PRIMITIVE,ConsistencyReport.PrimitiveConsistencyReport> primitiveReporter, PageCursorTracer cursorTracer )
+    {
+        boolean chainIsOk = true;
+        for ( PropertyBlock block : propertyRecord )
+        {
+            int propertyKeyId = block.getKeyIndexId();
+            if ( !checkValidToken( propertyRecord, propertyKeyId, context.tokenHolders.propertyKeyTokens(), neoStores.getPropertyKeyTokenStore(),
+                    ( property, token ) -> reporter.forProperty( property ).invalidPropertyKey( block ),
+                    ( property, token ) -> reporter.forProperty( property ).keyNotInUse( block, token ), cursorTracer ) )
+            {
+                chainIsOk = false;
+            }
+            PropertyType type = block.forceGetType();
+            Value value = Values.NO_VALUE;
+            if ( type == null )
+            {
+                reporter.forProperty( propertyRecord ).invalidPropertyType( block );
+            }
+            else
+            {
+                try
+                {
+                    switch ( type )
                     {
-                        try
+                    case STRING:
+                        dynamicRecords.clear();
+                        if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.copy() ), stringReader, seenDynamicRecordIds,
+                                block.getSingleValueLong(), stringStoreBlockSize, NO_DYNAMIC_HANDLER,
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).stringNotInUse( block, record ),
+                                ( id, record ) -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, stringReader.record() ).nextNotInUse( record ),
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).stringEmpty( block, record ),
+                                record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).recordNotFullReferencesNext(),
+                                record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).invalidLength() ) )
                         {
-                            switch ( type )
-                            {
-                            case STRING:
-                                dynamicRecords.clear();
-                                if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.copy() ), stringReader, seenDynamicRecordIds,
-                                        block.getSingleValueLong(), stringStoreBlockSize, NO_DYNAMIC_HANDLER,
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).stringNotInUse( block, record ),
-                                        ( id, record ) -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, stringReader.record() ).nextNotInUse( record ),
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).stringEmpty( block, record ),
-                                        record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).recordNotFullReferencesNext(),
-                                        record -> reporter.forDynamicBlock( RecordType.STRING_PROPERTY, record ).invalidLength() ) )
-                                {
-                                    value = propertyStore.getTextValueFor( dynamicRecords, cursorTracer );
-                                }
-                                break;
-                            case ARRAY:
-                                dynamicRecords.clear();
-                                if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.copy() ), arrayReader, seenDynamicRecordIds,
-                                        block.getSingleValueLong(), arrayStoreBlockSize, NO_DYNAMIC_HANDLER,
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).arrayNotInUse( block, record ),
-                                        ( id, record ) -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, arrayReader.record() ).nextNotInUse( record ),
-                                        ( id, record ) -> reporter.forProperty( propertyRecord ).arrayEmpty( block, record ),
-                                        record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).recordNotFullReferencesNext(),
-                                        record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).invalidLength() ) )
-                                {
-                                    value = propertyStore.getArrayFor( dynamicRecords, cursorTracer );
-                                }
-                                break;
-                            default:
-                                value = type.value( block, null, cursorTracer );
-                                break;
-                            }
+                            value = propertyStore.getTextValueFor( dynamicRecords, cursorTracer );
                         }
-                        catch ( Exception e )
+                        break;
+                    case ARRAY:
+                        dynamicRecords.clear();
+                        if ( safeLoadDynamicRecordChain( record -> dynamicRecords.add( record.copy() ), arrayReader, seenDynamicRecordIds,
+                                block.getSingleValueLong(), arrayStoreBlockSize, NO_DYNAMIC_HANDLER,
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).arrayNotInUse( block, record ),
+                                ( id, record ) -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, arrayReader.record() ).nextNotInUse( record ),
+                                ( id, record ) -> reporter.forProperty( propertyRecord ).arrayEmpty( block, record ),
+                                record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).recordNotFullReferencesNext(),
+                                record -> reporter.forDynamicBlock( RecordType.ARRAY_PROPERTY, record ).invalidLength() ) )
                         {
-                            reporter.forProperty( propertyRecord ).invalidPropertyValue( propertyRecord.getId(), block.getKeyIndexId() );
+                            value = propertyStore.getArrayFor( dynamicRecords, cursorTracer );
                         }
+                        break;
+                    default:
+                        value = type.value( block, null, cursorTracer );
+                        break;
                     }
-                    if ( value == Values.NO_VALUE )
-                    {
-                        chainIsOk = false;
-                    }
-                    else if ( propertyKeyId >= 0 && intoValues.put( propertyKeyId, value ) != null )
-                    {
-                        primitiveReporter.apply( entity ).propertyKeyNotUniqueInChain();
-                        chainIsOk = false;
-                    }
+                }
+                catch ( Exception e )
+                {
+                    reporter.forProperty( propertyRecord ).invalidPropertyValue( propertyRecord.getId(), block.getKeyIndexId() );
                 }
             }
-            previousRecordId = propertyRecordId;
-            propertyRecordId = propertyRecord.getNextProp();
+            if ( value == Values.NO_VALUE )
+            {
+                chainIsOk = false;
+            }
+            else if ( propertyKeyId >= 0 && intoValues.put( propertyKeyId, value ) != null )
+            {
+                primitiveReporter.apply( entity ).propertyKeyNotUniqueInChain();
+                chainIsOk = false;
+            }
         }
         return chainIsOk;
     }
@@ -110,6 +110,10 @@ case class CypherPlannerConfiguration(queryCacheSize: Int,
                                       useErrorsOverWarnings: Boolean,
                                       idpMaxTableSize: Int,
                                       idpIterationDuration: Long,
+                                      idpPlanningBudget: Long,
+                                      idpParallelism: Int,
+                                      misestimationReplanFactor: Double,
+                                      misestimationReplanMinRows: Long,
                                       errorIfShortestPathFallbackUsedAtRuntime: Boolean,
                                       errorIfShortestPathHasCommonNodesAtRuntime: Boolean,
                                       legacyCsvQuoteEscaping: Boolean,
@@ -19,15 +19,31 @@
  */
 package org.neo4j.cypher.internal.compiler.helpers
 
-import scala.collection.mutable
+import java.util.concurrent.ConcurrentHashMap
 
 object CachedFunction {
 
+  private object NullValue
+
+  /**
+   * The cache is safe to use from several threads, as done when the IDP solver costs candidates in parallel.
+   */
   def apply[A, B](f: A => B): A => B = new (A => B) {
-    private val cache = mutable.HashMap[A, B]()
+    private val cache = new ConcurrentHashMap[A, AnyRef]()
 
-    def apply(input: A): B =
-      cache.getOrElseUpdate(input, f(input))
+    def apply(input: A): B = {
+      val cached = cache.get(input)
+      if (cached == null) {
+        // not computeIfAbsent, since f may call back into this function
+        val result = f(input)
+        cache.putIfAbsent(input, if (result == null) NullValue else result.asInstanceOf[AnyRef])
+        result
+      } else if (cached eq NullValue) {
+        null.asInstanceOf[B]
+      } else {
+        cached.asInstanceOf[B]
+      }
+    }
   }
 
   def apply[A, B, C](f: (A, B) => C): (A, B) => C =
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical
+
+import org.neo4j.cypher.internal.ast.semantics.SemanticTable
+import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.CardinalityModel
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.CostModel
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphCardinalityModel
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphSolverInput
+import org.neo4j.cypher.internal.ir.PlannerQueryPart
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.QueryPagination
+import org.neo4j.cypher.internal.ir.RegularQueryProjection
+import org.neo4j.cypher.internal.ir.SinglePlannerQuery
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.util.Cardinality
+
+/**
+ * Uses the cardinalities that operators were observed to produce when an earlier plan was executed instead of the
+ * estimates of `metricsFactory`, for the query graphs that those operators solved.
+ *
+ * Cardinalities are only observed for operators that run once and solve a query graph without arguments, see
+ * [[CardinalityFeedbackMetricsFactory.observationKey]]. The estimate of such a query graph does not depend on the inbound
+ * cardinality of the input, unless the input asks to always multiply with it, in which case the observation is not used.
+ *
+ * @param observed the cardinality that was observed for a query graph, if any
+ */
+case class CardinalityFeedbackMetricsFactory(metricsFactory: MetricsFactory,
+                                             observed: QueryGraph => Option[Cardinality]) extends MetricsFactory {
+
+  override def newCardinalityEstimator(queryGraphCardinalityModel: QueryGraphCardinalityModel, evaluator: ExpressionEvaluator): CardinalityModel = {
+    val wrapped = metricsFactory.newCardinalityEstimator(queryGraphCardinalityModel, evaluator)
+    new CardinalityModel {
+      override def apply(query: PlannerQueryPart, input: QueryGraphSolverInput, semanticTable: SemanticTable): Cardinality = {
+        val observation = if (input.alwaysMultiply) None else CardinalityFeedbackMetricsFactory.observationKey(query).flatMap(observed)
+        observation.getOrElse(wrapped(query, input, semanticTable))
+      }
+    }
+  }
+
+  override def newCostModel(config: CypherPlannerConfiguration): CostModel = metricsFactory.newCostModel(config)
+
+  override def newQueryGraphCardinalityModel(statistics: GraphStatistics): QueryGraphCardinalityModel =
+    metricsFactory.newQueryGraphCardinalityModel(statistics)
+}
+
+object CardinalityFeedbackMetricsFactory {
+
+  /**
+   * The query graph to keep the observed cardinality of an operator under, if the query part it solved can be observed.
+   *
+   * That is a single query part without arguments, whose horizon does not change the number of rows. Planning adds
+   * projections to the solved query part of an operator after its cardinality was estimated, so the horizon is not part of
+   * the key.
+   */
+  def observationKey(query: PlannerQueryPart): Option[QueryGraph] = query match {
+    case single: SinglePlannerQuery if single.tail.isEmpty && single.queryGraph.argumentIds.isEmpty =>
+      single.horizon match {
+        case RegularQueryProjection(_, QueryPagination(None, None), selections) if selections.isEmpty => Some(single.queryGraph)
+        case _ => None
+      }
+    case _ => None
+  }
+}
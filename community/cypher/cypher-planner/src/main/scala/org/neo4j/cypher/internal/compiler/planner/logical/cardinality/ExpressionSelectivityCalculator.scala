@@ -47,10 +47,14 @@ import org.neo4j.cypher.internal.expressions.False
 import org.neo4j.cypher.internal.expressions.GreaterThan
 import org.neo4j.cypher.internal.expressions.GreaterThanOrEqual
 import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.InequalityExpression
 import org.neo4j.cypher.internal.expressions.LabelName
 import org.neo4j.cypher.internal.expressions.LessThan
 import org.neo4j.cypher.internal.expressions.LessThanOrEqual
+import org.neo4j.cypher.internal.expressions.ListLiteral
+import org.neo4j.cypher.internal.expressions.Literal
 import org.neo4j.cypher.internal.expressions.Not
+import org.neo4j.cypher.internal.expressions.Null
 import org.neo4j.cypher.internal.expressions.Ors
 import org.neo4j.cypher.internal.expressions.PartialPredicate
 import org.neo4j.cypher.internal.expressions.Property
@@ -58,12 +62,18 @@ import org.neo4j.cypher.internal.expressions.PropertyKeyName
 import org.neo4j.cypher.internal.expressions.StringLiteral
 import org.neo4j.cypher.internal.expressions.Variable
 import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
 import org.neo4j.cypher.internal.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.logical.plans.SeekableArgs
+import org.neo4j.cypher.internal.logical.plans.SingleSeekableArg
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexValueBound
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
 
 case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner) {
 
@@ -82,7 +92,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE x.prop =/IN ...
     case AsPropertySeekable(seekable) =>
-      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey)
+      calculateSelectivityForPropertyEquality(seekable.name, seekable.args, selections, seekable.propertyKey)
 
     // WHERE x.prop STARTS WITH 'prefix'
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
@@ -187,11 +197,48 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   }
 
   private def calculateSelectivityForPropertyEquality(variable: String,
-                                                      sizeHint: Option[Int],
+                                                      args: SeekableArgs,
                                                       selections: Selections,
                                                       propertyKey: PropertyKeyName)
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
     val labels = selections.labelsOnNode(variable)
+
+    // With literal values and known value distributions the values themselves, rather than just how many there are, decide the selectivity.
+    // Without values, the known value distributions still tell how selective a value is expected to be, which skewed values make
+    // far less selective than the number of distinct values would.
+    val histogramSelectivities = literalValues(args) match {
+      case Some(values) =>
+        val distinctValues = values.distinct
+        selectivitiesFromHistograms(labels, propertyKey) { descriptor =>
+          val valueSelectivities = distinctValues.flatMap(stats.indexValueSelectivity(descriptor, _))
+          if (valueSelectivities.size == distinctValues.size) {
+            for {
+              propExists <- stats.indexPropertyExistsSelectivity(descriptor)
+              propEqualsValues <- Selectivity.of(math.min(1.0, valueSelectivities.map(_.factor).sum))
+            } yield propExists * propEqualsValues
+          } else {
+            None
+          }
+        }
+
+      case None =>
+        val size = args.sizeHint.getOrElse(DEFAULT_LIST_CARDINALITY.amount.toInt)
+        selectivitiesFromHistograms(labels, propertyKey) { descriptor =>
+          for {
+            propExists <- stats.indexPropertyExistsSelectivity(descriptor)
+            propEqualsValue <- stats.indexExpectedValueSelectivity(descriptor)
+            propEqualsValues <- Selectivity.of(math.min(1.0, propEqualsValue.factor * size))
+          } yield propExists * propEqualsValues
+        }
+    }
+    histogramSelectivities.flatMap(combiner.orTogetherSelectivities).getOrElse(
+      calculateSelectivityForPropertyEqualityWithoutValues(labels, args.sizeHint, propertyKey))
+  }
+
+  private def calculateSelectivityForPropertyEqualityWithoutValues(labels: Set[LabelName],
+                                                                   sizeHint: Option[Int],
+                                                                   propertyKey: PropertyKeyName)
+                                                                  (implicit semanticTable: SemanticTable): Selectivity = {
     val indexSelectivities = labels.toIndexedSeq.flatMap {
       labelName =>
         (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
@@ -232,7 +279,18 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     }
 
     val labels: Set[LabelName] = selections.labelsOnNode(seekable.ident.name)
-    val indexRangeSelectivities: Seq[Selectivity] = labels.toIndexedSeq.flatMap {
+
+    val histogramSelectivities = literalBounds(seekable.expr.inequalities.toIndexedSeq).flatMap {
+      case (lower, upper) =>
+        selectivitiesFromHistograms(labels, seekable.expr.property.propertyKey) { descriptor =>
+          for {
+            propertyExistsSelectivity <- stats.indexPropertyExistsSelectivity(descriptor)
+            propInRangeSelectivity <- stats.indexRangeSelectivity(descriptor, lower, upper)
+          } yield propInRangeSelectivity * propertyExistsSelectivity
+        }
+    }
+
+    lazy val indexRangeSelectivities: Seq[Selectivity] = labels.toIndexedSeq.flatMap {
       labelName =>
         (semanticTable.id(labelName), semanticTable.id(seekable.expr.property.propertyKey)) match {
           case (Some(labelId), Some(propertyKeyId)) =>
@@ -254,7 +312,74 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
             Some(Selectivity.ZERO)
         }
     }
-    combiner.orTogetherSelectivities(indexRangeSelectivities).getOrElse(default)
+    histogramSelectivities.flatMap(combiner.orTogetherSelectivities)
+      .orElse(combiner.orTogetherSelectivities(indexRangeSelectivities))
+      .getOrElse(default)
+  }
+
+  /**
+   * @return the selectivity for each of the labels, if it could be estimated from the distribution of values in the index for
+   *         every one of them. Mixing such estimates with ones that don't know the values would make them incomparable.
+   */
+  private def selectivitiesFromHistograms(labels: Set[LabelName], propertyKey: PropertyKeyName)
+                                         (selectivity: IndexDescriptor => Option[Selectivity])
+                                         (implicit semanticTable: SemanticTable): Option[Seq[Selectivity]] = {
+    val selectivities = labels.toIndexedSeq.map {
+      labelName =>
+        (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
+          case (Some(labelId), Some(propertyKeyId)) =>
+            selectivity(IndexDescriptor(labelId, Seq(propertyKeyId)))
+
+          case _ =>
+            Some(Selectivity.ZERO)
+        }
+    }
+    if (selectivities.nonEmpty && selectivities.forall(_.isDefined)) Some(selectivities.flatten) else None
+  }
+
+  /**
+   * Only literals that are still in the query have values at planning time. Literals are auto-parameterized so that queries
+   * differing only in them share a plan, unless the query has parameters of its own, and those plans are planned with the
+   * selectivity expected of any value instead.
+   */
+  private def literalValues(args: SeekableArgs): Option[Seq[Value]] = args match {
+    case SingleSeekableArg(expr) =>
+      literalValue(expr).map(Seq(_))
+    case ManySeekableArgs(ListLiteral(expressions)) =>
+      val values = expressions.map(literalValue)
+      if (values.forall(_.isDefined)) Some(values.flatten) else None
+    case _ =>
+      None
+  }
+
+  /**
+   * @return the lower and upper bounds of the inequalities, given that there is at most one of each and their values are literals.
+   */
+  private def literalBounds(inequalities: Seq[InequalityExpression]): Option[(Option[IndexValueBound], Option[IndexValueBound])] = {
+    val (lowers, uppers) = inequalities.partition {
+      case _: GreaterThan | _: GreaterThanOrEqual => true
+      case _ => false
+    }
+
+    def bound(inequality: Option[InequalityExpression]): Option[Option[IndexValueBound]] = inequality match {
+      case Some(ineq) => literalValue(ineq.rhs).map(value => Some(IndexValueBound(value, ineq.includeEquality)))
+      case None => Some(None)
+    }
+
+    if (lowers.size > 1 || uppers.size > 1) {
+      None
+    } else {
+      for {
+        lower <- bound(lowers.headOption)
+        upper <- bound(uppers.headOption)
+      } yield (lower, upper)
+    }
+  }
+
+  private def literalValue(expression: Expression): Option[Value] = expression match {
+    case _: Null => None
+    case literal: Literal => Some(Values.of(literal.value))
+    case _ => None
   }
 
   private def calculateSelectivityForPointDistanceSeekable(seekable: PointDistanceSeekable,
@@ -93,7 +93,8 @@ case class ComponentConnectorPlanner(singleComponentPlanner: SingleComponentPlan
       iterationDurationLimit = config.iterationDurationLimit,
       extraRequirement = orderRequirement,
       monitor = monitor,
-      stopWatchFactory = Stopwatch.start
+      stopWatchFactory = Stopwatch.start,
+      planningBudget = config.planningBudget
     )
 
     val seed: Seed[QueryGraph, LogicalPlan] = components.flatMap {
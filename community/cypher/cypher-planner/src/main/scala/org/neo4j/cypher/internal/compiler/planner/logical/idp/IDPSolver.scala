@@ -19,6 +19,9 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical.idp
 
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+import java.util.concurrent.RecursiveAction
 import java.util.concurrent.TimeUnit
 
 import org.neo4j.configuration.GraphDatabaseInternalSettings
@@ -34,6 +37,7 @@ trait IDPSolverMonitor {
   def startIteration(iteration: Int)
   def endIteration(iteration: Int, depth: Int, tableSize: Int)
   def foundPlanAfter(iterations: Int)
+  def planningBudgetExceeded(iteration: Int): Unit = {}
 }
 
 trait ExtraRequirement[-Result] {
@@ -80,7 +84,11 @@ class IDPSolver[Solvable, Result, Context](generator: IDPSolverStep[Solvable, Re
                                            iterationDurationLimit: Long, // limits computation effort, reducing result quality
                                            extraRequirement: ExtraRequirement[Result],
                                            monitor: IDPSolverMonitor,
-                                           stopWatchFactory: () => Stopwatch) {
+                                           stopWatchFactory: () => Stopwatch,
+                                           planningBudget: Long = Long.MaxValue, // once spent, only pairs are combined, i.e. the solver turns greedy
+                                           parallelism: Int = 1) { // number of workers selecting the best candidates of a block
+
+  private val goalsPerBatch = parallelism * IDPSolver.GOALS_PER_WORKER
 
   /**
    * Run the IDP solver
@@ -91,46 +99,85 @@ class IDPSolver[Solvable, Result, Context](generator: IDPSolverStep[Solvable, Re
     val registry = registryFactory()
     var toDo = Goal(registry.registerAll(initialToDo))
     val table = tableFactory(registry, seed)
+    val budget = stopWatchFactory()
+    var greedy = false
 
     // utility functions
     val goalSelector: Selector[(Goal, Result)] = projectingSelector.apply[(Goal, Result)](_._2, _)
 
+    // Selects the best candidate, and the best candidate fulfilling the extra requirement, of one goal.
+    def selectBest(candidates: Iterable[Result]): (Option[Result], Option[Result]) = {
+      val (extraCandidates, baseCandidates) = candidates.partition(extraRequirement.fulfils)
+      val bestExtraCandidate = projectingSelector(extraCandidates)
+
+      // We don't want to compare just the ones that do not fulfil the requirement
+      // in isolation, because it could be that the best overall candidate fulfils the requirement.
+      // bestExtraCandidate has already been determined to be cheaper than any other extraCandidate,
+      // therefore it is enough to cost estimate the bestExtraCandidate against all baseCandidates.
+      (projectingSelector(baseCandidates ++ bestExtraCandidate.toIterable), bestExtraCandidate)
+    }
+
+    def nextBatch(goals: Iterator[Goal]): IndexedSeq[Goal] = {
+      val batch = IndexedSeq.newBuilder[Goal]
+      var i = 0
+      while (i < goalsPerBatch && goals.hasNext) {
+        batch += goals.next()
+        i += 1
+      }
+      batch.result()
+    }
+
+    def budgetExceeded(): Boolean = greedy || budget.hasTimedOut(planningBudget, TimeUnit.MILLISECONDS)
+
     def generateBestCandidates(maxBlockSize: Int): Int = {
       var largestFinishedIteration = 0
       var blockSize = 1
       var keepGoing = true
       val start = stopWatchFactory()
 
+      def put(goal: Goal, best: (Option[Result], Option[Result])): Boolean = {
+        val (bestCandidate, bestExtraCandidate) = best
+        bestCandidate.foreach(table.put(goal, sorted = false, _))
+        // Also add the best candidate from all candidates that fulfil the requirement into the table
+        // with `true`.
+        bestExtraCandidate.foreach(table.put(goal, sorted = true, _))
+        keepGoing = blockSize == 2 ||
+          (table.size <= maxTableSize && !start.hasTimedOut(iterationDurationLimit, TimeUnit.MILLISECONDS) && !budgetExceeded())
+        bestCandidate.isDefined || bestExtraCandidate.isDefined
+      }
+
       while (keepGoing && blockSize <= maxBlockSize) {
         var foundNoCandidate = true
+        var goalsLeft = false
         blockSize += 1
         val goals = toDo.subGoals(blockSize)
-        while (keepGoing && goals.hasNext) {
-          val goal = goals.next()
-          if (!table.contains(goal, sorted = false)) {
-            val candidates = LazyIterable(generator(registry, goal, table, context))
-            val (extraCandidates, baseCandidates) = candidates.partition(extraRequirement.fulfils)
-            val bestExtraCandidate = projectingSelector(extraCandidates)
-
-            // We don't want to compare just the ones that do not fulfil the requirement
-            // in isolation, because it could be that the best overall candidate fulfils the requirement.
-            // bestExtraCandidate has already been determined to be cheaper than any other extraCandidate,
-            // therefore it is enough to cost estimate the bestExtraCandidate against all baseCandidates.
-            projectingSelector(baseCandidates ++ bestExtraCandidate.toIterable).foreach { candidate =>
+        if (parallelism <= 1) {
+          while (keepGoing && goals.hasNext) {
+            val goal = goals.next()
+            if (!table.contains(goal, sorted = false) && put(goal, selectBest(LazyIterable(generator(registry, goal, table, context))))) {
               foundNoCandidate = false
-              table.put(goal, sorted = false, candidate)
             }
-            // Also add the best candidate from all candidates that fulfil the requirement into the table
-            // with `true`.
-            bestExtraCandidate.foreach { candidate =>
-              foundNoCandidate = false
-              table.put(goal, sorted = true, candidate)
+          }
+        } else {
+          // Goals of one block size only read smaller goals from the table. Their candidates are generated here and
+          // only cost estimated by the workers, because generating plans is not thread safe. The results are put into
+          // the table in goal order, so the table limits cut the block off at the same goal as without workers.
+          while (keepGoing && goals.hasNext) {
+            val batch = nextBatch(goals)
+            val toSolve = batch.filterNot(table.contains(_, sorted = false))
+            val candidates = toSolve.map(goal => generator(registry, goal, table, context).toIndexedSeq)
+            val best = toSolve.zip(IDPSolver.parallelMap(candidates, parallelism)(selectBest)).toMap
+            var i = 0
+            while (keepGoing && i < batch.size) {
+              if (best.get(batch(i)).exists(put(batch(i), _))) {
+                foundNoCandidate = false
+              }
+              i += 1
             }
-            keepGoing = blockSize == 2 ||
-              (table.size <= maxTableSize && !start.hasTimedOut(iterationDurationLimit, TimeUnit.MILLISECONDS))
+            goalsLeft = i < batch.size
           }
         }
-        largestFinishedIteration = if (foundNoCandidate || goals.hasNext) largestFinishedIteration else blockSize
+        largestFinishedIteration = if (foundNoCandidate || goalsLeft || goals.hasNext) largestFinishedIteration else blockSize
       }
       largestFinishedIteration
     }
@@ -165,7 +212,12 @@ class IDPSolver[Solvable, Result, Context](generator: IDPSolverStep[Solvable, Re
     while (toDo.size > 1) {
       iterations += 1
       monitor.startIteration(iterations)
-      val largestFinished = generateBestCandidates(toDo.size)
+      if (!greedy && budgetExceeded()) {
+        greedy = true
+        monitor.planningBudgetExceeded(iterations)
+      }
+      // Once the planning budget is spent, every iteration only combines pairs and compacts the best one.
+      val largestFinished = generateBestCandidates(if (greedy) 1 else toDo.size)
       if (largestFinished <= 0) throw new IllegalStateException(
         s"""Unfortunately, the planner was unable to find a plan within the constraints provided.
            |Try increasing the config values `${GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold.name()}`
@@ -200,3 +252,41 @@ class IDPSolver[Solvable, Result, Context](generator: IDPSolverStep[Solvable, Re
     }
   }
 }
+
+object IDPSolver {
+  private val GOALS_PER_WORKER = 4
+
+  /**
+   * Applies f to all elements on the common fork join pool, split into at most `parallelism` slices.
+   * The result has the same order as the input.
+   */
+  private def parallelMap[A, B](input: IndexedSeq[A], parallelism: Int)(f: A => B): IndexedSeq[B] = {
+    val results = new Array[Any](input.size)
+    val sliceSize = math.max(1, (input.size + parallelism - 1) / parallelism)
+    def mapSlice(from: Int): Unit = {
+      var i = from
+      val to = math.min(from + sliceSize, input.size)
+      while (i < to) {
+        results(i) = f(input(i))
+        i += 1
+      }
+    }
+    if (input.size <= sliceSize) {
+      mapSlice(0)
+    } else {
+      val tasks = (0 until input.size by sliceSize).map { from =>
+        new RecursiveAction {
+          override def compute(): Unit = mapSlice(from)
+        }
+      }
+      if (ForkJoinTask.inForkJoinPool()) {
+        ForkJoinTask.invokeAll(tasks: _*)
+      } else {
+        ForkJoinPool.commonPool().invoke(new RecursiveAction {
+          override def compute(): Unit = ForkJoinTask.invokeAll(tasks: _*)
+        })
+      }
+    }
+    results.toIndexedSeq.asInstanceOf[IndexedSeq[B]]
+  }
+}
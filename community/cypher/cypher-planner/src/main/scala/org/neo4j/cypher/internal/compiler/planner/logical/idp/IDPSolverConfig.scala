@@ -30,6 +30,8 @@ import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 trait IDPSolverConfig {
   def maxTableSize: Int = 128
   def iterationDurationLimit: Long = 1000
+  def planningBudget: Long = Long.MaxValue
+  def parallelism: Int = 1
 }
 
 trait SingleComponentIDPSolverConfig extends IDPSolverConfig {
@@ -53,7 +55,9 @@ case object DPSolverConfig extends SingleComponentIDPSolverConfig {
 /* The default settings for IDP uses a maxTableSize and a inner loop duration threshold
    to improve planning performance with minimal impact of plan quality */
 class ConfigurableIDPSolverConfig(override val maxTableSize: Int,
-                                  override val iterationDurationLimit: Long) extends SingleComponentIDPSolverConfig {
+                                  override val iterationDurationLimit: Long,
+                                  override val planningBudget: Long = Long.MaxValue,
+                                  override val parallelism: Int = 1) extends SingleComponentIDPSolverConfig {
   override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_))
 }
 
@@ -29,6 +29,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.idp.SingleComponentPla
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.expandSolverStep.planSinglePatternSide
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.expandSolverStep.planSingleProjectEndpoints
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.BestPlans
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.devNullListener
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.leafPlanOptions
 import org.neo4j.cypher.internal.ir.PatternRelationship
 import org.neo4j.cypher.internal.ir.QueryGraph
@@ -67,7 +68,10 @@ case class SingleComponentPlanner(monitor: IDPQueryGraphSolverMonitor,
           iterationDurationLimit = solverConfig.iterationDurationLimit,
           extraRequirement = orderRequirement,
           monitor = monitor,
-          stopWatchFactory = Stopwatch.start
+          stopWatchFactory = Stopwatch.start,
+          planningBudget = solverConfig.planningBudget,
+          // cost comparisons are reported to a listener that is not thread safe
+          parallelism = if (context.costComparisonListener == devNullListener) solverConfig.parallelism else 1
         )
 
         monitor.initTableFor(qg)
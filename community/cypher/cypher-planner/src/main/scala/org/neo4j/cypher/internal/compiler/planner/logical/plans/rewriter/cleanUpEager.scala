@@ -19,10 +19,13 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical.plans.rewriter
 
+import org.neo4j.cypher.internal.logical.plans.Aggregation
 import org.neo4j.cypher.internal.logical.plans.Eager
 import org.neo4j.cypher.internal.logical.plans.Limit
 import org.neo4j.cypher.internal.logical.plans.LoadCSV
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.Sort
+import org.neo4j.cypher.internal.logical.plans.Top
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Solveds
 import org.neo4j.cypher.internal.util.Rewriter
@@ -38,6 +41,10 @@ case class cleanUpEager(solveds: Solveds, attributes: Attributes[LogicalPlan]) e
     case eager@Eager(Eager(source)) =>
       eager.copy(source = source)(SameId(eager.id))
 
+    // E S L => S L, since sorting, top and aggregation already read all of L before producing their first row
+    case Eager(materializing@(_: Sort | _: Top | _: Aggregation)) =>
+      materializing
+
     // E U => U E
     case eager@Eager(unwind@UnwindCollection(source, _, _)) =>
       val res = unwind.copy(source = eager.copy(source = source)(SameId(eager.id)))(attributes.copy(unwind.id))
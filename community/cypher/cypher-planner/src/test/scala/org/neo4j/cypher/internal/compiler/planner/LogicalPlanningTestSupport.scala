@@ -308,6 +308,10 @@ trait LogicalPlanningTestSupport extends CypherTestSupport with AstConstructionT
     useErrorsOverWarnings = false,
     idpMaxTableSize = DefaultIDPSolverConfig.maxTableSize,
     idpIterationDuration = DefaultIDPSolverConfig.iterationDurationLimit,
+    idpPlanningBudget = DefaultIDPSolverConfig.planningBudget,
+    idpParallelism = DefaultIDPSolverConfig.parallelism,
+    misestimationReplanFactor = 0,
+    misestimationReplanMinRows = 1,
     errorIfShortestPathFallbackUsedAtRuntime = false,
     errorIfShortestPathHasCommonNodesAtRuntime = true,
     legacyCsvQuoteEscaping = false,
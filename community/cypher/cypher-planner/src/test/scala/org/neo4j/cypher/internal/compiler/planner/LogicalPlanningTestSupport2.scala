@@ -111,6 +111,10 @@ object LogicalPlanningTestSupport2 extends MockitoSugar {
     useErrorsOverWarnings = false,
     idpMaxTableSize = DefaultIDPSolverConfig.maxTableSize,
     idpIterationDuration = DefaultIDPSolverConfig.iterationDurationLimit,
+    idpPlanningBudget = DefaultIDPSolverConfig.planningBudget,
+    idpParallelism = DefaultIDPSolverConfig.parallelism,
+    misestimationReplanFactor = 0,
+    misestimationReplanMinRows = 1,
     errorIfShortestPathFallbackUsedAtRuntime = false,
     errorIfShortestPathHasCommonNodesAtRuntime = true,
     legacyCsvQuoteEscaping = false,
@@ -40,6 +40,7 @@ import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.OrderCapability
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.ValueCapability
 import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability
+import org.neo4j.cypher.internal.planner.spi.IndexValueBound
 import org.neo4j.cypher.internal.planner.spi.InstrumentedGraphStatistics
 import org.neo4j.cypher.internal.planner.spi.MutableGraphStatisticsSnapshot
 import org.neo4j.cypher.internal.planner.spi.PlanContext
@@ -49,6 +50,7 @@ import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
 import org.scalatest.mockito.MockitoSugar
 
 import scala.collection.mutable
@@ -80,6 +82,9 @@ class StatisticsBackedLogicalPlanningConfigurationBuilder() {
   private object selectivities {
     val uniqueValue: mutable.Map[IndexDef, Double] = mutable.Map[IndexDef, Double]()
     val propExists: mutable.Map[IndexDef, Double] = mutable.Map[IndexDef, Double]()
+    val values: mutable.Map[(IndexDef, Value), Double] = mutable.Map[(IndexDef, Value), Double]()
+    val ranges: mutable.Map[(IndexDef, Option[IndexValueBound], Option[IndexValueBound]), Double] =
+      mutable.Map[(IndexDef, Option[IndexValueBound], Option[IndexValueBound]), Double]()
   }
   private var options = StatisticsBackedLogicalPlanningConfigurationBuilder.Options()
 
@@ -148,6 +153,26 @@ class StatisticsBackedLogicalPlanningConfigurationBuilder() {
     this
   }
 
+  /**
+   * Sets the selectivity of a value in an index, as if estimated from the distribution of values in it.
+   */
+  def setIndexValueSelectivity(label: String, properties: Seq[String], value: Value, selectivity: Double): this.type = {
+    selectivities.values((IndexDef(label, properties), value)) = selectivity
+    this
+  }
+
+  /**
+   * Sets the selectivity of a range in an index, as if estimated from the distribution of values in it.
+   */
+  def setIndexRangeSelectivity(label: String,
+                               properties: Seq[String],
+                               lower: Option[IndexValueBound],
+                               upper: Option[IndexValueBound],
+                               selectivity: Double): this.type = {
+    selectivities.ranges((IndexDef(label, properties), lower, upper)) = selectivity
+    this
+  }
+
   object RelDef {
 
     private implicit class RegexHelper(val sc: StringContext) {
@@ -242,6 +267,18 @@ class StatisticsBackedLogicalPlanningConfigurationBuilder() {
           .get(IndexDef(label = tokens.getLabelName(index.label), propertyKeys = index.properties.map(_.id).map(tokens.getPropertyKeyName)))
           .flatMap(Selectivity.of)
       }
+
+      override def indexValueSelectivity(index: IndexDescriptor, value: Value): Option[Selectivity] = {
+        selectivities.values
+          .get((IndexDef(label = tokens.getLabelName(index.label), propertyKeys = index.properties.map(_.id).map(tokens.getPropertyKeyName)), value))
+          .flatMap(Selectivity.of)
+      }
+
+      override def indexRangeSelectivity(index: IndexDescriptor, lower: Option[IndexValueBound], upper: Option[IndexValueBound]): Option[Selectivity] = {
+        selectivities.ranges
+          .get((IndexDef(label = tokens.getLabelName(index.label), propertyKeys = index.properties.map(_.id).map(tokens.getPropertyKeyName)), lower, upper))
+          .flatMap(Selectivity.of)
+      }
     }
 
     val planContext: PlanContext = new NotImplementedPlanContext() {
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.ast.semantics.SemanticTable
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphSolverInput
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.QueryPagination
+import org.neo4j.cypher.internal.ir.RegularQueryProjection
+import org.neo4j.cypher.internal.ir.RegularSinglePlannerQuery
+import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.util.Cardinality
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class CardinalityFeedbackMetricsFactoryTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  private val observedQuery = RegularSinglePlannerQuery(QueryGraph(
+    patternNodes = Set("a"),
+    selections = Selections.from(Seq(hasLabels("a", "A"), propEquality("a", "prop", 42)))))
+
+  private val otherQuery = RegularSinglePlannerQuery(QueryGraph(
+    patternNodes = Set("a"),
+    selections = Selections.from(Seq(hasLabels("a", "A")))))
+
+  private val stats = mock[GraphStatistics]
+  when(stats.nodesAllCardinality()).thenReturn(Cardinality(1000))
+  when(stats.nodesWithLabelCardinality(any())).thenReturn(Cardinality(100))
+
+  private def cardinalityModel(observed: Map[RegularSinglePlannerQuery, Cardinality]) = {
+    val factory = CardinalityFeedbackMetricsFactory(SimpleMetricsFactory, observed.map {
+      case (query, cardinality) => query.queryGraph -> cardinality
+    }.get)
+    factory.newMetrics(stats, newExpressionEvaluator, config).cardinality
+  }
+
+  test("should use the observed cardinality of a query part") {
+    val model = cardinalityModel(Map(observedQuery -> Cardinality(12345)))
+
+    model(observedQuery, QueryGraphSolverInput.empty, SemanticTable()) should equal(Cardinality(12345))
+  }
+
+  test("should use the observed cardinality of a query graph for query parts that project it") {
+    val model = cardinalityModel(Map(observedQuery -> Cardinality(12345)))
+    val projected = observedQuery.updateQueryProjection(_.withAddedProjections(Map("a" -> varFor("a"))))
+
+    model(projected, QueryGraphSolverInput.empty, SemanticTable()) should equal(Cardinality(12345))
+  }
+
+  test("should not use the observed cardinality of a query graph for query parts that limit it") {
+    val model = cardinalityModel(Map(observedQuery -> Cardinality(12345)))
+    val limited = observedQuery.withHorizon(RegularQueryProjection(queryPagination = QueryPagination(limit = Some(literalInt(10)))))
+
+    model(limited, QueryGraphSolverInput.empty, SemanticTable()) should not equal Cardinality(12345)
+  }
+
+  test("should estimate query parts that were not observed") {
+    val model = cardinalityModel(Map(observedQuery -> Cardinality(12345)))
+    val estimate = cardinalityModel(Map.empty)(otherQuery, QueryGraphSolverInput.empty, SemanticTable())
+
+    model(otherQuery, QueryGraphSolverInput.empty, SemanticTable()) should equal(estimate)
+  }
+
+  test("should not use the observed cardinality if the input asks to always multiply with the inbound cardinality") {
+    val model = cardinalityModel(Map(observedQuery -> Cardinality(12345)))
+    val input = QueryGraphSolverInput.empty.copy(inboundCardinality = Cardinality(10), alwaysMultiply = true)
+    val estimate = cardinalityModel(Map.empty)(observedQuery, input, SemanticTable())
+
+    model(observedQuery, input, SemanticTable()) should equal(estimate)
+    estimate should not equal Cardinality(12345)
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.compiler.planner.BeLikeMatcher.beLike
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningIntegrationTestSupport
+import org.neo4j.cypher.internal.compiler.planner.StatisticsBackedLogicalPlanningConfigurationBuilder
+import org.neo4j.cypher.internal.logical.plans.NodeIndexSeek
+import org.neo4j.cypher.internal.planner.spi.IndexValueBound
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.storable.Values.stringValue
+
+class IndexValueDistributionPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningIntegrationTestSupport with AstConstructionTestSupport {
+
+  // Both indexes look the same when only counting distinct values, the value distributions make the difference
+  private def skewedPlanner(): StatisticsBackedLogicalPlanningConfigurationBuilder =
+    plannerBuilder()
+      .setAllNodesCardinality(10000)
+      .setLabelCardinality("A", 1000)
+      .setLabelCardinality("B", 1000)
+      .setRelationshipCardinality("()-[:R]->()", 5000)
+      .setRelationshipCardinality("(:A)-[:R]->()", 5000)
+      .setRelationshipCardinality("()-[:R]->(:B)", 5000)
+      .setRelationshipCardinality("(:A)-[:R]->(:B)", 5000)
+      .addIndex("A", Seq("prop"), existsSelectivity = 1.0, uniqueSelectivity = 0.01)
+      .addIndex("B", Seq("prop"), existsSelectivity = 1.0, uniqueSelectivity = 0.01)
+
+  test("should start from the index seek for the rare value when values are skewed") {
+    val planner = skewedPlanner()
+      .setIndexValueSelectivity("A", Seq("prop"), stringValue("common"), 0.5)
+      .setIndexValueSelectivity("A", Seq("prop"), stringValue("rare"), 0.001)
+      .setIndexValueSelectivity("B", Seq("prop"), stringValue("common"), 0.5)
+      .setIndexValueSelectivity("B", Seq("prop"), stringValue("rare"), 0.001)
+      .build()
+
+    planner.plan("MATCH (a:A)-[:R]->(b:B) WHERE a.prop = 'common' AND b.prop = 'rare' RETURN a, b").leftmostLeaf should beLike {
+      case NodeIndexSeek("b", _, _, _, _, _) => ()
+    }
+    planner.plan("MATCH (a:A)-[:R]->(b:B) WHERE a.prop = 'rare' AND b.prop = 'common' RETURN a, b").leftmostLeaf should beLike {
+      case NodeIndexSeek("a", _, _, _, _, _) => ()
+    }
+  }
+
+  test("should start from the index seek for the rare values of an IN list when values are skewed") {
+    val planner = skewedPlanner()
+      .setIndexValueSelectivity("A", Seq("prop"), stringValue("common"), 0.5)
+      .setIndexValueSelectivity("A", Seq("prop"), stringValue("other"), 0.1)
+      .setIndexValueSelectivity("B", Seq("prop"), stringValue("rare"), 0.001)
+      .setIndexValueSelectivity("B", Seq("prop"), stringValue("other"), 0.001)
+      .build()
+
+    planner.plan("MATCH (a:A)-[:R]->(b:B) WHERE a.prop IN ['common', 'other'] AND b.prop IN ['rare', 'other'] RETURN a, b").leftmostLeaf should beLike {
+      case NodeIndexSeek("b", _, _, _, _, _) => ()
+    }
+  }
+
+  test("should start from the index seek for the narrow range when values are skewed") {
+    val planner = skewedPlanner()
+      .setIndexRangeSelectivity("A", Seq("prop"), Some(IndexValueBound(longValue(100), inclusive = false)), None, 0.9)
+      .setIndexRangeSelectivity("B", Seq("prop"), None, Some(IndexValueBound(longValue(10), inclusive = false)), 0.001)
+      .build()
+
+    planner.plan("MATCH (a:A)-[:R]->(b:B) WHERE a.prop > 100 AND b.prop < 10 RETURN a, b").leftmostLeaf should beLike {
+      case NodeIndexSeek("b", _, _, _, _, _) => ()
+    }
+  }
+}
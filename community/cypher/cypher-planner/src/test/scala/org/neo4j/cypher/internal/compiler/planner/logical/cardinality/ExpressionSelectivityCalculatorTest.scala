@@ -43,13 +43,19 @@ import org.neo4j.cypher.internal.ir.Predicate
 import org.neo4j.cypher.internal.ir.Selections
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexValueBound
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_ALL_CARDINALITY
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_WITH_LABEL_CARDINALITY
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.NonEmptyList
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.symbols.CTInteger
+import org.neo4j.cypher.internal.util.symbols.CTList
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.storable.Values.stringValue
 
 class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
 
@@ -908,6 +914,96 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     eqResult should equal(IndependenceCombiner.orTogetherSelectivities(for (_ <- 1 to DEFAULT_LIST_CARDINALITY.amount.toInt) yield resFor1).get)
   }
 
+  // VALUE DISTRIBUTION
+
+  test("equality with one label uses the selectivity of the value") {
+    val stats = mockStats(valueSelectivities = Map((indexPerson, stringValue("common")) -> 0.9, (indexPerson, stringValue("rare")) -> 0.0001))
+
+    val common = predicate(super.equals(nProp, literalString("common")))
+    val rare = predicate(super.equals(nProp, literalString("rare")))
+
+    setUpCalculator(common, Seq(nIsPerson), stats)(common.expr).factor should equal(personPropSel * 0.9 +- 0.00000001)
+    setUpCalculator(rare, Seq(nIsPerson), stats)(rare.expr).factor should equal(personPropSel * 0.0001 +- 0.00000001)
+  }
+
+  test("IN with one label sums up the selectivities of the distinct values") {
+    val stats = mockStats(valueSelectivities = Map((indexPerson, longValue(3)) -> 0.3, (indexPerson, longValue(4)) -> 0.1))
+    val in = predicate(super.in(nProp, listOfInt(3, 4, 3)))
+
+    val calculator = setUpCalculator(in, Seq(nIsPerson), stats)
+
+    calculator(in.expr).factor should equal(personPropSel * 0.4 +- 0.00000001)
+  }
+
+  test("IN with one label falls back to counting values when the selectivity of one of them is unknown") {
+    val stats = mockStats(valueSelectivities = Map((indexPerson, longValue(3)) -> 0.3))
+    val in = predicate(super.in(nProp, listOfInt(3, 4)))
+
+    val calculator = setUpCalculator(in, Seq(nIsPerson), stats)
+
+    val resFor1 = personPropSel * indexPersonUniqueSel
+    calculator(in.expr).factor should equal(resFor1 + resFor1 - resFor1 * resFor1 +- 0.00000001)
+  }
+
+  test("equality with a parameter does not use the selectivity of values") {
+    val stats = mockStats(valueSelectivities = Map((indexPerson, longValue(3)) -> 0.9))
+    val equals = predicate(super.equals(nProp, parameter("param", CTInteger)))
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), stats)
+
+    calculator(equals.expr).factor should equal(personPropSel * indexPersonUniqueSel)
+  }
+
+  test("equality with a parameter uses the expected selectivity of values") {
+    val stats = mockStats(
+      valueSelectivities = Map((indexPerson, longValue(3)) -> 0.9),
+      expectedValueSelectivities = Map(indexPerson -> 0.5))
+    val equals = predicate(super.equals(nProp, parameter("param", CTInteger)))
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), stats)
+
+    calculator(equals.expr).factor should equal(personPropSel * 0.5 +- 0.00000001)
+  }
+
+  test("IN with a parameter uses the expected selectivity of values for as many values as a list is assumed to have") {
+    val stats = mockStats(expectedValueSelectivities = Map(indexPerson -> 0.01))
+    val in = predicate(super.in(nProp, parameter("param", CTList(CTInteger))))
+
+    val calculator = setUpCalculator(in, Seq(nIsPerson), stats)
+
+    calculator(in.expr).factor should equal(personPropSel * 0.01 * DEFAULT_LIST_CARDINALITY.amount +- 0.00000001)
+  }
+
+  test("closed (> && <=) range with one label uses the selectivity of the range") {
+    val lower = Some(IndexValueBound(longValue(3), inclusive = false))
+    val upper = Some(IndexValueBound(longValue(10), inclusive = true))
+    val stats = mockStats(rangeSelectivities = Map((indexPerson, lower, upper) -> 0.75))
+    val inequality = predicate(anded(NonEmptyList(
+      greaterThan(nProp, literalInt(3)),
+      lessThanOrEqual(nProp, literalInt(10))
+    )))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson), stats)
+
+    calculator(inequality.expr).factor should equal(personPropSel * 0.75 +- 0.00000001)
+  }
+
+  test("range with two labels falls back when the selectivity of the range is only known for one of them") {
+    val lower = Some(IndexValueBound(longValue(3), inclusive = false))
+    val stats = mockStats(
+      labelCardinalities = Map(indexPerson.label -> 1000.0, indexAnimal.label -> 800.0),
+      indexCardinalities = Map(indexPerson -> 200.0, indexAnimal -> 400.0),
+      indexUniqueCardinalities = Map(indexPerson -> 180.0, indexAnimal -> 380.0),
+      rangeSelectivities = Map((indexPerson, lower, None) -> 0.75))
+    val inequality = predicate(anded(NonEmptyList(greaterThan(nProp, literalInt(3)))))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson, nIsAnimal), stats)
+
+    val personSel = personPropSel * (1 - indexPersonUniqueSel) * DEFAULT_RANGE_SEEK_FACTOR
+    val animalSel = 0.5 * (1.0 - 1.0 / 380.0) * DEFAULT_RANGE_SEEK_FACTOR
+    calculator(inequality.expr).factor should equal(personSel + animalSel - personSel * animalSel +- 0.00000001)
+  }
+
   // OTHER
 
   test("Should peek inside sub predicates") {
@@ -962,7 +1058,10 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
   private def mockStats(allNodesCardinality: Double = 10000.0,
                         labelCardinalities: Map[LabelId, Double] = Map(indexPerson.label -> 1000.0),
                         indexCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 200.0),
-                        indexUniqueCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 180.0)): GraphStatistics = {
+                        indexUniqueCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 180.0),
+                        valueSelectivities: Map[(IndexDescriptor, Value), Double] = Map.empty,
+                        rangeSelectivities: Map[(IndexDescriptor, Option[IndexValueBound], Option[IndexValueBound]), Double] = Map.empty,
+                        expectedValueSelectivities: Map[IndexDescriptor, Double] = Map.empty): GraphStatistics = {
 
     // sanity check:
     for {
@@ -1007,6 +1106,25 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
       }
     })
 
+    when(stats.indexValueSelectivity(any(), any())).thenAnswer(new Answer[Option[Selectivity]] {
+      override def answer(invocationOnMock: InvocationOnMock): Option[Selectivity] =
+        valueSelectivities.get((invocationOnMock.getArgument[IndexDescriptor](0), invocationOnMock.getArgument[Value](1))).map(Selectivity(_))
+    })
+
+    when(stats.indexExpectedValueSelectivity(any())).thenAnswer(new Answer[Option[Selectivity]] {
+      override def answer(invocationOnMock: InvocationOnMock): Option[Selectivity] =
+        expectedValueSelectivities.get(invocationOnMock.getArgument[IndexDescriptor](0)).map(Selectivity(_))
+    })
+
+    when(stats.indexRangeSelectivity(any(), any(), any())).thenAnswer(new Answer[Option[Selectivity]] {
+      override def answer(invocationOnMock: InvocationOnMock): Option[Selectivity] = {
+        val key = (invocationOnMock.getArgument[IndexDescriptor](0),
+          invocationOnMock.getArgument[Option[IndexValueBound]](1),
+          invocationOnMock.getArgument[Option[IndexValueBound]](2))
+        rangeSelectivities.get(key).map(Selectivity(_))
+      }
+    })
+
     stats
   }
 
@@ -494,6 +494,8 @@ class IDPQueryGraphSolverTest extends CypherFunSuite with LogicalPlanningTestSup
       ExpandOnlyIDPSolverConfig,
       new ConfigurableIDPSolverConfig(maxTableSize = 32, iterationDurationLimit = Long.MaxValue), // table limited
       new ConfigurableIDPSolverConfig(maxTableSize = Int.MaxValue, iterationDurationLimit = 500), // time limited
+      new ConfigurableIDPSolverConfig(maxTableSize = Int.MaxValue, iterationDurationLimit = Long.MaxValue, planningBudget = 100), // budget limited
+      new ConfigurableIDPSolverConfig(maxTableSize = 32, iterationDurationLimit = Long.MaxValue, parallelism = 4), // table limited, parallel
       AdaptiveChainPatternConfig(10), // default
       new AdaptiveChainPatternConfig(5) { // make sure it works on comprehensions for very long patterns
         override def iterationDurationLimit: Long = 20
@@ -531,6 +533,32 @@ class IDPQueryGraphSolverTest extends CypherFunSuite with LogicalPlanningTestSup
     }
   }
 
+  test("should find the same plan for a long relationship pattern with parallel workers") {
+    val numberOfPatternRelationships = 12
+
+    def planWith(solverConfig: ConfigurableIDPSolverConfig): LogicalPlan = {
+      var plan: LogicalPlan = null
+      new given {
+        queryGraphSolver = createQueryGraphSolver(monitor = mock[IDPQueryGraphSolverMonitor], solverConfig = solverConfig)
+
+        val patternNodes: Seq[String] = (0 to numberOfPatternRelationships).map(i => s"n$i")
+        val patternRels: Seq[PatternRelationship] = (1 to numberOfPatternRelationships).map { i =>
+          PatternRelationship(s"r$i", (s"n${i - 1}", s"n$i"), SemanticDirection.OUTGOING, Seq.empty, SimplePatternLength)
+        }
+
+        qg = QueryGraph(patternNodes = patternNodes.toSet, patternRelationships = patternRels.toSet)
+      }.withLogicalPlanningContext { (cfg, ctx) =>
+        plan = queryGraphSolver.plan(cfg.qg, InterestingOrder.empty, ctx).result
+      }
+      plan
+    }
+
+    val sequential = planWith(new ConfigurableIDPSolverConfig(maxTableSize = 64, iterationDurationLimit = Long.MaxValue))
+    val parallel = planWith(new ConfigurableIDPSolverConfig(maxTableSize = 64, iterationDurationLimit = Long.MaxValue, parallelism = 4))
+
+    parallel should equal(sequential)
+  }
+
   private def assertMinExpandsAndJoins(plan: LogicalPlan, numberOfExpands: Int, joinsPossible: Boolean, numberOfPatternRelationships: Int): Unit = {
     val counts = countExpandsAndJoins(plan)
     withClue("Expected expands: ") {
@@ -19,6 +19,9 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical.idp
 
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers
+import org.mockito.Mockito.atLeastOnce
 import org.mockito.Mockito.spy
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.verifyNoMoreInteractions
@@ -27,6 +30,7 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.time.FakeClock
 import org.neo4j.time.Stopwatch
 
+import scala.collection.JavaConverters.asScalaBufferConverter
 import scala.collection.immutable.BitSet
 
 class IDPSolverTest extends CypherFunSuite {
@@ -192,6 +196,73 @@ class IDPSolverTest extends CypherFunSuite {
     verifyNoMoreInteractions(monitor)
   }
 
+  test("Finds the same solution and compacts the same goals with parallel workers") {
+    def solveWith(parallelism: Int): (String, Seq[(Int, Int, Int)], Seq[Goal]) = {
+      var table: IDPTable[String] = null
+      val iterations = Seq.newBuilder[(Int, Int, Int)]
+      val monitor = new IDPSolverMonitor {
+        override def startIteration(iteration: Int): Unit = {}
+        override def endIteration(iteration: Int, depth: Int, tableSize: Int): Unit = iterations += ((iteration, depth, tableSize))
+        override def foundPlanAfter(iterations: Int): Unit = {}
+      }
+      val solver = new IDPSolver[Char, String, Unit](
+        monitor = monitor,
+        generator = stringAppendingSolverStep(),
+        projectingSelector = firstLongest,
+        tableFactory = (registry: IdRegistry[Char], seed: Seed[Char, String]) => {
+          table = spy(IDPTable(registry, seed))
+          table
+        },
+        maxTableSize = 16,
+        extraRequirement = ExtraRequirement.empty,
+        iterationDurationLimit = Int.MaxValue,
+        stopWatchFactory = neverTimesOut,
+        parallelism = parallelism
+      )
+
+      val seed = ('a' to 'j').map(c => (Set(c), false) -> c.toString)
+      val solution = solver(seed, 'a' to 'j', context)
+      val compacted = ArgumentCaptor.forClass(classOf[Goal])
+      verify(table, atLeastOnce()).removeAllTracesOf(compacted.capture())
+      (solution.bestResult, iterations.result(), compacted.getAllValues.asScala.toList)
+    }
+
+    val sequential = solveWith(1)
+    sequential._1 should equal("abcdefghij")
+    solveWith(4) should equal(sequential)
+    solveWith(3) should equal(sequential)
+  }
+
+  test("Only combines pairs once the planning budget is spent") {
+    val monitor = mock[IDPSolverMonitor]
+    val solver = new IDPSolver[Char, String, Unit](
+      monitor = monitor,
+      generator = stringAppendingSolverStep(),
+      projectingSelector = firstLongest,
+      maxTableSize = Int.MaxValue,
+      extraRequirement = ExtraRequirement.empty,
+      iterationDurationLimit = Int.MaxValue,
+      stopWatchFactory = neverTimesOut,
+      planningBudget = 0
+    )
+
+    val seed = Seq(
+      (Set('a'), false) -> "a",
+      (Set('b'), false) -> "b",
+      (Set('c'), false) -> "c",
+      (Set('d'), false) -> "d"
+    )
+
+    val solution = solver(seed, Seq('a', 'b', 'c', 'd'), context)
+
+    solution should equal(BestResults("abcd", None))
+    verify(monitor).planningBudgetExceeded(1)
+    verify(monitor).endIteration(ArgumentMatchers.eq(1), ArgumentMatchers.eq(2), ArgumentMatchers.anyInt())
+    verify(monitor).endIteration(ArgumentMatchers.eq(2), ArgumentMatchers.eq(2), ArgumentMatchers.anyInt())
+    verify(monitor).endIteration(ArgumentMatchers.eq(3), ArgumentMatchers.eq(2), ArgumentMatchers.anyInt())
+    verify(monitor).foundPlanAfter(3)
+  }
+
   case class TestIDPSolverMonitor() extends IDPSolverMonitor {
     var maxStartIteration = 0
     var foundPlanIteration = 0
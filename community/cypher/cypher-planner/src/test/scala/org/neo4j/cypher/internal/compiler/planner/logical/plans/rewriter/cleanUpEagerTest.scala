@@ -21,12 +21,17 @@ package org.neo4j.cypher.internal.compiler.planner.logical.plans.rewriter
 
 import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport
 import org.neo4j.cypher.internal.ir.NoHeaders
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.Ascending
 import org.neo4j.cypher.internal.logical.plans.DoNotIncludeTies
 import org.neo4j.cypher.internal.logical.plans.Eager
 import org.neo4j.cypher.internal.logical.plans.Limit
 import org.neo4j.cypher.internal.logical.plans.LoadCSV
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.PartialSort
 import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Sort
+import org.neo4j.cypher.internal.logical.plans.Top
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.util.attribution.Attributes
 import org.neo4j.cypher.internal.util.helpers.fixedPoint
@@ -44,6 +49,37 @@ class cleanUpEagerTest extends CypherFunSuite with LogicalPlanningTestSupport {
     rewrite(topPlan) should equal(Projection(Eager(leaf), Map.empty))
   }
 
+  test("should remove eager on top of sort") {
+    val leaf = newMockedLogicalPlan()
+    val sort = Sort(leaf, Seq(Ascending("a")))
+    val topPlan = Projection(Eager(sort), Map.empty)
+
+    rewrite(topPlan) should equal(Projection(sort, Map.empty))
+  }
+
+  test("should remove eager on top of top") {
+    val leaf = newMockedLogicalPlan()
+    val top = Top(leaf, Seq(Ascending("a")), literalInt(10))
+    val topPlan = Projection(Eager(top), Map.empty)
+
+    rewrite(topPlan) should equal(Projection(top, Map.empty))
+  }
+
+  test("should remove eager on top of aggregation") {
+    val leaf = newMockedLogicalPlan("a")
+    val aggregation = Aggregation(leaf, Map("a" -> varFor("a")), Map("c" -> countStar()))
+    val topPlan = Projection(Eager(aggregation), Map.empty)
+
+    rewrite(topPlan) should equal(Projection(aggregation, Map.empty))
+  }
+
+  test("should not remove eager on top of partial sort") {
+    val leaf = newMockedLogicalPlan()
+    val topPlan = Projection(Eager(PartialSort(leaf, Seq(Ascending("a")), Seq(Ascending("b")))), Map.empty)
+
+    rewrite(topPlan) should equal(topPlan)
+  }
+
   test("should not move eager below unwind") {
     val leaf = newMockedLogicalPlan()
     val eager = Eager(leaf)
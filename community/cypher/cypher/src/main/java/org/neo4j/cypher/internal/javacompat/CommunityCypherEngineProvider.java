@@ -28,6 +28,7 @@ import org.neo4j.cypher.internal.CypherRuntimeConfiguration;
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.cache.ExecutorBasedCaffeineCacheFactory;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
+import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -77,7 +78,13 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
         }
         else
         {
-            return new ExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory );
+            ExecutionEngine engine = new ExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory );
+            if ( spi.config().get( GraphDatabaseInternalSettings.cypher_persistent_query_cache ) )
+            {
+                spi.lifeSupport().add( new PersistentQueryCacheWarmup( engine, spi.jobScheduler(),
+                        deps.resolveDependency( DatabaseAvailabilityGuard.class ), graphAPI.databaseName() ) );
+            }
+            return engine;
         }
     }
 
@@ -19,17 +19,24 @@
  */
 package org.neo4j.cypher.internal.javacompat;
 
+import java.nio.file.Path;
 import java.time.Clock;
 import java.util.List;
 
+import scala.Option;
+
 import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.cypher.internal.CacheTracer;
 import org.neo4j.cypher.internal.CompilerFactory;
 import org.neo4j.cypher.internal.CompilerLibrary;
 import org.neo4j.cypher.internal.CypherConfiguration;
 import org.neo4j.cypher.internal.ExecutionEngineQueryCacheMonitor;
 import org.neo4j.cypher.internal.FullyParsedQuery;
+import org.neo4j.cypher.internal.PersistentQueryCache;
+import org.neo4j.cypher.internal.QueryCache;
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.runtime.InputDataStream;
 import org.neo4j.cypher.internal.tracing.CompilationTracer;
@@ -39,6 +46,8 @@ import org.neo4j.exceptions.Neo4jException;
 import org.neo4j.graphdb.NotInTransactionException;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.GraphDatabaseQueryService;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.query.FunctionInformation;
@@ -49,6 +58,7 @@ import org.neo4j.kernel.impl.query.QueryExecutionMonitor;
 import org.neo4j.kernel.impl.query.QuerySubscriber;
 import org.neo4j.kernel.impl.query.TransactionalContext;
 import org.neo4j.kernel.impl.util.WrappingEntity;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.values.virtual.MapValue;
@@ -71,7 +81,8 @@ public class ExecutionEngine implements QueryExecutionEngine
                             CompilerFactory compilerFactory )
     {
         cypherExecutionEngine =
-                makeExecutionEngine( queryService, cacheFactory, logProvider, new CompilerLibrary( compilerFactory, this::getCypherExecutionEngine ) );
+                makeExecutionEngine( queryService, cacheFactory, logProvider, new CompilerLibrary( compilerFactory, this::getCypherExecutionEngine ),
+                        makePersistentQueryCache( queryService, cacheFactory, logProvider ) );
     }
 
     /**
@@ -93,6 +104,13 @@ public class ExecutionEngine implements QueryExecutionEngine
 
     protected org.neo4j.cypher.internal.ExecutionEngine makeExecutionEngine( GraphDatabaseQueryService queryService, CaffeineCacheFactory cacheFactory,
                                                                              LogProvider logProvider, CompilerLibrary compilerLibrary )
+    {
+        return makeExecutionEngine( queryService, cacheFactory, logProvider, compilerLibrary, null );
+    }
+
+    private org.neo4j.cypher.internal.ExecutionEngine makeExecutionEngine( GraphDatabaseQueryService queryService, CaffeineCacheFactory cacheFactory,
+                                                                           LogProvider logProvider, CompilerLibrary compilerLibrary,
+                                                                           PersistentQueryCache persistentQueryCache )
     {
         DependencyResolver resolver = queryService.getDependencyResolver();
         Monitors monitors = resolver.resolveDependency( Monitors.class );
@@ -109,7 +127,26 @@ public class ExecutionEngine implements QueryExecutionEngine
                 compilerLibrary,
                 cacheFactory,
                 logProvider,
-                Clock.systemUTC() );
+                Clock.systemUTC(),
+                Option.apply( persistentQueryCache ) );
+    }
+
+    /**
+     * @return the persistent query cache of the database, or {@code null} if it is not enabled
+     */
+    private static PersistentQueryCache makePersistentQueryCache( GraphDatabaseQueryService queryService, CaffeineCacheFactory cacheFactory,
+                                                                  LogProvider logProvider )
+    {
+        DependencyResolver resolver = queryService.getDependencyResolver();
+        Config config = resolver.resolveDependency( Config.class );
+        if ( !config.get( GraphDatabaseInternalSettings.cypher_persistent_query_cache ) )
+        {
+            return null;
+        }
+        String databaseName = resolver.resolveDependency( GraphDatabaseAPI.class ).databaseName();
+        Path file = config.get( GraphDatabaseInternalSettings.cypher_persistent_query_cache_directory ).resolve( databaseName );
+        return new PersistentQueryCache( resolver.resolveDependency( FileSystemAbstraction.class ), file, cacheFactory,
+                config.get( GraphDatabaseSettings.query_cache_size ), logProvider.getLog( PersistentQueryCache.class ) );
     }
 
     @Override
@@ -175,6 +212,31 @@ public class ExecutionEngine implements QueryExecutionEngine
         return cypherExecutionEngine.clearQueryCaches();
     }
 
+    @Override
+    public long prewarmQueryCaches( List<Pair<String,MapValue>> queries )
+    {
+        long prewarmed = 0;
+        for ( Pair<String,MapValue> query : queries )
+        {
+            MapValue parameters = query.other();
+            if ( cypherExecutionEngine.prewarmQueryCache( query.first(), parameters, QueryCache.extractParameterTypeMap( parameters ) ) )
+            {
+                prewarmed++;
+            }
+        }
+        return prewarmed;
+    }
+
+    /**
+     * Compiles the queries recorded by the persistent query cache into the query cache.
+     *
+     * @return the number of queries that were compiled and cached
+     */
+    public int prewarmQueryCachesFromPersistentQueryCache()
+    {
+        return cypherExecutionEngine.prewarmQueryCacheFromPersistentQueryCache();
+    }
+
     @Override
     public List<FunctionInformation> getProvidedLanguageFunctions()
     {
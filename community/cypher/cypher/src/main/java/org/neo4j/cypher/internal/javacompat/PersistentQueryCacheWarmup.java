@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.javacompat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.availability.AvailabilityGuard;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * Compiles the queries recorded by the persistent query cache of a database into its query cache, in the background once the
+ * database has become available, so that startup is not held up by planning.
+ */
+class PersistentQueryCacheWarmup extends LifecycleAdapter
+{
+    private static final long AVAILABILITY_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis( 10 );
+
+    private final ExecutionEngine engine;
+    private final JobScheduler jobScheduler;
+    private final AvailabilityGuard availabilityGuard;
+    private final String databaseName;
+    private volatile JobHandle<?> jobHandle;
+
+    PersistentQueryCacheWarmup( ExecutionEngine engine, JobScheduler jobScheduler, AvailabilityGuard availabilityGuard, String databaseName )
+    {
+        this.engine = engine;
+        this.jobScheduler = jobScheduler;
+        this.availabilityGuard = availabilityGuard;
+        this.databaseName = databaseName;
+    }
+
+    @Override
+    public void start()
+    {
+        jobHandle = jobScheduler.schedule( Group.CYPHER_CACHE, systemJob( databaseName, "Persistent query cache warm-up" ), this::prewarm );
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( jobHandle != null )
+        {
+            jobHandle.cancel();
+            jobHandle = null;
+        }
+    }
+
+    private void prewarm()
+    {
+        if ( availabilityGuard.isAvailable( AVAILABILITY_TIMEOUT_MILLIS ) )
+        {
+            engine.prewarmQueryCachesFromPersistentQueryCache();
+        }
+    }
+}
@@ -21,20 +21,41 @@ package org.neo4j.cypher
 
 import java.util.concurrent.atomic.AtomicLong
 
+import org.neo4j.cypher.internal.CardinalityMisestimationMonitor
 import org.neo4j.cypher.internal.ExecutionEngineQueryCacheMonitor
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.internal.helpers.collection.Pair
 
-class PlanCacheMetricsMonitor extends ExecutionEngineQueryCacheMonitor {
+class PlanCacheMetricsMonitor extends ExecutionEngineQueryCacheMonitor with CardinalityMisestimationMonitor {
   private val counter = new AtomicLong()
   private val waitTime = new AtomicLong()
+  private val hits = new AtomicLong()
+  private val misses = new AtomicLong()
+  private val misestimates = new AtomicLong()
+  private val misestimationReplans = new AtomicLong()
+
+  override def cacheHit(ignored: Pair[String, ParameterTypeMap]): Unit = hits.incrementAndGet()
+
+  override def cacheMiss(ignored: Pair[String, ParameterTypeMap]): Unit = misses.incrementAndGet()
 
   override def cacheDiscard(ignored1: Pair[String, ParameterTypeMap], ignored2: String, secondsSinceReplan: Int, maybeReason: Option[String]): Unit = {
     counter.incrementAndGet()
     waitTime.addAndGet(secondsSinceReplan)
   }
 
+  override def cardinalityMisestimated(estimated: Double, actual: Long): Unit = misestimates.incrementAndGet()
+
+  override def misestimatedPlanMarkedForReplan(): Unit = misestimationReplans.incrementAndGet()
+
   def numberOfReplans: Long = counter.get()
 
   def replanWaitTime: Long = waitTime.get()
+
+  def numberOfHits: Long = hits.get()
+
+  def numberOfMisses: Long = misses.get()
+
+  def numberOfCardinalityMisestimates: Long = misestimates.get()
+
+  def numberOfMisestimationReplans: Long = misestimationReplans.get()
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.cache.LFUCache
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityFeedbackMetricsFactory
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeHashJoin
+import org.neo4j.cypher.internal.logical.plans.RightOuterHashJoin
+import org.neo4j.cypher.internal.logical.plans.Union
+import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Solveds
+import org.neo4j.cypher.internal.runtime.OperatorRowCounts
+import org.neo4j.cypher.internal.util.Cardinality
+
+/**
+ * Monitor for operators that produced far more or far fewer rows than the planner estimated.
+ */
+trait CardinalityMisestimationMonitor {
+  /**
+   * An operator produced `actual` rows, but was estimated to produce `estimated` rows.
+   */
+  def cardinalityMisestimated(estimated: Double, actual: Long): Unit
+
+  /**
+   * A cached plan was marked to be replanned, because of misestimated operators.
+   */
+  def misestimatedPlanMarkedForReplan(): Unit
+}
+
+/**
+ * Compares the rows that the operators of a plan produced with the cardinalities the planner estimated for them.
+ *
+ * An operator is misestimated if it produced more than `factor` times the estimated rows, or if it was read to the end
+ * and produced less than the estimated rows divided by `factor`. Differences below `minRows` rows are ignored. The
+ * observed cardinalities of misestimated operators are recorded in `observed` by the query graph they solved, to be used
+ * by the planner instead of its estimates, and the plan is marked to be replanned if anything new was recorded.
+ *
+ * Only operators that run once per execution, and solve a query graph that can be observed, are compared. Operators on the
+ * right hand side of e.g. an Apply run once per row of the left hand side, so their estimates are per run.
+ */
+class CardinalityMisestimationCheck(plan: LogicalPlan,
+                                    solveds: Solveds,
+                                    cardinalities: Cardinalities,
+                                    factor: Double,
+                                    minRows: Long,
+                                    observed: LFUCache[QueryGraph, Cardinality],
+                                    fingerprint: PlanFingerprintReference,
+                                    monitor: CardinalityMisestimationMonitor) {
+
+  private val candidates: Seq[CardinalityMisestimationCheck.Candidate] = {
+    val result = Seq.newBuilder[CardinalityMisestimationCheck.Candidate]
+    var plans = List(plan)
+    while (plans.nonEmpty) {
+      val current = plans.head
+      plans = plans.tail
+      if (solveds.isDefinedAt(current.id) && cardinalities.isDefinedAt(current.id)) {
+        CardinalityFeedbackMetricsFactory.observationKey(solveds.get(current.id)).foreach { solved =>
+          result += CardinalityMisestimationCheck.Candidate(current, solved, cardinalities.get(current.id))
+        }
+      }
+      plans = current.lhs.toList ++ runsOnce(current).toList ++ plans
+    }
+    result.result()
+  }
+
+  private def runsOnce(plan: LogicalPlan): Option[LogicalPlan] = plan match {
+    case _: NodeHashJoin | _: ValueHashJoin | _: LeftOuterHashJoin | _: RightOuterHashJoin | _: Union => plan.rhs
+    case _ => None
+  }
+
+  /**
+   * Compares the rows of one execution of the plan with the estimates.
+   */
+  def check(rowCounts: OperatorRowCounts): Unit = {
+    var reason: Option[String] = None
+    candidates.foreach { candidate =>
+      val id = candidate.plan.id
+      rowCounts.rows(id).foreach { rows =>
+        val estimated = candidate.estimated.amount
+        val underestimated = rows > math.max(estimated * factor, minRows)
+        val overestimated = rowCounts.isComplete(id) && estimated > math.max(rows * factor, minRows)
+        if (underestimated || overestimated) {
+          monitor.cardinalityMisestimated(estimated, rows)
+          if (observed.get(candidate.solved).isEmpty) {
+            observed.put(candidate.solved, Cardinality(rows))
+            if (reason.isEmpty) {
+              reason = Some(s"cardinality of ${candidate.plan.getClass.getSimpleName} was estimated as $estimated but was $rows")
+            }
+          }
+        }
+      }
+    }
+    reason.foreach { r =>
+      fingerprint.markMisestimated(r)
+      monitor.misestimatedPlanMarkedForReplan()
+    }
+  }
+}
+
+object CardinalityMisestimationCheck {
+  private case class Candidate(plan: LogicalPlan, solved: QueryGraph, estimated: Cardinality)
+}
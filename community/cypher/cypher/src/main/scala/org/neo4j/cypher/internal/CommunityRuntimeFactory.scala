@@ -25,12 +25,18 @@ import org.neo4j.exceptions.RuntimeUnsupportedException
 object CommunityRuntimeFactory {
 
   val interpreted = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, InterpretedRuntime), CypherRuntimeOption.interpreted)
+  val slotted = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, SlottedRuntime, InterpretedRuntime), CypherRuntimeOption.slotted)
+  val parallel = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, ParallelRuntime, SlottedRuntime, InterpretedRuntime), CypherRuntimeOption.parallel)
   val default = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, InterpretedRuntime), CypherRuntimeOption.default)
 
   def getRuntime(cypherRuntime: CypherRuntimeOption, disallowFallback: Boolean): CypherRuntime[RuntimeContext] =
     cypherRuntime match {
       case CypherRuntimeOption.interpreted => interpreted
 
+      case CypherRuntimeOption.slotted => slotted
+
+      case CypherRuntimeOption.parallel => parallel
+
       case CypherRuntimeOption.default => default
 
       case unsupported if disallowFallback =>
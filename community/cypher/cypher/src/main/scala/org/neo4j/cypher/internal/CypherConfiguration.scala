@@ -52,6 +52,8 @@ object CypherConfiguration {
       config.get(GraphDatabaseSettings.cypher_hints_error),
       config.get(GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold).toInt,
       config.get(GraphDatabaseInternalSettings.cypher_idp_solver_duration_threshold).toLong,
+      config.get(GraphDatabaseInternalSettings.cypher_idp_solver_planning_budget).toLong,
+      config.get(GraphDatabaseInternalSettings.cypher_idp_solver_parallelism).toInt,
       config.get(GraphDatabaseSettings.forbid_exhaustive_shortestpath),
       config.get(GraphDatabaseSettings.forbid_shortestpath_common_nodes),
       config.get(GraphDatabaseSettings.csv_legacy_quote_escaping),
@@ -118,6 +120,8 @@ case class CypherConfiguration(version: CypherVersion,
                                useErrorsOverWarnings: Boolean,
                                idpMaxTableSize: Int,
                                idpIterationDuration: Long,
+                               idpPlanningBudget: Long,
+                               idpParallelism: Int,
                                errorIfShortestPathFallbackUsedAtRuntime: Boolean,
                                errorIfShortestPathHasCommonNodesAtRuntime: Boolean,
                                legacyCsvQuoteEscaping: Boolean,
@@ -161,6 +165,10 @@ case class CypherConfiguration(version: CypherVersion,
       useErrorsOverWarnings = useErrorsOverWarnings,
       idpMaxTableSize = idpMaxTableSize,
       idpIterationDuration = idpIterationDuration,
+      idpPlanningBudget = idpPlanningBudget,
+      idpParallelism = idpParallelism,
+      misestimationReplanFactor = config.get(GraphDatabaseInternalSettings.cypher_misestimation_replan_factor).doubleValue(),
+      misestimationReplanMinRows = config.get(GraphDatabaseInternalSettings.cypher_misestimation_replan_min_rows).longValue(),
       errorIfShortestPathFallbackUsedAtRuntime = errorIfShortestPathFallbackUsedAtRuntime,
       errorIfShortestPathHasCommonNodesAtRuntime = errorIfShortestPathHasCommonNodesAtRuntime,
       legacyCsvQuoteEscaping = legacyCsvQuoteEscaping,
@@ -50,6 +50,7 @@ import org.neo4j.cypher.internal.runtime.ExplainMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.InternalQueryType
 import org.neo4j.cypher.internal.runtime.NormalMode
+import org.neo4j.cypher.internal.runtime.OperatorRowCounts
 import org.neo4j.cypher.internal.runtime.ProfileMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.READ_ONLY
@@ -162,6 +163,20 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
         throw e
     }
 
+    val misestimationCheck = logicalPlanResult.reusability match {
+      case MaybeReusable(fingerprint) if planner.config.misestimationReplanFactor > 0 && logicalPlanResult.shouldBeCached =>
+        Some(new CardinalityMisestimationCheck(
+          logicalPlan,
+          planningAttributesCopy.solveds,
+          planningAttributesCopy.cardinalities,
+          planner.config.misestimationReplanFactor,
+          planner.config.misestimationReplanMinRows,
+          planner.observedCardinalities,
+          fingerprint,
+          kernelMonitors.newMonitor(classOf[CardinalityMisestimationMonitor])))
+      case _ => None
+    }
+
     new CypherExecutableQuery(
       logicalPlan,
       logicalQuery.readOnly,
@@ -179,7 +194,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       queryType,
       logicalPlanResult.shouldBeCached,
       runtimeContext.config.enableMonitors,
-      logicalPlanResult.queryObfuscator
+      logicalPlanResult.queryObfuscator,
+      misestimationCheck
     )
   }
 
@@ -240,7 +256,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
                                         internalQueryType: InternalQueryType,
                                         override val shouldBeCached: Boolean,
                                         enableMonitors: Boolean,
-                                        override val queryObfuscator: QueryObfuscator) extends ExecutableQuery {
+                                        override val queryObfuscator: QueryObfuscator,
+                                        misestimationCheck: Option[CardinalityMisestimationCheck]) extends ExecutableQuery {
 
     //Monitors are implemented via dynamic proxies which are slow compared to NOOP which is why we want to able to completely disable
     private val searchMonitor = if (enableMonitors) kernelMonitors.newMonitor(classOf[IndexSearchMonitor]) else IndexSearchMonitor.NOOP
@@ -344,7 +361,14 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
           internalQueryType, allNotifications, subscriber)
       } else {
 
-        val runtimeResult = executionPlan.run(queryContext, innerExecutionMode, params, prePopulateResults, input, subscriber)
+        val runtimeResult = misestimationCheck match {
+          case Some(check) if innerExecutionMode == NormalMode =>
+            val rowCounts = new OperatorRowCounts
+            taskCloser.addTask(success => if (success) check.check(rowCounts))
+            executionPlan.run(queryContext, innerExecutionMode, params, prePopulateResults, input, subscriber, rowCounts)
+          case _ =>
+            executionPlan.run(queryContext, innerExecutionMode, params, prePopulateResults, input, subscriber)
+        }
 
         if (isOutermostQuery)
           transactionalContext.executingQuery().onExecutionStarted(runtimeResult)
@@ -62,7 +62,9 @@ class DefaultPlanStalenessCaller[EXECUTABLE_QUERY](clock: Clock,
     // because for us to plan a query this tx has to be open, e.g. not committed.
     lazy val currentTxId = lastCommittedTxIdProvider()
 
-    if (divergenceCalculator.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) && currentTxId != f.txId) {
+    if (ref.misestimation.isDefined) {
+      Stale(((currentTimeMillis - f.creationTimeMillis) / 1000).toInt, ref.misestimation)
+    } else if (divergenceCalculator.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) && currentTxId != f.txId) {
       //check if we have diverged?
       val threshold = divergenceCalculator.decay(currentTimeMillis - f.creationTimeMillis)
       val divergence = f.snapshot.diverges(f.snapshot.recompute(statistics))
@@ -33,9 +33,12 @@ import org.neo4j.cypher.internal.tracing.CompilationTracer
 import org.neo4j.cypher.internal.tracing.CompilationTracer.QueryCompilationEvent
 import org.neo4j.exceptions.ParameterNotFoundException
 import org.neo4j.internal.helpers.collection.Pair
+import org.neo4j.internal.kernel.api.security.LoginContext
 import org.neo4j.internal.kernel.api.security.AccessMode
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.KernelTransaction
 import org.neo4j.kernel.impl.query.FunctionInformation
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory
 import org.neo4j.kernel.impl.query.QueryExecution
 import org.neo4j.kernel.impl.query.QueryExecutionMonitor
 import org.neo4j.kernel.impl.query.QuerySubscriber
@@ -63,7 +66,8 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
                       val compilerLibrary: CompilerLibrary,
                       val cacheFactory: CaffeineCacheFactory,
                       val logProvider: LogProvider,
-                      val clock: Clock = Clock.systemUTC() ) {
+                      val clock: Clock = Clock.systemUTC(),
+                      val persistentQueryCache: Option[PersistentQueryCache] = None) {
 
   require(queryService != null, "Can't work with a null graph database")
 
@@ -105,6 +109,8 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
 
   private val schemaHelper = new SchemaHelper(queryCache)
 
+  private lazy val transactionalContextFactory = Neo4jTransactionalContextFactory.create(queryService)
+
   // ACTUAL FUNCTIONALITY
 
   /**
@@ -202,7 +208,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
                         subscriber: QuerySubscriber): QueryExecution = {
 
     val executableQuery = try {
-      getOrCompile(context, query, tracer, params)
+      getOrCompile(context, query, tracer, params, QueryCache.extractParameterTypeMap(params))
     } catch {
       case up: Throwable =>
         if (isOutermostQuery)
@@ -228,10 +234,11 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
   private def compilerWithExpressionCodeGenOption(inputQuery: InputQuery,
                                                   tracer: QueryCompilationEvent,
                                                   transactionalContext: TransactionalContext,
-                                                  params: MapValue): CompilerWithExpressionCodeGenOption[ExecutableQuery] = {
-    val compiledExpressionCompiler = () => masterCompiler.compile(inputQuery.withRecompilationLimitReached,
-      tracer, transactionalContext, params)
-    val interpretedExpressionCompiler = () => masterCompiler.compile(inputQuery, tracer, transactionalContext, params)
+                                                  params: MapValue,
+                                                  parameterTypes: ParameterTypeMap): CompilerWithExpressionCodeGenOption[ExecutableQuery] = {
+    val compiledExpressionCompiler = () => persisting(inputQuery, parameterTypes, masterCompiler.compile(inputQuery.withRecompilationLimitReached,
+      tracer, transactionalContext, params))
+    val interpretedExpressionCompiler = () => persisting(inputQuery, parameterTypes, masterCompiler.compile(inputQuery, tracer, transactionalContext, params))
 
     new CompilerWithExpressionCodeGenOption[ExecutableQuery] {
       override def compile(): ExecutableQuery = {
@@ -257,12 +264,25 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     }
   }
 
+  /*
+   * Record a compiled query with the persistent query cache, if there is one. Only queries given as text can be compiled again from the record.
+   */
+  private def persisting(inputQuery: InputQuery, parameterTypes: ParameterTypeMap, executableQuery: ExecutableQuery): ExecutableQuery = {
+    inputQuery match {
+      case preParsedQuery: PreParsedQuery if executableQuery.shouldBeCached =>
+        persistentQueryCache.foreach(_.record(preParsedQuery.rawStatement, parameterTypes))
+      case _ =>
+    }
+    executableQuery
+  }
+
   private def getOrCompile(context: TransactionalContext,
                            inputQuery: InputQuery,
                            tracer: QueryCompilationEvent,
                            params: MapValue,
+                           parameterTypes: ParameterTypeMap
                           ): ExecutableQuery = {
-    val cacheKey = Pair.of(inputQuery.cacheKey, QueryCache.extractParameterTypeMap(params))
+    val cacheKey = Pair.of(inputQuery.cacheKey, parameterTypes)
 
     // create transaction and query context
     val tc = context.getOrBeginNewIfClosed()
@@ -273,7 +293,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
       while (n < ExecutionEngine.PLAN_BUILDING_TRIES) {
 
         val schemaToken = schemaHelper.readSchemaToken(tc)
-        val compiler = compilerWithExpressionCodeGenOption(inputQuery, tracer, tc, params)
+        val compiler = compilerWithExpressionCodeGenOption(inputQuery, tracer, tc, params, parameterTypes)
         val executableQuery = queryCache.computeIfAbsentOrStale(cacheKey,
           tc,
           compiler,
@@ -297,6 +317,53 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
   def clearQueryCaches(): Long =
     List(masterCompiler.clearCaches(), queryCache.clear(), preParser.clearCache()).max
 
+  /**
+   * Compiles a query into the query cache without executing it, so that its first execution finds it there.
+   *
+   * @param query the query to compile
+   * @param params parameters of the types the query will be executed with
+   * @param parameterTypes the parameter types to cache the compiled query for
+   * @return `true` if the compiled query was cached
+   */
+  def prewarmQueryCache(query: String, params: MapValue, parameterTypes: ParameterTypeMap): Boolean = {
+    val tx = queryService.beginTransaction(KernelTransaction.Type.IMPLICIT, LoginContext.AUTH_DISABLED)
+    try {
+      val context = transactionalContextFactory.newContext(tx, query, params)
+      val queryTracer = tracer.compileQuery(query)
+      try {
+        val preParsedQuery = preParser.preParseQuery(query, profile = false, compilerLibrary.supportsAdministrativeCommands())
+        getOrCompile(context, preParsedQuery, queryTracer, params, parameterTypes).shouldBeCached
+      } finally {
+        queryTracer.close()
+        context.close()
+      }
+    } finally {
+      tx.close()
+    }
+  }
+
+  /**
+   * Compiles the queries recorded by the persistent query cache into the query cache.
+   *
+   * @return the number of queries that were compiled and cached
+   */
+  def prewarmQueryCacheFromPersistentQueryCache(): Int = persistentQueryCache match {
+    case Some(persistent) =>
+      val startTime = clock.millis()
+      val persistedQueries = persistent.load()
+      val prewarmed = persistedQueries.count(persistedQuery =>
+        try {
+          prewarmQueryCache(persistedQuery.query, persistedQuery.representativeParameters, persistedQuery.parameterTypes)
+        } catch {
+          case NonFatalCypherError(t) =>
+            log.debug(s"Could not compile persisted query into the query cache. Query: ${persistedQuery.query}", t)
+            false
+        })
+      log.info(s"Compiled $prewarmed of ${persistedQueries.size} persisted queries into the query cache in ${clock.millis() - startTime} ms")
+      prewarmed
+    case None => 0
+  }
+
   /**
    * @return { @code true} if the query is a PERIODIC COMMIT query and not an EXPLAIN query
    */
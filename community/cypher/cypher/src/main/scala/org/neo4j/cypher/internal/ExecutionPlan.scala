@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.OperatorRowCounts
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.ResourceMonitor
@@ -42,6 +43,19 @@ abstract class ExecutionPlan {
           input: InputDataStream,
           subscriber: QuerySubscriber): RuntimeResult
 
+  /**
+   * Runs the plan like [[run]], and counts the rows that the operators produce into `rowCounts`, see [[OperatorRowCounts]].
+   * Runtimes that can not count rows cheaply run the plan without counting, which leaves `rowCounts` empty.
+   */
+  def run(queryContext: QueryContext,
+          executionMode: ExecutionMode,
+          params: MapValue,
+          prePopulateResults: Boolean,
+          input: InputDataStream,
+          subscriber: QuerySubscriber,
+          rowCounts: OperatorRowCounts): RuntimeResult =
+    run(queryContext, executionMode, params, prePopulateResults, input, subscriber)
+
   /**
    * @return if this ExecutionPlan needs a thread safe cursor factory and resource manager factory to be used from the TransactionBoundQueryContext,
    *         then it has to override this method and provide it here.
@@ -72,6 +86,15 @@ abstract class DelegatingExecutionPlan(inner: ExecutionPlan) extends ExecutionPl
                    subscriber: QuerySubscriber): RuntimeResult =
     inner.run(queryContext, executionMode, params, prePopulateResults, input, subscriber)
 
+  override def run(queryContext: QueryContext,
+                   executionMode: ExecutionMode,
+                   params: MapValue,
+                   prePopulateResults: Boolean,
+                   input: InputDataStream,
+                   subscriber: QuerySubscriber,
+                   rowCounts: OperatorRowCounts): RuntimeResult =
+    inner.run(queryContext, executionMode, params, prePopulateResults, input, subscriber, rowCounts)
+
   override def runtimeName: RuntimeName = inner.runtimeName
 
   override def metadata: Seq[Argument] = inner.metadata
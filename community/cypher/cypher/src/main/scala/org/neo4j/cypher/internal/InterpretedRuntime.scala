@@ -23,6 +23,8 @@ import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.ExplainMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.NormalMode
+import org.neo4j.cypher.internal.runtime.OperatorRowCounts
 import org.neo4j.cypher.internal.runtime.ProfileMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
@@ -38,6 +40,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.NestedPipeExpressions
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.InterpretedProfileInformation
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
+import org.neo4j.cypher.internal.runtime.interpreted.profiler.RowCountingPipeDecorator
 import org.neo4j.cypher.internal.runtime.slottedParameters
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.result.RuntimeResult
@@ -92,7 +95,25 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
                      params: MapValue,
                      prePopulateResults: Boolean,
                      input: InputDataStream,
-                     subscriber: QuerySubscriber): RuntimeResult = {
+                     subscriber: QuerySubscriber): RuntimeResult =
+      run(queryContext, executionMode, params, prePopulateResults, input, subscriber, None)
+
+    override def run(queryContext: QueryContext,
+                     executionMode: ExecutionMode,
+                     params: MapValue,
+                     prePopulateResults: Boolean,
+                     input: InputDataStream,
+                     subscriber: QuerySubscriber,
+                     rowCounts: OperatorRowCounts): RuntimeResult =
+      run(queryContext, executionMode, params, prePopulateResults, input, subscriber, Some(rowCounts))
+
+    private def run(queryContext: QueryContext,
+                    executionMode: ExecutionMode,
+                    params: MapValue,
+                    prePopulateResults: Boolean,
+                    input: InputDataStream,
+                    subscriber: QuerySubscriber,
+                    rowCounts: Option[OperatorRowCounts]): RuntimeResult = {
       val doProfile = executionMode == ProfileMode
       val builderContext = if (!readOnly || doProfile) new UpdateCountingQueryContext(queryContext) else queryContext
       val builder = resultBuilderFactory.create(builderContext)
@@ -107,6 +128,8 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
       if (doProfile)
         builder.addProfileDecorator(new Profiler(queryContext.transactionalContext.dbmsInfo, profileInformation))
+      else if (executionMode == NormalMode)
+        rowCounts.foreach(counts => builder.addProfileDecorator(new RowCountingPipeDecorator(counts)))
 
       builder.build(params, readOnly, profileInformation, prePopulateResults, input, subscriber, doProfile)
     }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.InterpretedRuntime.InterpretedExecutionPlan
+import org.neo4j.cypher.internal.planning.ExceptionTranslatingQueryContext
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.expressionVariableAllocation
+import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
+import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionResultBuilderFactory
+import org.neo4j.cypher.internal.runtime.interpreted.InterpretedPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.ParallelPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.ParallelPipelines
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
+import org.neo4j.cypher.internal.runtime.slottedParameters
+import org.neo4j.exceptions.CantCompileQueryException
+
+/**
+ * Runs read-only queries that scan many nodes on several threads. The scan at the bottom of the plan is split into morsels
+ * of `unsupported.cypher.pipelined.batch_size_big` nodes, which workers take from the partitioned kernel scan and run
+ * through the operators above it, up to the first aggregation, distinct or sort, where the results of the workers are
+ * merged. See [[ParallelPipelines]] for the plans that are supported, anything else falls back to the slotted runtime
+ * through [[CommunityRuntimeFactory]].
+ *
+ * The operators themselves are the pipes of the interpreted runtime, and everything above the merge runs on the calling
+ * thread like it would in [[InterpretedRuntime]].
+ */
+object ParallelRuntime extends CypherRuntime[RuntimeContext] {
+  override def name: String = "parallel"
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+    if (!query.readOnly) {
+      throw new CantCompileQueryException("Only read-only queries are supported by the parallel runtime")
+    }
+    val Result(logicalPlan, nExpressionSlots, _) = expressionVariableAllocation.allocate(query.logicalPlan)
+    val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
+    val pipeline = ParallelPipelines.find(withSlottedParameters)
+
+    val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext))
+    val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
+    val interpretedPipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator)(query.semanticTable)
+    val pipeMapper = ParallelPipeMapper(interpretedPipeMapper, pipeline, context.config.pipelinedBatchSizeBig, newWorkerContext)
+    val pipe = PipeTreeBuilder(pipeMapper).build(withSlottedParameters)
+    val resultBuilderFactory = InterpretedExecutionResultBuilderFactory(pipe,
+      queryIndexRegistrator.result(),
+      nExpressionSlots,
+      parameterMapping,
+      query.readOnly,
+      query.resultColumns,
+      withSlottedParameters,
+      context.config.lenientCreateRelationship,
+      context.config.memoryTrackingController,
+      query.hasLoadCSV)
+
+    new InterpretedExecutionPlan(query.periodicCommitInfo,
+      resultBuilderFactory,
+      ParallelRuntimeName,
+      query.readOnly,
+      IndexedSeq.empty)
+  }
+
+  private def newWorkerContext(transactionalContext: TransactionalContextWrapper, resources: ResourceManager): QueryContext =
+    new ExceptionTranslatingQueryContext(new TransactionBoundQueryContext(transactionalContext, resources)(IndexSearchMonitor.NOOP))
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.time.ZoneOffset
+
+import com.github.benmanes.caffeine.cache.Cache
+import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
+import org.neo4j.io.fs.FileSystemAbstraction
+import org.neo4j.logging.Log
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.FloatingPointValue
+import org.neo4j.values.storable.IntegralValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.PointValue
+import org.neo4j.values.storable.TextValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.JavaConverters.asScalaSetConverter
+import scala.collection.mutable
+
+/**
+ * Keeps a record on disk of the queries that were compiled into the query cache of a database, so that they can be
+ * compiled into the cache again when the database starts instead of all being planned on their first execution.
+ *
+ * Logical and execution plans hold AST, semantic and runtime specific state that has no stable serialized form, so
+ * it is the cache keys, query text and parameter types, that are kept, and the plans are rebuilt from them. A rebuilt
+ * plan is planned against the statistics of the database at that time and gets a fresh [[PlanFingerprint]], which
+ * the [[DefaultPlanStalenessCaller]] checks as for any other cached plan.
+ *
+ * Queries are appended to the file as they are first compiled, so that the record survives a crash. The file is
+ * compacted when loaded, keeping the `maximumSize` queries that were recorded last.
+ */
+class PersistentQueryCache(fs: FileSystemAbstraction,
+                           file: Path,
+                           cacheFactory: CaffeineCacheFactory,
+                           maximumSize: Int,
+                           log: Log) {
+
+  private val recorded: Cache[PersistedQuery, java.lang.Boolean] = cacheFactory.createCache(maximumSize)
+
+  /**
+   * Record a query that was compiled into the query cache, unless it has been recorded already.
+   */
+  def record(query: String, parameterTypes: ParameterTypeMap): Unit = {
+    val persistedQuery = PersistedQuery(query, parameterTypes)
+    if (recorded.asMap().putIfAbsent(persistedQuery, java.lang.Boolean.TRUE) == null) {
+      writeAll(file, Seq(persistedQuery), append = true)
+    }
+  }
+
+  /**
+   * @return the recorded queries, the most recently recorded last.
+   */
+  def load(): Seq[PersistedQuery] = synchronized {
+    if (!fs.fileExists(file)) {
+      Seq.empty
+    } else {
+      val loaded = readAll().takeRight(maximumSize)
+      loaded.foreach(recorded.put(_, java.lang.Boolean.TRUE))
+      compact(loaded)
+      loaded
+    }
+  }
+
+  private def readAll(): Seq[PersistedQuery] = {
+    val queries = mutable.LinkedHashSet.empty[PersistedQuery]
+    try {
+      val in = new DataInputStream(new BufferedInputStream(fs.openAsInputStream(file)))
+      try {
+        while (true) {
+          readQuery(in).foreach { persistedQuery =>
+            // a query recorded again after being evicted moves to its most recent position
+            queries -= persistedQuery
+            queries += persistedQuery
+          }
+        }
+      } catch {
+        case _: EOFException => // the end of the file, or of a query that was only partially written
+      } finally {
+        in.close()
+      }
+    } catch {
+      case e: IOException =>
+        log.warn(s"Could not read the persistent query cache $file", e)
+    }
+    queries.toIndexedSeq
+  }
+
+  /**
+   * @return the next query, or `None` if the class of one of its parameters no longer exists.
+   */
+  private def readQuery(in: DataInputStream): Option[PersistedQuery] = {
+    val query = readString(in)
+    val numberOfParameters = in.readInt()
+    val parameterTypes = new java.util.HashMap[String, Class[_]]()
+    var known = true
+    var i = 0
+    while (i < numberOfParameters) {
+      val name = readString(in)
+      val className = readString(in)
+      try {
+        parameterTypes.put(name, Class.forName(className, false, getClass.getClassLoader))
+      } catch {
+        case _: ClassNotFoundException => known = false
+      }
+      i += 1
+    }
+    if (known) Some(PersistedQuery(query, ParameterTypeMap.of(parameterTypes))) else None
+  }
+
+  /*
+   * Replace the file with one holding only the given queries. The queries are written to a new file that then replaces the
+   * old one, so that a crash while compacting does not lose the record.
+   */
+  private def compact(queries: Seq[PersistedQuery]): Unit = {
+    val compacted = file.resolveSibling(file.getFileName.toString + ".compacted")
+    fs.deleteFile(compacted)
+    writeAll(compacted, queries, append = false)
+    try {
+      fs.renameFile(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+    } catch {
+      case e: IOException =>
+        log.warn(s"Could not compact the persistent query cache $file", e)
+    }
+  }
+
+  private def writeAll(file: Path, queries: Seq[PersistedQuery], append: Boolean): Unit = synchronized {
+    try {
+      fs.mkdirs(file.getParent)
+      val out = new DataOutputStream(new BufferedOutputStream(fs.openAsOutputStream(file, append)))
+      try {
+        queries.foreach(write(out, _))
+      } finally {
+        out.close()
+      }
+    } catch {
+      case e: IOException =>
+        log.warn(s"Could not write the persistent query cache $file", e)
+    }
+  }
+
+  private def write(out: DataOutputStream, persistedQuery: PersistedQuery): Unit = {
+    writeString(out, persistedQuery.query)
+    val parameterTypes = persistedQuery.parameterTypes.parameterTypes
+    out.writeInt(parameterTypes.size())
+    parameterTypes.entrySet().asScala.foreach { entry =>
+      writeString(out, entry.getKey)
+      writeString(out, entry.getValue.getName)
+    }
+  }
+
+  private def writeString(out: DataOutputStream, string: String): Unit = {
+    val bytes = string.getBytes(StandardCharsets.UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def readString(in: DataInputStream): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, StandardCharsets.UTF_8)
+  }
+}
+
+/**
+ * A query recorded by the [[PersistentQueryCache]].
+ *
+ * @param query the query text, including any pre-parser options
+ * @param parameterTypes the parameter types the query was compiled for
+ */
+case class PersistedQuery(query: String, parameterTypes: ParameterTypeMap) {
+
+  /**
+   * @return parameters of the recorded types to compile the query with. Planning only looks at the types of the
+   *         parameters, so any value of the right type will do.
+   */
+  def representativeParameters: MapValue = {
+    val builder = new MapValueBuilder()
+    parameterTypes.parameterTypes.forEach((name, valueClass) => builder.add(name, PersistedQuery.representativeValue(valueClass)))
+    builder.build()
+  }
+}
+
+object PersistedQuery {
+
+  def representativeValue(valueClass: Class[_]): AnyValue = {
+    def is(superClass: Class[_]): Boolean = superClass.isAssignableFrom(valueClass)
+
+    if (is(classOf[TextValue])) Values.EMPTY_STRING
+    else if (is(classOf[BooleanValue])) Values.FALSE
+    else if (is(classOf[IntegralValue])) Values.longValue(0)
+    else if (is(classOf[FloatingPointValue])) Values.doubleValue(0)
+    else if (is(classOf[PointValue])) Values.pointValue(CoordinateReferenceSystem.Cartesian, 0, 0)
+    else if (is(classOf[DateTimeValue])) DateTimeValue.datetime(0, 0, ZoneOffset.UTC)
+    else if (is(classOf[LocalDateTimeValue])) LocalDateTimeValue.localDateTime(0, 0)
+    else if (is(classOf[TimeValue])) TimeValue.time(0, ZoneOffset.UTC)
+    else if (is(classOf[LocalTimeValue])) LocalTimeValue.localTime(0)
+    else if (is(classOf[DateValue])) DateValue.epochDate(0)
+    else if (is(classOf[DurationValue])) DurationValue.ZERO
+    else if (is(classOf[MapValue])) VirtualValues.EMPTY_MAP
+    else if (is(classOf[ListValue])) VirtualValues.EMPTY_LIST
+    else Values.NO_VALUE
+  }
+}
@@ -38,4 +38,18 @@ object PlanFingerprint {
     PlanFingerprint(clock.millis(), txIdProvider(), graphStatistics.snapshot.freeze)
 }
 
-class PlanFingerprintReference(var fingerprint: PlanFingerprint)
+class PlanFingerprintReference(var fingerprint: PlanFingerprint) {
+  @volatile private var _misestimation: Option[String] = None
+
+  /**
+   * Marks the plan as stale because an execution saw far more or far fewer rows than the plan was built for.
+   * Only the first reason is kept.
+   */
+  def markMisestimated(reason: String): Unit = synchronized {
+    if (_misestimation.isEmpty) {
+      _misestimation = Some(reason)
+    }
+  }
+
+  def misestimation: Option[String] = _misestimation
+}
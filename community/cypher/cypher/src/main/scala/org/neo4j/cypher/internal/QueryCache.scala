@@ -375,6 +375,11 @@ object QueryCache {
       }
     }
 
+    /**
+     * @return the value class of every parameter, by parameter name.
+     */
+    def parameterTypes: java.util.Map[String, Class[_]] = java.util.Collections.unmodifiableMap(resultMap)
+
     // Implemented to simplify testing
     override def toString: String =
       scala.collection.JavaConverters.mapAsScalaMap(resultMap).toString
@@ -382,6 +387,19 @@ object QueryCache {
 
   object ParameterTypeMap {
     final val empty = new ParameterTypeMap(new java.util.HashMap(), 0)
+
+    /**
+     * Recreate the ParameterTypeMap of parameters with the given value classes, equal to the one
+     * [[extractParameterTypeMap()]] gives for parameter values of these classes.
+     */
+    def of(parameterTypes: java.util.Map[String, Class[_]]): ParameterTypeMap = {
+      val resultMap = new java.util.HashMap[String, Class[_]](parameterTypes)
+      var hashCode = 0
+      resultMap.forEach((key, valueClass) => hashCode = hashCode ^ hash(key, valueClass))
+      new ParameterTypeMap(resultMap, hashCode)
+    }
+
+    private[QueryCache] def hash(key: String, valueClass: Class[_]): Int = key.hashCode + 31 * valueClass.hashCode()
   }
 
   /**
@@ -394,7 +412,7 @@ object QueryCache {
       (key, value) => {
         val valueClass = value.getClass
         resultMap.put(key, valueClass)
-        hashCode = hashCode ^ (key.hashCode + 31 * valueClass.hashCode())
+        hashCode = hashCode ^ ParameterTypeMap.hash(key, valueClass)
       }
     )
     new ParameterTypeMap(resultMap, hashCode)
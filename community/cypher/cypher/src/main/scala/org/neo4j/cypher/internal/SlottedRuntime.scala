@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.InterpretedRuntime.InterpretedExecutionPlan
+import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.expressionVariableAllocation
+import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
+import org.neo4j.cypher.internal.runtime.interpreted.InterpretedPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.CompiledExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.SlotAllocation
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.SlottedExecutionResultBuilderFactory
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.SlottedExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.SlottedPipeMapper
+import org.neo4j.cypher.internal.runtime.slottedParameters
+
+/**
+ * Runs the pipes of the interpreted runtime over array backed rows, with a slot per variable assigned at planning time.
+ * Only supports read-only single pipeline plans, see [[SlotAllocation]], and throws [[org.neo4j.exceptions.CantCompileQueryException]]
+ * for anything else so that [[CommunityRuntimeFactory]] falls back to the interpreted runtime.
+ *
+ * When the context asks for compiled expressions, which by default happens once a query has been found in the query
+ * cache often enough, the expressions that [[CompiledExpressionConverter]] supports are compiled to byte code.
+ */
+object SlottedRuntime extends CypherRuntime[RuntimeContext] {
+  override def name: String = "slotted"
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+    val slots = SlotAllocation.allocateSlots(query.logicalPlan)
+    val Result(logicalPlan, nExpressionSlots, _) = expressionVariableAllocation.allocate(query.logicalPlan)
+    val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
+
+    val converters =
+      if (context.compileExpressions) {
+        new ExpressionConverters(CompiledExpressionConverter(slots, context.tokenContext), SlottedExpressionConverter(slots), CommunityExpressionConverter(context.tokenContext))
+      } else {
+        new ExpressionConverters(SlottedExpressionConverter(slots), CommunityExpressionConverter(context.tokenContext))
+      }
+    val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
+    val interpretedPipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator)(query.semanticTable)
+    val pipeMapper = SlottedPipeMapper(interpretedPipeMapper, slots, converters, context.tokenContext)
+    val pipe = PipeTreeBuilder(pipeMapper).build(withSlottedParameters)
+    val resultBuilderFactory = SlottedExecutionResultBuilderFactory(pipe,
+      slots,
+      queryIndexRegistrator.result(),
+      nExpressionSlots,
+      parameterMapping,
+      query.readOnly,
+      query.resultColumns,
+      withSlottedParameters,
+      context.config.lenientCreateRelationship,
+      context.config.memoryTrackingController)
+
+    new InterpretedExecutionPlan(query.periodicCommitInfo,
+      resultBuilderFactory,
+      SlottedRuntimeName,
+      query.readOnly,
+      IndexedSeq.empty)
+  }
+}
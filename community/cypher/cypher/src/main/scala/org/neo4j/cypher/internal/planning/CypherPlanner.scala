@@ -56,6 +56,7 @@ import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
 import org.neo4j.cypher.internal.compiler.phases.PlannerContext
 import org.neo4j.cypher.internal.compiler.phases.PlannerContextCreator
 import org.neo4j.cypher.internal.compiler.planner.logical.CachedMetricsFactory
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityFeedbackMetricsFactory
 import org.neo4j.cypher.internal.compiler.planner.logical.SimpleMetricsFactory
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.ComponentConnectorPlanner
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.ConfigurableIDPSolverConfig
@@ -72,6 +73,7 @@ import org.neo4j.cypher.internal.expressions.SensitiveString
 import org.neo4j.cypher.internal.frontend.phases.BaseState
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
 import org.neo4j.cypher.internal.frontend.phases.Monitors
+import org.neo4j.cypher.internal.ir.QueryGraph
 import org.neo4j.cypher.internal.logical.plans.AdministrationCommandLogicalPlan
 import org.neo4j.cypher.internal.logical.plans.LoadCSV
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
@@ -90,6 +92,7 @@ import org.neo4j.cypher.internal.rewriting.rewriters.InnerVariableNamer
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
 import org.neo4j.cypher.internal.spi.ExceptionTranslatingPlanContext
 import org.neo4j.cypher.internal.spi.TransactionBoundPlanContext
+import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.InputPosition
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.InternalNotificationLogger
@@ -134,6 +137,12 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
 
   private val parsedQueries = new LFUCache[String, BaseState](cacheFactory, config.queryCacheSize)
 
+  /**
+   * Cardinalities that operators were observed to produce, by the query graph they solved, for operators whose estimate
+   * was far off. Used instead of the estimates when planning.
+   */
+  val observedCardinalities = new LFUCache[QueryGraph, Cardinality](cacheFactory, config.queryCacheSize)
+
   private val monitors: Monitors = WrappedMonitors(kernelMonitors)
 
   private val cacheTracer: CacheTracer[Pair[Statement, ParameterTypeMap]] = monitors.newMonitor[CacheTracer[Pair[Statement, ParameterTypeMap]]]("cypher")
@@ -180,6 +189,7 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
    * @return the number of entries that were cleared
    */
   def clearCaches(): Long = {
+    observedCardinalities.clear()
     Math.max(parsedQueries.clear(), planCache.clear())
   }
 
@@ -282,7 +292,7 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       options.debugOptions,
       Some(options.offset),
       monitors,
-      CachedMetricsFactory(SimpleMetricsFactory),
+      CachedMetricsFactory(CardinalityFeedbackMetricsFactory(SimpleMetricsFactory, observedCardinalities.get)),
       createQueryGraphSolver(options.connectComponentsPlanner),
       config,
       maybeUpdateStrategy.getOrElse(defaultUpdateStrategy),
@@ -398,7 +408,9 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
         val monitor = monitors.newMonitor[IDPQueryGraphSolverMonitor]()
         val solverConfig = new ConfigurableIDPSolverConfig(
           maxTableSize = config.idpMaxTableSize,
-          iterationDurationLimit = config.idpIterationDuration
+          iterationDurationLimit = config.idpIterationDuration,
+          planningBudget = config.idpPlanningBudget,
+          parallelism = config.idpParallelism
         )
         val singleComponentPlanner = SingleComponentPlanner(monitor, solverConfig)
         val componentConnectorPlanner = connectComponentsPlannerOption match {
@@ -19,10 +19,12 @@
  */
 package org.neo4j.cypher.internal.spi
 
+import java.lang.Math.max
 import java.lang.Math.min
 
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexValueBound
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
@@ -34,8 +36,10 @@ import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
 import org.neo4j.internal.schema.SchemaDescriptor
+import org.neo4j.kernel.api.index.IndexValueHistogram
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.Value
 
 object TransactionBoundGraphStatistics {
   def apply(transactionalContext: TransactionalContext, log: Log): MinimumGraphStatistics =
@@ -102,6 +106,40 @@ object TransactionBoundGraphStatistics {
           None
       }
 
+    override def indexValueSelectivity(index: IndexDescriptor, value: Value): Option[Selectivity] =
+      histogram(index, "indexValueSelectivity")
+        .filter(_ => IndexValueHistogram.supports(value))
+        .flatMap(histogram => selectivityOfFraction(histogram, histogram.equalityFraction(value)))
+
+    override def indexExpectedValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
+      histogram(index, "indexExpectedValueSelectivity")
+        .flatMap(histogram => selectivityOfFraction(histogram, histogram.expectedEqualityFraction()))
+
+    override def indexRangeSelectivity(index: IndexDescriptor,
+                                       lower: Option[IndexValueBound],
+                                       upper: Option[IndexValueBound]): Option[Selectivity] =
+      histogram(index, "indexRangeSelectivity")
+        .filter(_ => (lower ++ upper).forall(bound => IndexValueHistogram.supports(bound.value)))
+        .flatMap { histogram =>
+          val fraction = histogram.rangeFraction(lower.map(_.value).orNull, lower.exists(_.inclusive), upper.map(_.value).orNull, upper.exists(_.inclusive))
+          selectivityOfFraction(histogram, fraction)
+        }
+
+    private def histogram(index: IndexDescriptor, estimate: String): Option[IndexValueHistogram] =
+      try {
+        val maybeIndexDescriptor = Option(Iterators.singleOrNull(schemaRead.index(SchemaDescriptor.forLabel(index.label, index.properties.map(_.id): _*))))
+        maybeIndexDescriptor.flatMap(indexDescriptor => Option(schemaRead.indexSample(indexDescriptor).histogram())).filter(_.totalCount() > 0)
+      }
+      catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug(s"Index not found for $estimate", e)
+          None
+      }
+
+    // The histogram is as old as the last sample of the index and values added since might not be in it, so never estimate less than one entry
+    private def selectivityOfFraction(histogram: IndexValueHistogram, fraction: Double): Option[Selectivity] =
+      Selectivity.of(min(1.0, max(fraction, 1.0 / histogram.totalCount())))
+
     override def nodesAllCardinality(): Cardinality =
       Cardinality(read.countsForNodeWithoutTxState(TokenRead.ANY_LABEL))
 
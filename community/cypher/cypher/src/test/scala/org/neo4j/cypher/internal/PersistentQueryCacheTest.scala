@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import java.nio.file.Path
+
+import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.cypher.internal.cache.TestExecutorCaffeineCacheFactory
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.logging.NullLog
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+class PersistentQueryCacheTest extends CypherFunSuite {
+
+  private val file = Path.of("query-cache", "neo4j")
+  private var fs: EphemeralFileSystemAbstraction = _
+
+  override protected def beforeEach(): Unit = fs = new EphemeralFileSystemAbstraction()
+
+  override protected def afterEach(): Unit = fs.close()
+
+  private def newCache(maximumSize: Int = 10) =
+    new PersistentQueryCache(fs, file, TestExecutorCaffeineCacheFactory, maximumSize, NullLog.getInstance())
+
+  private def parameterTypes(params: (String, AnyRef)*): ParameterTypeMap = {
+    QueryCache.extractParameterTypeMap(VirtualValues.map(params.map(_._1).toArray, params.map(p => Values.of(p._2)).toArray[AnyValue]))
+  }
+
+  test("should load nothing when nothing was recorded") {
+    newCache().load() shouldBe empty
+  }
+
+  test("should load recorded queries in the order they were recorded") {
+    val cache = newCache()
+    cache.record("MATCH (n) RETURN n", ParameterTypeMap.empty)
+    cache.record("MATCH (n {p: $p}) RETURN n", parameterTypes("p" -> "x"))
+    cache.record("CYPHER runtime=slotted MATCH (n) WHERE n.p > $p AND n.q = $q RETURN n", parameterTypes("p" -> Long.box(1), "q" -> "x"))
+
+    newCache().load() should equal(Seq(
+      PersistedQuery("MATCH (n) RETURN n", ParameterTypeMap.empty),
+      PersistedQuery("MATCH (n {p: $p}) RETURN n", parameterTypes("p" -> "x")),
+      PersistedQuery("CYPHER runtime=slotted MATCH (n) WHERE n.p > $p AND n.q = $q RETURN n", parameterTypes("p" -> Long.box(1), "q" -> "x"))
+    ))
+  }
+
+  test("should record a query once per parameter types") {
+    val cache = newCache()
+    cache.record("RETURN $p", parameterTypes("p" -> "x"))
+    cache.record("RETURN $p", parameterTypes("p" -> "y"))
+    cache.record("RETURN $p", parameterTypes("p" -> Long.box(1)))
+
+    newCache().load() should equal(Seq(
+      PersistedQuery("RETURN $p", parameterTypes("p" -> "x")),
+      PersistedQuery("RETURN $p", parameterTypes("p" -> Long.box(1)))
+    ))
+  }
+
+  test("should keep the most recently recorded queries when compacting") {
+    (1 to 3).foreach(_ => newCache(maximumSize = 2).record("RETURN 1", ParameterTypeMap.empty))
+    val writer = newCache(maximumSize = 2)
+    writer.record("RETURN 2", ParameterTypeMap.empty)
+    writer.record("RETURN 3", ParameterTypeMap.empty)
+    newCache(maximumSize = 2).record("RETURN 1", ParameterTypeMap.empty)
+
+    newCache(maximumSize = 2).load().map(_.query) should equal(Seq("RETURN 3", "RETURN 1"))
+    fs.getFileSize(file) should be < 64L
+  }
+
+  test("should not record loaded queries again") {
+    newCache().record("RETURN 1", ParameterTypeMap.empty)
+    val cache = newCache()
+    cache.load()
+    cache.record("RETURN 1", ParameterTypeMap.empty)
+
+    newCache().load().map(_.query) should equal(Seq("RETURN 1"))
+  }
+
+  test("should ignore a partially written query") {
+    newCache().record("RETURN 1", ParameterTypeMap.empty)
+    newCache().record("RETURN 2", ParameterTypeMap.empty)
+    val channel = fs.write(file)
+    channel.truncate(fs.getFileSize(file) - 2)
+    channel.close()
+
+    newCache().load().map(_.query) should equal(Seq("RETURN 1"))
+  }
+
+  test("should compile with representative parameters of the recorded types") {
+    val types = parameterTypes("s" -> "x", "i" -> Int.box(1), "d" -> Double.box(1.5), "b" -> Boolean.box(true))
+    val otherTypes = QueryCache.extractParameterTypeMap(VirtualValues.map(Array("date", "list"),
+      Array[AnyValue](DateValue.epochDate(100), VirtualValues.list(Values.stringValue("x")))))
+
+    val params = PersistedQuery("RETURN 1", types).representativeParameters
+    params.get("s") should equal(Values.EMPTY_STRING)
+    params.get("i") should equal(Values.longValue(0))
+    params.get("d") should equal(Values.doubleValue(0))
+    params.get("b") should equal(Values.FALSE)
+
+    val otherParams = PersistedQuery("RETURN 1", otherTypes).representativeParameters
+    otherParams.get("date") should equal(DateValue.epochDate(0))
+    otherParams.get("list") should equal(VirtualValues.EMPTY_LIST)
+  }
+}
@@ -52,6 +52,22 @@ class PlanStalenessCallerTest extends CypherFunSuite {
     }
   }
 
+  test("should be stale if the plan has been marked as misestimated, even if statistics have not changed") {
+    testAll { (name, clock) =>
+      val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0))
+      val fingerprintRef = new PlanFingerprintReference(PlanFingerprint(clock.millis(), 17, snapshot))
+      val divergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(name, 0.5, 0.1, 1000, 100000)
+
+      val stats: GraphStatistics = nodesWithLabelCardinality(21, 5.0)
+      val planStalenessCaller = new DefaultPlanStalenessCaller(clock, divergenceCalculator, TransactionIdSupplier(17), not_used, null)
+
+      fingerprintRef.markMisestimated("first")
+      fingerprintRef.markMisestimated("second")
+
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe Stale(0, Some("first"))
+    }
+  }
+
   test("should be stale if statistics decrease enough to pass the threshold") {
     testAll { (name, clock) =>
       val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0))
@@ -25,6 +25,7 @@ import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.when
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexValueBound
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.PropertyKeyId
@@ -36,7 +37,10 @@ import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelExcept
 import org.neo4j.internal.schema
 import org.neo4j.internal.schema.IndexPrototype
 import org.neo4j.internal.schema.SchemaDescriptor
+import org.neo4j.kernel.api.index.IndexSample
+import org.neo4j.kernel.api.index.IndexValueHistogram
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.Values.intValue
 
 class TransactionBoundGraphStatisticsTest extends CypherFunSuite {
 
@@ -164,6 +168,66 @@ class TransactionBoundGraphStatisticsTest extends CypherFunSuite {
     verify(theLog).debug("Index not found for uniqueValueSelectivity", exception)
   }
 
+  test("indexValueSelectivity should estimate from the value histogram") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(skewedSample)
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.indexValueSelectivity(index, intValue(1)) should equal(Some(Selectivity(0.9)))
+  }
+
+  test("indexValueSelectivity should never estimate less than one entry") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(skewedSample)
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.indexValueSelectivity(index, intValue(3)) should equal(Some(Selectivity(0.01)))
+  }
+
+  test("indexExpectedValueSelectivity should estimate from the value histogram") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(skewedSample)
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.indexExpectedValueSelectivity(index).get.factor should equal(0.9 * 0.9 + 0.1 * 0.1 +- 0.00000001)
+  }
+
+  test("indexRangeSelectivity should estimate from the value histogram") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(skewedSample)
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.indexRangeSelectivity(index, Some(IndexValueBound(intValue(1), inclusive = false)), None) should equal(Some(Selectivity(0.1)))
+  }
+
+  test("indexValueSelectivity should be unknown without a value histogram") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(new IndexSample(100, 2, 100))
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.indexValueSelectivity(index, intValue(1)) should equal(None)
+  }
+
+  private def skewedSample: IndexSample = {
+    val histogram = IndexValueHistogram.builder().add(intValue(1), 90).add(intValue(2), 10).build()
+    new IndexSample(100, 2, 100, 0, histogram)
+  }
+
   override protected def beforeEach(): Unit = {
     read = mock[Read]
     schemaRead = mock[SchemaRead]
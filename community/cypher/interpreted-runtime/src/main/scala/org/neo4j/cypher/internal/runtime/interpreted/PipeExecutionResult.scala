@@ -28,6 +28,11 @@ import org.neo4j.cypher.result.RuntimeResult
 import org.neo4j.cypher.result.RuntimeResult.ConsumptionState
 import org.neo4j.kernel.impl.query.QuerySubscriber
 
+/**
+ * Runs a pipe on demand. Rows are only pulled from the pipe when they have been requested, so rows reach the subscriber as
+ * they are produced. To know whether there are more rows, the row after the requested ones is computed, but it is not
+ * served until it is requested. Once cancelled, requesting or awaiting rows does not compute any more rows.
+ */
 class PipeExecutionResult(pipe: Pipe,
                           val fieldNames: Array[String],
                           val state: QueryState,
@@ -37,6 +42,7 @@ class PipeExecutionResult(pipe: Pipe,
 
   private var demand = 0L
   private var cancelled = false
+  private var completed = false
   private var inner: ClosingIterator[_] = _
   private val numberOfFields = fieldNames.length
 
@@ -71,15 +77,16 @@ class PipeExecutionResult(pipe: Pipe,
   }
 
   override def await(): Boolean = {
-    inner == null || (inner.hasNext && !cancelled)
+    inner == null || (!cancelled && inner.hasNext)
   }
 
   private def serveResults(): Unit = {
-    while (inner.hasNext && demand > 0 && !cancelled) {
+    while (demand > 0 && !cancelled && inner.hasNext) {
       inner.next()
       demand -= 1L
     }
-    if (!inner.hasNext) {
+    if (!completed && !cancelled && !inner.hasNext) {
+      completed = true
       subscriber.onResultCompleted(state.getStatistics)
     }
   }
@@ -137,9 +137,9 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
 
   private def writes() = transactionalContext.dataWrite
 
-  private def allocateNodeCursor() = transactionalContext.cursors.allocateNodeCursor( transactionalContext.kernelTransaction.pageCursorTracer() )
+  private def allocateNodeCursor() = transactionalContext.cursors.allocateNodeCursor( transactionalContext.cursorTracer )
 
-  private def allocateRelationshipScanCursor() = transactionalContext.cursors.allocateRelationshipScanCursor( transactionalContext.kernelTransaction.pageCursorTracer() )
+  private def allocateRelationshipScanCursor() = transactionalContext.cursors.allocateRelationshipScanCursor( transactionalContext.cursorTracer )
 
   private def tokenRead = transactionalContext.kernelTransaction.tokenRead()
 
@@ -208,7 +208,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
 
     val cursor = allocateNodeCursor()
     val cursors = transactionalContext.cursors
-    val cursorTracer = transactionalContext.kernelTransaction.pageCursorTracer()
+    val cursorTracer = transactionalContext.cursorTracer
 
     try {
       val read = reads()
@@ -247,7 +247,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     try {
       val read = reads()
       val cursors = transactionalContext.cursors
-      val cursorTracer = transactionalContext.kernelTransaction.pageCursorTracer()
+      val cursorTracer = transactionalContext.cursorTracer
       read.singleNode(node, cursor)
       if (!cursor.next()) ClosingLongIterator.emptyClosingRelationshipIterator
       else {
@@ -265,16 +265,16 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   }
 
   override def nodeCursor(): NodeCursor =
-    transactionalContext.cursors.allocateNodeCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+    transactionalContext.cursors.allocateNodeCursor(transactionalContext.cursorTracer)
 
   override def relationshipScanCursor(): RelationshipScanCursor =
-    transactionalContext.cursors.allocateRelationshipScanCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+    transactionalContext.cursors.allocateRelationshipScanCursor(transactionalContext.cursorTracer)
 
   override def propertyCursor(): PropertyCursor =
-    transactionalContext.cursors.allocatePropertyCursor(transactionalContext.kernelTransaction.pageCursorTracer, transactionalContext.tc.kernelTransaction().memoryTracker())
+    transactionalContext.cursors.allocatePropertyCursor(transactionalContext.cursorTracer, transactionalContext.tc.kernelTransaction().memoryTracker())
 
   override def traversalCursor(): RelationshipTraversalCursor =
-    transactionalContext.cursors.allocateRelationshipTraversalCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+    transactionalContext.cursors.allocateRelationshipTraversalCursor(transactionalContext.cursorTracer)
 
   override def relationshipById(relationshipId: Long,
                                 startNodeId: Long,
@@ -354,7 +354,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   override def lockingUniqueIndexSeek[RESULT](index: IndexDescriptor,
                                               queries: Seq[IndexQuery.ExactPredicate]): NodeValueIndexCursor = {
 
-    val cursor = transactionalContext.cursors.allocateNodeValueIndexCursor(transactionalContext.kernelTransaction.pageCursorTracer, transactionalContext.tc.kernelTransaction().memoryTracker())
+    val cursor = transactionalContext.cursors.allocateNodeValueIndexCursor(transactionalContext.cursorTracer, transactionalContext.tc.kernelTransaction().memoryTracker())
     try {
       indexSearchMonitor.lockingUniqueIndexSeek(index, queries)
       if (queries.exists(q => q.value() eq Values.NO_VALUE))
@@ -1048,25 +1048,25 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   }
 
   private def allocateAndTraceNodeCursor() = {
-    val cursor = transactionalContext.cursors.allocateNodeCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+    val cursor = transactionalContext.cursors.allocateNodeCursor(transactionalContext.cursorTracer)
     resources.trace(cursor)
     cursor
   }
 
   private def allocateAndTraceRelationshipScanCursor() = {
-    val cursor = transactionalContext.cursors.allocateRelationshipScanCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+    val cursor = transactionalContext.cursors.allocateRelationshipScanCursor(transactionalContext.cursorTracer)
     resources.trace(cursor)
     cursor
   }
 
   private def allocateAndTraceNodeValueIndexCursor() = {
-    val cursor = transactionalContext.cursors.allocateNodeValueIndexCursor(transactionalContext.kernelTransaction.pageCursorTracer, transactionalContext.kernelTransaction.memoryTracker())
+    val cursor = transactionalContext.cursors.allocateNodeValueIndexCursor(transactionalContext.cursorTracer, transactionalContext.kernelTransaction.memoryTracker())
     resources.trace(cursor)
     cursor
   }
 
   private def allocateAndTraceNodeLabelIndexCursor() = {
-    val cursor = transactionalContext.cursors.allocateNodeLabelIndexCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+    val cursor = transactionalContext.cursors.allocateNodeLabelIndexCursor(transactionalContext.cursorTracer)
     resources.trace(cursor)
     cursor
   }
@@ -26,6 +26,7 @@ import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.Write
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.api.KernelTransaction
 import org.neo4j.kernel.database.NamedDatabaseId
@@ -34,11 +35,13 @@ import org.neo4j.kernel.impl.factory.DbmsInfo
 import org.neo4j.kernel.impl.query.TransactionalContext
 
 /**
- * TODO: Currently threadSafeCursors is entirely unused (always null), so we should consider removing it
- *
- * @param threadSafeCursors use this instead of the cursors of the current transaction, unless this is `null`.
+ * @param threadSafeCursors      use this instead of the cursors of the current transaction, unless this is `null`.
+ * @param threadSafeCursorTracer use this instead of the page cursor tracer of the current transaction, unless this is `null`.
+ *                               Cursors of threads other than the one of the transaction need a tracer of their own.
  */
-case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCursors: CursorFactory = null) extends QueryTransactionalContext {
+case class TransactionalContextWrapper(tc: TransactionalContext,
+                                       threadSafeCursors: CursorFactory = null,
+                                       threadSafeCursorTracer: PageCursorTracer = null) extends QueryTransactionalContext {
 
   def kernelTransaction: KernelTransaction = tc.kernelTransaction()
 
@@ -48,6 +51,8 @@ case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCurso
 
   override def cursors: CursorFactory = if (threadSafeCursors == null) tc.kernelTransaction.cursors() else threadSafeCursors
 
+  def cursorTracer: PageCursorTracer = if (threadSafeCursorTracer == null) tc.kernelTransaction.pageCursorTracer() else threadSafeCursorTracer
+
   override def dataRead: Read = tc.kernelTransaction().dataRead()
 
   override def tokenRead: TokenRead = tc.kernelTransaction().tokenRead()
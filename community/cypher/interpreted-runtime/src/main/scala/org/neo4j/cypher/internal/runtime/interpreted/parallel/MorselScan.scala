@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+import org.neo4j.cypher.internal.runtime.InputCursor
+import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
+import org.neo4j.values.AnyValue
+
+/**
+ * The leaf of a parallel pipeline. It is partitioned once per execution with the kernel's [[Scan]], and every worker then
+ * reserves morsels, batches of nodes, from the shared partition until the scan is exhausted.
+ */
+sealed trait MorselScan {
+
+  /**
+   * Partitions the scan and creates one input per worker, each reading through its own cursor.
+   *
+   * @param query          the query context of the calling thread, used to start the partitioned scan
+   * @param workerContexts the query context of each worker, used to look up the scanned nodes
+   * @param cursorTracers  the page cursor tracer of each worker, used by its cursor
+   */
+  def inputs(query: QueryContext,
+             workerContexts: Seq[QueryContext],
+             cursors: CursorFactory,
+             cursorTracers: Seq[PageCursorTracer],
+             morselSize: Int,
+             cancelled: AtomicBoolean): Seq[MorselInput[_]]
+}
+
+case object AllNodesMorselScan extends MorselScan {
+  override def inputs(query: QueryContext,
+                      workerContexts: Seq[QueryContext],
+                      cursors: CursorFactory,
+                      cursorTracers: Seq[PageCursorTracer],
+                      morselSize: Int,
+                      cancelled: AtomicBoolean): Seq[MorselInput[_]] = {
+    val scan = query.transactionalContext.dataRead.allNodesScan()
+    workerContexts.zip(cursorTracers).map {
+      case (context, cursorTracer) =>
+        new MorselInput[NodeCursor](scan, cursors.allocateNodeCursor(cursorTracer), _.nodeReference(), context, morselSize, cancelled)
+    }
+  }
+}
+
+case class LabelMorselScan(label: LazyLabel) extends MorselScan {
+  override def inputs(query: QueryContext,
+                      workerContexts: Seq[QueryContext],
+                      cursors: CursorFactory,
+                      cursorTracers: Seq[PageCursorTracer],
+                      morselSize: Int,
+                      cancelled: AtomicBoolean): Seq[MorselInput[_]] = {
+    val labelId = label.getId(query)
+    if (labelId == LazyLabel.UNKNOWN) {
+      workerContexts.map(_ => MorselInput.empty)
+    } else {
+      val scan = query.transactionalContext.dataRead.nodeLabelScan(labelId)
+      workerContexts.zip(cursorTracers).map {
+        case (context, cursorTracer) =>
+          new MorselInput[NodeLabelIndexCursor](scan, cursors.allocateNodeLabelIndexCursor(cursorTracer), _.nodeReference(), context, morselSize, cancelled)
+      }
+    }
+  }
+}
+
+/**
+ * Feeds the morsels a single worker reserves to an [[org.neo4j.cypher.internal.runtime.interpreted.pipes.InputPipe]],
+ * which hands the scanned node to the rest of the pipeline as its only column.
+ *
+ * The same cursor is reused for every morsel, so closing a batch does nothing and the cursor is only closed by [[release]].
+ */
+class MorselInput[C <: Cursor](scan: Scan[C],
+                               cursor: C,
+                               nodeReference: C => Long,
+                               query: QueryContext,
+                               morselSize: Int,
+                               cancelled: AtomicBoolean) extends InputDataStream with InputCursor {
+
+  override def nextInputBatch(): InputCursor =
+    if (!cancelled.get() && scan.reserveBatch(cursor, morselSize)) this else null
+
+  override def next(): Boolean = cursor.next()
+
+  override def value(offset: Int): AnyValue = query.nodeById(nodeReference(cursor))
+
+  override def close(): Unit = {}
+
+  def release(): Unit = if (cursor != null) cursor.close()
+}
+
+object MorselInput {
+  val empty: MorselInput[Cursor] = new MorselInput[Cursor](null, null, _ => -1L, null, 1, null) {
+    override def nextInputBatch(): InputCursor = null
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.atomic.AtomicBoolean
+
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.runtime.BoundedQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.NoOpQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.CSVResources
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.ParallelPipe.WorkerContextFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NullPipeDecorator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.io.pagecache.tracing.PageCacheTracer
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
+import org.neo4j.kernel.api.Kernel
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobHandle
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.AnyValue
+
+import scala.collection.mutable
+
+/**
+ * Runs `source`, a pipeline of streaming pipes on top of an [[org.neo4j.cypher.internal.runtime.interpreted.pipes.InputPipe]],
+ * on several workers at once, and merges what the workers produced with `breaker`.
+ *
+ * All workers read from the same partitioned `scan`, each through a cursor, query context and query state of its own.
+ * One worker runs on the calling thread and the others on the Cypher worker threads of the [[JobScheduler]]. Their number
+ * is `unsupported.cypher.number_of_workers`, one per available processor if that is 0, and only the calling thread if it is -1.
+ *
+ * Buffered rows and groups are accounted to the memory tracker of this operator, and when profiling every worker
+ * records rows and db hits of the operators below this one in a profile of its own, see [[Profiler.newWorkerProfiler]].
+ *
+ * All workers read through the same [[org.neo4j.kernel.api.KernelTransaction]]. That is only safe because parallel
+ * pipelines are only planned for read-only queries, so the transaction state is not changed while the workers run, and
+ * because the workers allocate their cursors from the thread-safe cursor factory of the [[Kernel]] instead of the one of
+ * the transaction. The page cursor tracer of the transaction is not thread-safe either, so only the worker on the calling
+ * thread uses it. The other workers trace page accesses with a tracer of their own, which reports to the page cache
+ * tracer of the database when the worker is closed. Page cache statistics of the query therefore only include the
+ * pages accessed by the calling thread.
+ */
+case class ParallelPipe(source: Pipe,
+                        scan: MorselScan,
+                        breaker: PipelineBreaker,
+                        morselSize: Int,
+                        newWorkerContext: WorkerContextFactory)
+                       (val id: Id = Id.INVALID_ID) extends Pipe {
+
+  protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
+    val transactionalContext = state.query.transactionalContext match {
+      case tc: TransactionalContextWrapper => tc
+      case other => throw new IllegalStateException(s"Parallel pipelines need a transaction bound query context, got $other")
+    }
+    val dependencies = transactionalContext.graph.getDependencyResolver
+    val cursors = dependencies.resolveDependency(classOf[Kernel]).cursors()
+    val nWorkers = ParallelPipe.workerCount(dependencies.resolveDependency(classOf[Config]))
+    val pageCacheTracer = dependencies.resolveDependency(classOf[PageCacheTracer])
+    val cancelled = new AtomicBoolean(false)
+
+    // the first worker runs on the calling thread, which may use the page cursor tracer of the transaction
+    val contexts = (0 until nWorkers).map(i =>
+      new WorkerContext(transactionalContext, cursors, if (i == 0) null else pageCacheTracer.createPageCursorTracer(ParallelPipe.WORKER_TAG)))
+    val inputs = scan.inputs(state.query, contexts.map(_.query), cursors, contexts.map(_.cursorTracer), morselSize, cancelled)
+    val workers = contexts.zip(inputs).map {
+      case (context, input) => new Worker(context, input, state, cursors, cancelled)
+    }
+
+    val scheduler = dependencies.resolveDependency(classOf[JobScheduler])
+    val handles = mutable.ArrayBuffer.empty[JobHandle[_]]
+    try {
+      workers.tail.foreach(worker => handles += scheduler.schedule(Group.CYPHER_WORKER, worker))
+      workers.head.run()
+    } catch {
+      case t: Throwable =>
+        cancelled.set(true)
+        handles.foreach(ParallelPipe.awaitTermination(_, cancelled))
+        workers.foreach(_.close())
+        throw t
+    }
+    handles.foreach(ParallelPipe.awaitTermination(_, cancelled))
+
+    workers.flatMap(_.failure).headOption.foreach { failure =>
+      workers.foreach(_.close())
+      throw failure
+    }
+    breaker.merge(workers.map(_.partial), state, rowFactory, id).closing(new AutoCloseable {
+      override def close(): Unit = workers.foreach(_.close())
+    })
+  }
+
+  /**
+   * @param ownCursorTracer the page cursor tracer of a worker that does not run on the thread of the transaction, or
+   *                        `null` to use the one of the transaction.
+   */
+  private class WorkerContext(transactionalContext: TransactionalContextWrapper, cursors: CursorFactory, ownCursorTracer: PageCursorTracer) {
+    val resources = new ResourceManager()
+    private val workerTransactionalContext = TransactionalContextWrapper(transactionalContext.tc, cursors, ownCursorTracer)
+    val query: QueryContext = newWorkerContext(workerTransactionalContext, resources)
+
+    def cursorTracer: PageCursorTracer = workerTransactionalContext.cursorTracer
+
+    def close(): Unit = {
+      resources.close()
+      if (ownCursorTracer != null) {
+        ownCursorTracer.close()
+      }
+    }
+  }
+
+  private class Worker(context: WorkerContext,
+                       input: MorselInput[_],
+                       state: QueryState,
+                       cursors: CursorFactory,
+                       cancelled: AtomicBoolean) extends Runnable {
+
+    private val memoryTracker: QueryMemoryTracker =
+      if (state.memoryTracker.isEnabled) {
+        BoundedQueryMemoryTracker(new SynchronizedMemoryTracker(state.memoryTracker.memoryTrackerForOperator(id.x)))
+      } else {
+        NoOpQueryMemoryTracker
+      }
+
+    private val workerState = new QueryState(context.query,
+      new CSVResources(context.resources),
+      state.params,
+      new ExpressionCursors(cursors, context.cursorTracer, EmptyMemoryTracker.INSTANCE),
+      state.queryIndexes,
+      new Array[AnyValue](state.expressionVariables.length),
+      state.subscriber,
+      memoryTracker,
+      state.decorator match {
+        case profiler: Profiler => profiler.newWorkerProfiler()
+        case _ => NullPipeDecorator
+      },
+      input = input)
+
+    var partial: PartialResult = _
+    @volatile var failure: Option[Throwable] = None
+
+    override def run(): Unit = {
+      try {
+        partial = breaker.newPartialResult(workerState, rowFactory, id)
+        val rows = source.createResults(workerState)
+        while (rows.hasNext) {
+          partial.add(rows.next())
+        }
+        rows.close()
+        partial.finish()
+      } catch {
+        case t: Throwable =>
+          failure = Some(t)
+          cancelled.set(true)
+      }
+    }
+
+    def close(): Unit = {
+      if (partial != null) {
+        partial.close()
+      }
+      input.release()
+      workerState.close()
+      context.close()
+      memoryTracker match {
+        case tracker: BoundedQueryMemoryTracker => tracker.close()
+        case _ =>
+      }
+    }
+  }
+}
+
+object ParallelPipe {
+
+  private val WORKER_TAG = "parallelPipelineWorker"
+
+  /**
+   * Creates the query context of a worker, from a transactional context that uses the given thread-safe cursors.
+   */
+  type WorkerContextFactory = (TransactionalContextWrapper, ResourceManager) => QueryContext
+
+  def workerCount(config: Config): Int = config.get(GraphDatabaseInternalSettings.cypher_worker_count).intValue() match {
+    case 0 => Runtime.getRuntime.availableProcessors()
+    case n if n < 0 => 1
+    case n => n
+  }
+
+  private def awaitTermination(handle: JobHandle[_], cancelled: AtomicBoolean): Unit = {
+    var interrupted = false
+    var done = false
+    while (!done) {
+      try {
+        handle.waitTermination()
+        done = true
+      } catch {
+        case _: InterruptedException =>
+          // the workers still use the cursors and the transaction, so we can not return before they are done
+          interrupted = true
+          cancelled.set(true)
+        case _: ExecutionException =>
+          // workers catch their own failures, so this only happens if the job was cancelled
+          done = true
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt()
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Count
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Max
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Min
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Sum
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.ParallelPipe.WorkerContextFactory
+import org.neo4j.cypher.internal.runtime.interpreted.parallel.ParallelPipelines.ParallelPipeline
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.InputPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.SortPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingAggTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
+import org.neo4j.exceptions.CantCompileQueryException
+
+/**
+ * Builds the pipes of the interpreted runtime, except for the parallel `pipeline`. Its leaf becomes an [[InputPipe]] that
+ * the workers feed with morsels, and its breaker a [[ParallelPipe]] that runs the pipes in between on the workers.
+ *
+ * The breaker is first built by `inner`, and then taken apart into what each worker does and how the results of the
+ * workers are merged. Aggregations can only be merged when each aggregating function can be computed from the partial
+ * results of the workers, as for count, sum, min and max.
+ */
+case class ParallelPipeMapper(inner: PipeMapper,
+                              pipeline: ParallelPipeline,
+                              morselSize: Int,
+                              newWorkerContext: WorkerContextFactory) extends PipeMapper {
+
+  override def onLeaf(plan: LogicalPlan): Pipe =
+    if (plan.id == pipeline.leaf.id) {
+      plan match {
+        case AllNodesScan(ident, _) => InputPipe(Array(ident))(id = plan.id)
+        case NodeByLabelScan(ident, _, _, _) => InputPipe(Array(ident))(id = plan.id)
+      }
+    } else {
+      inner.onLeaf(plan)
+    }
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe =
+    if (plan.id == pipeline.breaker.id) {
+      ParallelPipe(source, morselScan, breaker(inner.onOneChildPlan(plan, source)), morselSize, newWorkerContext)(id = plan.id)
+    } else {
+      inner.onOneChildPlan(plan, source)
+    }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+
+  private def morselScan: MorselScan = pipeline.leaf match {
+    case _: AllNodesScan => AllNodesMorselScan
+    case NodeByLabelScan(_, label, _, _) => LabelMorselScan(LazyLabel(label.name))
+  }
+
+  private def breaker(pipe: Pipe): PipelineBreaker = pipe match {
+    case EagerAggregationPipe(_, partial@GroupingAggTable.Factory(groupingColumns, _, aggregations)) =>
+      val mergeGrouping = groupingColumns.map(mergeColumn)
+      AggregationBreaker(partial,
+        GroupingAggTable.Factory(mergeGrouping, AggregationPipe.computeGroupingFunction(mergeGrouping), aggregations.map(mergeColumn)))
+
+    case EagerAggregationPipe(_, partial@NonGroupingAggTable.Factory(aggregations)) =>
+      AggregationBreaker(partial, NonGroupingAggTable.Factory(aggregations.map(mergeColumn)))
+
+    case DistinctPipe(_, groupingColumns) =>
+      DistinctBreaker(groupingColumns)
+
+    case SortPipe(_, comparator) =>
+      SortBreaker(comparator)
+
+    case other =>
+      throw new CantCompileQueryException(s"${other.getClass.getSimpleName} can not be merged by the parallel runtime")
+  }
+
+  private def mergeColumn(column: GroupingCol): GroupingCol = GroupingCol(column.key, Variable(column.key))
+
+  private def mergeColumn(column: AggregatingCol): AggregatingCol = {
+    val partialResult = Variable(column.key)
+    column.expression match {
+      case _: CountStar | _: Count | _: Sum => AggregatingCol(column.key, Sum(partialResult))
+      case _: Min => AggregatingCol(column.key, Min(partialResult))
+      case _: Max => AggregatingCol(column.key, Max(partialResult))
+      case other =>
+        throw new CantCompileQueryException(s"Merging the results of ${other.getClass.getSimpleName} is not supported by the parallel runtime")
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Distinct
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandAll
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NestedPlanExpression
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.Sort
+import org.neo4j.exceptions.CantCompileQueryException
+
+/**
+ * Finds the part of a plan that can run on several workers: an all nodes or label scan, followed by streaming operators
+ * that handle each row on its own, up to the first aggregation, distinct or sort, the pipeline breaker where the results
+ * of the workers are merged. Everything above the breaker runs on the calling thread.
+ *
+ * Only plans where that pipeline is on the left-most branch of a tree without any apply, join or union are supported.
+ * Anything else is rejected with a [[CantCompileQueryException]], so that the query can fall back to another runtime.
+ */
+object ParallelPipelines {
+
+  case class ParallelPipeline(breaker: LogicalPlan, leaf: LogicalPlan)
+
+  def find(plan: LogicalPlan): ParallelPipeline = {
+    if (plan.treeExists { case _: NestedPlanExpression => true }) {
+      throw new CantCompileQueryException("Nested plan expressions are not supported by the parallel runtime")
+    }
+    val plans = Iterator.iterate[Option[LogicalPlan]](Some(plan))(_.flatMap(_.lhs)).takeWhile(_.isDefined).map(_.get).toList
+    plans.find(_.rhs.isDefined).foreach(p => unsupported(s"${p.getClass.getSimpleName} is"))
+
+    val leaf = plans.last
+    leaf match {
+      case AllNodesScan(_, argumentIds) if argumentIds.isEmpty =>
+      case NodeByLabelScan(_, _, argumentIds, _) if argumentIds.isEmpty =>
+      case _ => unsupported(s"Splitting ${leaf.getClass.getSimpleName} into morsels is")
+    }
+
+    val aboveLeaf = plans.init.reverse.dropWhile(isStreaming)
+    aboveLeaf.headOption match {
+      case Some(breaker) if isBreaker(breaker) => ParallelPipeline(breaker, leaf)
+      case Some(other) => unsupported(s"${other.getClass.getSimpleName} on top of a parallel pipeline is")
+      case None => unsupported("A plan without aggregation, distinct or sort is")
+    }
+  }
+
+  private def isStreaming(plan: LogicalPlan): Boolean = plan match {
+    case _: Selection | _: Projection => true
+    case expand: Expand => expand.mode == ExpandAll
+    case _ => false
+  }
+
+  private def isBreaker(plan: LogicalPlan): Boolean = plan match {
+    case _: Aggregation | _: Distinct | _: Sort => true
+    case _ => false
+  }
+
+  private def unsupported(what: String): Nothing =
+    throw new CantCompileQueryException(s"$what not supported by the parallel runtime")
+}
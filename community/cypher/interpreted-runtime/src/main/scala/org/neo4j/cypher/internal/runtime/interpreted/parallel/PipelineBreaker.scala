@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import java.util.Comparator
+
+import org.neo4j.collection.trackable.HeapTrackingArrayList
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.DistinctSet
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.ListValueBuilder
+
+import scala.collection.JavaConverters.asScalaIteratorConverter
+
+/**
+ * The operator that ends a parallel pipeline. Each worker feeds the rows of its morsels into a partial result of its own,
+ * and once every worker is done the partial results are merged on the calling thread.
+ */
+sealed trait PipelineBreaker {
+
+  /**
+   * Called on the worker thread, with the query state of the worker.
+   */
+  def newPartialResult(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): PartialResult
+
+  /**
+   * Called on the calling thread after all workers are done. The partial results are closed by the caller, after the
+   * returned iterator has been closed.
+   */
+  def merge(partials: Seq[PartialResult], state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): ClosingIterator[CypherRow]
+}
+
+trait PartialResult extends AutoCloseable {
+  def add(row: CypherRow): Unit
+
+  /**
+   * Called on the worker thread once the worker has run out of morsels.
+   */
+  def finish(): Unit
+}
+
+/**
+ * Aggregates the rows of each worker with `partial`, the same table the interpreted runtime uses, and then aggregates
+ * the partial rows of all workers with `merge`, which combines the values the workers computed for the same grouping key.
+ */
+case class AggregationBreaker(partial: AggregationTableFactory, merge: AggregationTableFactory) extends PipelineBreaker {
+
+  override def newPartialResult(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): PartialResult = {
+    val table = partial.table(state, rowFactory, operatorId)
+    table.clear()
+    new AggregationPartialResult(table)
+  }
+
+  override def merge(partials: Seq[PartialResult], state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): ClosingIterator[CypherRow] = {
+    val table = merge.table(state, rowFactory, operatorId)
+    table.clear()
+    // Without grouping, a worker that saw no rows still produces a row, with the value of each function over nothing.
+    // Those must not be merged, since for example the integer 0 of an empty sum can not be added to a sum of durations.
+    val aggregationPartials = partials.collect { case p: AggregationPartialResult => p }
+    val nonEmptyPartials = aggregationPartials.filter(_.rowCount > 0)
+    (if (nonEmptyPartials.isEmpty) aggregationPartials.take(1) else nonEmptyPartials).foreach {
+      p =>
+        val rows = p.table.result()
+        while (rows.hasNext) {
+          table.processRow(rows.next())
+        }
+        rows.close()
+    }
+    table.result()
+  }
+
+  private class AggregationPartialResult(val table: AggregationTable) extends PartialResult {
+    var rowCount = 0L
+
+    override def add(row: CypherRow): Unit = {
+      table.processRow(row)
+      rowCount += 1
+    }
+
+    override def finish(): Unit = {}
+
+    // The table is traced by the resources of the worker, which close it
+    override def close(): Unit = {}
+  }
+}
+
+/**
+ * Sorts the rows of each worker, and then sorts the concatenation of all sorted runs on the calling thread. The final
+ * sort is a merge of those runs, since the sort of [[java.util.List]] finds and merges runs that are already in order.
+ */
+case class SortBreaker(comparator: Comparator[ReadableRow]) extends PipelineBreaker {
+
+  override def newPartialResult(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): PartialResult =
+    new SortPartialResult(state.memoryTracker.memoryTrackerForOperator(operatorId.x).getScopedMemoryTracker)
+
+  override def merge(partials: Seq[PartialResult], state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): ClosingIterator[CypherRow] = {
+    val scopedMemoryTracker = state.memoryTracker.memoryTrackerForOperator(operatorId.x).getScopedMemoryTracker
+    var merged: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+    partials.foreach {
+      case p: SortPartialResult => merged.addAll(p.rows)
+    }
+    merged.sort(comparator)
+    new DelegatingClosingIterator[CypherRow](merged.iterator().asScala) {
+      override def closeMore(): Unit = {
+        merged = null
+        scopedMemoryTracker.close()
+      }
+    }
+  }
+
+  private class SortPartialResult(memoryTracker: MemoryTracker) extends PartialResult {
+    val rows: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, memoryTracker)
+
+    override def add(row: CypherRow): Unit = {
+      memoryTracker.allocateHeap(row.estimatedHeapUsage())
+      rows.add(row)
+    }
+
+    override def finish(): Unit = rows.sort(comparator)
+
+    override def close(): Unit = memoryTracker.close()
+  }
+}
+
+/**
+ * Keeps the first row of each worker for every distinct key, and then the first of those rows for every key on the calling
+ * thread. Like [[org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe]] the whole row is kept, not only the
+ * distinct columns.
+ */
+case class DistinctBreaker(groupingColumns: Array[GroupingCol]) extends PipelineBreaker {
+
+  override def newPartialResult(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): PartialResult =
+    new DistinctPartialResult(state, state.memoryTracker.memoryTrackerForOperator(operatorId.x).getScopedMemoryTracker)
+
+  override def merge(partials: Seq[PartialResult], state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): ClosingIterator[CypherRow] = {
+    val scopedMemoryTracker = state.memoryTracker.memoryTrackerForOperator(operatorId.x).getScopedMemoryTracker
+    var seen = DistinctSet.createDistinctSet[AnyValue](scopedMemoryTracker)
+    val rows = partials.iterator.flatMap {
+      case p: DistinctPartialResult => p.rows.iterator().asScala
+    }.filter(row => seen.add(groupingKey(row)))
+    new DelegatingClosingIterator[CypherRow](rows) {
+      override def closeMore(): Unit = {
+        seen.close()
+        seen = null
+        scopedMemoryTracker.close()
+      }
+    }
+  }
+
+  private def groupingKey(row: CypherRow): ListValue = {
+    val builder = ListValueBuilder.newListBuilder(groupingColumns.length)
+    var i = 0
+    while (i < groupingColumns.length) {
+      builder.add(row.getByName(groupingColumns(i).key))
+      i += 1
+    }
+    builder.build()
+  }
+
+  private class DistinctPartialResult(state: QueryState, memoryTracker: MemoryTracker) extends PartialResult {
+    private val seen = DistinctSet.createDistinctSet[AnyValue](memoryTracker)
+    val rows: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, memoryTracker)
+
+    override def add(row: CypherRow): Unit = {
+      var i = 0
+      while (i < groupingColumns.length) {
+        row.set(groupingColumns(i).key, groupingColumns(i).expression(row, state))
+        i += 1
+      }
+      if (seen.add(groupingKey(row))) {
+        memoryTracker.allocateHeap(row.estimatedHeapUsage())
+        rows.add(row)
+      }
+    }
+
+    override def finish(): Unit = {}
+
+    override def close(): Unit = {
+      seen.close()
+      memoryTracker.close()
+    }
+  }
+}
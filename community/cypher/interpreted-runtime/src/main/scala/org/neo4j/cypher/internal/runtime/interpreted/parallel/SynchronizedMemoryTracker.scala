@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.parallel
+
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.memory.ScopedMemoryTracker
+
+/**
+ * Lets all workers of a parallel pipeline account their allocations to the same memory tracker, which on its own is
+ * not thread-safe. Workers only allocate when a pipeline breaker buffers something, such as a new group or a row to
+ * sort, so the lock is not taken for every scanned row.
+ */
+class SynchronizedMemoryTracker(inner: MemoryTracker) extends MemoryTracker {
+
+  override def usedNativeMemory(): Long = synchronized(inner.usedNativeMemory())
+
+  override def estimatedHeapMemory(): Long = synchronized(inner.estimatedHeapMemory())
+
+  override def allocateNative(bytes: Long): Unit = synchronized(inner.allocateNative(bytes))
+
+  override def releaseNative(bytes: Long): Unit = synchronized(inner.releaseNative(bytes))
+
+  override def allocateHeap(bytes: Long): Unit = synchronized(inner.allocateHeap(bytes))
+
+  override def releaseHeap(bytes: Long): Unit = synchronized(inner.releaseHeap(bytes))
+
+  override def heapHighWaterMark(): Long = synchronized(inner.heapHighWaterMark())
+
+  override def reset(): Unit = synchronized(inner.reset())
+
+  override def getScopedMemoryTracker: MemoryTracker = new ScopedMemoryTracker(this)
+}
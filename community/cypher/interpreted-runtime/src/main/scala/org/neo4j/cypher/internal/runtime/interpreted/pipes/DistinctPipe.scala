@@ -26,8 +26,11 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expres
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection.DistinctSet
+import org.neo4j.kernel.impl.util.collection.OffHeapBlockAllocator
+import org.neo4j.kernel.impl.util.collection.OffHeapDistinctLongSet
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.ListValueBuilder
+import org.neo4j.values.virtual.VirtualNodeValue
 
 case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
                        (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
@@ -35,6 +38,14 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
   private val keyNames = groupingColumns.map(_.key)
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val blockAllocator = if (groupingColumns.length == 1) OffHeapHashTables.blockAllocator(state) else None
+    blockAllocator match {
+      case Some(allocator) => distinctOnColumn(input, state, allocator)
+      case None => distinctOnColumns(input, state)
+    }
+  }
+
+  private def distinctOnColumns(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     new PrefetchingIterator[CypherRow] {
       /*
        * The filtering is done by extracting from the context the values of all return expressions, and keeping them
@@ -70,6 +81,57 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
     }
   }
 
+  private def distinctOnColumn(input: ClosingIterator[CypherRow], state: QueryState, blockAllocator: OffHeapBlockAllocator): ClosingIterator[CypherRow] = {
+    val column = groupingColumns.head
+    val memoryTracker = state.memoryTracker.memoryTrackerForOperator(id.x)
+    new PrefetchingIterator[CypherRow] {
+      /*
+       * Nodes are kept by id in an off-heap set, and any other values of the column in the same set of grouping values
+       * as on heap. A node never equals a value of another type, so the two sets never need to be checked against each other.
+       */
+      private var seenNodes = OffHeapDistinctLongSet.createOffHeapDistinctLongSet(blockAllocator, memoryTracker)
+      private var seenValues: DistinctSet[AnyValue] = _
+
+      state.query.resources.trace(seenNodes)
+
+      override def produceNext(): Option[CypherRow] = {
+        while (input.hasNext) {
+          val next: CypherRow = input.next()
+          val value = column.expression(next, state)
+          next.set(column.key, value)
+
+          val isNew = value match {
+            case n: VirtualNodeValue => seenNodes.add(n.id())
+            case _ =>
+              if (seenValues == null) {
+                seenValues = DistinctSet.createDistinctSet[AnyValue](memoryTracker)
+                state.query.resources.trace(seenValues)
+              }
+              val builder = ListValueBuilder.newListBuilder(1)
+              builder.add(value)
+              seenValues.add(builder.build())
+          }
+          if (isNew) {
+            return Some(next)
+          }
+        }
+        closeMore()
+        None
+      }
+
+      override protected[this] def closeMore(): Unit = {
+        if (seenNodes != null) {
+          seenNodes.close()
+          seenNodes = null
+        }
+        if (seenValues != null) {
+          seenValues.close()
+          seenValues = null
+        }
+      }
+    }
+  }
+
   override def equals(obj: Any): Boolean = {
     obj match {
       case DistinctPipe(otherSource, otherGroupingColumns) =>
@@ -22,9 +22,12 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe.NO_NODE
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.CypherTypeException
 import org.neo4j.kernel.impl.util.collection
+import org.neo4j.kernel.impl.util.collection.OffHeapBlockAllocator
+import org.neo4j.kernel.impl.util.collection.OffHeapLongProbeTable
 import org.neo4j.values.storable.LongArray
 import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.VirtualNodeValue
@@ -44,6 +47,13 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return ClosingIterator.empty
 
+    OffHeapHashTables.blockAllocator(state) match {
+      case Some(blockAllocator) if cachedVariables.length == 1 => joinOnNodeId(input, rhsIterator, blockAllocator, state)
+      case _ => joinOnNodeIds(input, rhsIterator, state)
+    }
+  }
+
+  private def joinOnNodeIds(input: ClosingIterator[CypherRow], rhsIterator: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     val table = buildProbeTable(input, state)
     state.query.resources.trace(table)
 
@@ -66,6 +76,43 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     result.closing(table)
   }
 
+  /**
+   * Joins on a single node, by its id in an off-heap table.
+   */
+  private def joinOnNodeId(input: ClosingIterator[CypherRow],
+                           rhsIterator: ClosingIterator[CypherRow],
+                           blockAllocator: OffHeapBlockAllocator,
+                           state: QueryState): ClosingIterator[CypherRow] = {
+    val nodeVariable = cachedVariables.head
+    val table = OffHeapLongProbeTable.createOffHeapLongProbeTable[CypherRow](blockAllocator, state.memoryTracker.memoryTrackerForOperator(id.x))
+    state.query.resources.trace(table)
+
+    for (context <- input) {
+      val nodeId = computeNodeId(context, nodeVariable)
+      if (nodeId != NO_NODE) {
+        table.put(nodeId, context)
+      }
+    }
+
+    if (table.isEmpty) {
+      table.close()
+      return ClosingIterator.empty
+    }
+
+    val result =
+      for {
+        rhsRow <- rhsIterator
+        nodeId = computeNodeId(rhsRow, nodeVariable) if nodeId != NO_NODE
+        lhsRow <- table.get(nodeId).asScala
+      } yield {
+        val output = lhsRow.createClone()
+        output.mergeWith(rhsRow, state.query)
+        output
+      }
+
+    result.closing(table)
+  }
+
   private def buildProbeTable(input: Iterator[CypherRow], queryState: QueryState): collection.ProbeTable[LongArray, CypherRow] = {
     val table = collection.ProbeTable.createProbeTable[LongArray, CypherRow](queryState.memoryTracker.memoryTrackerForOperator(id.x))
 
@@ -83,12 +130,21 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     val key = new Array[Long](cachedVariables.length)
 
     for (idx <- cachedVariables.indices) {
-      key(idx) = context.getByName(cachedVariables(idx)) match {
-        case n: VirtualNodeValue => n.id()
-        case IsNoValue() => return None
-        case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
+      key(idx) = computeNodeId(context, cachedVariables(idx))
+      if (key(idx) == NO_NODE) {
+        return None
       }
     }
     Some(Values.longArray(key))
   }
+
+  private def computeNodeId(context: CypherRow, nodeVariable: String): Long = context.getByName(nodeVariable) match {
+    case n: VirtualNodeValue => n.id()
+    case IsNoValue() => NO_NODE
+    case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
+  }
+}
+
+object NodeHashJoinPipe {
+  private val NO_NODE = -1L
 }
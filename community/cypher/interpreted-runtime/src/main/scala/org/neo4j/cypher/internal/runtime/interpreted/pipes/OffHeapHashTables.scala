@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.kernel.impl.util.collection.OffHeapBlockAllocator
+
+/**
+ * Lets the pipes that hash node ids build their tables off-heap, with the block allocator of transaction state.
+ */
+object OffHeapHashTables {
+
+  /**
+   * @return the allocator to build off-heap tables with, or None if they are disabled or transaction state is kept on-heap.
+   */
+  def blockAllocator(state: QueryState): Option[OffHeapBlockAllocator] = state.query.transactionalContext match {
+    case tc: TransactionalContextWrapper =>
+      val dependencies = tc.graph.getDependencyResolver
+      if (dependencies.resolveDependency(classOf[Config]).get(GraphDatabaseInternalSettings.cypher_off_heap_hash_tables) &&
+          dependencies.containsDependency(classOf[OffHeapBlockAllocator])) {
+        Some(dependencies.resolveDependency(classOf[OffHeapBlockAllocator]))
+      } else {
+        None
+      }
+    case _ => None
+  }
+}
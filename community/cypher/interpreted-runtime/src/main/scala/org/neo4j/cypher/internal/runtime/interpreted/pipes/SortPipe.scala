@@ -26,21 +26,56 @@ import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.interpreted.spill.RowSpiller
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpillToDisk
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpilledRow
 import org.neo4j.cypher.internal.util.attribution.Id
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
 
+/**
+ * Sorts all rows in memory, or, when spilling to disk is enabled and the rows pass the spill threshold, writes them
+ * to disk in sorted blocks that are merged when the first row is pulled, see [[RowSpiller]].
+ */
 case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow])
                    (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(source) {
 
+  private val spilledRowComparator: Comparator[SpilledRow] = (a: SpilledRow, b: SpilledRow) => comparator.compare(a.row, b.row)
+
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     val scopedMemoryTracker = state.memoryTracker.memoryTrackerForOperator(id.x).getScopedMemoryTracker
     var arrayList: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+    val spillToDisk = SpillToDisk(state).orNull
+    var heapUsage = 0L
     while (input.hasNext) {
       val row = input.next()
-      scopedMemoryTracker.allocateHeap(row.estimatedHeapUsage())
+      val rowHeapUsage = row.estimatedHeapUsage()
+      scopedMemoryTracker.allocateHeap(rowHeapUsage)
       arrayList.add(row)
+      heapUsage += rowHeapUsage
+      if (spillToDisk != null && heapUsage > spillToDisk.threshold) {
+        RowSpillCodec.forRow(row, state.query) match {
+          case Some(codec) =>
+            val spiller = spillToDisk.newSpiller(codec, keyed = false, spilledRowComparator, scopedMemoryTracker)
+            arrayList.forEach(row => spiller.add(null, row))
+            arrayList.close()
+            arrayList = null
+            scopedMemoryTracker.releaseHeap(heapUsage)
+            while (input.hasNext) {
+              spiller.add(null, input.next())
+            }
+            val spilled = spiller.result()
+            return new DelegatingClosingIterator[CypherRow](spilled.map(_.row)) {
+              override def closeMore(): Unit = {
+                spilled.close()
+                scopedMemoryTracker.close()
+              }
+            }
+          case None =>
+        }
+      }
     }
     arrayList.sort(comparator)
     new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 
+import java.util.Comparator
+
 import org.eclipse.collections.api.block.function.Function2
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
@@ -30,14 +32,25 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.compu
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.interpreted.spill.RowSpiller
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpillToDisk
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpilledRow
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.memory.ScopedMemoryTracker
 import org.neo4j.values.AnyValue
+import org.neo4j.values.AnyValues
 
 /**
  * This table must be used when we have grouping columns, and there is no provided order for at least one grouping column.
  *
+ * When spilling to disk is enabled and the groups pass the spill threshold, no more groups are added. Rows of the groups
+ * seen so far are still aggregated in memory, while all other rows are written to disk sorted by their grouping key, see
+ * [[RowSpiller]]. Once the groups in memory have been returned, the spilled rows are read back one group at a time and
+ * aggregated like in [[OrderedGroupingAggTable]].
+ *
  * @param groupingColumns  all grouping columns
  * @param groupingFunction a precomputed function to calculate the grouping key of a row
  * @param aggregations     all aggregation columns
@@ -54,22 +67,49 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
   private[this] val memoryTracker = state.memoryTracker.memoryTrackerForOperator(operatorId.x)
   private[this] val newAggregators: Function2[AnyValue, MemoryTracker, Array[AggregationFunction]] =
     computeNewAggregatorsFunction(aggregations.map(_.expression))
+  private[this] var spillToDisk: SpillToDisk = SpillToDisk(state).orNull
+  // Counts the heap usage of the groups even when memory tracking is disabled, if spilling is enabled
+  private[this] var groupsMemoryTracker: MemoryTracker = _
+  private[this] var spiller: RowSpiller = _
 
   protected def close(): Unit = {
     if (resultMap != null) {
       resultMap.close()
     }
+    if (spiller != null) {
+      spiller.close()
+      spiller = null
+    }
   }
 
   override def clear(): Unit = {
     close()
-    resultMap = HeapTrackingOrderedAppendMap.createOrderedMap[AnyValue, Array[AggregationFunction]](memoryTracker)
+    groupsMemoryTracker = if (spillToDisk != null) new ScopedMemoryTracker(memoryTracker) else memoryTracker
+    resultMap = HeapTrackingOrderedAppendMap.createOrderedMap[AnyValue, Array[AggregationFunction]](groupsMemoryTracker)
     state.query.resources.trace(resultMap)
   }
 
   override def processRow(row: CypherRow): Unit = {
     val groupingValue: AnyValue = groupingFunction(row, state)
-    val aggregationFunctions = resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators)
+    if (spiller == null) {
+      aggregateRow(resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators), row)
+      if (spillToDisk != null && groupsMemoryTracker.estimatedHeapMemory() > spillToDisk.threshold) {
+        RowSpillCodec.forRow(row, state.query) match {
+          case Some(codec) => spiller = spillToDisk.newSpiller(codec, keyed = true, GroupingAggTable.GROUPING_KEY_ORDER, memoryTracker)
+          case None => spillToDisk = null
+        }
+      }
+    } else {
+      val aggregationFunctions = resultMap.get(groupingValue)
+      if (aggregationFunctions != null) {
+        aggregateRow(aggregationFunctions, row)
+      } else {
+        spiller.add(groupingValue, row)
+      }
+    }
+  }
+
+  private def aggregateRow(aggregationFunctions: Array[AggregationFunction], row: CypherRow): Unit = {
     var i = 0
     while (i < aggregationFunctions.length) {
       aggregationFunctions(i)(row, state)
@@ -77,9 +117,20 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
     }
   }
 
+  private def resultRow(groupingValue: AnyValue, aggregateFunctions: Array[AggregationFunction]): CypherRow = {
+    val row = state.newRow(rowFactory)
+    addKeys(row, groupingValue)
+    var i = 0
+    while (i < aggregateFunctions.length) {
+      row.set(aggregations(i).key, aggregateFunctions(i).result(state))
+      i += 1
+    }
+    row
+  }
+
   override def result(): ClosingIterator[CypherRow] = {
     val innerIterator = resultMap.autoClosingEntryIterator()
-    new ClosingIterator[CypherRow] {
+    val inMemoryResult = new ClosingIterator[CypherRow] {
 
       override protected[this] def closeMore(): Unit = resultMap.close()
 
@@ -87,25 +138,51 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
 
       override def next(): CypherRow = {
         val entry = innerIterator.next() // NOTE: This entry is transient and only valid until we call next() again
-        val unorderedGroupingValue = entry.getKey
-        val aggregateFunctions = entry.getValue
-        val row = state.newRow(rowFactory)
-        addKeys(row, unorderedGroupingValue)
-        var i = 0
-        while (i < aggregateFunctions.length) {
-          row.set(aggregations(i).key, aggregateFunctions(i).result(state))
-          i += 1
-        }
-        row
+        resultRow(entry.getKey, entry.getValue)
+      }
+    }
+    if (spiller == null) inMemoryResult else inMemoryResult ++ spilledResult(spiller)
+  }
+
+  /**
+   * Aggregates the spilled rows, which are merged on disk only when the first of them is needed.
+   */
+  private def spilledResult(spiller: RowSpiller): ClosingIterator[CypherRow] = new ClosingIterator[CypherRow] {
+    private[this] var spilled: ClosingIterator[SpilledRow] = _
+    private[this] var head: SpilledRow = _
 
+    override protected[this] def closeMore(): Unit = if (spilled != null) spilled.close() else spiller.close()
+
+    override protected[this] def innerHasNext: Boolean = {
+      if (spilled == null) {
+        spilled = spiller.result()
+        head = nextSpilled()
+      }
+      head != null
+    }
+
+    override def next(): CypherRow = {
+      val groupingValue = head.key
+      val groupMemoryTracker = memoryTracker.getScopedMemoryTracker
+      val aggregationFunctions = newAggregators.value(groupingValue, groupMemoryTracker)
+      while (head != null && head.key == groupingValue) {
+        aggregateRow(aggregationFunctions, head.row)
+        head = nextSpilled()
       }
+      val row = resultRow(groupingValue, aggregationFunctions)
+      groupMemoryTracker.close()
+      row
     }
+
+    private def nextSpilled(): SpilledRow = if (spilled.hasNext) spilled.next() else null
   }
 
 }
 
 object GroupingAggTable {
 
+  private val GROUPING_KEY_ORDER: Comparator[SpilledRow] = (a: SpilledRow, b: SpilledRow) => AnyValues.COMPARATOR.compare(a.key, b.key)
+
   case class Factory(groupingColumns: Array[GroupingCol],
                      groupingFunction: (CypherRow, QueryState) => AnyValue,
                      aggregations: Array[AggregatingCol]) extends AggregationTableFactory {
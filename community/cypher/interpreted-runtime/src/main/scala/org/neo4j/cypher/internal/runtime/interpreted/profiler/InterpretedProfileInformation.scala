@@ -65,10 +65,24 @@ class InterpretedProfileInformation extends QueryProfile {
 
   def setMemoryTracker(memoryTracker: QueryMemoryTracker): Unit = this.memoryTracker = memoryTracker
 
+  private val workers = mutable.ArrayBuffer.empty[InterpretedProfileInformation]
+
+  /**
+   * Creates the profile of one worker of a parallel pipeline. The rows and db hits of the workers are included in the
+   * profile of each operator, and are available per worker through [[workerProfiles]].
+   */
+  def newWorkerProfile(): InterpretedProfileInformation = {
+    val profile = new InterpretedProfileInformation
+    workers += profile
+    profile
+  }
+
+  def workerProfiles: Seq[InterpretedProfileInformation] = workers
+
   def operatorProfile(operatorId: Int): OperatorProfile = {
     val id = Id(operatorId)
-    val rows = rowMap.get(id).map(_.count).getOrElse(0L)
-    val dbHits = dbHitsMap.get(id).map(_.count).getOrElse(0L)
+    val rows = rowMap.get(id).map(_.count).getOrElse(0L) + workers.map(_.rowMap.get(id).map(_.count).getOrElse(0L)).sum
+    val dbHits = dbHitsMap.get(id).map(_.count).getOrElse(0L) + workers.map(_.dbHitsMap.get(id).map(_.count).getOrElse(0L)).sum
     val pageCacheStats = pageCacheMap(id)
     val maxMemoryAllocated = QueryMemoryTracker.memoryAsProfileData(memoryTracker.maxMemoryOfOperator(operatorId))
 
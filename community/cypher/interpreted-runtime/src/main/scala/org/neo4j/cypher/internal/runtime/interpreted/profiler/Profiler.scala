@@ -50,7 +50,8 @@ import org.neo4j.storageengine.api.RelationshipVisitor
 import org.neo4j.values.storable.Value
 
 class Profiler(dbmsInfo: DbmsInfo,
-               stats: InterpretedProfileInformation) extends PipeDecorator {
+               stats: InterpretedProfileInformation,
+               pageCacheStatsEnabled: Boolean = true) extends PipeDecorator {
   outerProfiler =>
 
   private var planIdStack: List[Id] = Nil
@@ -122,9 +123,15 @@ class Profiler(dbmsInfo: DbmsInfo,
   }
 
   private def trackPageCacheStats = {
-    dbmsInfo.edition != Edition.COMMUNITY
+    pageCacheStatsEnabled && dbmsInfo.edition != Edition.COMMUNITY
   }
 
+  /**
+   * A profiler for one worker of a parallel pipeline, to be used from that worker's thread only. The page cache statistics
+   * of the transaction are shared by all workers, so they can not be attributed to the operators a worker runs.
+   */
+  def newWorkerProfiler(): Profiler = new Profiler(dbmsInfo, stats.newWorkerProfile(), pageCacheStatsEnabled = false)
+
   override def innerDecorator(outerPlanId: Id): PipeDecorator = new PipeDecorator {
     innerProfiler =>
 
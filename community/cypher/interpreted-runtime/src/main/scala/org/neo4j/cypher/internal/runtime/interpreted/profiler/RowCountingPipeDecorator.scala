@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.profiler
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.OperatorRowCounts
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NullPipeDecorator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeDecorator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.attribution.Id
+
+/**
+ * Counts the rows that each pipe produces into `rowCounts`, without the db hit and page cache accounting of [[Profiler]],
+ * so that it is cheap enough to be used when the query is not profiled.
+ *
+ * Pipes of nested plan expressions and of the workers of parallel pipelines are not counted.
+ */
+class RowCountingPipeDecorator(rowCounts: OperatorRowCounts) extends PipeDecorator {
+
+  override def decorate(planId: Id, state: QueryState): QueryState = state
+
+  override def afterCreateResults(planId: Id, state: QueryState): Unit = {}
+
+  override def decorate(planId: Id, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = rowCounts.count(planId, iter)
+
+  override def innerDecorator(planId: Id): PipeDecorator = NullPipeDecorator
+}
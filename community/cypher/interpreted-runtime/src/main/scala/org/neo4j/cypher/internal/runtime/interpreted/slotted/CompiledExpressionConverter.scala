@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.codegen.api.ClassDeclaration
+import org.neo4j.codegen.api.CodeGeneration
+import org.neo4j.codegen.api.CodeGeneration.ByteCodeGeneration
+import org.neo4j.codegen.api.CodeGeneration.CodeSaver
+import org.neo4j.codegen.api.IntermediateRepresentation
+import org.neo4j.codegen.api.IntermediateRepresentation.noop
+import org.neo4j.codegen.api.IntermediateRepresentation.param
+import org.neo4j.codegen.api.IntermediateRepresentation.typeRefOf
+import org.neo4j.codegen.api.MethodDeclaration
+import org.neo4j.cypher.internal
+import org.neo4j.cypher.internal.planner.spi.TokenContext
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.ast.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.GroupingExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.values.AnyValue
+
+/**
+ * Compiles expressions into generated classes instead of trees of commands, saving the megamorphic call at every node
+ * of the tree. Only the expressions supported by [[IntermediateCodeGeneration]] are
+ * compiled, for everything else this returns `None` so that the next converter builds an interpreted command.
+ *
+ * Variables and parameters on their own are cheaper to interpret than to call through a generated class, so only
+ * expressions that combine them are compiled.
+ */
+case class CompiledExpressionConverter(slots: SlotConfiguration, tokenContext: TokenContext) extends ExpressionConverter {
+
+  override def toCommandExpression(id: Id, expression: internal.expressions.Expression, self: ExpressionConverters): Option[commands.expressions.Expression] =
+    expression match {
+      case _: internal.expressions.LogicalVariable |
+           _: internal.expressions.Literal |
+           _: internal.expressions.Parameter |
+           _: ParameterFromSlot => None
+      case _ =>
+        val generation = new IntermediateCodeGeneration(slots, tokenContext)
+        generation.compileExpression(expression).map { ir =>
+          CompiledCommandExpression(compile(ir, generation), expression)
+        }
+    }
+
+  override def toCommandProjection(id: Id, projections: Map[String, internal.expressions.Expression], self: ExpressionConverters): Option[CommandProjection] =
+    None
+
+  override def toGroupingExpression(id: Id, groupings: Map[String, internal.expressions.Expression], orderToLeverage: Seq[internal.expressions.Expression],
+                                    self: ExpressionConverters): Option[GroupingExpression] = None
+
+  private def compile(ir: IntermediateRepresentation, generation: IntermediateCodeGeneration): CompiledExpression = {
+    val declaration = ClassDeclaration[CompiledExpression](
+      // anonymous classes need to be in the same package as the class loading them
+      packageName = "org.neo4j.codegen",
+      className = "Expression",
+      extendsClass = None,
+      implementsInterfaces = Seq(typeRefOf[CompiledExpression]),
+      constructorParameters = Seq.empty,
+      initializationCode = noop(),
+      genFields = () => generation.fields,
+      methods = Seq(MethodDeclaration("evaluate",
+        returnType = typeRefOf[AnyValue],
+        parameters = Seq(param[ReadableRow](IntermediateCodeGeneration.ROW_PARAMETER), param[QueryState](IntermediateCodeGeneration.STATE_PARAMETER)),
+        body = ir)))
+
+    val generator = CodeGeneration.createGenerator(ByteCodeGeneration(new CodeSaver(false, false)))
+    CodeGeneration.compileAnonymousClass(declaration, generator).getDeclaredConstructor().newInstance()
+  }
+}
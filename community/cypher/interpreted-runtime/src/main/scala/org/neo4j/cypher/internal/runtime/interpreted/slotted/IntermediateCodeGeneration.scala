@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.codegen.api.Field
+import org.neo4j.codegen.api.IntermediateRepresentation
+import org.neo4j.codegen.api.IntermediateRepresentation.arrayLoad
+import org.neo4j.codegen.api.IntermediateRepresentation.block
+import org.neo4j.codegen.api.IntermediateRepresentation.constant
+import org.neo4j.codegen.api.IntermediateRepresentation.declareAndAssign
+import org.neo4j.codegen.api.IntermediateRepresentation.equal
+import org.neo4j.codegen.api.IntermediateRepresentation.falseValue
+import org.neo4j.codegen.api.IntermediateRepresentation.getStatic
+import org.neo4j.codegen.api.IntermediateRepresentation.invoke
+import org.neo4j.codegen.api.IntermediateRepresentation.invokeStatic
+import org.neo4j.codegen.api.IntermediateRepresentation.load
+import org.neo4j.codegen.api.IntermediateRepresentation.method
+import org.neo4j.codegen.api.IntermediateRepresentation.noValue
+import org.neo4j.codegen.api.IntermediateRepresentation.or
+import org.neo4j.codegen.api.IntermediateRepresentation.staticConstant
+import org.neo4j.codegen.api.IntermediateRepresentation.ternary
+import org.neo4j.codegen.api.IntermediateRepresentation.trueValue
+import org.neo4j.codegen.api.IntermediateRepresentation.typeRefOf
+import org.neo4j.cypher.internal
+import org.neo4j.cypher.internal.planner.spi.TokenContext
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.ast.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.IntermediateCodeGeneration.Local
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.IntermediateCodeGeneration.QUERY
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.IntermediateCodeGeneration.ROW
+import org.neo4j.cypher.internal.runtime.interpreted.slotted.IntermediateCodeGeneration.STATE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.operations.CypherBoolean
+import org.neo4j.cypher.operations.CypherMath
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.PropertyCursor
+import org.neo4j.internal.kernel.api.RelationshipScanCursor
+import org.neo4j.kernel.impl.util.ValueUtils
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.virtual.NodeValue
+import org.neo4j.values.virtual.RelationshipValue
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Translates a subset of expressions into intermediate representation, for [[CompiledExpressionConverter]] to turn into
+ * byte code. The generated code evaluates an expression inside a method taking the `row` and the query `state`.
+ *
+ * Every supported expression is translated to the same helper calls that the interpreted command for it uses, so
+ * both evaluate to the same values and throw the same errors. Anything else returns `None` and is left to be
+ * interpreted; its sub expressions may still be compiled on their own.
+ *
+ * The intermediate representation of an expression may start with statements storing intermediate values in local
+ * variables, followed by the value itself. The value never contains statements, since statements nested in the branch
+ * of a ternary would run whichever branch is taken.
+ */
+class IntermediateCodeGeneration(slots: SlotConfiguration, tokenContext: TokenContext) {
+
+  private val constants = ArrayBuffer.empty[Field]
+  private var counter = 0
+
+  /**
+   * @return the static fields holding the constants used by the expressions compiled so far.
+   */
+  def fields: Seq[Field] = constants
+
+  def compileExpression(expression: internal.expressions.Expression): Option[IntermediateRepresentation] = expression match {
+    case e: internal.expressions.Literal =>
+      Some(literal(ValueUtils.of(e.value)))
+
+    case ParameterFromSlot(offset, _, _) =>
+      Some(arrayLoad(invoke(STATE, method[QueryState, Array[AnyValue]]("params")), offset))
+
+    case internal.expressions.Variable(name) => slots.get(name).map {
+      case slot: LongSlot => entity(slot)
+      case RefSlot(offset) => invoke(ROW, method[ReadableRow, AnyValue, Int]("getRefAt"), constant(offset))
+    }
+
+    case internal.expressions.Property(internal.expressions.Variable(name), internal.expressions.PropertyKeyName(key)) =>
+      slots.get(name).collect {
+        case slot: LongSlot => entityProperty(slot, key)
+      }
+
+    case internal.expressions.IsNull(inner) =>
+      compileExpression(inner).map { value =>
+        val local = declareLocal(value)
+        block(local.declaration, ternary(equal(local.value, noValue), trueValue, falseValue))
+      }
+
+    case internal.expressions.IsNotNull(inner) =>
+      compileExpression(inner).map { value =>
+        val local = declareLocal(value)
+        block(local.declaration, ternary(equal(local.value, noValue), falseValue, trueValue))
+      }
+
+    case internal.expressions.Equals(lhs, rhs) =>
+      nullSafeBinary(lhs, rhs, method[CypherBoolean, Value, AnyValue, AnyValue]("equals"))
+    case internal.expressions.NotEquals(lhs, rhs) =>
+      nullSafeBinary(lhs, rhs, method[CypherBoolean, Value, AnyValue, AnyValue]("notEquals"))
+
+    case internal.expressions.LessThan(lhs, rhs) =>
+      binary(lhs, rhs, method[CypherBoolean, Value, AnyValue, AnyValue]("lessThan"))
+    case internal.expressions.LessThanOrEqual(lhs, rhs) =>
+      binary(lhs, rhs, method[CypherBoolean, Value, AnyValue, AnyValue]("lessThanOrEqual"))
+    case internal.expressions.GreaterThan(lhs, rhs) =>
+      binary(lhs, rhs, method[CypherBoolean, Value, AnyValue, AnyValue]("greaterThan"))
+    case internal.expressions.GreaterThanOrEqual(lhs, rhs) =>
+      binary(lhs, rhs, method[CypherBoolean, Value, AnyValue, AnyValue]("greaterThanOrEqual"))
+
+    case internal.expressions.Add(lhs, rhs) =>
+      nullSafeBinary(lhs, rhs, method[CypherMath, AnyValue, AnyValue, AnyValue]("add"))
+    case internal.expressions.Subtract(lhs, rhs) =>
+      nullSafeBinary(lhs, rhs, method[CypherMath, AnyValue, AnyValue, AnyValue]("subtract"))
+    case internal.expressions.Multiply(lhs, rhs) =>
+      nullSafeBinary(lhs, rhs, method[CypherMath, AnyValue, AnyValue, AnyValue]("multiply"))
+
+    case _ => None
+  }
+
+  private def literal(value: AnyValue): IntermediateRepresentation = {
+    val field = staticConstant[AnyValue](nextName("LITERAL"), value)
+    constants += field
+    getStatic(field)
+  }
+
+  private def entity(slot: LongSlot): IntermediateRepresentation = {
+    val id = declareId(slot)
+    val lookup =
+      if (slot.isNode) invoke(QUERY, method[QueryContext, NodeValue, Long]("nodeById"), id.value)
+      else invoke(QUERY, method[QueryContext, RelationshipValue, Long]("relationshipById"), id.value)
+    block(id.declaration, ternary(equal(id.value, constant(SlottedRow.NULL_ENTITY)), noValue, lookup))
+  }
+
+  private def entityProperty(slot: LongSlot, key: String): IntermediateRepresentation = {
+    val id = declareId(slot)
+    val token = tokenContext.getOptPropertyKeyId(key) match {
+      case Some(resolved) => constant(resolved)
+      case None => invoke(QUERY, method[QueryContext, Int, String]("propertyKey"), constant(key))
+    }
+    val property =
+      if (slot.isNode)
+        invoke(QUERY, method[QueryContext, Value, Long, Int, NodeCursor, PropertyCursor, Boolean]("nodeProperty"),
+          id.value, token, cursor[NodeCursor]("nodeCursor"), cursor[PropertyCursor]("propertyCursor"), constant(true))
+      else
+        invoke(QUERY, method[QueryContext, Value, Long, Int, RelationshipScanCursor, PropertyCursor, Boolean]("relationshipProperty"),
+          id.value, token, cursor[RelationshipScanCursor]("relationshipScanCursor"), cursor[PropertyCursor]("propertyCursor"), constant(true))
+    block(id.declaration, ternary(equal(id.value, constant(SlottedRow.NULL_ENTITY)), noValue, property))
+  }
+
+  private def binary(lhs: internal.expressions.Expression,
+                     rhs: internal.expressions.Expression,
+                     operator: org.neo4j.codegen.api.Method): Option[IntermediateRepresentation] =
+    for (l <- compileExpression(lhs); r <- compileExpression(rhs)) yield {
+      val left = declareLocal(l)
+      val right = declareLocal(r)
+      block(left.declaration, right.declaration, invokeStatic(operator, left.value, right.value))
+    }
+
+  /*
+   * For the helpers that expect null to be handled by the caller.
+   */
+  private def nullSafeBinary(lhs: internal.expressions.Expression,
+                             rhs: internal.expressions.Expression,
+                             operator: org.neo4j.codegen.api.Method): Option[IntermediateRepresentation] =
+    for (l <- compileExpression(lhs); r <- compileExpression(rhs)) yield {
+      val left = declareLocal(l)
+      val right = declareLocal(r)
+      block(left.declaration, right.declaration,
+        ternary(or(equal(left.value, noValue), equal(right.value, noValue)), noValue, invokeStatic(operator, left.value, right.value)))
+    }
+
+  private def declareLocal(value: IntermediateRepresentation): Local = {
+    val name = nextName("v")
+    Local(name, declareAndAssign(typeRefOf[AnyValue], name, value))
+  }
+
+  private def declareId(slot: LongSlot): Local = {
+    val name = nextName("id")
+    Local(name, declareAndAssign(typeRefOf[Long], name, invoke(ROW, method[ReadableRow, Long, Int]("getLongAt"), constant(slot.offset))))
+  }
+
+  private def cursor[T](name: String)(implicit typ: Manifest[T]): IntermediateRepresentation =
+    invoke(invoke(STATE, method[QueryState, ExpressionCursors]("cursors")), org.neo4j.codegen.api.Method(typeRefOf[ExpressionCursors], typeRefOf[T], name))
+
+  private def nextName(prefix: String): String = {
+    counter += 1
+    s"${prefix}_$counter"
+  }
+
+}
+
+object IntermediateCodeGeneration {
+  val ROW_PARAMETER = "row"
+  val STATE_PARAMETER = "state"
+
+  private[slotted] val ROW = load(ROW_PARAMETER)
+  private[slotted] val STATE = load(STATE_PARAMETER)
+  private[slotted] val QUERY = invoke(STATE, method[QueryState, QueryContext]("query"))
+
+  /**
+   * A local variable holding an intermediate value, together with the statements declaring and assigning it.
+   */
+  private[slotted] case class Local(name: String, declaration: IntermediateRepresentation) {
+    def value: IntermediateRepresentation = load(name)
+  }
+}
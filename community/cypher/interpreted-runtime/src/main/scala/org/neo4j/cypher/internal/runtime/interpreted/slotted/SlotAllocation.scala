@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.logical.plans.AggregatingPlan
+import org.neo4j.cypher.internal.logical.plans.Argument
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.Limit
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NestedPlanExpression
+import org.neo4j.cypher.internal.logical.plans.NodeLogicalLeafPlan
+import org.neo4j.cypher.internal.logical.plans.PartialSort
+import org.neo4j.cypher.internal.logical.plans.PartialTop
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.logical.plans.ProjectingPlan
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.Skip
+import org.neo4j.cypher.internal.logical.plans.Sort
+import org.neo4j.cypher.internal.logical.plans.Top
+import org.neo4j.cypher.internal.util.symbols.CTNode
+import org.neo4j.cypher.internal.util.symbols.CTRelationship
+import org.neo4j.cypher.internal.util.symbols.CypherType
+import org.neo4j.exceptions.CantCompileQueryException
+
+import scala.collection.mutable
+
+/**
+ * Assigns slots to the variables of a logical plan.
+ *
+ * All plans share a single [[SlotConfiguration]]. That is only correct because the supported plans form a single pipeline
+ * without any apply, join or union, where a variable name is never reused for something else. Plans that break that,
+ * and nested plan expressions, are rejected with a [[CantCompileQueryException]] so the query falls back to the
+ * interpreted runtime.
+ *
+ * A variable is kept as a primitive id in a long slot when every plan that introduces it produces a node or relationship,
+ * such as a scan or an expand. Variables introduced by projections and aggregations go into reference slots, unless they
+ * just carry an existing variable forward under the same name.
+ */
+object SlotAllocation {
+
+  def allocateSlots(plan: LogicalPlan): SlotConfiguration = {
+    val plans = plan.flatten
+    plans.foreach(assertSupported)
+    if (plan.treeExists { case _: NestedPlanExpression => true }) {
+      throw new CantCompileQueryException("Nested plan expressions are not supported by the slotted runtime")
+    }
+
+    val entities = mutable.Map.empty[String, CypherType]
+    val references = mutable.Set.empty[String]
+    def project(expressions: Map[String, Expression]): Unit = expressions.foreach {
+      case (key, Variable(name)) if key == name =>
+      case (key, _) => references += key
+    }
+    plans.foreach {
+      case p: NodeLogicalLeafPlan =>
+        entities(p.idName) = CTNode
+      case Expand(_, _, _, _, to, relName, _) =>
+        entities(to) = CTNode
+        entities(relName) = CTRelationship
+      case p: AggregatingPlan =>
+        project(p.groupingExpressions)
+        references ++= p.aggregationExpressions.keys
+      case p: ProjectingPlan =>
+        project(p.projectExpressions)
+      case _ =>
+    }
+
+    val slots = mutable.LinkedHashMap.empty[String, Slot]
+    var longs = 0
+    var refs = 0
+    for (p <- plans; name <- p.availableSymbols.toSeq.sorted if !slots.contains(name)) {
+      entities.get(name) match {
+        case Some(typ) if !references.contains(name) =>
+          slots(name) = LongSlot(longs, typ)
+          longs += 1
+        case _ =>
+          slots(name) = RefSlot(refs)
+          refs += 1
+      }
+    }
+    new SlotConfiguration(slots.toMap)
+  }
+
+  private def assertSupported(plan: LogicalPlan): Unit = plan match {
+    case _: Argument | _: NodeLogicalLeafPlan | _: Expand |
+         _: Selection | _: ProjectingPlan | _: Limit | _: Skip |
+         _: Sort | _: PartialSort | _: Top | _: PartialTop | _: ProduceResult =>
+    case _ =>
+      throw new CantCompileQueryException(s"The slotted runtime does not support ${plan.getClass.getSimpleName}")
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.util.symbols.CTNode
+import org.neo4j.cypher.internal.util.symbols.CTRelationship
+import org.neo4j.cypher.internal.util.symbols.CypherType
+
+sealed trait Slot {
+  def offset: Int
+}
+
+/**
+ * A primitive slot holding the id of a node or relationship, or -1 for null.
+ */
+case class LongSlot(offset: Int, typ: CypherType) extends Slot {
+  def isNode: Boolean = typ == CTNode
+  def isRelationship: Boolean = typ == CTRelationship
+}
+
+/**
+ * A slot holding any value.
+ */
+case class RefSlot(offset: Int) extends Slot
+
+/**
+ * Assigns every variable of a query a fixed position in a [[SlottedRow]], so that rows can be plain arrays and variables
+ * can be read by offset instead of being looked up by name.
+ */
+class SlotConfiguration(slots: Map[String, Slot]) {
+
+  val numberOfLongs: Int = slots.values.count(_.isInstanceOf[LongSlot])
+  val numberOfReferences: Int = slots.values.count(_.isInstanceOf[RefSlot])
+
+  // Looked up for every variable read and write by name, so avoid allocating an Option
+  private val slotsByName: java.util.HashMap[String, Slot] = {
+    val map = new java.util.HashMap[String, Slot]()
+    slots.foreach { case (name, slot) => map.put(name, slot) }
+    map
+  }
+
+  def get(name: String): Option[Slot] = slots.get(name)
+
+  /**
+   * @return the slot of the given variable, or null if it has none.
+   */
+  def slotOrNull(name: String): Slot = slotsByName.get(name)
+
+  def apply(name: String): Slot = slots(name)
+
+  def contains(name: String): Boolean = slots.contains(name)
+
+  override def toString: String = s"SlotConfiguration(longs=$numberOfLongs, refs=$numberOfReferences, slots=$slots)"
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.runtime.ReadWriteRow
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+/**
+ * Writes projected values straight into their slots. Projecting a variable onto itself, as in `WITH n`, is a no-op since
+ * the value is already in place.
+ */
+case class SlottedCommandProjection(slots: SlotConfiguration, expressions: Map[String, Expression]) extends CommandProjection {
+
+  private val projections: Array[(String, Slot, Expression)] = expressions.collect {
+    case (name, expression) if !isReadOf(slots(name), expression) => (name, slots(name), expression)
+  }.toArray
+
+  override def isEmpty: Boolean = expressions.isEmpty
+
+  override def project(ctx: ReadWriteRow, state: QueryState): Unit = {
+    var i = 0
+    while (i < projections.length) {
+      val (name, slot, expression) = projections(i)
+      val result = expression(ctx, state)
+      slot match {
+        case LongSlot(offset, _) => ctx.setLongAt(offset, SlottedRow.entityId(name, result))
+        case RefSlot(offset) => ctx.setRefAt(offset, result)
+      }
+      i += 1
+    }
+  }
+
+  private def isReadOf(slot: Slot, expression: Expression): Boolean = (slot, expression) match {
+    case (LongSlot(offset, _), NodeFromSlot(from, _)) => offset == from
+    case (LongSlot(offset, _), RelationshipFromSlot(from, _)) => offset == from
+    case (RefSlot(offset), ReferenceFromSlot(from, _)) => offset == from
+    case _ => false
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.MemoryTrackingController
+import org.neo4j.cypher.internal.runtime.ParameterMapping
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryIndexes
+import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.createParameterArray
+import org.neo4j.cypher.internal.runtime.interpreted.BaseExecutionResultBuilderFactory
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionResultBuilder
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.MapValue
+
+/**
+ * Like the interpreted result builder, but starts every query from an empty [[SlottedRow]] that all other rows are copied
+ * from. That row is also what gives the rows access to the query context, to turn the ids in long slots back into entities.
+ */
+case class SlottedExecutionResultBuilderFactory(pipe: Pipe,
+                                                slots: SlotConfiguration,
+                                                queryIndexes: QueryIndexes,
+                                                nExpressionSlots: Int,
+                                                parameterMapping: ParameterMapping,
+                                                readOnly: Boolean,
+                                                columns: Seq[String],
+                                                logicalPlan: LogicalPlan,
+                                                lenientCreateRelationship: Boolean,
+                                                memoryTrackingController: MemoryTrackingController)
+  extends BaseExecutionResultBuilderFactory(pipe, readOnly, columns, logicalPlan, hasLoadCSV = false) {
+
+  override def create(queryContext: QueryContext): ExecutionResultBuilder = SlottedExecutionResultBuilder(queryContext: QueryContext)
+
+  case class SlottedExecutionResultBuilder(queryContext: QueryContext) extends BaseExecutionResultBuilder {
+    override def createQueryState(params: MapValue, prePopulateResults: Boolean, input: InputDataStream, subscriber: QuerySubscriber, doProfile: Boolean): QueryState = {
+      val transactionMemoryTracker = queryContext.transactionalContext.transaction.memoryTracker()
+      val cursors = new ExpressionCursors(queryContext.transactionalContext.cursors, queryContext.transactionalContext.transaction.pageCursorTracer(), transactionMemoryTracker)
+      queryContext.resources.trace(cursors)
+
+      new QueryState(queryContext,
+                     externalResource,
+                     createParameterArray(params, parameterMapping),
+                     cursors,
+                     queryIndexes.initiateLabelAndSchemaIndexes(queryContext),
+                     new Array[AnyValue](nExpressionSlots),
+                     subscriber,
+                     QueryMemoryTracker(memoryTrackingController.memoryTracking(doProfile), transactionMemoryTracker),
+                     pipeDecorator,
+                     initialContext = Some(SlottedRow.empty(slots, queryContext)),
+                     lenientCreateRelationship = lenientCreateRelationship,
+                     prePopulateResults = prePopulateResults,
+                     input = input)
+    }
+  }
+}
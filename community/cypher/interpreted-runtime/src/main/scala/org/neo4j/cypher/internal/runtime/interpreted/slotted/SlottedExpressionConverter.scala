@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.GroupingExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.util.attribution.Id
+
+/**
+ * Turns variables into reads of their slot. Everything else is left to the converters that follow this one.
+ */
+case class SlottedExpressionConverter(slots: SlotConfiguration) extends ExpressionConverter {
+
+  override def toCommandExpression(id: Id, expression: internal.expressions.Expression, self: ExpressionConverters): Option[commands.expressions.Expression] =
+    expression match {
+      case internal.expressions.Variable(name) => slots.get(name).map {
+        case slot@LongSlot(offset, _) if slot.isNode => NodeFromSlot(offset, name)
+        case LongSlot(offset, _) => RelationshipFromSlot(offset, name)
+        case RefSlot(offset) => ReferenceFromSlot(offset, name)
+      }
+      case _ => None
+    }
+
+  override def toCommandProjection(id: Id, projections: Map[String, internal.expressions.Expression], self: ExpressionConverters): Option[CommandProjection] =
+    None
+
+  override def toGroupingExpression(id: Id, groupings: Map[String, internal.expressions.Expression], orderToLeverage: Seq[internal.expressions.Expression],
+                                    self: ExpressionConverters): Option[GroupingExpression] = None
+}
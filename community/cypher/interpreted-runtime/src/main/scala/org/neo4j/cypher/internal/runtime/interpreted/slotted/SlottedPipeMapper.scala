@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.planner.spi.TokenContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.KeyTokenResolver
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ProjectionPipe
+
+/**
+ * Builds the pipes of the interpreted runtime, but makes them create [[SlottedRow]]s and project straight into slots.
+ * Expects `inner` to convert expressions with a [[SlottedExpressionConverter]] for the same slots.
+ */
+case class SlottedPipeMapper(inner: PipeMapper,
+                             slots: SlotConfiguration,
+                             expressionConverters: ExpressionConverters,
+                             tokenContext: TokenContext) extends PipeMapper {
+
+  private val rowFactory = SlottedCypherRowFactory(slots)
+
+  override def onLeaf(plan: LogicalPlan): Pipe = slotted(inner.onLeaf(plan))
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = plan match {
+    case Projection(_, expressions) =>
+      val projections = expressions.map {
+        case (key, expression) =>
+          key -> expressionConverters.toCommandExpression(plan.id, expression).rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))
+      }
+      slotted(ProjectionPipe(source, SlottedCommandProjection(slots, projections))(id = plan.id))
+
+    case _ =>
+      slotted(inner.onOneChildPlan(plan, source))
+  }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = slotted(inner.onTwoChildPlan(plan, lhs, rhs))
+
+  private def slotted(pipe: Pipe): Pipe = {
+    pipe.rowFactory = rowFactory
+    pipe
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpillableRow
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.memory.HeapEstimator.sizeOfLongArray
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+
+import scala.collection.mutable
+
+object SlottedRow {
+  private final val SHALLOW_SIZE = shallowSizeOfInstance(classOf[SlottedRow])
+
+  val NULL_ENTITY: Long = -1L
+
+  def empty(slots: SlotConfiguration, entityById: EntityById): SlottedRow = {
+    val longs = new Array[Long](slots.numberOfLongs)
+    java.util.Arrays.fill(longs, NULL_ENTITY)
+    new SlottedRow(slots, entityById, longs, new Array[AnyValue](slots.numberOfReferences), null)
+  }
+
+  /**
+   * @return the id to keep in the long slot of variable `key` when it is set to `value`.
+   */
+  def entityId(key: String, value: AnyValue): Long = value match {
+    case n: VirtualNodeValue => n.id()
+    case r: VirtualRelationshipValue => r.id()
+    case _ if value eq NO_VALUE => NULL_ENTITY
+    case _ => throw new InternalException(s"Expected a node or relationship for `$key`, but got $value")
+  }
+}
+
+/**
+ * Array backed row where every variable lives at the offset given by its [[Slot]]. Nodes and relationships are kept as
+ * primitive ids in long slots and only turned into values when read by name, everything else is kept in reference slots.
+ *
+ * Name based access is still supported so that the interpreted pipes can be used unchanged, but it costs a lookup in the
+ * shared [[SlotConfiguration]] instead of one in a per-row map, and copying a row is two array copies.
+ */
+class SlottedRow private(val slots: SlotConfiguration,
+                         val entityById: EntityById,
+                         private val longs: Array[Long],
+                         private val refs: Array[AnyValue],
+                         private var cachedProperties: mutable.Map[ASTCachedProperty, Value]) extends CypherRow with SpillableRow {
+
+  override def spillCodec: RowSpillCodec = new SlottedRowSpillCodec(slots, entityById)
+
+  override def getLongAt(offset: Int): Long = longs(offset)
+
+  override def setLongAt(offset: Int, value: Long): Unit = longs(offset) = value
+
+  override def getRefAt(offset: Int): AnyValue = refs(offset)
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = refs(offset) = value
+
+  override def getByName(name: String): AnyValue = slots.slotOrNull(name) match {
+    case slot: LongSlot => entityAt(slot)
+    case RefSlot(offset) if refs(offset) != null => refs(offset)
+    case _ => throw new NotFoundException(s"Unknown variable `$name`.")
+  }
+
+  /**
+   * @return the node or relationship in the given slot, or NO_VALUE if it is null.
+   */
+  def entityAt(slot: LongSlot): AnyValue = {
+    val id = longs(slot.offset)
+    if (id == SlottedRow.NULL_ENTITY) NO_VALUE
+    else if (slot.isNode) entityById.nodeById(id)
+    else entityById.relationshipById(id)
+  }
+
+  @deprecated
+  override def containsName(name: String): Boolean = slots.slotOrNull(name) match {
+    case _: LongSlot => true
+    case RefSlot(offset) => refs(offset) != null
+    case _ => false
+  }
+
+  @deprecated
+  override def numberOfColumns: Int = longs.length + refs.count(_ != null)
+
+  override def isNull(key: String): Boolean = slots.slotOrNull(key) match {
+    case LongSlot(offset, _) => longs(offset) == SlottedRow.NULL_ENTITY
+    case RefSlot(offset) => refs(offset) eq NO_VALUE
+    case _ => false
+  }
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach {
+      case (key, value) => set(key, value)
+    }
+
+  override def set(key: String, value: AnyValue): Unit = slots.slotOrNull(key) match {
+    case LongSlot(offset, _) => longs(offset) = SlottedRow.entityId(key, value)
+    case RefSlot(offset) => refs(offset) = value
+    case _ => throw new InternalException(s"Tried to set `$key`, which has no slot in $slots")
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  override def copyWith(key: String, value: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key, value)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2, key3, value3)
+    row
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val row = createClone()
+    row.set(newEntries)
+    row
+  }
+
+  override def createClone(): SlottedRow = {
+    val newCachedProperties = if (cachedProperties == null) null else cachedProperties.clone()
+    val row = new SlottedRow(slots, entityById, longs.clone(), refs.clone(), newCachedProperties)
+    row.setLinenumber(getLinenumber)
+    row
+  }
+
+  override def copyAllFrom(input: ReadableRow): Unit = copyFrom(input, longs.length, refs.length)
+
+  override def copyFrom(input: ReadableRow, nLongs: Int, nRefs: Int): Unit = input match {
+    case other: SlottedRow =>
+      System.arraycopy(other.longs, 0, longs, 0, nLongs)
+      System.arraycopy(other.refs, 0, refs, 0, nRefs)
+      copyCachedPropertiesFrom(other)
+      setLinenumber(other.getLinenumber)
+    case _ => fail(input)
+  }
+
+  override def copyFromOffset(input: ReadableRow, sourceLongOffset: Int, sourceRefOffset: Int, targetLongOffset: Int, targetRefOffset: Int): Unit =
+    input match {
+      case other: SlottedRow =>
+        System.arraycopy(other.longs, sourceLongOffset, longs, targetLongOffset, other.longs.length - sourceLongOffset)
+        System.arraycopy(other.refs, sourceRefOffset, refs, targetRefOffset, other.refs.length - sourceRefOffset)
+        copyCachedPropertiesFrom(other)
+      case _ => fail(input)
+    }
+
+  override def mergeWith(other: ReadableRow, entityById: EntityById): Unit = other match {
+    case otherRow: SlottedRow =>
+      var i = 0
+      while (i < longs.length) {
+        if (otherRow.longs(i) != SlottedRow.NULL_ENTITY) {
+          longs(i) = otherRow.longs(i)
+        }
+        i += 1
+      }
+      i = 0
+      while (i < refs.length) {
+        if (otherRow.refs(i) != null) {
+          refs(i) = otherRow.refs(i)
+        }
+        i += 1
+      }
+      copyCachedPropertiesFrom(otherRow)
+      setLinenumber(otherRow.getLinenumber)
+    case _ => fail(other)
+  }
+
+  private def copyCachedPropertiesFrom(other: SlottedRow): Unit =
+    if (other.cachedProperties != null) {
+      if (cachedProperties == null) {
+        cachedProperties = other.cachedProperties.clone()
+      } else {
+        cachedProperties ++= other.cachedProperties
+      }
+    }
+
+  private def fail(other: ReadableRow): Nothing =
+    throw new InternalException(s"Tried to copy from ${other.getClass.getSimpleName} into a slotted row")
+
+  override def setCachedProperty(key: ASTCachedProperty, value: Value): Unit = {
+    if (cachedProperties == null) {
+      cachedProperties = mutable.Map.empty
+    }
+    cachedProperties.put(key, value)
+  }
+
+  override def getCachedProperty(key: ASTCachedProperty): Value =
+    if (cachedProperties == null) null else cachedProperties.getOrElse(key, null)
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit =
+    throw new InternalException("Cached properties are not kept in slots")
+
+  override def getCachedPropertyAt(offset: Int): Value =
+    throw new InternalException("Cached properties are not kept in slots")
+
+  override def invalidateCachedNodeProperties(node: Long): Unit = invalidateCachedProperties(node, isNode = true)
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit = invalidateCachedProperties(rel, isNode = false)
+
+  private def invalidateCachedProperties(entity: Long, isNode: Boolean): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cp => slots.slotOrNull(cp.entityName) match {
+        case slot: LongSlot => slot.isNode == isNode && longs(slot.offset) == entity
+        case RefSlot(offset) => refs(offset) match {
+          case n: VirtualNodeValue => isNode && n.id() == entity
+          case r: VirtualRelationshipValue => !isNode && r.id() == entity
+          case _ => false
+        }
+        case _ => false
+      }).foreach(cp => setCachedProperty(cp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = SlottedRow.SHALLOW_SIZE + sizeOfLongArray(longs.length) + shallowSizeOfObjectArray(refs.length)
+    var i = 0
+    while (i < refs.length) {
+      val value = refs(i)
+      if (value != null) {
+        total += value.estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (cachedProperties != null) {
+      val iterator = cachedProperties.valuesIterator
+      while (iterator.hasNext) {
+        val value = iterator.next()
+        if (value != null) {
+          total += value.estimatedHeapUsage()
+        }
+      }
+    }
+    total
+  }
+
+  override def equals(other: Any): Boolean = other match {
+    case that: SlottedRow =>
+      (that.slots eq slots) && java.util.Arrays.equals(longs, that.longs) && java.util.Arrays.equals(refs.asInstanceOf[Array[AnyRef]], that.refs.asInstanceOf[Array[AnyRef]])
+    case _ => false
+  }
+
+  override def hashCode(): Int = 31 * java.util.Arrays.hashCode(longs) + java.util.Arrays.hashCode(refs.asInstanceOf[Array[AnyRef]])
+
+  override def toString: String =
+    s"SlottedRow(longs=${longs.mkString("[", ", ", "]")}, refs=${refs.mkString("[", ", ", "]")}, cached=$cachedProperties)"
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.runtime.interpreted.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.interpreted.spill.SpilledValues
+
+/**
+ * Writes the long slots of a [[SlottedRow]] as they are, followed by the reference slots. Rows of one spiller all share
+ * the same [[SlotConfiguration]], so no names are written.
+ */
+class SlottedRowSpillCodec(slots: SlotConfiguration, override val entityById: EntityById) extends RowSpillCodec {
+
+  override def write(row: CypherRow, out: DataOutput): Boolean = {
+    var i = 0
+    while (i < slots.numberOfLongs) {
+      out.writeLong(row.getLongAt(i))
+      i += 1
+    }
+    var written = true
+    i = 0
+    while (written && i < slots.numberOfReferences) {
+      val value = row.getRefAt(i)
+      out.writeBoolean(value != null)
+      written = value == null || SpilledValues.write(value, out)
+      i += 1
+    }
+    written
+  }
+
+  override def read(in: DataInput): CypherRow = {
+    val row = SlottedRow.empty(slots, entityById)
+    var i = 0
+    while (i < slots.numberOfLongs) {
+      row.setLongAt(i, in.readLong())
+      i += 1
+    }
+    i = 0
+    while (i < slots.numberOfReferences) {
+      if (in.readBoolean()) {
+        row.setRefAt(i, SpilledValues.read(in, entityById))
+      }
+      i += 1
+    }
+    row
+  }
+}
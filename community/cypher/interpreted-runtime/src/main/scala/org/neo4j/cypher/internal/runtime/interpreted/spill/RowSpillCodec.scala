@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.runtime.MapCypherRow
+import org.neo4j.cypher.internal.runtime.MutableMaps
+import org.neo4j.values.AnyValue
+
+/**
+ * Writes the rows of one kind to disk and reads them back. Cached properties are not written, they are read from the
+ * store again when a spilled row needs them.
+ */
+trait RowSpillCodec {
+
+  /**
+   * @return false if the row has a value that can not be written, see [[SpilledValues]].
+   */
+  def write(row: CypherRow, out: DataOutput): Boolean
+
+  def read(in: DataInput): CypherRow
+
+  /**
+   * Looks up the nodes and relationships of the rows that are read back.
+   */
+  def entityById: EntityById
+}
+
+/**
+ * A row that is not a [[MapCypherRow]] and can be written to disk.
+ */
+trait SpillableRow {
+  def spillCodec: RowSpillCodec
+}
+
+object RowSpillCodec {
+
+  def forRow(row: CypherRow, entityById: EntityById): Option[RowSpillCodec] = row match {
+    case _: MapCypherRow => Some(new MapRowSpillCodec(entityById))
+    case spillable: SpillableRow => Some(spillable.spillCodec)
+    case _ => None
+  }
+}
+
+class MapRowSpillCodec(override val entityById: EntityById) extends RowSpillCodec {
+
+  override def write(row: CypherRow, out: DataOutput): Boolean = {
+    val entries = row.asInstanceOf[MapCypherRow].toMap
+    out.writeInt(entries.size)
+    entries.forall {
+      case (key, value) =>
+        out.writeUTF(key)
+        SpilledValues.write(value, out)
+    }
+  }
+
+  override def read(in: DataInput): CypherRow = {
+    val size = in.readInt()
+    val entries = MutableMaps.create[String, AnyValue](size)
+    var i = 0
+    while (i < size) {
+      entries.put(in.readUTF(), SpilledValues.read(in, entityById))
+      i += 1
+    }
+    CypherRow(entries)
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.io.UncheckedIOException
+import java.nio.file.Path
+import java.util.Comparator
+
+import org.neo4j.collection.trackable.HeapTrackingArrayList
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.index.internal.gbptree.Layout
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.io.IOUtils
+import org.neo4j.io.fs.FileSystemAbstraction
+import org.neo4j.io.memory.ByteBufferFactory
+import org.neo4j.io.memory.HeapScopedBuffer
+import org.neo4j.io.memory.ScopedBuffer
+import org.neo4j.io.pagecache.PageCursor
+import org.neo4j.kernel.impl.index.schema.BlockEntryReader
+import org.neo4j.kernel.impl.index.schema.BlockStorage
+import org.neo4j.kernel.impl.index.schema.BlockStorage.Cancellation.NOT_CANCELLABLE
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+
+/**
+ * A row added to a [[RowSpiller]], and for an aggregation the grouping key it is sorted by.
+ */
+class SpilledRow(var key: AnyValue, var row: CypherRow) {
+  private[spill] var bytes: Array[Byte] = _
+}
+
+/**
+ * Sorts rows that do not fit in memory with the [[BlockStorage]] of index population: rows are buffered until they fill
+ * a block, which is sorted and appended to a temporary file, and once all rows are added the blocks are merged on disk
+ * into a single sorted block that is read back one row at a time.
+ *
+ * A row that can not be written, because it does not fit in a block entry or has a value that can not be spilled, is
+ * kept in memory and merged with the rows read back from disk.
+ */
+class RowSpiller(fs: FileSystemAbstraction,
+                 file: Path,
+                 codec: RowSpillCodec,
+                 keyed: Boolean,
+                 comparator: Comparator[SpilledRow],
+                 memoryTracker: MemoryTracker) extends DefaultCloseListenable {
+
+  private[this] val layout = new SpillLayout(codec, keyed, comparator)
+  private[this] var storage = new BlockStorage[SpilledRow, Void](layout, RowSpiller.BUFFER_FACTORY, fs, file, BlockStorage.Monitor.NO_MONITOR, memoryTracker)
+  private[this] var inMemory = HeapTrackingArrayList.newArrayList[SpilledRow](memoryTracker)
+  private[this] val bytes = new ByteArrayOutputStream()
+  private[this] val out = new DataOutputStream(bytes)
+  private[this] var readBuffer: ScopedBuffer = _
+  private[this] var reader: BlockEntryReader[SpilledRow, Void] = _
+
+  def add(key: AnyValue, row: CypherRow): Unit = {
+    val entry = new SpilledRow(key, row)
+    bytes.reset()
+    if ((!keyed || SpilledValues.write(key, out)) && codec.write(row, out) && bytes.size() <= RowSpiller.MAX_ENTRY_SIZE) {
+      entry.bytes = bytes.toByteArray
+      storage.add(entry, null)
+    } else {
+      memoryTracker.allocateHeap(row.estimatedHeapUsage())
+      inMemory.add(entry)
+    }
+  }
+
+  /**
+   * Merges the spilled rows, and returns all added rows in order. Closing the iterator closes this spiller, which
+   * deletes its files.
+   */
+  def result(): ClosingIterator[SpilledRow] = {
+    storage.doneAdding()
+    storage.merge(RowSpiller.MERGE_FACTOR, NOT_CANCELLABLE)
+    readBuffer = new HeapScopedBuffer(RowSpiller.BLOCK_SIZE, memoryTracker)
+    val blockReader = storage.reader()
+    try {
+      reader = blockReader.nextBlock(readBuffer)
+    } finally {
+      blockReader.close()
+    }
+    inMemory.sort(comparator)
+
+    new ClosingIterator[SpilledRow] {
+      private[this] var spilled = nextSpilled()
+      private[this] var i = 0
+
+      override protected[this] def closeMore(): Unit = RowSpiller.this.close()
+
+      override protected[this] def innerHasNext: Boolean = spilled != null || (inMemory != null && i < inMemory.size())
+
+      override def next(): SpilledRow = {
+        if (spilled != null && (i == inMemory.size() || comparator.compare(spilled, inMemory.get(i)) <= 0)) {
+          val next = spilled
+          spilled = nextSpilled()
+          next
+        } else {
+          val next = inMemory.get(i)
+          i += 1
+          next
+        }
+      }
+    }
+  }
+
+  // The reader reuses its key, so the entry is copied
+  private def nextSpilled(): SpilledRow =
+    if (reader != null && reader.next()) {
+      val entry = reader.key()
+      new SpilledRow(entry.key, entry.row)
+    } else {
+      null
+    }
+
+  override def isClosed: Boolean = inMemory == null
+
+  // The buffers are dropped as well, since a closed spiller may still be referenced until the query is done
+  override def closeInternal(): Unit = {
+    if (inMemory != null) {
+      IOUtils.closeAllUnchecked(reader, storage, readBuffer)
+      inMemory.close()
+      inMemory = null
+      reader = null
+      storage = null
+      readBuffer = null
+    }
+  }
+}
+
+object RowSpiller {
+  /**
+   * Size of the blocks that rows are sorted in before they are written, and of each buffer when merging.
+   */
+  val BLOCK_SIZE: Int = 1024 * 1024
+
+  /**
+   * Shared by all spillers and never closed, since it keeps a block buffer per thread that is only held while a block is
+   * sorted and written, and a factory per spiller would leave one such buffer behind for every spill.
+   */
+  private val BUFFER_FACTORY = ByteBufferFactory.heapBufferFactory(BLOCK_SIZE)
+
+  /**
+   * Number of blocks merged at a time.
+   */
+  val MERGE_FACTOR = 8
+
+  /**
+   * The largest key a block entry can hold.
+   */
+  val MAX_ENTRY_SIZE: Int = 0x1FFF
+}
+
+/**
+ * The layout of the [[BlockStorage]] of a [[RowSpiller]]. An entry is the key, if any, followed by the row. The value of
+ * an entry is not used.
+ */
+private class SpillLayout(codec: RowSpillCodec, keyed: Boolean, comparator: Comparator[SpilledRow])
+  extends Layout.Adapter[SpilledRow, Void](false, 0L, 0, 0) {
+
+  override def newKey(): SpilledRow = new SpilledRow(null, null)
+
+  override def copyKey(key: SpilledRow, into: SpilledRow): SpilledRow = {
+    into.key = key.key
+    into.row = key.row
+    into.bytes = key.bytes
+    into
+  }
+
+  override def newValue(): Void = null
+
+  override def keySize(key: SpilledRow): Int = key.bytes.length
+
+  override def valueSize(value: Void): Int = 0
+
+  override def writeKey(cursor: PageCursor, key: SpilledRow): Unit = cursor.putBytes(key.bytes)
+
+  override def writeValue(cursor: PageCursor, value: Void): Unit = {}
+
+  override def readKey(cursor: PageCursor, into: SpilledRow, keySize: Int): Unit = {
+    val bytes = new Array[Byte](keySize)
+    cursor.getBytes(bytes)
+    val in = new DataInputStream(new ByteArrayInputStream(bytes))
+    try {
+      into.key = if (keyed) SpilledValues.read(in, codec.entityById) else null
+      into.row = codec.read(in)
+      into.bytes = bytes
+    } catch {
+      case e: IOException => throw new UncheckedIOException(e)
+    }
+  }
+
+  override def readValue(cursor: PageCursor, into: Void, valueSize: Int): Unit = {}
+
+  override def initializeAsLowest(key: SpilledRow): Unit = throw new UnsupportedOperationException
+
+  override def initializeAsHighest(key: SpilledRow): Unit = throw new UnsupportedOperationException
+
+  override def compare(o1: SpilledRow, o2: SpilledRow): Int = comparator.compare(o1, o2)
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.nio.file.Path
+import java.util.Comparator
+import java.util.UUID
+
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.io.fs.FileSystemAbstraction
+import org.neo4j.memory.MemoryTracker
+
+/**
+ * Lets an operator that buffers rows write them to disk once its estimated heap usage passes `threshold` bytes.
+ */
+case class SpillToDisk(threshold: Long, directory: Path, fs: FileSystemAbstraction, resources: ResourceManager) {
+
+  def newSpiller(codec: RowSpillCodec, keyed: Boolean, comparator: Comparator[SpilledRow], memoryTracker: MemoryTracker): RowSpiller = {
+    fs.mkdirs(directory)
+    val spiller = new RowSpiller(fs, directory.resolve(s"spill-${UUID.randomUUID()}"), codec, keyed, comparator, memoryTracker)
+    // Makes sure the files are deleted even if the query fails before the spilled rows are read back
+    resources.trace(spiller)
+    spiller
+  }
+}
+
+object SpillToDisk {
+
+  /**
+   * @return the spill settings of the database the query runs in, or None if spilling is disabled.
+   */
+  def apply(state: QueryState): Option[SpillToDisk] = state.query.transactionalContext match {
+    case tc: TransactionalContextWrapper =>
+      val dependencies = tc.graph.getDependencyResolver
+      val config = dependencies.resolveDependency(classOf[Config])
+      val threshold: Long = config.get(GraphDatabaseInternalSettings.cypher_spill_threshold)
+      if (threshold > 0) {
+        Some(SpillToDisk(threshold,
+          config.get(GraphDatabaseInternalSettings.cypher_spill_directory),
+          dependencies.resolveDependency(classOf[FileSystemAbstraction]),
+          state.query.resources))
+      } else {
+        None
+      }
+    case _ => None
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.nio.charset.StandardCharsets.UTF_8
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.exceptions.InternalException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.PointValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.ValueWriter
+import org.neo4j.values.storable.ValueWriter.ArrayType
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+/**
+ * Binary format of the values in rows that are written to disk. Nodes and relationships are written as their ids, and
+ * looked up again when they are read back.
+ * Paths and other values that only exist while a query runs can not be written.
+ */
+object SpilledValues {
+  private final val NULL: Byte = 0
+  private final val BOOLEAN: Byte = 1
+  private final val BYTE: Byte = 2
+  private final val SHORT: Byte = 3
+  private final val INT: Byte = 4
+  private final val LONG: Byte = 5
+  private final val FLOAT: Byte = 6
+  private final val DOUBLE: Byte = 7
+  private final val STRING: Byte = 8
+  private final val CHAR: Byte = 9
+  private final val BYTE_ARRAY: Byte = 10
+  private final val ARRAY: Byte = 11
+  private final val POINT: Byte = 12
+  private final val DURATION: Byte = 13
+  private final val DATE: Byte = 14
+  private final val LOCAL_TIME: Byte = 15
+  private final val TIME: Byte = 16
+  private final val LOCAL_DATE_TIME: Byte = 17
+  private final val DATE_TIME: Byte = 18
+  private final val LIST: Byte = 19
+  private final val MAP: Byte = 20
+  private final val NODE: Byte = 21
+  private final val RELATIONSHIP: Byte = 22
+
+  private val ARRAY_TYPES = ArrayType.values()
+
+  /**
+   * @return false if `value`, or a value nested in it, can not be written. Part of it may already have been written.
+   */
+  def write(value: AnyValue, out: DataOutput): Boolean = value match {
+    case v: Value =>
+      v.writeTo(new SpillValueWriter(out))
+      true
+
+    case n: VirtualNodeValue =>
+      out.writeByte(NODE)
+      out.writeLong(n.id())
+      true
+
+    case r: VirtualRelationshipValue =>
+      out.writeByte(RELATIONSHIP)
+      out.writeLong(r.id())
+      true
+
+    case l: ListValue =>
+      out.writeByte(LIST)
+      out.writeInt(l.size())
+      val iterator = l.iterator()
+      var supported = true
+      while (supported && iterator.hasNext) {
+        supported = write(iterator.next(), out)
+      }
+      supported
+
+    case m: MapValue =>
+      out.writeByte(MAP)
+      out.writeInt(m.size())
+      val keys = m.keySet().iterator()
+      var supported = true
+      while (supported && keys.hasNext) {
+        val key = keys.next()
+        writeString(key, out)
+        supported = write(m.get(key), out)
+      }
+      supported
+
+    case _ =>
+      false
+  }
+
+  def read(in: DataInput, entityById: EntityById): AnyValue = in.readByte() match {
+    case NULL => Values.NO_VALUE
+    case BOOLEAN => Values.booleanValue(in.readBoolean())
+    case BYTE => Values.byteValue(in.readByte())
+    case SHORT => Values.shortValue(in.readShort())
+    case INT => Values.intValue(in.readInt())
+    case LONG => Values.longValue(in.readLong())
+    case FLOAT => Values.floatValue(in.readFloat())
+    case DOUBLE => Values.doubleValue(in.readDouble())
+    case STRING => Values.utf8Value(readBytes(in))
+    case CHAR => Values.charValue(in.readChar())
+    case BYTE_ARRAY => Values.byteArray(readBytes(in))
+    case ARRAY => readArray(in, entityById)
+    case POINT =>
+      val crs = CoordinateReferenceSystem.get(in.readInt(), in.readInt())
+      val coordinate = new Array[Double](in.readInt())
+      var i = 0
+      while (i < coordinate.length) {
+        coordinate(i) = in.readDouble()
+        i += 1
+      }
+      Values.pointValue(crs, coordinate: _*)
+    case DURATION => DurationValue.duration(in.readLong(), in.readLong(), in.readLong(), in.readInt())
+    case DATE => DateValue.date(LocalDate.ofEpochDay(in.readLong()))
+    case LOCAL_TIME => LocalTimeValue.localTime(LocalTime.ofNanoOfDay(in.readLong()))
+    case TIME => TimeValue.time(OffsetTime.of(LocalTime.ofNanoOfDay(in.readLong()), ZoneOffset.ofTotalSeconds(in.readInt())))
+    case LOCAL_DATE_TIME => LocalDateTimeValue.localDateTime(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC))
+    case DATE_TIME =>
+      val epochSecond = in.readLong()
+      val nano = in.readInt()
+      val zone = ZoneId.of(new String(readBytes(in), UTF_8))
+      DateTimeValue.datetime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), zone))
+    case LIST =>
+      val values = new Array[AnyValue](in.readInt())
+      var i = 0
+      while (i < values.length) {
+        values(i) = read(in, entityById)
+        i += 1
+      }
+      VirtualValues.list(values: _*)
+    case MAP =>
+      val size = in.readInt()
+      val keys = new Array[String](size)
+      val values = new Array[AnyValue](size)
+      var i = 0
+      while (i < size) {
+        keys(i) = new String(readBytes(in), UTF_8)
+        values(i) = read(in, entityById)
+        i += 1
+      }
+      VirtualValues.map(keys, values)
+    case NODE => entityById.nodeById(in.readLong())
+    case RELATIONSHIP => entityById.relationshipById(in.readLong())
+    case tag => throw new InternalException(s"Unknown type $tag of a spilled value")
+  }
+
+  private def readArray(in: DataInput, entityById: EntityById): Value = {
+    val arrayType = ARRAY_TYPES(in.readByte())
+    val array = java.lang.reflect.Array.newInstance(componentType(arrayType), in.readInt())
+    var i = 0
+    while (i < java.lang.reflect.Array.getLength(array)) {
+      java.lang.reflect.Array.set(array, i, read(in, entityById).asInstanceOf[Value].asObjectCopy())
+      i += 1
+    }
+    Values.of(array)
+  }
+
+  private def componentType(arrayType: ArrayType): Class[_] = arrayType match {
+    case ArrayType.BYTE => java.lang.Byte.TYPE
+    case ArrayType.SHORT => java.lang.Short.TYPE
+    case ArrayType.INT => java.lang.Integer.TYPE
+    case ArrayType.LONG => java.lang.Long.TYPE
+    case ArrayType.FLOAT => java.lang.Float.TYPE
+    case ArrayType.DOUBLE => java.lang.Double.TYPE
+    case ArrayType.BOOLEAN => java.lang.Boolean.TYPE
+    case ArrayType.CHAR => java.lang.Character.TYPE
+    case ArrayType.STRING => classOf[String]
+    case ArrayType.POINT => classOf[PointValue]
+    case ArrayType.DURATION => classOf[DurationValue]
+    case ArrayType.DATE => classOf[LocalDate]
+    case ArrayType.LOCAL_TIME => classOf[LocalTime]
+    case ArrayType.ZONED_TIME => classOf[OffsetTime]
+    case ArrayType.LOCAL_DATE_TIME => classOf[LocalDateTime]
+    case ArrayType.ZONED_DATE_TIME => classOf[ZonedDateTime]
+  }
+
+  private def writeString(value: String, out: DataOutput): Unit = writeBytes(value.getBytes(UTF_8), 0, -1, out)
+
+  private def writeBytes(bytes: Array[Byte], offset: Int, length: Int, out: DataOutput): Unit = {
+    val n = if (length < 0) bytes.length else length
+    out.writeInt(n)
+    out.write(bytes, offset, n)
+  }
+
+  private def readBytes(in: DataInput): Array[Byte] = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    bytes
+  }
+
+  private class SpillValueWriter(out: DataOutput) extends ValueWriter[java.io.IOException] {
+    override def writeNull(): Unit = out.writeByte(NULL)
+
+    override def writeBoolean(value: Boolean): Unit = {
+      out.writeByte(BOOLEAN)
+      out.writeBoolean(value)
+    }
+
+    override def writeInteger(value: Byte): Unit = {
+      out.writeByte(BYTE)
+      out.writeByte(value)
+    }
+
+    override def writeInteger(value: Short): Unit = {
+      out.writeByte(SHORT)
+      out.writeShort(value)
+    }
+
+    override def writeInteger(value: Int): Unit = {
+      out.writeByte(INT)
+      out.writeInt(value)
+    }
+
+    override def writeInteger(value: Long): Unit = {
+      out.writeByte(LONG)
+      out.writeLong(value)
+    }
+
+    override def writeFloatingPoint(value: Float): Unit = {
+      out.writeByte(FLOAT)
+      out.writeFloat(value)
+    }
+
+    override def writeFloatingPoint(value: Double): Unit = {
+      out.writeByte(DOUBLE)
+      out.writeDouble(value)
+    }
+
+    override def writeString(value: String): Unit = {
+      out.writeByte(STRING)
+      SpilledValues.writeString(value, out)
+    }
+
+    override def writeUTF8(bytes: Array[Byte], offset: Int, length: Int): Unit = {
+      out.writeByte(STRING)
+      writeBytes(bytes, offset, length, out)
+    }
+
+    override def writeString(value: Char): Unit = {
+      out.writeByte(CHAR)
+      out.writeChar(value)
+    }
+
+    override def beginArray(size: Int, arrayType: ArrayType): Unit = {
+      out.writeByte(ARRAY)
+      out.writeByte(arrayType.ordinal())
+      out.writeInt(size)
+    }
+
+    override def endArray(): Unit = {}
+
+    override def writeByteArray(value: Array[Byte]): Unit = {
+      out.writeByte(BYTE_ARRAY)
+      writeBytes(value, 0, -1, out)
+    }
+
+    override def writePoint(crs: CoordinateReferenceSystem, coordinate: Array[Double]): Unit = {
+      out.writeByte(POINT)
+      out.writeInt(crs.getTable.getTableId)
+      out.writeInt(crs.getCode)
+      out.writeInt(coordinate.length)
+      coordinate.foreach(out.writeDouble)
+    }
+
+    override def writeDuration(months: Long, days: Long, seconds: Long, nanos: Int): Unit = {
+      out.writeByte(DURATION)
+      out.writeLong(months)
+      out.writeLong(days)
+      out.writeLong(seconds)
+      out.writeInt(nanos)
+    }
+
+    override def writeDate(localDate: LocalDate): Unit = {
+      out.writeByte(DATE)
+      out.writeLong(localDate.toEpochDay)
+    }
+
+    override def writeLocalTime(localTime: LocalTime): Unit = {
+      out.writeByte(LOCAL_TIME)
+      out.writeLong(localTime.toNanoOfDay)
+    }
+
+    override def writeTime(offsetTime: OffsetTime): Unit = {
+      out.writeByte(TIME)
+      out.writeLong(offsetTime.toLocalTime.toNanoOfDay)
+      out.writeInt(offsetTime.getOffset.getTotalSeconds)
+    }
+
+    override def writeLocalDateTime(localDateTime: LocalDateTime): Unit = {
+      out.writeByte(LOCAL_DATE_TIME)
+      out.writeLong(localDateTime.toEpochSecond(ZoneOffset.UTC))
+      out.writeInt(localDateTime.getNano)
+    }
+
+    override def writeDateTime(zonedDateTime: ZonedDateTime): Unit = {
+      out.writeByte(DATE_TIME)
+      out.writeLong(zonedDateTime.toEpochSecond)
+      out.writeInt(zonedDateTime.getNano)
+      SpilledValues.writeString(zonedDateTime.getZone.getId, out)
+    }
+  }
+}
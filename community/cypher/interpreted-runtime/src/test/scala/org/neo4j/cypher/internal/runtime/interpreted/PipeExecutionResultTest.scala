@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.FakePipe
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.cypher.result.QueryProfile
+import org.neo4j.kernel.impl.query.QuerySubscriber
+
+class PipeExecutionResultTest extends CypherFunSuite {
+
+  test("should only pull the rows that were requested") {
+    val pipe = new FakePipe(Iterator.tabulate(10)(i => Map("x" -> i)))
+    val subscriber = mock[QuerySubscriber]
+    val result = newResult(pipe, subscriber)
+
+    result.request(3)
+
+    pipe.numberOfPulledRows should equal(3)
+    result.await() shouldBe true
+    pipe.numberOfPulledRows should equal(3)
+    verify(subscriber, never()).onResultCompleted(any())
+
+    result.request(7)
+
+    pipe.numberOfPulledRows should equal(10)
+    result.await() shouldBe false
+    verify(subscriber, times(1)).onResultCompleted(any())
+  }
+
+  test("should signal completion only once") {
+    val pipe = new FakePipe(Iterator.tabulate(2)(i => Map("x" -> i)))
+    val subscriber = mock[QuerySubscriber]
+    val result = newResult(pipe, subscriber)
+
+    result.request(5)
+    result.request(5)
+
+    result.await() shouldBe false
+    verify(subscriber, times(1)).onResultCompleted(any())
+  }
+
+  test("should not serve more rows or signal completion once cancelled") {
+    val pipe = new FakePipe(Iterator.tabulate(10)(i => Map("x" -> i)))
+    val subscriber = mock[QuerySubscriber]
+    val result = newResult(pipe, subscriber)
+
+    result.request(1)
+    result.cancel()
+    result.request(5)
+
+    result.await() shouldBe false
+    pipe.numberOfPulledRows should equal(1)
+    verify(subscriber, never()).onResultCompleted(any())
+  }
+
+  private def newResult(pipe: FakePipe, subscriber: QuerySubscriber): PipeExecutionResult = {
+    val query = mock[QueryContext]
+    when(query.getOptStatistics).thenReturn(None)
+    val state = QueryStateHelper.emptyWith(query = query, subscriber = subscriber)
+    new PipeExecutionResult(pipe, Array("x"), state, QueryProfile.NONE, subscriber)
+  }
+}
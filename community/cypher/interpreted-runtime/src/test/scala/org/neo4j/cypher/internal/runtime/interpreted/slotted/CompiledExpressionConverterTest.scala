@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.planner.spi.TokenContext
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.runtime.ast.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.symbols.CTAny
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.storable.Values.NO_VALUE
+
+class CompiledExpressionConverterTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private val slots = new SlotConfiguration(Map("x" -> RefSlot(0), "y" -> RefSlot(1)))
+  private val compiled = CompiledExpressionConverter(slots, TokenContext.EMPTY)
+  private val converters = new ExpressionConverters(compiled, SlottedExpressionConverter(slots), CommunityExpressionConverter(TokenContext.EMPTY))
+
+  test("should compile arithmetic and comparisons over slots, parameters and literals") {
+    val expression = greaterThan(add(varFor("x"), ParameterFromSlot(0, "p", CTAny)), literalInt(10))
+
+    evaluate(expression, x = Values.intValue(5), params = Array(Values.intValue(6))) should equal(Values.TRUE)
+    evaluate(expression, x = Values.intValue(4), params = Array(Values.intValue(6))) should equal(Values.FALSE)
+  }
+
+  test("should evaluate null like the interpreted expressions") {
+    evaluate(equals(varFor("x"), varFor("y")), x = NO_VALUE, y = Values.intValue(1)) should equal(NO_VALUE)
+    evaluate(lessThan(varFor("x"), varFor("y")), x = Values.intValue(1), y = NO_VALUE) should equal(NO_VALUE)
+    evaluate(add(varFor("x"), varFor("y")), x = NO_VALUE, y = Values.intValue(1)) should equal(NO_VALUE)
+    evaluate(isNull(varFor("x")), x = NO_VALUE) should equal(Values.TRUE)
+    evaluate(isNotNull(varFor("x")), x = NO_VALUE) should equal(Values.FALSE)
+  }
+
+  test("should throw the same errors as the interpreted expressions") {
+    a[CypherTypeException] should be thrownBy evaluate(add(varFor("x"), trueLiteral), x = Values.intValue(1))
+  }
+
+  test("should not compile variables, literals and parameters on their own") {
+    compiled.toCommandExpression(Id.INVALID_ID, varFor("x"), converters) shouldBe None
+    compiled.toCommandExpression(Id.INVALID_ID, literalInt(1), converters) shouldBe None
+    compiled.toCommandExpression(Id.INVALID_ID, ParameterFromSlot(0, "p", CTAny), converters) shouldBe None
+  }
+
+  test("should not compile unsupported expressions but still compile their supported children") {
+    val unsupported = listOf(add(varFor("x"), literalInt(1)))
+
+    compiled.toCommandExpression(Id.INVALID_ID, unsupported, converters) shouldBe None
+    converters.toCommandExpression(Id.INVALID_ID, unsupported).arguments.head shouldBe a[CompiledCommandExpression]
+  }
+
+  private def evaluate(expression: Expression,
+                       x: AnyValue = NO_VALUE,
+                       y: AnyValue = NO_VALUE,
+                       params: Array[AnyValue] = Array.empty): AnyValue = {
+    val command = compiled.toCommandExpression(Id.INVALID_ID, expression, converters)
+    command shouldBe a[Some[_]]
+
+    val row = SlottedRow.empty(slots, mock[EntityById])
+    row.set("x", x, "y", y)
+    command.get(row, QueryStateHelper.emptyWith(params = params))
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.slotted
+
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.util.symbols.CTNode
+import org.neo4j.cypher.internal.util.symbols.CTRelationship
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.virtual.NodeValue
+import org.neo4j.values.virtual.VirtualValues
+
+class SlottedRowTest extends CypherFunSuite {
+
+  private val slots = new SlotConfiguration(Map(
+    "n" -> LongSlot(0, CTNode),
+    "r" -> LongSlot(1, CTRelationship),
+    "x" -> RefSlot(0)))
+
+  test("should keep entities as ids and only look them up when read by name") {
+    // given
+    val entityById = mock[EntityById]
+    val node = mock[NodeValue]
+    when(entityById.nodeById(42)).thenReturn(node)
+    val row = SlottedRow.empty(slots, entityById)
+
+    // when
+    row.set("n", VirtualValues.node(42))
+
+    // then
+    row.getLongAt(0) should equal(42)
+    verify(entityById, never()).nodeById(42)
+    row.getByName("n") should be theSameInstanceAs node
+  }
+
+  test("should read unset entity slots as null") {
+    // given
+    val row = SlottedRow.empty(slots, mock[EntityById])
+
+    // then
+    row.getByName("r") should equal(NO_VALUE)
+    row.isNull("r") shouldBe true
+  }
+
+  test("should store null entities as null ids") {
+    // given
+    val row = SlottedRow.empty(slots, mock[EntityById])
+    row.set("n", VirtualValues.node(1))
+
+    // when
+    row.set("n", NO_VALUE)
+
+    // then
+    row.getLongAt(0) should equal(SlottedRow.NULL_ENTITY)
+  }
+
+  test("create clone") {
+    // given
+    val row = SlottedRow.empty(slots, mock[EntityById])
+    row.set("n", VirtualValues.node(1), "x", Values.intValue(1))
+
+    // when
+    val clone = row.createClone()
+    clone.set("n", VirtualValues.node(2), "x", Values.intValue(2))
+
+    // then
+    row.getLongAt(0) should equal(1)
+    row.getByName("x") should equal(Values.intValue(1))
+    clone.getLongAt(0) should equal(2)
+    clone.getByName("x") should equal(Values.intValue(2))
+  }
+
+  test("should fail on non entity values in long slots") {
+    val row = SlottedRow.empty(slots, mock[EntityById])
+
+    an[Exception] should be thrownBy row.set("n", Values.intValue(1))
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.spill
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.EntityById
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.NodeValue
+import org.neo4j.values.virtual.RelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+class SpilledValuesTest extends CypherFunSuite {
+
+  private val entityById = mock[EntityById]
+
+  test("should read back the values it writes") {
+    val values = Seq[AnyValue](
+      Values.NO_VALUE,
+      Values.booleanValue(true),
+      Values.intValue(42),
+      Values.longValue(Long.MaxValue),
+      Values.doubleValue(3.14),
+      Values.stringValue("spilled ☃"),
+      Values.charValue('c'),
+      Values.byteArray(Array[Byte](1, 2, 3)),
+      Values.longArray(Array(1L, 2L)),
+      Values.stringArray("a", "b"),
+      Values.pointValue(CoordinateReferenceSystem.WGS84, 12.5, 56.0),
+      DurationValue.duration(1, 2, 3, 4),
+      DateValue.date(LocalDate.of(2020, 2, 29)),
+      DateTimeValue.datetime(ZonedDateTime.of(2020, 1, 1, 12, 0, 0, 1, ZoneId.of("Europe/Stockholm"))),
+      VirtualValues.list(Values.intValue(1), VirtualValues.list(Values.stringValue("nested"))),
+      VirtualValues.map(Array("a", "b"), Array(Values.intValue(1), Values.NO_VALUE)))
+
+    values.foreach(value => roundTrip(value) should equal(value))
+  }
+
+  test("should look up nodes and relationships by id when reading them back") {
+    val node = mock[NodeValue]
+    when(entityById.nodeById(42)).thenReturn(node)
+
+    roundTrip(VirtualValues.node(42)) should be theSameInstanceAs node
+  }
+
+  test("should not write paths") {
+    val out = new DataOutputStream(new ByteArrayOutputStream())
+    val path = VirtualValues.path(Array[NodeValue](mock[NodeValue]), Array.empty[RelationshipValue])
+
+    SpilledValues.write(path, out) should be(false)
+  }
+
+  private def roundTrip(value: AnyValue): AnyValue = {
+    val bytes = new ByteArrayOutputStream()
+    SpilledValues.write(value, new DataOutputStream(bytes)) should be(true)
+    SpilledValues.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray)), entityById)
+  }
+}
@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
 
 trait GraphStatistics {
 
@@ -64,8 +65,35 @@ trait GraphStatistics {
    * indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.prop)|
    */
   def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /**
+   * Probability of any node in the index to have a property equal to the given value, estimated from the distribution
+   * of values in the index. None if the distribution isn't known, in which case uniqueValueSelectivity is the best estimate.
+   *
+   * indexValueSelectivity(:X, prop, v) = s => |MATCH (a:X) WHERE has(a.prop)| * s = |MATCH (a:X) WHERE a.prop = v|
+   */
+  def indexValueSelectivity(index: IndexDescriptor, value: Value): Option[Selectivity] = None
+
+  /**
+   * Probability of any node in the index to have a property equal to a value that is not known when planning, e.g. a parameter,
+   * estimated from the distribution of values in the index. None if the distribution isn't known, in which case
+   * uniqueValueSelectivity is the best estimate.
+   *
+   * indexExpectedValueSelectivity(:X, prop) = s => |MATCH (a:X) WHERE has(a.prop)| * s = |MATCH (a:X) WHERE a.prop = $v|
+   */
+  def indexExpectedValueSelectivity(index: IndexDescriptor): Option[Selectivity] = None
+
+  /**
+   * Probability of any node in the index to have a property within the given range, estimated from the distribution
+   * of values in the index. A missing bound leaves that side of the range open. None if the distribution isn't known.
+   *
+   * indexRangeSelectivity(:X, prop, l, u) = s => |MATCH (a:X) WHERE has(a.prop)| * s = |MATCH (a:X) WHERE l < a.prop < u|
+   */
+  def indexRangeSelectivity(index: IndexDescriptor, lower: Option[IndexValueBound], upper: Option[IndexValueBound]): Option[Selectivity] = None
 }
 
+case class IndexValueBound(value: Value, inclusive: Boolean)
+
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
   override def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality =
     delegate.nodesWithLabelCardinality(labelId)
@@ -79,5 +107,14 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyExistsSelectivity(index)
 
+  override def indexValueSelectivity(index: IndexDescriptor, value: Value): Option[Selectivity] =
+    delegate.indexValueSelectivity(index, value)
+
+  override def indexExpectedValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
+    delegate.indexExpectedValueSelectivity(index)
+
+  override def indexRangeSelectivity(index: IndexDescriptor, lower: Option[IndexValueBound], upper: Option[IndexValueBound]): Option[Selectivity] =
+    delegate.indexRangeSelectivity(index, lower, upper)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 }
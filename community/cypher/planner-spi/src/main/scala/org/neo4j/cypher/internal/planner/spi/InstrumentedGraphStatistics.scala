@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
 
 import scala.collection.mutable
 
@@ -100,5 +101,15 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     selectivity
   }
 
+  // Value distributions only refine the estimates tracked above and are not part of the snapshot that decides when a plan is stale
+  override def indexValueSelectivity(index: IndexDescriptor, value: Value): Option[Selectivity] =
+    inner.indexValueSelectivity(index, value)
+
+  override def indexExpectedValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
+    inner.indexExpectedValueSelectivity(index)
+
+  override def indexRangeSelectivity(index: IndexDescriptor, lower: Option[IndexValueBound], upper: Option[IndexValueBound]): Option[Selectivity] =
+    inner.indexRangeSelectivity(index, lower, upper)
+
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
 }
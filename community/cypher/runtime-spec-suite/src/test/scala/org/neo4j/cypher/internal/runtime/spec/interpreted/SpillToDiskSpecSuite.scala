@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.InterpretedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.interpreted.InterpretedSpecSuite.SIZE_HINT
+import org.neo4j.cypher.internal.runtime.spec.slotted.SlottedSpecSuite.SLOTTED
+import org.neo4j.cypher.internal.runtime.spec.tests.AggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SortTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.UserDefinedAggregationSupport
+
+/**
+ * Runs the tests of the operators that can spill to disk with a threshold low enough to make them spill almost at once.
+ */
+object SpillToDiskSpecSuite {
+  val EDITION = COMMUNITY.EDITION.copyWith(GraphDatabaseInternalSettings.cypher_spill_threshold -> java.lang.Long.valueOf(1))
+}
+
+import org.neo4j.cypher.internal.runtime.spec.interpreted.SpillToDiskSpecSuite.EDITION
+
+class InterpretedSpillToDiskAggregationTest extends AggregationTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+                                            with UserDefinedAggregationSupport[CommunityRuntimeContext]
+class InterpretedSpillToDiskSortTest extends SortTestBase(EDITION, InterpretedRuntime, SIZE_HINT)
+class SlottedSpillToDiskAggregationTest extends AggregationTestBase(EDITION, SLOTTED, SIZE_HINT)
+class SlottedSpillToDiskSortTest extends SortTestBase(EDITION, SLOTTED, SIZE_HINT)
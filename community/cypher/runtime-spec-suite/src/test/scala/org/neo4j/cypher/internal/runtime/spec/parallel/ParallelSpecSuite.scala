@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.parallel
+
+import java.lang.Integer.valueOf
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.CommunityRuntimeFactory
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.parallel.ParallelSpecSuite.EDITION
+import org.neo4j.cypher.internal.runtime.spec.parallel.ParallelSpecSuite.PARALLEL
+import org.neo4j.cypher.internal.runtime.spec.parallel.ParallelSpecSuite.SIZE_HINT
+import org.neo4j.cypher.internal.runtime.spec.tests.AggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.DistinctTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpressionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.FilterTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LabelScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProjectionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SortTestBase
+
+/**
+ * Runs through [[CommunityRuntimeFactory.parallel]], so that test plans the parallel runtime does not support run on the
+ * slotted runtime. Small morsels and a fixed number of workers make sure that every scan is shared by several workers.
+ */
+object ParallelSpecSuite {
+  val SIZE_HINT = 200
+  val PARALLEL = CommunityRuntimeFactory.parallel
+  val EDITION = COMMUNITY.EDITION.copyWith(
+    GraphDatabaseInternalSettings.cypher_pipelined_batch_size_small -> valueOf(4),
+    GraphDatabaseInternalSettings.cypher_pipelined_batch_size_big -> valueOf(16),
+    GraphDatabaseInternalSettings.cypher_worker_count -> valueOf(4))
+}
+
+class ParallelAggregationTest extends AggregationTestBase(EDITION, PARALLEL, SIZE_HINT)
+class ParallelAllNodeScanTest extends AllNodeScanTestBase(EDITION, PARALLEL, SIZE_HINT)
+                              with AllNodeScanWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class ParallelLabelScanTest extends LabelScanTestBase(EDITION, PARALLEL, SIZE_HINT)
+class ParallelExpandAllTest extends ExpandAllTestBase(EDITION, PARALLEL, SIZE_HINT)
+                            with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class ParallelFilterTest extends FilterTestBase(EDITION, PARALLEL, SIZE_HINT)
+class ParallelProjectionTest extends ProjectionTestBase(EDITION, PARALLEL, SIZE_HINT)
+class ParallelDistinctTest extends DistinctTestBase(EDITION, PARALLEL, SIZE_HINT)
+class ParallelSortTest extends SortTestBase(EDITION, PARALLEL, SIZE_HINT)
+class ParallelExpressionTest extends ExpressionTestBase(EDITION, PARALLEL)
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.slotted
+
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.CommunityRuntimeFactory
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.slotted.SlottedSpecSuite.SIZE_HINT
+import org.neo4j.cypher.internal.runtime.spec.tests.AggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ArgumentTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.DistinctTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntoTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntoWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpressionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.FilterTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LabelScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.LimitTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeByIdSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeIndexSeekTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OrderedAggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OrderedDistinctTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.PartialSortTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.PartialTopNTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProjectionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SkipTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SortTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.TopTestBase
+
+/**
+ * Runs through [[CommunityRuntimeFactory.slotted]], like a query with `CYPHER runtime=slotted` would, so that test plans
+ * the slotted runtime does not support run on the interpreted runtime.
+ */
+object SlottedSpecSuite {
+  val SIZE_HINT = 200
+  val SLOTTED = CommunityRuntimeFactory.slotted
+}
+
+import org.neo4j.cypher.internal.runtime.spec.slotted.SlottedSpecSuite.SLOTTED
+
+class SlottedAggregationTest extends AggregationTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedOrderedAggregationTest extends OrderedAggregationTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedAllNodeScanTest extends AllNodeScanTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+                             with AllNodeScanWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class SlottedLabelScanTest extends LabelScanTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedNodeByIdSeekTest extends NodeByIdSeekTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedNodeIndexScanTest extends NodeIndexScanTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedNodeIndexSeekTest extends NodeIndexSeekTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedExpandAllTest extends ExpandAllTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+                           with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class SlottedExpandIntoTest extends ExpandIntoTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+                            with ExpandIntoWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class SlottedFilterTest extends FilterTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedArgumentTest extends ArgumentTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedProjectionTest extends ProjectionTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedDistinctTest extends DistinctTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedOrderedDistinctTest extends OrderedDistinctTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedLimitTest extends LimitTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedSkipTest extends SkipTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedSortTest extends SortTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedPartialSortTest extends PartialSortTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedTopTest extends TopTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedPartialTopNTest extends PartialTopNTestBase(COMMUNITY.EDITION, SLOTTED, SIZE_HINT)
+class SlottedExpressionTest extends ExpressionTestBase(COMMUNITY.EDITION, SLOTTED)
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.slotted
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.configuration.GraphDatabaseInternalSettings.CypherExpressionEngine
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.slotted.SlottedSpecSuite.SIZE_HINT
+import org.neo4j.cypher.internal.runtime.spec.slotted.SlottedSpecSuite.SLOTTED
+import org.neo4j.cypher.internal.runtime.spec.tests.AggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpressionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.FilterTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProjectionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SortTestBase
+
+/**
+ * Runs the tests that evaluate expressions on the slotted runtime with every expression compiled, instead of only
+ * those of queries that have been executed often enough.
+ */
+object SlottedWithCompiledExpressionsSpecSuite {
+  val EDITION = COMMUNITY.EDITION.copyWith(GraphDatabaseInternalSettings.cypher_expression_engine -> CypherExpressionEngine.COMPILED)
+}
+
+import org.neo4j.cypher.internal.runtime.spec.slotted.SlottedWithCompiledExpressionsSpecSuite.EDITION
+
+class SlottedWithCompiledExpressionsAggregationTest extends AggregationTestBase(EDITION, SLOTTED, SIZE_HINT)
+class SlottedWithCompiledExpressionsExpandAllTest extends ExpandAllTestBase(EDITION, SLOTTED, SIZE_HINT)
+                                                  with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class SlottedWithCompiledExpressionsExpressionTest extends ExpressionTestBase(EDITION, SLOTTED)
+class SlottedWithCompiledExpressionsFilterTest extends FilterTestBase(EDITION, SLOTTED, SIZE_HINT)
+class SlottedWithCompiledExpressionsProjectionTest extends ProjectionTestBase(EDITION, SLOTTED, SIZE_HINT)
+class SlottedWithCompiledExpressionsSortTest extends SortTestBase(EDITION, SLOTTED, SIZE_HINT)
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.util.attribution.Id
+
+import scala.collection.mutable
+
+/**
+ * The rows that the operators of one execution of a plan have produced, for runtimes that can count them cheaply, so that
+ * they can be compared with the cardinalities the planner estimated. Only to be used from the thread that runs the plan.
+ *
+ * The count of an operator is complete once the rows of the operator have been read to the end. Until then, e.g. when
+ * the result was not consumed or a LIMIT stopped reading early, it is a lower bound of the rows the operator would produce.
+ */
+class OperatorRowCounts {
+  private val counts = mutable.Map.empty[Id, OperatorRowCounts.Count]
+
+  /**
+   * Counts the rows of `iterator` as rows of the operator `id`. If the operator is run again, the rows are added up.
+   */
+  def count[T](id: Id, iterator: ClosingIterator[T]): ClosingIterator[T] = {
+    val operatorCount = counts.getOrElseUpdate(id, new OperatorRowCounts.Count)
+    operatorCount.complete = false
+    new ClosingIterator[T] {
+      override protected[this] def innerHasNext: Boolean = {
+        val hasNext = iterator.hasNext
+        if (!hasNext) {
+          operatorCount.complete = true
+        }
+        hasNext
+      }
+
+      override def next(): T = {
+        operatorCount.rows += 1
+        iterator.next()
+      }
+
+      override protected[this] def closeMore(): Unit = iterator.close()
+    }
+  }
+
+  /**
+   * @return the rows that the operator has produced, or `None` if its rows were not counted
+   */
+  def rows(id: Id): Option[Long] = counts.get(id).map(_.rows)
+
+  /**
+   * @return `true` if the operator has been read to the end
+   */
+  def isComplete(id: Id): Boolean = counts.get(id).exists(_.complete)
+}
+
+object OperatorRowCounts {
+  private class Count {
+    var rows = 0L
+    var complete = false
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class OperatorRowCountsTest extends CypherFunSuite {
+
+  test("should count the rows of an operator") {
+    val counts = new OperatorRowCounts
+    val iterator = counts.count(Id(1), ClosingIterator(Iterator(1, 2, 3)))
+
+    iterator.next()
+    iterator.next()
+
+    counts.rows(Id(1)) should equal(Some(2L))
+    counts.isComplete(Id(1)) shouldBe false
+  }
+
+  test("should be complete once the rows have been read to the end") {
+    val counts = new OperatorRowCounts
+    val iterator = counts.count(Id(1), ClosingIterator(Iterator(1, 2, 3)))
+
+    iterator.toList should equal(List(1, 2, 3))
+
+    counts.rows(Id(1)) should equal(Some(3L))
+    counts.isComplete(Id(1)) shouldBe true
+  }
+
+  test("should add up the rows of an operator that runs more than once") {
+    val counts = new OperatorRowCounts
+    counts.count(Id(1), ClosingIterator(Iterator(1, 2))).toList
+    val second = counts.count(Id(1), ClosingIterator(Iterator(3, 4)))
+    second.next()
+
+    counts.rows(Id(1)) should equal(Some(3L))
+    counts.isComplete(Id(1)) shouldBe false
+  }
+
+  test("should not have rows for operators that were not counted") {
+    val counts = new OperatorRowCounts
+    counts.count(Id(1), ClosingIterator(Iterator(1))).toList
+
+    counts.rows(Id(2)) should equal(None)
+    counts.isComplete(Id(2)) shouldBe false
+  }
+}
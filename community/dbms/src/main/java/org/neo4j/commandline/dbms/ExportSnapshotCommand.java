@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.commandline.dbms;
+
+import java.io.Closeable;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cli.AbstractCommand;
+import org.neo4j.cli.CommandFailedException;
+import org.neo4j.cli.Converters.DatabaseNameConverter;
+import org.neo4j.cli.ExecutionContext;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.helpers.NormalizedDatabaseName;
+import org.neo4j.internal.id.ScanOnOpenReadOnlyIdGeneratorFactory;
+import org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshot;
+import org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshotWriter;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.layout.Neo4jLayout;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.util.Validators;
+import org.neo4j.kernel.internal.locker.FileLockException;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+import static java.lang.String.format;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.internal.helpers.Strings.joinAsLines;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.selectForStoreOrConfig;
+import static org.neo4j.kernel.recovery.Recovery.isRecoveryRequired;
+import static picocli.CommandLine.Command;
+import static picocli.CommandLine.Help.Visibility.NEVER;
+import static picocli.CommandLine.Option;
+
+@Command(
+        name = "export-snapshot",
+        header = "Export a columnar snapshot of a database for analytics.",
+        description = "Export the nodes, labels, relationships and selected numeric properties of a database into a single columnar file, " +
+                "with relationships as outgoing adjacency arrays. The file can be memory mapped and read by graph analytics without going " +
+                "through the database. It is not possible to export a database that is mounted in a running Neo4j server."
+)
+public class ExportSnapshotCommand extends AbstractCommand
+{
+    @Option( names = "--database", description = "Name of the database to export.", defaultValue = DEFAULT_DATABASE_NAME,
+            converter = DatabaseNameConverter.class )
+    private NormalizedDatabaseName database;
+    @Option( names = "--to", paramLabel = "<path>", required = true, description = "File to write the snapshot to. Must not already exist." )
+    private Path to;
+    @Option( names = "--node-property", paramLabel = "<key>", showDefaultValue = NEVER,
+            description = "Node property to include as a column, only numeric values are included. Can be specified multiple times." )
+    private List<String> nodeProperties = new ArrayList<>();
+    @Option( names = "--relationship-property", paramLabel = "<key>", showDefaultValue = NEVER,
+            description = "Relationship property to include as a column, only numeric values are included. Can be specified multiple times." )
+    private List<String> relationshipProperties = new ArrayList<>();
+    @Option( names = "--threads", paramLabel = "<num>", showDefaultValue = NEVER,
+            description = "Number of threads used to scan the store. Defaults to the number of available processors reported by the JVM." )
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public ExportSnapshotCommand( ExecutionContext ctx )
+    {
+        super( ctx );
+    }
+
+    @Override
+    public void execute()
+    {
+        var databaseName = database.name();
+        Config config = CommandHelpers.buildConfig( ctx );
+        DatabaseLayout databaseLayout = Neo4jLayout.of( config ).databaseLayout( databaseName );
+
+        try
+        {
+            Validators.CONTAINS_EXISTING_DATABASE.validate( databaseLayout.databaseDirectory() );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new CommandFailedException( "Database does not exist: " + databaseName, e );
+        }
+
+        Path snapshotFile = to.toAbsolutePath();
+        try ( Closeable ignored = LockChecker.checkDatabaseLock( databaseLayout ) )
+        {
+            checkDbState( databaseLayout, config );
+            export( databaseLayout, config, snapshotFile );
+        }
+        catch ( FileLockException e )
+        {
+            throw new CommandFailedException( "The database is in use. Stop database '" + databaseName + "' and try again.", e );
+        }
+        catch ( FileAlreadyExistsException e )
+        {
+            throw new CommandFailedException( "Snapshot file already exists: " + snapshotFile, e );
+        }
+        catch ( CannotWriteException e )
+        {
+            throw new CommandFailedException( "You do not have permission to export the database.", e );
+        }
+        catch ( CommandFailedException e )
+        {
+            throw e;
+        }
+        catch ( Exception e )
+        {
+            throw new CommandFailedException( format( "Unable to export snapshot: %s: %s", e.getClass().getSimpleName(), e.getMessage() ), e );
+        }
+    }
+
+    private void export( DatabaseLayout databaseLayout, Config config, Path snapshotFile ) throws Exception
+    {
+        try ( var fs = ctx.fs();
+              var jobScheduler = createInitialisedScheduler();
+              var pageCache = StandalonePageCacheFactory.createPageCache( fs, jobScheduler, PageCacheTracer.NULL ) )
+        {
+            RecordFormats formats = selectForStoreOrConfig( config, databaseLayout, fs, pageCache, NullLogProvider.getInstance(), PageCacheTracer.NULL );
+            StoreFactory storeFactory = new StoreFactory( databaseLayout, config, new ScanOnOpenReadOnlyIdGeneratorFactory(), pageCache, fs, formats,
+                    NullLogProvider.getInstance(), PageCacheTracer.NULL, immutable.empty() );
+            try ( NeoStores neoStores = storeFactory.openAllNeoStores() )
+            {
+                new ColumnarSnapshotWriter( neoStores, threads, PageCacheTracer.NULL ).write( snapshotFile, nodeProperties, relationshipProperties );
+            }
+            try ( ColumnarSnapshot snapshot = ColumnarSnapshot.open( snapshotFile ) )
+            {
+                ctx.out().println( format( "Exported %d node ids and %d relationships to %s", snapshot.nodeCount(), snapshot.relationshipCount(),
+                        snapshotFile ) );
+            }
+        }
+    }
+
+    private static void checkDbState( DatabaseLayout databaseLayout, Config config )
+    {
+        boolean recoveryRequired;
+        try
+        {
+            recoveryRequired = isRecoveryRequired( databaseLayout, config, EmptyMemoryTracker.INSTANCE );
+        }
+        catch ( Exception e )
+        {
+            throw new CommandFailedException( "Failure when checking for recovery state: " + e.getMessage(), e );
+        }
+        if ( recoveryRequired )
+        {
+            throw new CommandFailedException( joinAsLines( "Active logical log detected, this might be a source of inconsistencies.",
+                    "Please recover database before running the export.",
+                    "To perform recovery please start database and perform clean shutdown." ) );
+        }
+    }
+}
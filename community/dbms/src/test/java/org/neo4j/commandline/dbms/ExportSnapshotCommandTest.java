@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.commandline.dbms;
+
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import org.neo4j.cli.ExecutionContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportSnapshotCommandTest
+{
+    @Test
+    void printUsageHelp()
+    {
+        final var baos = new ByteArrayOutputStream();
+        final var command = new ExportSnapshotCommand( new ExecutionContext( Path.of( "." ), Path.of( "." ) ) );
+        try ( var out = new PrintStream( baos ) )
+        {
+            CommandLine.usage( command, new PrintStream( out ), CommandLine.Help.Ansi.OFF );
+        }
+        assertThat( baos.toString().trim() ).isEqualTo( String.format(
+                "Export a columnar snapshot of a database for analytics.%n" +
+                "%n" +
+                "USAGE%n" +
+                "%n" +
+                "export-snapshot [--verbose] [--database=<database>] [--threads=<num>]%n" +
+                "                --to=<path> [--node-property=<key>]...%n" +
+                "                [--relationship-property=<key>]...%n" +
+                "%n" +
+                "DESCRIPTION%n" +
+                "%n" +
+                "Export the nodes, labels, relationships and selected numeric properties of a%n" +
+                "database into a single columnar file, with relationships as outgoing adjacency%n" +
+                "arrays. The file can be memory mapped and read by graph analytics without going%n" +
+                "through the database. It is not possible to export a database that is mounted%n" +
+                "in a running Neo4j server.%n" +
+                "%n" +
+                "OPTIONS%n" +
+                "%n" +
+                "      --verbose         Enable verbose output.%n" +
+                "      --database=<database>%n" +
+                "                        Name of the database to export.%n" +
+                "                          Default: neo4j%n" +
+                "      --to=<path>       File to write the snapshot to. Must not already exist.%n" +
+                "      --node-property=<key>%n" +
+                "                        Node property to include as a column, only numeric%n" +
+                "                          values are included. Can be specified multiple times.%n" +
+                "      --relationship-property=<key>%n" +
+                "                        Relationship property to include as a column, only%n" +
+                "                          numeric values are included. Can be specified%n" +
+                "                          multiple times.%n" +
+                "      --threads=<num>   Number of threads used to scan the store. Defaults to%n" +
+                "                          the number of available processors reported by the%n" +
+                "                          JVM."
+        ) );
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import org.eclipse.collections.api.list.primitive.LongList;
+
 import java.io.IOException;
 
 import org.neo4j.io.pagecache.PageCursor;
@@ -206,25 +208,47 @@ class FreeListIdProvider implements IdProvider
     {
         try ( PageCursor cursor = pagedFile.io( writePageId, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer ) )
         {
-            PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
-            freelistNode.write( cursor, unstableGeneration, id, writePos );
-            writePos++;
+            releaseId( cursor, stableGeneration, unstableGeneration, id, cursorTracer );
+        }
+    }
 
-            if ( writePos >= freelistNode.maxEntries() )
+    @Override
+    public void releaseIds( long stableGeneration, long unstableGeneration, LongList ids, PageCursorTracer cursorTracer ) throws IOException
+    {
+        // Use the same cursor for all ids, so that ids ending up on the same free-list page are written with a single pin
+        try ( PageCursor cursor = pagedFile.io( writePageId, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer ) )
+        {
+            for ( int i = 0; i < ids.size(); i++ )
             {
-                // Current free-list write page is full, allocate a new one.
-                long nextFreelistPage = acquireNewId( cursor, stableGeneration, unstableGeneration, false, cursorTracer );
-                PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
-                FreelistNode.initialize( cursor );
-                // Link previous --> new writer page
-                FreelistNode.setNext( cursor, nextFreelistPage );
-                writePageId = nextFreelistPage;
-                writePos = 0;
-                monitor.acquiredFreelistPageId( nextFreelistPage );
+                releaseId( cursor, stableGeneration, unstableGeneration, ids.get( i ), cursorTracer );
             }
         }
     }
 
+    private void releaseId( PageCursor cursor, long stableGeneration, long unstableGeneration, long id, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        if ( cursor.getCurrentPageId() != writePageId )
+        {
+            PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
+        }
+        freelistNode.write( cursor, unstableGeneration, id, writePos );
+        writePos++;
+
+        if ( writePos >= freelistNode.maxEntries() )
+        {
+            // Current free-list write page is full, allocate a new one.
+            long nextFreelistPage = acquireNewId( cursor, stableGeneration, unstableGeneration, false, cursorTracer );
+            PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
+            FreelistNode.initialize( cursor );
+            // Link previous --> new writer page
+            FreelistNode.setNext( cursor, nextFreelistPage );
+            writePageId = nextFreelistPage;
+            writePos = 0;
+            monitor.acquiredFreelistPageId( nextFreelistPage );
+        }
+    }
+
     @Override
     public void visitFreelist( IdProviderVisitor visitor, PageCursorTracer cursorTracer ) throws IOException
     {
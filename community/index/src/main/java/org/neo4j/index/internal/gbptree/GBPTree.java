@@ -20,6 +20,7 @@
 package org.neo4j.index.internal.gbptree;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.collections.api.set.ImmutableSet;
 
@@ -270,6 +271,18 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             {
                 delegate.treeShrink();
             }
+
+            @Override
+            public void seekRestartedFromRoot()
+            {
+                delegate.seekRestartedFromRoot();
+            }
+
+            @Override
+            public void seekMovedRight()
+            {
+                delegate.seekMovedRight();
+            }
         }
 
         /**
@@ -329,6 +342,22 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
          * Report tree shrink, when root becomes empty.
          */
         void treeShrink();
+
+        /**
+         * Report that a seek ended up on a tree node which had been changed concurrently in a way that made it restart from the root.
+         * Frequent restarts means that readers are contending with writers on the same key range.
+         */
+        default void seekRestartedFromRoot()
+        {   // no-op
+        }
+
+        /**
+         * Report that a seek noticed a concurrent split of an internal node on its way down the tree and moved right
+         * to the sibling holding its key, instead of restarting from the root.
+         */
+        default void seekMovedRight()
+        {   // no-op
+        }
     }
 
     /**
@@ -459,6 +488,11 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final Monitor monitor;
 
+    /**
+     * Reports seek events, like restarts, from {@link SeekCursor} to {@link #monitor}.
+     */
+    private final SeekCursor.Monitor seekMonitor;
+
     /**
      * If this tree is read only, no changes will be made to it. No generation bumping, no checkpointing, no nothing.
      */
@@ -576,6 +610,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     {
         this.indexFile = indexFile;
         this.monitor = monitor;
+        this.seekMonitor = new SeekMonitor( monitor );
         this.readOnly = readOnly;
         this.pageCacheTracer = pageCacheTracer;
         this.openOptions = openOptions;
@@ -1005,7 +1040,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     @Override
     public Seeker<KEY,VALUE> seek( KEY fromInclusive, KEY toExclusive, PageCursorTracer cursorTracer ) throws IOException
     {
-        return seekInternal( fromInclusive, toExclusive, cursorTracer, DEFAULT_MAX_READ_AHEAD, SeekCursor.NO_MONITOR, LEAF_LEVEL );
+        return seekInternal( fromInclusive, toExclusive, cursorTracer, DEFAULT_MAX_READ_AHEAD, seekMonitor, LEAF_LEVEL );
     }
 
     private Seeker<KEY,VALUE> seekInternal( KEY fromInclusive, KEY toExclusive, PageCursorTracer cursorTracer, int readAheadLength, SeekCursor.Monitor monitor,
@@ -1597,6 +1632,28 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    private static class SeekMonitor extends SeekCursor.MonitorAdaptor
+    {
+        private final Monitor monitor;
+
+        SeekMonitor( Monitor monitor )
+        {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void restartedFromRoot()
+        {
+            monitor.seekRestartedFromRoot();
+        }
+
+        @Override
+        public void movedRight()
+        {
+            monitor.seekMovedRight();
+        }
+    }
+
     private class SingleWriter implements Writer<KEY,VALUE>
     {
         /**
@@ -1753,6 +1810,43 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             return result;
         }
 
+        @Override
+        public long removeRange( KEY fromInclusive, KEY toExclusive )
+        {
+            MutableLong removedCount = new MutableLong();
+            if ( layout.compare( fromInclusive, toExclusive ) >= 0 )
+            {
+                return 0;
+            }
+
+            // This key will be moved forward, leaf by leaf, as the range gets removed
+            KEY from = layout.copyKey( fromInclusive, layout.newKey() );
+            try
+            {
+                boolean mayHaveMoreInRange;
+                do
+                {
+                    mayHaveMoreInRange = treeLogic.removeRange( cursor, structurePropagation, from, toExclusive, removedCount,
+                            stableGeneration, unstableGeneration, cursorTracer );
+
+                    handleStructureChanges( cursorTracer );
+                    checkOutOfBounds( cursor );
+                }
+                while ( mayHaveMoreInRange );
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            return removedCount.longValue();
+        }
+
         private void handleStructureChanges( PageCursorTracer cursorTracer ) throws IOException
         {
             if ( structurePropagation.hasRightKeyInsert )
@@ -19,6 +19,8 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import org.eclipse.collections.api.list.primitive.LongList;
+
 import java.io.IOException;
 
 import org.neo4j.io.pagecache.PageCursor;
@@ -54,6 +56,24 @@ interface IdProvider
      */
     void releaseId( long stableGeneration, long unstableGeneration, long id, PageCursorTracer cursorTracer ) throws IOException;
 
+    /**
+     * Releases multiple page ids in one go, as if calling {@link #releaseId(long, long, long, PageCursorTracer)} for each one of them.
+     * Implementations are encouraged to do this more efficiently than releasing one id at a time.
+     *
+     * @param stableGeneration current stable generation.
+     * @param unstableGeneration current unstable generation.
+     * @param ids page ids to release.
+     * @param cursorTracer underlying page cache cursor access tracer
+     * @throws IOException on {@link PageCursor} error.
+     */
+    default void releaseIds( long stableGeneration, long unstableGeneration, LongList ids, PageCursorTracer cursorTracer ) throws IOException
+    {
+        for ( int i = 0; i < ids.size(); i++ )
+        {
+            releaseId( stableGeneration, unstableGeneration, ids.get( i ), cursorTracer );
+        }
+    }
+
     void visitFreelist( IdProviderVisitor visitor, PageCursorTracer cursorTracer ) throws IOException;
 
     long lastId();
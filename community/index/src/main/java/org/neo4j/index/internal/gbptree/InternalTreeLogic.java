@@ -19,6 +19,10 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -760,6 +764,242 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Remove keys, and their associated values, in the range {@code [fromInclusive, toExclusive)}, one part of the range per call.
+     * Each call does one of two things:
+     * <ul>
+     * <li>If there are whole subtrees to the right of the path down to the leaf covering {@code fromInclusive} which only cover keys
+     * in the range, then those subtrees are unlinked from their parent, picking the highest level in the tree where there are such
+     * subtrees. Nodes in unlinked subtrees are not changed, only released to the free-list in bulk.</li>
+     * <li>Otherwise all keys in the range which live in the leaf covering {@code fromInclusive} are removed from that leaf in one go,
+     * which means that the leaf gets at most one new successor and underflow is handled at most once, as opposed to once per key
+     * when calling {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, PageCursorTracer)} for each key.</li>
+     * </ul>
+     * <p>
+     * Structural changes in tree that need to propagate to the level above will be reported through the provided
+     * {@link StructurePropagation} in the same way as for remove.
+     * <p>
+     * Leaves cursor at the page which was last updated. No guarantees on offset.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first insert/remove since
+     * {@link #initialize(PageCursor)}) or at where last insert/remove left it.
+     * @param structurePropagation {@link StructurePropagation} used to report structure changes between tree levels.
+     * @param fromInclusive lowest key to remove. If keys in the range may exist in subsequent leaves after removing keys from
+     * a leaf this key will be overwritten with the lower bound of the next leaf, so that another call will continue where this call left off.
+     * @param toExclusive upper bound of keys to remove, exclusive.
+     * @param removedCount incremented by the number of removed keys.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@code true} if keys in the range may still exist in the tree, i.e. if another call is needed, otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    boolean removeRange( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY fromInclusive, KEY toExclusive,
+            MutableLong removedCount, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, fromInclusive, stableGeneration, unstableGeneration, cursorTracer );
+
+        // Only if the range continues past this leaf can there be whole subtrees in the range
+        Level<KEY> leafLevel = levels[currentLevel];
+        boolean mayContinueInNextLeaf = !leafLevel.upperIsOpenEnded && layout.compare( leafLevel.upper, toExclusive ) < 0;
+        if ( mayContinueInNextLeaf &&
+                unlinkSubtreesInRange( cursor, structurePropagation, toExclusive, removedCount, stableGeneration, unstableGeneration, cursorTracer ) )
+        {
+            // The upper bound of the leaf covering fromInclusive has changed, come back to it in the next call
+            return true;
+        }
+
+        int keyCount = TreeNode.keyCount( cursor );
+        int fromPos = positionOf( search( cursor, LEAF, fromInclusive, readKey, keyCount, cursorTracer ) );
+        int toPos = positionOf( search( cursor, LEAF, toExclusive, readKey, keyCount, cursorTracer ) );
+
+        // Figure out where the next leaf starts before making any structural changes to this leaf
+        if ( mayContinueInNextLeaf )
+        {
+            layout.copyKey( leafLevel.upper, fromInclusive );
+        }
+
+        if ( toPos > fromPos )
+        {
+            createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD,
+                    stableGeneration, unstableGeneration, cursorTracer );
+            bTreeNode.removeKeyValuesAt( cursor, fromPos, toPos, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            keyCount -= toPos - fromPos;
+            TreeNode.setKeyCount( cursor, keyCount );
+            removedCount.add( toPos - fromPos );
+
+            if ( bTreeNode.leafUnderflow( cursor, keyCount ) )
+            {
+                underflowInLeaf( cursor, structurePropagation, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            }
+
+            handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+
+            if ( currentLevel <= 0 )
+            {
+                tryShrinkTree( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+            }
+        }
+        return mayContinueInNextLeaf;
+    }
+
+    /**
+     * Looks, from the root and down, along the current path for children to the right of the path which only cover keys
+     * lower than {@code toExclusive}, i.e. whose keys are all in the range being removed. Such children are unlinked
+     * at the first level where they are found.
+     * <p>
+     * Cursor is expected to be at the leaf at the end of the current path and is left there if nothing was unlinked.
+     *
+     * @return {@code true} if subtrees were unlinked, otherwise {@code false}.
+     */
+    private boolean unlinkSubtreesInRange( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY toExclusive,
+            MutableLong removedCount, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        int leafLevel = currentLevel;
+        for ( int level = 0; level < leafLevel; level++ )
+        {
+            Level<KEY> parentLevel = levels[level];
+            TreeNode.goTo( cursor, "parent", parentLevel.treeNodeId );
+            int keyCount = TreeNode.keyCount( cursor );
+            int pathChildPos = levels[level + 1].childPos;
+
+            // Children before the one covering toExclusive are in the range. The one covering toExclusive is too
+            // if it's the last child and the upper bound of this node isn't higher than toExclusive.
+            int lastChildPosInRange = childPositionOf( search( cursor, INTERNAL, toExclusive, readKey, keyCount, cursorTracer ) );
+            if ( lastChildPosInRange < keyCount || parentLevel.upperIsOpenEnded || layout.compare( parentLevel.upper, toExclusive ) > 0 )
+            {
+                lastChildPosInRange--;
+            }
+
+            if ( lastChildPosInRange > pathChildPos )
+            {
+                currentLevel = level;
+                unlinkSubtrees( cursor, structurePropagation, keyCount, pathChildPos + 1, lastChildPosInRange, removedCount,
+                        stableGeneration, unstableGeneration, cursorTracer );
+                return true;
+            }
+        }
+
+        TreeNode.goTo( cursor, "leaf", levels[leafLevel].treeNodeId );
+        return false;
+    }
+
+    /**
+     * Unlinks the subtrees of children {@code [fromChildPos, toChildPos]} from the internal node where cursor is at.
+     * The nodes next to the subtrees on every level get their sibling pointers redirected to each other, the keys and children
+     * are removed from the internal node and all nodes in the subtrees are released to the free-list in one go.
+     * Nodes in the subtrees are only read, never changed, so concurrent readers in them still see a consistent view.
+     */
+    private void unlinkSubtrees( PageCursor cursor, StructurePropagation<KEY> structurePropagation, int keyCount, int fromChildPos, int toChildPos,
+            MutableLong removedCount, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        long parentId = cursor.getCurrentPageId();
+        long[] subtrees = new long[toChildPos - fromChildPos + 1];
+        for ( int i = 0; i < subtrees.length; i++ )
+        {
+            subtrees[i] = bTreeNode.childAt( cursor, fromChildPos + i, stableGeneration, unstableGeneration );
+            PointerChecking.checkPointer( subtrees[i], false );
+        }
+
+        connectSubtreesNeighbours( cursor, subtrees[0], subtrees[subtrees.length - 1], stableGeneration, unstableGeneration );
+        MutableLongList nodesToRelease = new LongArrayList();
+        for ( long subtree : subtrees )
+        {
+            collectSubtree( cursor, subtree, nodesToRelease, removedCount, stableGeneration, unstableGeneration, cursorTracer );
+        }
+
+        TreeNode.goTo( cursor, "parent", parentId );
+        createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD,
+                stableGeneration, unstableGeneration, cursorTracer );
+        for ( int i = 0; i < subtrees.length; i++ )
+        {
+            // Key to the left of the child is removed with it, the key to the left of the first child is the one to keep
+            simplyRemoveFromInternal( cursor, keyCount--, fromChildPos - 1, false, stableGeneration, unstableGeneration, cursorTracer );
+        }
+        idProvider.releaseIds( stableGeneration, unstableGeneration, nodesToRelease, cursorTracer );
+
+        handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+
+        if ( currentLevel <= 0 )
+        {
+            tryShrinkTree( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
+    /**
+     * On every level from the roots of the subtrees and down, make the left sibling of the leftmost node and
+     * the right sibling of the rightmost node in the subtrees point to each other.
+     */
+    private void connectSubtreesNeighbours( PageCursor cursor, long leftmostSubtree, long rightmostSubtree, long stableGeneration,
+            long unstableGeneration ) throws IOException
+    {
+        long leftmost = leftmostSubtree;
+        long rightmost = rightmostSubtree;
+        boolean isLeaf;
+        do
+        {
+            TreeNode.goTo( cursor, "leftmost node in unlinked subtrees", leftmost );
+            isLeaf = TreeNode.isLeaf( cursor );
+            long leftSibling = TreeNode.leftSibling( cursor, stableGeneration, unstableGeneration );
+            PointerChecking.checkPointer( leftSibling, true );
+            if ( !isLeaf )
+            {
+                leftmost = bTreeNode.childAt( cursor, 0, stableGeneration, unstableGeneration );
+                PointerChecking.checkPointer( leftmost, false );
+            }
+
+            TreeNode.goTo( cursor, "rightmost node in unlinked subtrees", rightmost );
+            long rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration );
+            PointerChecking.checkPointer( rightSibling, true );
+            if ( !isLeaf )
+            {
+                rightmost = bTreeNode.childAt( cursor, TreeNode.keyCount( cursor ), stableGeneration, unstableGeneration );
+                PointerChecking.checkPointer( rightmost, false );
+            }
+
+            if ( TreeNode.isNode( leftSibling ) )
+            {
+                TreeNode.goTo( cursor, "left sibling of unlinked subtrees", leftSibling );
+                TreeNode.setRightSibling( cursor, rightSibling, stableGeneration, unstableGeneration );
+            }
+            if ( TreeNode.isNode( rightSibling ) )
+            {
+                TreeNode.goTo( cursor, "right sibling of unlinked subtrees", rightSibling );
+                TreeNode.setLeftSibling( cursor, leftSibling, stableGeneration, unstableGeneration );
+            }
+        }
+        while ( !isLeaf );
+    }
+
+    /**
+     * Visits all nodes in the subtree, counting the keys in its leaves, freeing offloaded entries and collecting the node ids to release.
+     */
+    private void collectSubtree( PageCursor cursor, long subtree, MutableLongList nodesToRelease, MutableLong removedCount,
+            long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        TreeNode.goTo( cursor, "node in unlinked subtree", subtree );
+        nodesToRelease.add( cursor.getCurrentPageId() );
+        int keyCount = TreeNode.keyCount( cursor );
+        if ( TreeNode.isLeaf( cursor ) )
+        {
+            bTreeNode.freeOffloaded( cursor, keyCount, LEAF, stableGeneration, unstableGeneration, cursorTracer );
+            removedCount.add( keyCount );
+            return;
+        }
+
+        bTreeNode.freeOffloaded( cursor, keyCount, INTERNAL, stableGeneration, unstableGeneration, cursorTracer );
+        long[] children = new long[keyCount + 1];
+        for ( int pos = 0; pos < children.length; pos++ )
+        {
+            children[pos] = bTreeNode.childAt( cursor, pos, stableGeneration, unstableGeneration );
+            PointerChecking.checkPointer( children[pos], false );
+        }
+        for ( long child : children )
+        {
+            collectSubtree( cursor, child, nodesToRelease, removedCount, stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
     {
@@ -154,6 +154,17 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
          * @param keyCount number of keys in the visited leaf node.
          */
         void leafNode( int depth, int keyCount );
+
+        /**
+         * Called when a seek ended up on an unexpected tree node, due to concurrent changes, and had to restart from the root.
+         */
+        void restartedFromRoot();
+
+        /**
+         * Called when a seek, traversing down the tree, noticed that its key had been moved to the right sibling of the internal
+         * node it was in, due to a concurrent split, and moved to that sibling instead of descending into the wrong sub-tree.
+         */
+        void movedRight();
     }
 
     static class MonitorAdaptor implements Monitor
@@ -167,6 +178,16 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         public void leafNode( int depth, int keyCount )
         {   // no-op
         }
+
+        @Override
+        public void restartedFromRoot()
+        {   // no-op
+        }
+
+        @Override
+        public void movedRight()
+        {   // no-op
+        }
     }
 
     static final Monitor NO_MONITOR = new MonitorAdaptor();
@@ -434,6 +455,12 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private boolean forceReadHeader;
 
+    /**
+     * First key of the right sibling of an internal node, read when deciding whether or not to move right while traversing down the tree.
+     * Lazily instantiated since it's only needed when there have been concurrent splits.
+     */
+    private KEY rightSiblingFirstKey;
+
     /**
      * Place where read generations will be kept when reading child/sibling/successor pointers.
      */
@@ -500,12 +527,21 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
     {
         int currentReadLevel = 0;
         int completedReadLevel = -1;
+        long rightSibling = TreeNode.NO_NODE_FLAG;
+        long rightSiblingGeneration = 0;
+        // Right sibling of the node on the next level, as seen from its parent, or NO_NODE_FLAG if the parent couldn't tell
+        long expectedRightSibling = TreeNode.NO_NODE_FLAG;
+        long childRightSibling = TreeNode.NO_NODE_FLAG;
         do
         {
             // Read
             boolean lookingForChild = true;
+            int readAttempts = 0;
             do
             {
+                readAttempts++;
+                rightSibling = TreeNode.NO_NODE_FLAG;
+                childRightSibling = TreeNode.NO_NODE_FLAG;
                 // Where we are
                 if ( !readHeader() )
                 {
@@ -524,6 +560,18 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 {
                     pointerId = bTreeNode.childAt( cursor, pos, stableGeneration, unstableGeneration, generationKeeper );
                     pointerGeneration = generationKeeper.generation;
+                    if ( seekForward && pos < keyCount )
+                    {
+                        // Remember what the right sibling of the child should be, to be able to tell a concurrent split of it
+                        childRightSibling = bTreeNode.childAt( cursor, pos + 1, stableGeneration, unstableGeneration );
+                    }
+                    else if ( seekForward )
+                    {
+                        // The key is at or beyond the last key in this node. If this node has been split concurrently since we read the pointer
+                        // to it then the key may have been moved to the right sibling, so remember it to check that after this read.
+                        rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration, generationKeeper );
+                        rightSiblingGeneration = generationKeeper.generation;
+                    }
                 }
             }
             while ( cursor.shouldRetry() );
@@ -538,6 +586,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 isInternal = true;
                 currentReadLevel = 0;
                 completedReadLevel = -1;
+                expectedRightSibling = TreeNode.NO_NODE_FLAG;
                 continue;
             }
             else if ( !saneRead() )
@@ -552,6 +601,19 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
 
             if ( goToSuccessor() )
             {
+                expectedRightSibling = TreeNode.NO_NODE_FLAG;
+                continue;
+            }
+
+            if ( GenerationSafePointerPair.isSuccess( rightSibling ) && TreeNode.isNode( rightSibling ) &&
+                    mayHaveBeenSplitConcurrently( readAttempts, rightSibling, rightSiblingGeneration, expectedRightSibling ) &&
+                    keyMovedToRightSibling( rightSibling ) )
+            {
+                // Move right to the sibling on the same level, like in a B-link tree, instead of descending into a sub-tree where the key
+                // no longer is, or restarting from the root.
+                monitor.movedRight();
+                goTo( rightSibling, rightSiblingGeneration, "right sibling", false );
+                expectedRightSibling = TreeNode.NO_NODE_FLAG;
                 continue;
             }
 
@@ -560,6 +622,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
             {
                 monitor.internalNode( completedReadLevel, keyCount );
                 goTo( pointerId, pointerGeneration, "child", false );
+                expectedRightSibling = GenerationSafePointerPair.isSuccess( childRightSibling ) ? childRightSibling : TreeNode.NO_NODE_FLAG;
                 currentReadLevel++;
             }
         }
@@ -1044,6 +1107,44 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         return false;
     }
 
+    /**
+     * Reads first key on the given right sibling of the current internal node, without moving the main {@link PageCursor} to that sibling.
+     *
+     * @param rightSibling pointer to the right sibling of the current internal node.
+     * @return {@code true} if the first key in the right sibling is less than or equal to {@link #fromInclusive}, which means that the key we're
+     * looking for has been moved to the right sibling by a concurrent split, otherwise {@code false}.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    private boolean keyMovedToRightSibling( long rightSibling ) throws IOException
+    {
+        if ( rightSiblingFirstKey == null )
+        {
+            rightSiblingFirstKey = layout.newKey();
+        }
+        boolean moved;
+        try ( PageCursor scout = this.cursor.openLinkedCursor( GenerationSafePointerPair.pointer( rightSibling ) ) )
+        {
+            scout.next();
+            do
+            {
+                moved = false;
+                if ( TreeNode.nodeType( scout ) == TreeNode.NODE_TYPE_TREE_NODE && TreeNode.isInternal( scout ) )
+                {
+                    int siblingKeyCount = TreeNode.keyCount( scout );
+                    if ( keyCountIsSane( siblingKeyCount ) && siblingKeyCount > 0 )
+                    {
+                        bTreeNode.keyAt( scout, rightSiblingFirstKey, 0, INTERNAL, cursorTracer );
+                        moved = layout.compare( rightSiblingFirstKey, fromInclusive ) <= 0;
+                    }
+                }
+            }
+            while ( scout.shouldRetry() );
+            checkOutOfBounds( scout );
+            scout.checkAndClearCursorException();
+        }
+        return moved;
+    }
+
     /**
      * Reads first key on next sibling, without moving the main {@link PageCursor} to that sibling.
      * This to be able to guard for, and retry read if, concurrent writes moving keys in the "wrong" direction.
@@ -1153,6 +1254,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private void prepareToStartFromRoot() throws IOException
     {
+        monitor.restartedFromRoot();
         generationCatchup();
         Root root = rootCatchup.catchupFrom( cursor.getCurrentPageId() );
         lastFollowedPointerGeneration = root.goTo( cursor );
@@ -1183,6 +1285,30 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         forceReadHeader = false;
     }
 
+    /**
+     * Decides whether or not the right sibling of the current node is worth reading to see if the key has moved there,
+     * which is only the case if there are signs of the current node having been split after its parent was read.
+     * A node which was split has a new right sibling and that pointer was written in the unstable generation.
+     *
+     * @param readAttempts number of times the current node had to be read, more than one means it was written to concurrently.
+     * @param rightSibling right sibling of the current node.
+     * @param rightSiblingGeneration generation of the right sibling pointer of the current node.
+     * @param expectedRightSibling right sibling of the current node as seen from its parent, or {@link TreeNode#NO_NODE_FLAG} if unknown.
+     * @return {@code true} if the current node may have been split since its parent was read, otherwise {@code false}.
+     */
+    private boolean mayHaveBeenSplitConcurrently( int readAttempts, long rightSibling, long rightSiblingGeneration, long expectedRightSibling )
+    {
+        if ( readAttempts > 1 )
+        {
+            return true;
+        }
+        if ( expectedRightSibling != TreeNode.NO_NODE_FLAG )
+        {
+            return rightSibling != expectedRightSibling;
+        }
+        return rightSiblingGeneration == unstableGeneration;
+    }
+
     /**
      * Verifies that the generation of the tree node arrived at matches the generation of the pointer
      * pointing to the tree node. Generation of the node cannot be higher than the generation of the pointer -
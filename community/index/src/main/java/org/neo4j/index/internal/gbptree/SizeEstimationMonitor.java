@@ -50,6 +50,16 @@ class SizeEstimationMonitor implements SeekCursor.Monitor
         }
     }
 
+    @Override
+    public void restartedFromRoot()
+    {   // no-op
+    }
+
+    @Override
+    public void movedRight()
+    {   // no-op
+    }
+
     void clear()
     {
         treeDepth = DEPTH_NOT_DECIDED;
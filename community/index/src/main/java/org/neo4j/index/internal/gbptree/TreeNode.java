@@ -243,6 +243,22 @@ abstract class TreeNode<KEY,VALUE>
         cursor.shiftBytes( baseOffset + (pos + 1) * slotSize, (totalSlotCount - (pos + 1)) * slotSize, -slotSize );
     }
 
+    /**
+     * Moves data from right to left to remove a range of slots in one shift, as opposed to one shift per slot.
+     * Key count is NOT updated!
+     *
+     * @param cursor Write cursor on relevant page
+     * @param fromPos Logical position of first slot to remove, inclusive.
+     * @param toPos Logical position of last slot to remove, exclusive.
+     * @param totalSlotCount How many slots there are in total. (Usually keyCount for keys and values or keyCount+1 for children).
+     * @param baseOffset Offset to slot in logical position 0.
+     * @param slotSize Size of one single slot.
+     */
+    static void removeSlotsAt( PageCursor cursor, int fromPos, int toPos, int totalSlotCount, int baseOffset, int slotSize )
+    {
+        cursor.shiftBytes( baseOffset + toPos * slotSize, (totalSlotCount - toPos) * slotSize, -(toPos - fromPos) * slotSize );
+    }
+
     abstract long offloadIdAt( PageCursor cursor, int pos, Type type );
 
     abstract KEY keyAt( PageCursor cursor, KEY into, int pos, Type type, PageCursorTracer cursorTracer );
@@ -258,9 +274,33 @@ abstract class TreeNode<KEY,VALUE>
     abstract void removeKeyValueAt( PageCursor cursor, int pos, int keyCount, long stableGeneration, long unstableGeneration,
             PageCursorTracer cursorTracer ) throws IOException;
 
+    /**
+     * Remove all keys and values in positions {@code [fromPos, toPos)} in a leaf. Key count is NOT updated!
+     * Implementations are encouraged to do this more efficiently than removing one key at a time.
+     */
+    void removeKeyValuesAt( PageCursor cursor, int fromPos, int toPos, int keyCount, long stableGeneration, long unstableGeneration,
+            PageCursorTracer cursorTracer ) throws IOException
+    {
+        // Remove from the end so that as little data as possible is shifted for each removal
+        for ( int pos = toPos - 1; pos >= fromPos; pos-- )
+        {
+            removeKeyValueAt( cursor, pos, keyCount--, stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
     abstract void removeKeyAndRightChildAt( PageCursor cursor, int keyPos, int keyCount, long stableGeneration, long unstableGeneration,
             PageCursorTracer cursorTracer ) throws IOException;
 
+    /**
+     * Free all offloaded keys, or key/values, in a node which is about to be released as a whole, e.g. as part of unlinking a subtree.
+     * The node itself is left untouched.
+     */
+    void freeOffloaded( PageCursor cursor, int keyCount, Type type, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        // Nothing is offloaded by default
+    }
+
     abstract void removeKeyAndLeftChildAt( PageCursor cursor, int keyPos, int keyCount, long stableGeneration, long unstableGeneration,
             PageCursorTracer cursorTracer ) throws IOException;
 
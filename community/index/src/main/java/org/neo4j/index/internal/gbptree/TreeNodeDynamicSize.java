@@ -403,6 +403,31 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     void removeKeyValueAt( PageCursor cursor, int pos, int keyCount, long stableGeneration, long unstableGeneration,
             PageCursorTracer cursorTracer ) throws IOException
+    {
+        killKeyValueAt( cursor, pos, stableGeneration, unstableGeneration, cursorTracer );
+
+        // Remove from offset array
+        removeSlotAt( cursor, pos, keyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
+    }
+
+    @Override
+    void removeKeyValuesAt( PageCursor cursor, int fromPos, int toPos, int keyCount, long stableGeneration, long unstableGeneration,
+            PageCursorTracer cursorTracer ) throws IOException
+    {
+        for ( int pos = fromPos; pos < toPos; pos++ )
+        {
+            killKeyValueAt( cursor, pos, stableGeneration, unstableGeneration, cursorTracer );
+        }
+
+        // Remove from offset array, all in one go
+        removeSlotsAt( cursor, fromPos, toPos, keyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
+    }
+
+    /**
+     * Tombstones the key/value at the given position and accounts for it as dead space. The offset array is left untouched.
+     */
+    private void killKeyValueAt( PageCursor cursor, int pos, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
+            throws IOException
     {
         placeCursorAtActualKey( cursor, pos, LEAF );
         int keyOffset = cursor.getOffset();
@@ -425,10 +450,20 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // Update dead space
         int deadSpace = getDeadSpace( cursor );
         setDeadSpace( cursor, deadSpace + keySize + valueSize + getOverhead( keySize, valueSize, offload ) );
+    }
 
-        // Remove from offset array
-        removeSlotAt( cursor, pos, keyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
-
+    @Override
+    void freeOffloaded( PageCursor cursor, int keyCount, Type type, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            long offloadId = offloadIdAt( cursor, pos, type );
+            if ( offloadId != NO_OFFLOAD_ID )
+            {
+                offloadStore.free( offloadId, stableGeneration, unstableGeneration, cursorTracer );
+            }
+        }
     }
 
     @Override
@@ -152,6 +152,14 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         removeValueAt( cursor, pos, keyCount );
     }
 
+    @Override
+    void removeKeyValuesAt( PageCursor cursor, int fromPos, int toPos, int keyCount, long stableGeneration, long unstableGeneration,
+            PageCursorTracer cursorTracer )
+    {
+        removeSlotsAt( cursor, fromPos, toPos, keyCount, keyOffset( 0 ), keySize );
+        removeSlotsAt( cursor, fromPos, toPos, keyCount, valueOffset( 0 ), valueSize );
+    }
+
     @Override
     void removeKeyAndLeftChildAt( PageCursor cursor, int keyPos, int keyCount, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
     {
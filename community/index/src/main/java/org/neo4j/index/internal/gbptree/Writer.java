@@ -23,7 +23,7 @@ import java.io.Closeable;
 import java.io.UncheckedIOException;
 
 /**
- * Able to {@link #merge(Object, Object, ValueMerger)} and {@link #remove(Object)} key/value pairs
+ * Able to {@link #merge(Object, Object, ValueMerger)}, {@link #remove(Object)} and {@link #removeRange(Object, Object)} key/value pairs
  * into a {@link GBPTree}. After all modifications have taken place the writer must be {@link #close() closed},
  * typically using try-with-resource clause.
  *
@@ -75,4 +75,17 @@ public interface Writer<KEY,VALUE> extends Closeable
      * @throws UncheckedIOException on index access error.
      */
     VALUE remove( KEY key );
+
+    /**
+     * Removes all keys in the range {@code [fromInclusive, toExclusive)}. This is more efficient than calling {@link #remove(Object)}
+     * for each key in the range since whole subtrees in the range are unlinked from the tree and have their tree nodes released
+     * in bulk, and the remaining keys in the range that reside in the same leaf are removed in one go, with at most one rebalance
+     * or merge of that leaf as a result.
+     *
+     * @param fromInclusive lower bound of keys to remove, inclusive.
+     * @param toExclusive upper bound of keys to remove, exclusive.
+     * @return number of removed keys.
+     * @throws UncheckedIOException on index access error.
+     */
+    long removeRange( KEY fromInclusive, KEY toExclusive );
 }
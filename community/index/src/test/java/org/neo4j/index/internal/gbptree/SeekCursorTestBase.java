@@ -20,6 +20,7 @@
 package org.neo4j.index.internal.gbptree;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -2062,6 +2063,104 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         assertTrue( triggered.getValue() );
     }
 
+    @Test
+    void shouldMoveRightWhenKeyMovedToRightSiblingOfInternalNode() throws Exception
+    {
+        // given
+        // leaves, linked as siblings
+        long leafA = newLeaf( 1, 2 );
+        long leafB = newLeaf( 20, 21 );
+        long leafC = newLeaf( 40, 41 );
+        long leafD = newLeaf( 50, 51, 55, 56 );
+        linkSiblings( leafA, leafB );
+        linkSiblings( leafB, leafC );
+        linkSiblings( leafC, leafD );
+
+        // an internal node that has just been split, its right half not yet known to the parent
+        long left = newInternal( 20, leafA, leafB );
+        long right = newInternal( 50, leafC, leafD );
+        linkSiblings( left, right );
+
+        // a root which still routes everything below 100 to the left half
+        long rootId = newInternal( 100, left, 999 /*We don't care*/ );
+        goTo( cursor, rootId );
+
+        // a monitor counting moves
+        MutableInt movedRight = new MutableInt();
+        SeekCursor.Monitor monitor = new SeekCursor.MonitorAdaptor()
+        {
+            @Override
+            public void movedRight()
+            {
+                movedRight.increment();
+            }
+        };
+
+        // when
+        List<Long> found = new ArrayList<>();
+        try ( SeekCursor<KEY,VALUE> seek = new SeekCursor<>( cursor, node, key( 55 ), key( 60 ), layout,
+                stableGeneration, unstableGeneration, generationSupplier, failingRootCatchup, unstableGeneration,
+                exceptionDecorator, 1, LEAF_LEVEL, monitor, NULL ) )
+        {
+            while ( seek.next() )
+            {
+                found.add( getSeed( seek.key() ) );
+            }
+        }
+
+        // then
+        assertThat( found ).containsExactly( 55L, 56L );
+        assertEquals( 1, movedRight.intValue() );
+    }
+
+    @Test
+    void shouldNotMoveRightWhenParentKnowsRightSiblingOfInternalNode() throws Exception
+    {
+        // given
+        // leaves, linked as siblings
+        long leafA = newLeaf( 1, 2 );
+        long leafB = newLeaf( 20, 21 );
+        long leafC = newLeaf( 40, 41 );
+        long leafD = newLeaf( 50, 51, 55, 56 );
+        linkSiblings( leafA, leafB );
+        linkSiblings( leafB, leafC );
+        linkSiblings( leafC, leafD );
+
+        // two internal siblings, both known to the parent, so the left one can't have been split since the parent was read
+        long left = newInternal( 20, leafA, leafB );
+        long right = newInternal( 50, leafC, leafD );
+        linkSiblings( left, right );
+        long rootId = newInternal( 100, left, right );
+        goTo( cursor, rootId );
+
+        // a monitor counting moves
+        MutableInt movedRight = new MutableInt();
+        SeekCursor.Monitor monitor = new SeekCursor.MonitorAdaptor()
+        {
+            @Override
+            public void movedRight()
+            {
+                movedRight.increment();
+            }
+        };
+
+        // when
+        List<Long> found = new ArrayList<>();
+        try ( SeekCursor<KEY,VALUE> seek = new SeekCursor<>( cursor, node, key( 55 ), key( 60 ), layout,
+                stableGeneration, unstableGeneration, generationSupplier, failingRootCatchup, unstableGeneration,
+                exceptionDecorator, 1, LEAF_LEVEL, monitor, NULL ) )
+        {
+            while ( seek.next() )
+            {
+                found.add( getSeed( seek.key() ) );
+            }
+        }
+
+        // then the seek descended without looking at the right sibling and found the keys by scanning leaves
+        assertThat( found ).containsExactly( 55L, 56L );
+        assertEquals( 0, movedRight.intValue() );
+    }
+
     @Test
     void shouldThrowTreeInconsistencyExceptionOnBadReadWithoutShouldRetryWhileTraversingTree() throws Exception
     {
@@ -2498,6 +2597,37 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         }
     }
 
+    private long newLeaf( long... keys ) throws IOException
+    {
+        long pageId = id.acquireNewId( stableGeneration, unstableGeneration, NULL );
+        goTo( cursor, pageId );
+        node.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        for ( long k : keys )
+        {
+            append( k );
+        }
+        return pageId;
+    }
+
+    private long newInternal( long k, long leftChild, long rightChild ) throws IOException
+    {
+        long pageId = id.acquireNewId( stableGeneration, unstableGeneration, NULL );
+        goTo( cursor, pageId );
+        node.initializeInternal( cursor, stableGeneration, unstableGeneration );
+        node.setChildAt( cursor, leftChild, 0, stableGeneration, unstableGeneration );
+        node.insertKeyAndRightChildAt( cursor, key( k ), rightChild, 0, 0, stableGeneration, unstableGeneration, NULL );
+        TreeNode.setKeyCount( cursor, 1 );
+        return pageId;
+    }
+
+    private void linkSiblings( long left, long right ) throws IOException
+    {
+        goTo( cursor, left );
+        TreeNode.setRightSibling( cursor, right, stableGeneration, unstableGeneration );
+        goTo( cursor, right );
+        TreeNode.setLeftSibling( cursor, left, stableGeneration, unstableGeneration );
+    }
+
     private void append( long k ) throws IOException
     {
         int keyCount = TreeNode.keyCount( cursor );
@@ -25,12 +25,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.function.LongPredicate;
 
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
 import org.neo4j.test.rule.TestDirectory;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -227,4 +232,198 @@ class WriterTest
             assertFalse( cursor.next() );
         }
     }
+
+    @Test
+    void shouldRemoveRangeSpanningManyLeaves() throws IOException
+    {
+        // given
+        int count = 100_000;
+        insertKeys( tree, count );
+
+        // when
+        long removed;
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+        {
+            removed = writer.removeRange( new MutableLong( 1_000 ), new MutableLong( 90_000 ) );
+        }
+
+        // then
+        assertEquals( 89_000, removed );
+        assertKeys( tree, count, key -> key < 1_000 || key >= 90_000 );
+        assertTrue( tree.consistencyCheck( NULL ) );
+    }
+
+    @Test
+    void shouldUnlinkWholeSubtreesInRangeWithoutChangingTheirLeaves() throws IOException
+    {
+        // given a tree where all nodes are stable, i.e. every change to a node would need a successor
+        int count = 100_000;
+        insertKeys( tree, count );
+        tree.checkpoint( IOLimiter.UNLIMITED, NULL );
+        MutableLong leafCount = new MutableLong();
+        tree.visit( new GBPTreeVisitor.Adaptor<>()
+        {
+            @Override
+            public void beginNode( long pageId, boolean isLeaf, long generation, int keyCount )
+            {
+                if ( isLeaf )
+                {
+                    leafCount.increment();
+                }
+            }
+        }, NULL );
+
+        // when
+        long removed;
+        DefaultPageCursorTracer cursorTracer = new DefaultPageCursorTracer( new DefaultPageCacheTracer(), "removeRange" );
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( cursorTracer ) )
+        {
+            removed = writer.removeRange( new MutableLong( 1_000 ), new MutableLong( 99_000 ) );
+        }
+
+        // then
+        assertEquals( 98_000, removed );
+        assertKeys( tree, count, key -> key < 1_000 || key >= 99_000 );
+        assertTrue( tree.consistencyCheck( NULL ) );
+        // removing keys from every leaf would pin several pages per leaf, for successor, siblings and free-list
+        assertThat( cursorTracer.pins() ).isLessThan( 2 * leafCount.longValue() );
+    }
+
+    @Test
+    void shouldRemoveRangeInDynamicSizeTree() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> dynamicTree =
+                new GBPTreeBuilder<>( pageCache, directory.file( "dynamic" ), longLayout().withFixedSize( false ).build() ).build() )
+        {
+            // given
+            int count = 50_000;
+            insertKeys( dynamicTree, count );
+
+            // when
+            long removed;
+            try ( Writer<MutableLong,MutableLong> writer = dynamicTree.writer( NULL ) )
+            {
+                removed = writer.removeRange( new MutableLong( 10 ), new MutableLong( 49_990 ) );
+            }
+
+            // then
+            assertEquals( 49_980, removed );
+            assertKeys( dynamicTree, count, key -> key < 10 || key >= 49_990 );
+            assertTrue( dynamicTree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldFreeOffloadedEntriesInUnlinkedSubtrees() throws IOException
+    {
+        // every third entry is too large to be inlined in the tree node and is offloaded
+        SimpleByteArrayLayout layout = new SimpleByteArrayLayout( 3_000, 3 );
+        try ( GBPTree<RawBytes,RawBytes> offloadingTree = new GBPTreeBuilder<>( pageCache, directory.file( "offloading" ), layout ).build() )
+        {
+            // given
+            int count = 2_000;
+            try ( Writer<RawBytes,RawBytes> writer = offloadingTree.writer( NULL ) )
+            {
+                for ( long seed = 0; seed < count; seed++ )
+                {
+                    writer.put( layout.key( seed ), layout.value( seed ) );
+                }
+            }
+            offloadingTree.checkpoint( IOLimiter.UNLIMITED, NULL );
+
+            // when
+            long removed;
+            try ( Writer<RawBytes,RawBytes> writer = offloadingTree.writer( NULL ) )
+            {
+                removed = writer.removeRange( layout.key( 100 ), layout.key( 1_900 ) );
+            }
+
+            // then the consistency checker finds all offload pages of removed entries on the free-list
+            assertEquals( 1_800, removed );
+            assertTrue( offloadingTree.consistencyCheck( NULL ) );
+            try ( Seeker<RawBytes,RawBytes> cursor = offloadingTree.seek( layout.key( 0 ), layout.key( count ), NULL ) )
+            {
+                for ( long seed = 0; seed < count; seed++ )
+                {
+                    if ( seed < 100 || seed >= 1_900 )
+                    {
+                        assertTrue( cursor.next() );
+                        assertEquals( seed, layout.keySeed( cursor.key() ) );
+                    }
+                }
+                assertFalse( cursor.next() );
+            }
+        }
+    }
+
+    @Test
+    void shouldRemoveAllKeysWithRange() throws IOException
+    {
+        // given
+        int count = 10_000;
+        insertKeys( tree, count );
+
+        // when
+        long removed;
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+        {
+            removed = writer.removeRange( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ) );
+        }
+
+        // then
+        assertEquals( count, removed );
+        assertKeys( tree, count, key -> false );
+        assertTrue( tree.consistencyCheck( NULL ) );
+
+        // and the tree should still be usable
+        insertKeys( tree, count );
+        assertKeys( tree, count, key -> true );
+    }
+
+    @Test
+    void shouldNotRemoveAnythingForEmptyRange() throws IOException
+    {
+        // given
+        int count = 1_000;
+        insertKeys( tree, count );
+
+        // when
+        long removed;
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+        {
+            removed = writer.removeRange( new MutableLong( 500 ), new MutableLong( 500 ) );
+            removed += writer.removeRange( new MutableLong( 600 ), new MutableLong( 400 ) );
+        }
+
+        // then
+        assertEquals( 0, removed );
+        assertKeys( tree, count, key -> true );
+    }
+
+    private static void insertKeys( GBPTree<MutableLong,MutableLong> tree, int count ) throws IOException
+    {
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+        {
+            for ( long key = 0; key < count; key++ )
+            {
+                writer.put( new MutableLong( key ), new MutableLong( key ) );
+            }
+        }
+    }
+
+    private static void assertKeys( GBPTree<MutableLong,MutableLong> tree, int count, LongPredicate expectedToExist ) throws IOException
+    {
+        try ( Seeker<MutableLong,MutableLong> cursor = tree.seek( new MutableLong( 0 ), new MutableLong( count ), NULL ) )
+        {
+            for ( long key = 0; key < count; key++ )
+            {
+                if ( expectedToExist.test( key ) )
+                {
+                    assertTrue( cursor.next() );
+                    assertEquals( key, cursor.key().longValue() );
+                }
+            }
+            assertFalse( cursor.next() );
+        }
+    }
 }
@@ -60,7 +60,7 @@ public interface CursorFactory
 
     NodeLabelIndexCursor allocateFullAccessNodeLabelIndexCursor( PageCursorTracer cursorTracer );
 
-    RelationshipIndexCursor allocateRelationshipIndexCursor( PageCursorTracer cursorTracer );
+    RelationshipValueIndexCursor allocateRelationshipIndexCursor( PageCursorTracer cursorTracer );
 
     RelationshipTypeIndexCursor allocateRelationshipTypeIndexCursor();
 }
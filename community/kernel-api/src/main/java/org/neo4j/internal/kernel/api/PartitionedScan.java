@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+/**
+ * Initializer for spreading a scan operator over multiple cursors for use from different threads in parallel, where the scan is split
+ * into a fixed number of partitions up front. Unlike {@link Scan}, the sizes of the partitions are decided by the scan and not by
+ * the reader, which is what index trees can split cheaply.
+ *
+ * @param <Cursor>
+ *         the type of cursor this object initializes.
+ */
+public interface PartitionedScan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
+{
+    /**
+     * @return the number of partitions of this scan, which may be fewer than desired if there's little to scan.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Will attempt to reserve the next partition to scan.
+     * <p>
+     * A <code>PartitionedScan</code> instance can be shared among threads and guarantees that each partition is reserved by exactly one
+     * call to <code>reservePartition</code>, regardless of the calling thread. Each thread maintains its own cursor and can call
+     * <code>reservePartition</code> multiple times, iterating the cursor in between:
+     * <pre>
+     * {@code
+     *   try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor() )
+     *   {
+     *     while ( scan.reservePartition( cursor ) )
+     *     {
+     *       while ( cursor.next() )
+     *       {
+     *         //do things with the node
+     *       }
+     *     }
+     *   }
+     * }
+     * </pre>
+     *
+     * @param cursor The cursor to be used for reading.
+     * @return <code>true</code> if a partition was reserved, <code>false</code> if all partitions have already been reserved.
+     */
+    boolean reservePartition( Cursor cursor );
+}
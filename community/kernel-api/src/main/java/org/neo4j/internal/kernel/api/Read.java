@@ -58,13 +58,29 @@ public interface Read
     void nodeIndexSeek( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints, IndexQuery... query )
             throws KernelException;
 
+    /**
+     * Seek all nodes matching the provided index query in an index, split into partitions reserved through
+     * {@link PartitionedScan#reservePartition(Cursor)}. The returned scan is thread-safe and can be shared between threads, each using its own
+     * cursor. Nodes added, changed or removed in this transaction are taken into account, just like for
+     * {@link #nodeIndexSeek(IndexReadSession, NodeValueIndexCursor, IndexQueryConstraints, IndexQuery...)}.
+     *
+     * @param index {@link IndexReadSession} referencing index to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the seek into, fewer partitions are used if there's little to seek.
+     * @param constraints The requested constraints on the query result. Results of a partitioned seek are never ordered, so only whether the index
+     * should fetch property values together with node ids can be requested.
+     * @param query Combination of {@link IndexQuery index queries} to run against referenced index.
+     * @return a {@link PartitionedScan} over the nodes matching the query.
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints,
+            IndexQuery... query ) throws KernelException;
+
     /**
      * Seek all relationships matching the provided index query in an index.
      *
      * This is almost but not quite a relationship counterpart to
      * {@link #nodeIndexSeek(IndexReadSession, NodeValueIndexCursor, IndexQueryConstraints, IndexQuery...)}, in that this method <em>currently</em> cannot
-     * return values from the index. This may be added in the future. When this happens, this method may be extended with parameters for {@code indexOrder} and
-     * {@code needsValues}, and the cursor parameter will likely require a "value" cursor instead of just an "index" cursor.
+     * return the results in any {@link IndexOrder} other than {@link IndexOrder#NONE}. The values of the index entries can be requested with
+     * {@link IndexQueryConstraints#needsValues()}, and are then available through the cursor if it is a {@link RelationshipValueIndexCursor}.
      *
      * @param index {@link IndexDescriptor} for the index to query. This must be an index of relationships.
      * @param cursor the cursor to use for consuming the results.
@@ -75,6 +91,21 @@ public interface Read
     void relationshipIndexSeek( IndexDescriptor index, RelationshipIndexCursor cursor, IndexQueryConstraints constraints, IndexQuery... query )
             throws KernelException;
 
+    /**
+     * Seek all relationships matching the provided index query in an index, split into partitions reserved through
+     * {@link PartitionedScan#reservePartition(Cursor)}. This is the relationship counterpart to
+     * {@link #nodeIndexSeek(IndexReadSession, int, IndexQueryConstraints, IndexQuery...)}.
+     *
+     * @param index {@link IndexDescriptor} for the index to query. This must be an index of relationships.
+     * @param desiredNumberOfPartitions the number of partitions to split the seek into, fewer partitions are used if there's little to seek.
+     * @param constraints The requested constraints on the query result. Results of a partitioned seek are never ordered, so only whether the index
+     * should fetch property values together with relationship ids can be requested.
+     * @param query Combination of {@link IndexQuery index queries} to run against referenced index.
+     * @return a {@link PartitionedScan} over the relationships matching the query.
+     */
+    PartitionedScan<RelationshipValueIndexCursor> relationshipIndexSeek( IndexDescriptor index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, IndexQuery... query ) throws KernelException;
+
     /**
      * Returns node id of node found in the unique index, or -1 if no node was found.
      *
@@ -104,6 +135,18 @@ public interface Read
      */
     void nodeIndexScan( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints ) throws KernelException;
 
+    /**
+     * Scan all values in an index, split into partitions like
+     * {@link #nodeIndexSeek(IndexReadSession, int, IndexQueryConstraints, IndexQuery...)}.
+     *
+     * @param index {@link IndexReadSession} index read session to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the scan into, fewer partitions are used if the index is small.
+     * @param constraints The requested constraints on the query result, only whether the index should fetch property values together with node ids.
+     * @return a {@link PartitionedScan} over all nodes in the index.
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints )
+            throws KernelException;
+
     /**
      * Scan all nodes with a label.
      *
@@ -299,6 +342,15 @@ public interface Read
 
     void relationshipTypeScan( int type, RelationshipTypeIndexCursor relationshipTypeIndexCursor );
 
+    /**
+     * Scan all relationships with a type, in batches reserved through {@link Scan#reserveBatch(Cursor, int)}.
+     * The returned scan is thread-safe and can be shared between threads, each using its own cursor.
+     *
+     * @param type the relationship type.
+     * @return a {@link Scan} over all relationships with the given type.
+     */
+    Scan<RelationshipTypeIndexCursor> relationshipTypeScan( int type );
+
     /**
      * @param nodeReference
      *         a reference from {@link NodeCursor#nodeReference()}.
@@ -63,6 +63,24 @@ public interface IndexReader extends Resource
      */
     boolean hasFullValuePrecision( IndexQuery... predicates );
 
+    /**
+     * Queries the index for the given {@link IndexQuery} predicates, split into partitions which can be read in parallel.
+     * The results aren't ordered and every partition returns all entries of its part of the index which match the query,
+     * so indexes without {@link #hasFullValuePrecision(IndexQuery...) full value precision} for the query can't serve it this way.
+     *
+     * @param desiredNumberOfPartitions the number of partitions the caller would like, fewer may be returned.
+     * @param context the context of the query.
+     * @param constraints constraints upon the query result, only whether the index should fetch property values alongside the entity ids.
+     * @param query the query to serve.
+     * @return a {@link PartitionedValueSeek} over the entries matching the query.
+     * @throws IndexNotApplicableKernelException if this index can't serve the query in partitions.
+     */
+    default PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, QueryContext context, IndexQueryConstraints constraints,
+            IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        throw new IndexNotApplicableKernelException( "Index reader " + getClass().getSimpleName() + " doesn't support partitioned seeks" );
+    }
+
     IndexReader EMPTY = new IndexReader()
     {
         // Used for checking index correctness
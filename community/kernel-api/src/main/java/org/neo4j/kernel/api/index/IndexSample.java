@@ -27,6 +27,7 @@ public final class IndexSample
     private final long uniqueValues;
     private final long sampleSize;
     private final long updates;
+    private final IndexValueHistogram histogram;
 
     public IndexSample()
     {
@@ -39,11 +40,17 @@ public final class IndexSample
     }
 
     public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates )
+    {
+        this( indexSize, uniqueValues, sampleSize, updates, null );
+    }
+
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates, IndexValueHistogram histogram )
     {
         this.indexSize = indexSize;
         this.uniqueValues = uniqueValues;
         this.sampleSize = sampleSize;
         this.updates = updates;
+        this.histogram = histogram;
     }
 
     public long indexSize()
@@ -66,6 +73,15 @@ public final class IndexSample
         return updates;
     }
 
+    /**
+     * @return the distribution of values in the index, if this sample was taken from a scan of the whole index, otherwise {@code null}.
+     * It's not part of {@link #equals(Object)} since it's an estimate on top of the counts, which are what identify a sample.
+     */
+    public IndexValueHistogram histogram()
+    {
+        return histogram;
+    }
+
     @Override
     public boolean equals( Object o )
     {
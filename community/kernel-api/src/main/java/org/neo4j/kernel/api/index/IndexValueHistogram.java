@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueCategory;
+import org.neo4j.values.storable.ValueGroup;
+
+import static org.neo4j.values.storable.Values.COMPARATOR;
+
+/**
+ * Distribution of the values in a single property index, for estimating how many entries equality and range predicates
+ * will find when values are skewed, which the number of distinct values alone can't tell.
+ * <p>
+ * Consists of an equi-depth histogram, where every bucket covers a range of values in one {@link ValueGroup} and holds roughly
+ * the same number of entries, and a list of the most common values with their exact counts. The most common values are not counted
+ * in the buckets they fall into. Only values with a meaningful order, see {@link #supports(Value)}, are included.
+ * <p>
+ * A histogram is built with a {@link Builder} from a scan of the index in value order, where each distinct value is seen once.
+ */
+public final class IndexValueHistogram
+{
+    public static final int DEFAULT_MAX_BUCKETS = 64;
+    public static final int DEFAULT_MAX_MOST_COMMON_VALUES = 16;
+
+    private final Value[] lowerBounds;
+    private final Value[] upperBounds;
+    private final long[] counts;
+    private final long[] distinctValues;
+    private final Value[] mostCommonValues;
+    private final long[] mostCommonCounts;
+    private final long totalCount;
+
+    private IndexValueHistogram( Value[] lowerBounds, Value[] upperBounds, long[] counts, long[] distinctValues, Value[] mostCommonValues,
+            long[] mostCommonCounts, long totalCount )
+    {
+        this.lowerBounds = lowerBounds;
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+        this.distinctValues = distinctValues;
+        this.mostCommonValues = mostCommonValues;
+        this.mostCommonCounts = mostCommonCounts;
+        this.totalCount = totalCount;
+    }
+
+    public static Builder builder()
+    {
+        return builder( DEFAULT_MAX_BUCKETS, DEFAULT_MAX_MOST_COMMON_VALUES );
+    }
+
+    /**
+     * @param maxBuckets the histogram will have between {@code maxBuckets} and {@code 2 * maxBuckets} buckets, given enough distinct values.
+     * @param maxMostCommonValues the maximum number of most common values to keep exact counts for.
+     */
+    public static Builder builder( int maxBuckets, int maxMostCommonValues )
+    {
+        return new Builder( maxBuckets, maxMostCommonValues );
+    }
+
+    /**
+     * @return whether or not the given value can be included in, and estimated with, a histogram. Only values with an order
+     * that's the same in the index as in {@link org.neo4j.values.storable.Values#COMPARATOR} are supported.
+     */
+    public static boolean supports( Value value )
+    {
+        ValueCategory category = value.valueGroup().category();
+        return category == ValueCategory.NUMBER || category == ValueCategory.TEXT || category == ValueCategory.BOOLEAN ||
+               (category == ValueCategory.TEMPORAL && value.valueGroup() != ValueGroup.DURATION);
+    }
+
+    /**
+     * @return the number of index entries, including those with values not supported by the histogram.
+     */
+    public long totalCount()
+    {
+        return totalCount;
+    }
+
+    public int numberOfBuckets()
+    {
+        return counts.length;
+    }
+
+    public int numberOfMostCommonValues()
+    {
+        return mostCommonValues.length;
+    }
+
+    /**
+     * @return the estimated fraction of all index entries that are equal to the given value.
+     */
+    public double equalityFraction( Value value )
+    {
+        if ( totalCount == 0 || !supports( value ) )
+        {
+            return 0;
+        }
+        int mostCommon = Arrays.binarySearch( mostCommonValues, value, COMPARATOR );
+        if ( mostCommon >= 0 )
+        {
+            return (double) mostCommonCounts[mostCommon] / totalCount;
+        }
+        int bucket = bucketContaining( value );
+        return bucket < 0 ? 0 : perValueCount( bucket ) / totalCount;
+    }
+
+    /**
+     * The fraction of all index entries expected to be equal to a value that is not known up front, e.g. a query parameter,
+     * assuming that values are looked up about as often as they occur in the index. That is the sum of the squared fractions
+     * of all values, taking the most common values one by one and each bucket as values of equal frequency.
+     * Values not supported by the histogram are not part of the estimate.
+     *
+     * @return the expected fraction of all index entries that are equal to an unknown value.
+     */
+    public double expectedEqualityFraction()
+    {
+        if ( totalCount == 0 )
+        {
+            return 0;
+        }
+        double sumOfSquares = 0;
+        for ( long count : mostCommonCounts )
+        {
+            sumOfSquares += (double) count * count;
+        }
+        for ( int bucket = 0; bucket < counts.length; bucket++ )
+        {
+            sumOfSquares += perValueCount( bucket ) * counts[bucket];
+        }
+        return sumOfSquares / totalCount / totalCount;
+    }
+
+    /**
+     * @param from the lower bound of the range, or {@code null} for no lower bound.
+     * @param fromInclusive whether or not the lower bound is included in the range.
+     * @param to the upper bound of the range, or {@code null} for no upper bound.
+     * @param toInclusive whether or not the upper bound is included in the range.
+     * @return the estimated fraction of all index entries within the given range. Like for range predicates in Cypher, only values
+     * in the same {@link ValueGroup} as the bounds are considered to be within it.
+     */
+    public double rangeFraction( Value from, boolean fromInclusive, Value to, boolean toInclusive )
+    {
+        if ( totalCount == 0 || (from == null && to == null) )
+        {
+            return totalCount == 0 ? 0 : 1;
+        }
+        ValueGroup group = from != null ? from.valueGroup() : to.valueGroup();
+        if ( (from != null && !supports( from )) || (to != null && (!supports( to ) || to.valueGroup() != group)) )
+        {
+            return 0;
+        }
+
+        double count = 0;
+        for ( int bucket = 0; bucket < counts.length; bucket++ )
+        {
+            if ( lowerBounds[bucket].valueGroup() == group )
+            {
+                double below = to == null ? counts[bucket] : countBelow( bucket, to, toInclusive );
+                double notFrom = from == null ? 0 : countBelow( bucket, from, !fromInclusive );
+                count += Math.max( 0, below - notFrom );
+            }
+        }
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            Value value = mostCommonValues[i];
+            if ( value.valueGroup() == group && within( value, from, fromInclusive, to, toInclusive ) )
+            {
+                count += mostCommonCounts[i];
+            }
+        }
+        return Math.min( 1, count / totalCount );
+    }
+
+    /**
+     * @return the estimated number of entries in the bucket below the given value, or also equal to it if {@code inclusive}.
+     */
+    private double countBelow( int bucket, Value value, boolean inclusive )
+    {
+        int toLower = COMPARATOR.compare( value, lowerBounds[bucket] );
+        int toUpper = COMPARATOR.compare( value, upperBounds[bucket] );
+        double perValue = perValueCount( bucket );
+        if ( toLower < 0 )
+        {
+            return 0;
+        }
+        if ( toUpper > 0 )
+        {
+            return counts[bucket];
+        }
+        if ( toLower == 0 )
+        {
+            return inclusive ? perValue : 0;
+        }
+        if ( toUpper == 0 )
+        {
+            return inclusive ? counts[bucket] : counts[bucket] - perValue;
+        }
+        double below = counts[bucket] * position( bucket, value ) + (inclusive ? perValue : 0);
+        return Math.min( counts[bucket], below );
+    }
+
+    /**
+     * @return where the value, which is strictly within the bounds of the bucket, is expected to be among the values in the bucket.
+     * Numbers are assumed to be uniformly distributed between the bounds, for other values there's nothing better than the middle.
+     */
+    private double position( int bucket, Value value )
+    {
+        if ( value instanceof NumberValue )
+        {
+            double lower = ((NumberValue) lowerBounds[bucket]).doubleValue();
+            double upper = ((NumberValue) upperBounds[bucket]).doubleValue();
+            double position = (((NumberValue) value).doubleValue() - lower) / (upper - lower);
+            return Double.isNaN( position ) ? 0.5 : Math.max( 0, Math.min( 1, position ) );
+        }
+        return 0.5;
+    }
+
+    private double perValueCount( int bucket )
+    {
+        return distinctValues[bucket] == 0 ? 0 : (double) counts[bucket] / distinctValues[bucket];
+    }
+
+    private int bucketContaining( Value value )
+    {
+        return bucketContaining( lowerBounds, upperBounds, counts.length, value );
+    }
+
+    private static int bucketContaining( Value[] lowerBounds, Value[] upperBounds, int numberOfBuckets, Value value )
+    {
+        for ( int bucket = 0; bucket < numberOfBuckets; bucket++ )
+        {
+            if ( lowerBounds[bucket].valueGroup() == value.valueGroup() &&
+                 COMPARATOR.compare( lowerBounds[bucket], value ) <= 0 && COMPARATOR.compare( value, upperBounds[bucket] ) <= 0 )
+            {
+                return bucket;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean within( Value value, Value from, boolean fromInclusive, Value to, boolean toInclusive )
+    {
+        if ( from != null )
+        {
+            int compare = COMPARATOR.compare( value, from );
+            if ( compare < 0 || (compare == 0 && !fromInclusive) )
+            {
+                return false;
+            }
+        }
+        if ( to != null )
+        {
+            int compare = COMPARATOR.compare( value, to );
+            return compare < 0 || (compare == 0 && toInclusive);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IndexValueHistogram{" +
+               "buckets=" + counts.length +
+               ", mostCommonValues=" + Arrays.toString( mostCommonValues ) +
+               ", totalCount=" + totalCount +
+               '}';
+    }
+
+    /**
+     * Builds an {@link IndexValueHistogram} in one pass over the distinct values of an index, in index order. Buckets are filled up to
+     * a depth which starts at one entry and doubles, merging adjacent buckets pairwise, every time the number of buckets reaches
+     * twice the maximum. That way the number of entries doesn't need to be known up front and buckets still end up with roughly
+     * the same number of entries.
+     */
+    public static final class Builder
+    {
+        private final int maxBuckets;
+        private final int maxMostCommonValues;
+        private final List<Bucket> buckets = new ArrayList<>();
+        private final PriorityQueue<MostCommonValue> mostCommon = new PriorityQueue<>( Comparator.comparingLong( v -> v.count ) );
+        private Bucket current;
+        private long depth = 1;
+        private long totalCount;
+        private long supportedCount;
+        private long supportedDistinctValues;
+
+        private Builder( int maxBuckets, int maxMostCommonValues )
+        {
+            this.maxBuckets = maxBuckets;
+            this.maxMostCommonValues = maxMostCommonValues;
+        }
+
+        /**
+         * @param value a distinct value in the index, must be added in index order.
+         * @param count the number of entries with this value.
+         */
+        public Builder add( Value value, long count )
+        {
+            totalCount += count;
+            if ( !supports( value ) )
+            {
+                return this;
+            }
+            supportedCount += count;
+            supportedDistinctValues++;
+            if ( current == null || current.count >= depth || current.lower.valueGroup() != value.valueGroup() )
+            {
+                closeCurrent();
+                current = new Bucket( value );
+            }
+            current.upper = value;
+            current.count += count;
+            current.distinctValues++;
+            offerMostCommon( value, count );
+            return this;
+        }
+
+        public IndexValueHistogram build()
+        {
+            closeCurrent();
+            int numberOfBuckets = buckets.size();
+            Value[] lowerBounds = new Value[numberOfBuckets];
+            Value[] upperBounds = new Value[numberOfBuckets];
+            long[] counts = new long[numberOfBuckets];
+            long[] distinctValues = new long[numberOfBuckets];
+            for ( int i = 0; i < numberOfBuckets; i++ )
+            {
+                Bucket bucket = buckets.get( i );
+                lowerBounds[i] = bucket.lower;
+                upperBounds[i] = bucket.upper;
+                counts[i] = bucket.count;
+                distinctValues[i] = bucket.distinctValues;
+            }
+
+            // Only values that are more common than the average value are worth keeping exact counts for,
+            // the buckets already estimate the others well enough
+            double averageCount = supportedDistinctValues == 0 ? 0 : (double) supportedCount / supportedDistinctValues;
+            MostCommonValue[] selected = mostCommon.stream()
+                    .filter( v -> v.count > 1 && v.count > averageCount )
+                    .sorted( ( a, b ) -> COMPARATOR.compare( a.value, b.value ) )
+                    .toArray( MostCommonValue[]::new );
+            Value[] mostCommonValues = new Value[selected.length];
+            long[] mostCommonCounts = new long[selected.length];
+            for ( int i = 0; i < selected.length; i++ )
+            {
+                mostCommonValues[i] = selected[i].value;
+                mostCommonCounts[i] = selected[i].count;
+                int bucket = bucketContaining( lowerBounds, upperBounds, numberOfBuckets, selected[i].value );
+                counts[bucket] -= selected[i].count;
+                distinctValues[bucket]--;
+            }
+            return new IndexValueHistogram( lowerBounds, upperBounds, counts, distinctValues, mostCommonValues, mostCommonCounts, totalCount );
+        }
+
+        private void offerMostCommon( Value value, long count )
+        {
+            if ( mostCommon.size() < maxMostCommonValues )
+            {
+                mostCommon.add( new MostCommonValue( value, count ) );
+            }
+            else if ( maxMostCommonValues > 0 && mostCommon.peek().count < count )
+            {
+                mostCommon.poll();
+                mostCommon.add( new MostCommonValue( value, count ) );
+            }
+        }
+
+        private void closeCurrent()
+        {
+            if ( current == null )
+            {
+                return;
+            }
+            buckets.add( current );
+            current = null;
+            if ( buckets.size() >= 2 * maxBuckets )
+            {
+                List<Bucket> merged = new ArrayList<>( maxBuckets );
+                for ( int i = 0; i < buckets.size(); i++ )
+                {
+                    Bucket bucket = buckets.get( i );
+                    if ( i + 1 < buckets.size() && buckets.get( i + 1 ).lower.valueGroup() == bucket.lower.valueGroup() )
+                    {
+                        bucket.mergeWith( buckets.get( ++i ) );
+                    }
+                    merged.add( bucket );
+                }
+                buckets.clear();
+                buckets.addAll( merged );
+                depth *= 2;
+            }
+        }
+    }
+
+    private static final class Bucket
+    {
+        private final Value lower;
+        private Value upper;
+        private long count;
+        private long distinctValues;
+
+        Bucket( Value lower )
+        {
+            this.lower = lower;
+        }
+
+        void mergeWith( Bucket next )
+        {
+            upper = next.upper;
+            count += next.count;
+            distinctValues += next.distinctValues;
+        }
+    }
+
+    private static final class MostCommonValue
+    {
+        private final Value value;
+        private final long count;
+
+        MostCommonValue( Value value, long count )
+        {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
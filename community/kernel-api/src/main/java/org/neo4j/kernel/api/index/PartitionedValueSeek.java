@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+/**
+ * A query of an index which is split into partitions, see {@link IndexReader#valueSeek}. Every partition is handed out to exactly one
+ * client, so partitions can be read in parallel from different threads. The results of a partition are not ordered.
+ */
+public interface PartitionedValueSeek
+{
+    /**
+     * @return the number of partitions of this seek, which may be fewer than desired if there's little to seek.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Initializes the given client with the next partition which hasn't been reserved yet. This method is thread-safe.
+     *
+     * @param client the client which will control the progression through the entries of the reserved partition.
+     * @return {@code true} if the client got a partition, {@code false} if all partitions have already been reserved.
+     */
+    boolean reservePartition( IndexProgressor.EntityValueClient client );
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.pointValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class IndexValueHistogramTest
+{
+    @Test
+    void shouldKeepExactCountsForMostCommonValues()
+    {
+        // given one very common value among many unique ones
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder( 8, 4 );
+        builder.add( intValue( 0 ), 10_000 );
+        for ( int i = 1; i <= 1_000; i++ )
+        {
+            builder.add( intValue( i ), 1 );
+        }
+
+        // when
+        IndexValueHistogram histogram = builder.build();
+
+        // then
+        assertEquals( 11_000, histogram.totalCount() );
+        assertEquals( 1, histogram.numberOfMostCommonValues() );
+        assertEquals( 10_000 / 11_000d, histogram.equalityFraction( intValue( 0 ) ), 1e-9 );
+        assertEquals( 1 / 11_000d, histogram.equalityFraction( intValue( 500 ) ), 1e-9 );
+        assertEquals( 0, histogram.equalityFraction( intValue( 2_000 ) ) );
+    }
+
+    @Test
+    void shouldExpectValuesToBeAsCommonAsTheyOccur()
+    {
+        // given one very common value among many unique ones
+        IndexValueHistogram.Builder skewed = IndexValueHistogram.builder( 8, 4 );
+        skewed.add( intValue( 0 ), 10_000 );
+        IndexValueHistogram.Builder uniform = IndexValueHistogram.builder( 8, 4 );
+        for ( int i = 1; i <= 1_000; i++ )
+        {
+            skewed.add( intValue( i ), 1 );
+            uniform.add( intValue( i ), 1 );
+        }
+
+        // then
+        assertEquals( (10_000d * 10_000 + 1_000) / (11_000d * 11_000), skewed.build().expectedEqualityFraction(), 1e-9 );
+        assertEquals( 1 / 1_000d, uniform.build().expectedEqualityFraction(), 1e-9 );
+        assertEquals( 0, IndexValueHistogram.builder().build().expectedEqualityFraction() );
+    }
+
+    @Test
+    void shouldEstimateRangesOnUniformValues()
+    {
+        // given
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder( 8, 4 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            builder.add( intValue( i ), 1 );
+        }
+
+        // when
+        IndexValueHistogram histogram = builder.build();
+
+        // then
+        assertTrue( histogram.numberOfBuckets() >= 8 && histogram.numberOfBuckets() < 16, "buckets " + histogram.numberOfBuckets() );
+        assertEquals( 0.2, histogram.rangeFraction( intValue( 1_000 ), true, intValue( 3_000 ), false ), 0.001 );
+        assertEquals( 0.9, histogram.rangeFraction( intValue( 1_000 ), true, null, false ), 0.001 );
+        assertEquals( 0.1, histogram.rangeFraction( null, false, intValue( 1_000 ), false ), 0.001 );
+        assertEquals( 0, histogram.rangeFraction( intValue( 20_000 ), true, null, false ) );
+    }
+
+    @Test
+    void shouldEstimateRangesOnSkewedValues()
+    {
+        // given 90% of the entries below 100 and the rest spread up to 100 000
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder( 16, 4 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.add( intValue( i ), 90 );
+        }
+        for ( int i = 100; i < 100_000; i += 100 )
+        {
+            builder.add( intValue( i ), 1 );
+        }
+
+        // when
+        IndexValueHistogram histogram = builder.build();
+
+        // then
+        double below = histogram.rangeFraction( null, false, intValue( 100 ), false );
+        assertEquals( 9_000d / histogram.totalCount(), below, 0.02 );
+        assertEquals( 1 - below, histogram.rangeFraction( intValue( 100 ), true, null, false ), 1e-9 );
+    }
+
+    @Test
+    void shouldRespectExclusiveBoundsOfSingleValueBuckets()
+    {
+        // given
+        IndexValueHistogram histogram = IndexValueHistogram.builder( 8, 0 )
+                .add( intValue( 1 ), 10 )
+                .add( intValue( 2 ), 20 )
+                .add( intValue( 3 ), 30 )
+                .build();
+
+        // then
+        assertEquals( 20 / 60d, histogram.rangeFraction( intValue( 1 ), false, intValue( 3 ), false ), 1e-9 );
+        assertEquals( 1, histogram.rangeFraction( intValue( 1 ), true, intValue( 3 ), true ), 1e-9 );
+        assertEquals( 50 / 60d, histogram.rangeFraction( intValue( 2 ), true, null, false ), 1e-9 );
+    }
+
+    @Test
+    void shouldOnlyCountValuesOfTheSameGroupInRanges()
+    {
+        // given
+        IndexValueHistogram histogram = IndexValueHistogram.builder( 8, 4 )
+                .add( intValue( 1 ), 10 )
+                .add( intValue( 2 ), 10 )
+                .add( stringValue( "a" ), 10 )
+                .add( stringValue( "b" ), 10 )
+                .add( pointValue( Cartesian, 1, 1 ), 10 )
+                .build();
+
+        // then
+        assertEquals( 50, histogram.totalCount() );
+        assertEquals( 20 / 50d, histogram.rangeFraction( intValue( 0 ), true, null, false ), 1e-9 );
+        assertEquals( 10 / 50d, histogram.rangeFraction( stringValue( "b" ), true, null, false ), 1e-9 );
+        assertEquals( 0, histogram.rangeFraction( intValue( 0 ), true, stringValue( "z" ), true ) );
+        assertEquals( 0, histogram.equalityFraction( pointValue( Cartesian, 1, 1 ) ) );
+    }
+}
@@ -28,8 +28,8 @@ import static org.neo4j.kernel.database.DatabaseIdRepository.NAMED_SYSTEM_DATABA
 
 public abstract class DbmsRuntimeRepository
 {
-    public static final DbmsRuntimeVersion LATEST_VERSION = DbmsRuntimeVersion.V4_2;
-    public static final DbmsRuntimeVersion PREVIOUS_VERSION = DbmsRuntimeVersion.V4_1;
+    public static final DbmsRuntimeVersion LATEST_VERSION = DbmsRuntimeVersion.V4_3;
+    public static final DbmsRuntimeVersion PREVIOUS_VERSION = DbmsRuntimeVersion.V4_2;
 
     public static final Label DBMS_RUNTIME_LABEL = Label.label( "DbmsRuntime" );
     public static final String VERSION_PROPERTY = "version";
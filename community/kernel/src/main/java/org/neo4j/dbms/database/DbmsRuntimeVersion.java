@@ -22,7 +22,8 @@ package org.neo4j.dbms.database;
 public enum DbmsRuntimeVersion
 {
     V4_1( 1 ),
-    V4_2( 2 );
+    V4_2( 2 ),
+    V4_3( 3 );
 
     private final int versionNumber;
 
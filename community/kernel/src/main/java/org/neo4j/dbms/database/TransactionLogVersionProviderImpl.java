@@ -35,6 +35,11 @@ public class TransactionLogVersionProviderImpl implements TransactionLogVersionP
     {
         DbmsRuntimeVersion dbmsRuntimeVersion = dbmsRuntimeRepository.getVersion();
 
+        if ( dbmsRuntimeVersion == DbmsRuntimeVersion.V4_3 )
+        {
+            return LogEntryParserSetVersion.LogEntryV4_3;
+        }
+
         if ( dbmsRuntimeVersion == DbmsRuntimeVersion.V4_2 )
         {
             return LogEntryParserSetVersion.LogEntryV4_2;
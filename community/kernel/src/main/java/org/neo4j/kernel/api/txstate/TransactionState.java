@@ -64,6 +64,12 @@ public interface TransactionState extends ReadableTransactionState
 
     void nodeDoRemoveLabel( long labelId, long nodeId );
 
+    /**
+     * Asks the storage engine to lay out the relationships of the given node closer together when this transaction commits.
+     * This is not a change of data, but it still needs the node to be locked exclusively, like any change to its relationships.
+     */
+    void nodeDoCompactRelationships( long nodeId );
+
     // TOKEN RELATED
 
     void labelDoCreateForName( String labelName, boolean internal, long id );
@@ -88,7 +94,7 @@ public interface TransactionState extends ReadableTransactionState
 
     boolean constraintDoUnRemove( ConstraintDescriptor constraint );
 
-    void indexDoUpdateEntry( SchemaDescriptor descriptor, long nodeId, ValueTuple before, ValueTuple after );
+    void indexDoUpdateEntry( SchemaDescriptor descriptor, long entityId, ValueTuple before, ValueTuple after );
 
     // MEMORY TRACKING
 
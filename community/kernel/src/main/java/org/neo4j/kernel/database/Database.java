@@ -78,6 +78,7 @@ import org.neo4j.kernel.impl.api.DatabaseSchemaState;
 import org.neo4j.kernel.impl.api.KernelImpl;
 import org.neo4j.kernel.impl.api.KernelTransactions;
 import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.api.RelationshipCompactor;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.index.IndexProviderMap;
 import org.neo4j.kernel.impl.api.index.IndexStoreView;
@@ -797,6 +798,7 @@ public class Database extends LifecycleAdapter
         KernelImpl kernel = new KernelImpl( kernelTransactions, databaseHealth, transactionStats, globalProcedures, databaseConfig, storageEngine );
 
         life.add( kernel );
+        buildRelationshipCompactor( kernel, databaseConfig );
 
         final DatabaseFileListing fileListing =
                 new DatabaseFileListing( databaseLayout, logFiles, labelScanStore, relationshipTypeScanStore, indexingService, storageEngine,
@@ -835,6 +837,14 @@ public class Database extends LifecycleAdapter
         life.add( transactionMonitorScheduler );
     }
 
+    private void buildRelationshipCompactor( Kernel kernel, Config config )
+    {
+        life.add( new RelationshipCompactor( kernel, idGeneratorFactory, scheduler,
+                config.get( GraphDatabaseInternalSettings.relationship_compaction_interval ).toMillis(),
+                config.get( GraphDatabaseInternalSettings.relationship_compaction_batch_size ), namedDatabaseId.name(),
+                internalLogProvider.getLog( RelationshipCompactor.class ) ) );
+    }
+
     @Override
     public synchronized void stop()
     {
@@ -33,6 +33,7 @@ import org.neo4j.collection.pool.Pool;
 import org.neo4j.collection.trackable.HeapTrackingArrayList;
 import org.neo4j.collection.trackable.HeapTrackingCollections;
 import org.neo4j.configuration.Config;
+import org.neo4j.dbms.database.TransactionLogVersionProvider;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.graphdb.NotInTransactionException;
 import org.neo4j.graphdb.TransactionTerminatedException;
@@ -95,6 +96,8 @@ import org.neo4j.kernel.impl.newapi.KernelToken;
 import org.neo4j.kernel.impl.newapi.Operations;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.TransactionLogVersionSelector;
+import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
@@ -156,6 +159,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final DatabaseTransactionEventListeners eventListeners;
     private final ConstraintIndexCreator constraintIndexCreator;
     private final StorageEngine storageEngine;
+    private final TransactionLogVersionProvider logVersionProvider;
     private final TransactionTracer transactionTracer;
     private final Pool<KernelTransactionImplementation> pool;
 
@@ -240,6 +244,10 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.commandCreationContext = storageEngine.newCommandCreationContext( pageCursorTracer, memoryTracker );
         this.namedDatabaseId = namedDatabaseId;
         this.storageEngine = storageEngine;
+        // Commands must be readable with the log entry version that they'll be written with
+        this.logVersionProvider = dependencies.containsDependency( LogFiles.class )
+                                  ? dependencies.resolveDependency( LogFiles.class ).getTransactionLogVersionProvider()
+                                  : TransactionLogVersionSelector.LATEST::version;
         this.pool = pool;
         this.clocks = new ClockContext( clock );
         this.transactionTracer = tracers.getDatabaseTracer();
@@ -734,6 +742,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                         commandCreationContext,
                         commitLocks,
                         lastTransactionIdWhenStarted,
+                        logVersionProvider.getVersion().getVersionByte(),
                         this::enforceConstraints,
                         pageCursorTracer,
                         memoryTracker );
@@ -1165,6 +1174,11 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         txState().indexDoDrop( index );
     }
 
+    public void addNodeRelationshipCompactionToTxState( long node )
+    {
+        txState().nodeDoCompactRelationships( node );
+    }
+
     @Override
     public String getDatabaseName()
     {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.internal.id.IdGeneratorFactory;
+import org.neo4j.internal.id.IdType;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.kernel.api.Kernel;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.lang.Math.min;
+import static org.neo4j.internal.kernel.api.security.LoginContext.AUTH_DISABLED;
+import static org.neo4j.kernel.api.KernelTransaction.Type.IMPLICIT;
+
+/**
+ * Background job which compacts the relationships of dense nodes, so that expanding them touches fewer store pages. Every run visits
+ * the next batch of node ids, wrapping around to the first node after the last one, and compacts the dense nodes among them in one
+ * ordinary transaction. The nodes are locked exclusively, like for any other change of their relationships, and marked in the
+ * transaction state. It's up to the storage engine what compacting means and whether or not a node needs it.
+ * <p>
+ * The job is throttled by the interval between runs and by the number of node ids visited in each run.
+ */
+public class RelationshipCompactor extends LifecycleAdapter implements Runnable
+{
+    private final Kernel kernel;
+    private final IdGeneratorFactory idGeneratorFactory;
+    private final JobScheduler scheduler;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final String databaseName;
+    private final Log log;
+    private long nextNode;
+    private JobHandle<?> jobHandle;
+
+    public RelationshipCompactor( Kernel kernel, IdGeneratorFactory idGeneratorFactory, JobScheduler scheduler, long intervalMillis, int batchSize,
+            String databaseName, Log log )
+    {
+        this.kernel = kernel;
+        this.idGeneratorFactory = idGeneratorFactory;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.databaseName = databaseName;
+        this.log = log;
+    }
+
+    @Override
+    public void start()
+    {
+        if ( intervalMillis > 0 )
+        {
+            var monitoringParams = JobMonitoringParams.systemJob( databaseName, "Compaction of relationships of dense nodes" );
+            jobHandle = scheduler.scheduleRecurring( Group.STORAGE_MAINTENANCE, monitoringParams, this, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( jobHandle != null )
+        {
+            jobHandle.cancel();
+            jobHandle = null;
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        long highId = idGeneratorFactory.get( IdType.NODE ).getHighId();
+        if ( nextNode >= highId )
+        {
+            nextNode = 0;
+        }
+        long from = nextNode;
+        long to = min( highId, from + batchSize );
+        // Move on regardless of how this batch goes, a batch that fails every time must not stop the job
+        nextNode = to;
+        try
+        {
+            int compacted = compact( from, to );
+            if ( compacted > 0 )
+            {
+                log.debug( "Compacted relationships of %d dense nodes with ids in [%d,%d)", compacted, from, to );
+            }
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Failed to compact relationships of dense nodes with ids in [" + from + "," + to + ")", e );
+        }
+    }
+
+    /**
+     * Compacts the relationships of the dense nodes with ids in the given range, in one transaction.
+     *
+     * @return the number of nodes that were marked for compaction.
+     */
+    int compact( long from, long to ) throws Exception
+    {
+        int compacted = 0;
+        try ( KernelTransaction tx = kernel.beginTransaction( IMPLICIT, AUTH_DISABLED ) )
+        {
+            try ( NodeCursor nodeCursor = tx.cursors().allocateNodeCursor( tx.pageCursorTracer() ) )
+            {
+                for ( long node = from; node < to; node++ )
+                {
+                    tx.dataRead().singleNode( node, nodeCursor );
+                    if ( nodeCursor.next() && nodeCursor.supportsFastDegreeLookup() )
+                    {
+                        tx.locks().acquireExclusiveNodeLock( node );
+                        ((KernelTransactionImplementation) tx).addNodeRelationshipCompactionToTxState( node );
+                        compacted++;
+                    }
+                }
+            }
+            tx.commit();
+        }
+        return compacted;
+    }
+}
@@ -26,9 +26,12 @@ import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
 
 import java.util.Iterator;
+import java.util.Set;
 
+import org.neo4j.collection.trackable.HeapTrackingCollections;
 import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
+import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSets;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.PropertyKeyValue;
 import org.neo4j.storageengine.api.StorageProperty;
@@ -46,6 +49,7 @@ class EntityStateImpl implements EntityState
     private MutableLongObjectMap<Value> addedProperties;
     private MutableLongObjectMap<Value> changedProperties;
     private MutableLongSet removedProperties;
+    private Set<MutableLongDiffSets> indexDiffs;
 
     final CollectionsFactory collectionsFactory;
     final MemoryTracker memoryTracker;
@@ -76,6 +80,45 @@ class EntityStateImpl implements EntityState
         {
             removedProperties.clear();
         }
+        if ( indexDiffs != null )
+        {
+            indexDiffs.clear();
+        }
+    }
+
+    void addIndexDiff( MutableLongDiffSets diff )
+    {
+        if ( indexDiffs == null )
+        {
+            indexDiffs = HeapTrackingCollections.newIdentityHashingSet( memoryTracker );
+        }
+        indexDiffs.add( diff );
+    }
+
+    void removeIndexDiff( MutableLongDiffSets diff )
+    {
+        if ( indexDiffs != null )
+        {
+            indexDiffs.remove( diff );
+        }
+    }
+
+    void clearIndexDiffs( long entityId )
+    {
+        if ( indexDiffs != null )
+        {
+            for ( MutableLongDiffSets diff : indexDiffs )
+            {
+                if ( diff.getAdded().contains( entityId ) )
+                {
+                    diff.remove( entityId );
+                }
+                else if ( diff.getRemoved().contains( entityId ) )
+                {
+                    diff.add( entityId );
+                }
+            }
+        }
     }
 
     void changeProperty( int propertyKeyId, Value value )
@@ -32,6 +32,7 @@ import java.util.NavigableMap;
 import java.util.TreeMap;
 import javax.annotation.Nullable;
 
+import org.neo4j.common.EntityType;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.schema.ConstraintDescriptor;
@@ -105,6 +106,8 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
 
     private MutableMap<SchemaDescriptor, Map<ValueTuple, MutableLongDiffSets>> indexUpdates;
 
+    private MutableLongSet nodesWithCompactedRelationships;
+
     private final MemoryTracker memoryTracker;
     private long revision;
     private long dataRevision;
@@ -168,6 +171,18 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             visitor.visitRelPropertyChanges( rel.getId(), rel.addedProperties(), rel.changedProperties(), rel.removedProperties() );
         }
 
+        if ( nodesWithCompactedRelationships != null )
+        {
+            // Compacted after all relationship changes, so that it's the final relationships of the nodes that are compacted
+            nodesWithCompactedRelationships.each( nodeId ->
+            {
+                if ( !nodeIsDeletedInThisTx( nodeId ) )
+                {
+                    visitor.visitCompactedNodeRelationships( nodeId );
+                }
+            } );
+        }
+
         if ( indexChanges != null )
         {
             for ( IndexDescriptor indexDescriptor : indexChanges.getAdded() )
@@ -358,6 +373,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             RelationshipStateImpl removed = relationshipStatesMap.remove( id );
             if ( removed != null )
             {
+                removed.clearIndexDiffs( id );
                 removed.clear();
             }
         }
@@ -438,6 +454,17 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         dataChanged();
     }
 
+    @Override
+    public void nodeDoCompactRelationships( long nodeId )
+    {
+        if ( nodesWithCompactedRelationships == null )
+        {
+            nodesWithCompactedRelationships = collectionsFactory.newLongSet( memoryTracker );
+        }
+        nodesWithCompactedRelationships.add( nodeId );
+        changed();
+    }
+
     @Override
     public void labelDoCreateForName( String labelName, boolean internal, long id )
     {
@@ -766,35 +793,36 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     }
 
     @Override
-    public void indexDoUpdateEntry( SchemaDescriptor descriptor, long nodeId,
+    public void indexDoUpdateEntry( SchemaDescriptor descriptor, long entityId,
             ValueTuple propertiesBefore, ValueTuple propertiesAfter )
     {
-        NodeStateImpl nodeState = getOrCreateNodeState( nodeId );
+        EntityStateImpl entityState = descriptor.entityType() == EntityType.RELATIONSHIP ? getOrCreateRelationshipState( entityId )
+                                                                                        : getOrCreateNodeState( entityId );
         Map<ValueTuple, MutableLongDiffSets> updates = getOrCreateIndexUpdatesByDescriptor( descriptor );
         if ( propertiesBefore != null )
         {
             MutableLongDiffSets before = getOrCreateIndexUpdatesForSeek( updates, propertiesBefore );
-            before.remove( nodeId );
-            if ( before.getRemoved().contains( nodeId ) )
+            before.remove( entityId );
+            if ( before.getRemoved().contains( entityId ) )
             {
-                nodeState.addIndexDiff( before );
+                entityState.addIndexDiff( before );
             }
             else
             {
-                nodeState.removeIndexDiff( before );
+                entityState.removeIndexDiff( before );
             }
         }
         if ( propertiesAfter != null )
         {
             MutableLongDiffSets after = getOrCreateIndexUpdatesForSeek( updates, propertiesAfter );
-            after.add( nodeId );
-            if ( after.getAdded().contains( nodeId ) )
+            after.add( entityId );
+            if ( after.getAdded().contains( entityId ) )
             {
-                nodeState.addIndexDiff( after );
+                entityState.addIndexDiff( after );
             }
             else
             {
-                nodeState.removeIndexDiff( after );
+                entityState.removeIndexDiff( after );
             }
         }
     }
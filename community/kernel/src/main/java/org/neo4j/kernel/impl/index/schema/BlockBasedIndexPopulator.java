@@ -650,7 +650,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
                     nonUniqueIndexSample.indexSize(),
                     nonUniqueIndexSample.uniqueValues(),
                     nonUniqueIndexSample.sampleSize(),
-                    numberOfIndexUpdatesSinceSample.get() );
+                    numberOfIndexUpdatesSinceSample.get(),
+                    nonUniqueIndexSample.histogram() );
         }
         return super.sample( cursorTracer );
     }
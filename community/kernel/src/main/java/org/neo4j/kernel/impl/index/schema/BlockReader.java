@@ -50,7 +50,7 @@ public class BlockReader<KEY,VALUE> implements Closeable
         this.channel = fs.read( path );
     }
 
-    BlockEntryReader<KEY,VALUE> nextBlock( ScopedBuffer blockBuffer ) throws IOException
+    public BlockEntryReader<KEY,VALUE> nextBlock( ScopedBuffer blockBuffer ) throws IOException
     {
         long position = channel.position();
         if ( position >= channel.size() )
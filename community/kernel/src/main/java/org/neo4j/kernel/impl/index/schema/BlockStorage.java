@@ -53,7 +53,7 @@ import static org.neo4j.kernel.impl.index.schema.BlockStorage.Cancellation.NOT_C
  * fashion until there is only a single large block in the resulting file. The entries are now ready to be read in sorted order,
  * call {@link #reader()}.
  */
-class BlockStorage<KEY, VALUE> implements Closeable
+public class BlockStorage<KEY, VALUE> implements Closeable
 {
     static final int BLOCK_HEADER_SIZE = Long.BYTES  // blockSize
                                        + Long.BYTES; // entryCount
@@ -73,7 +73,7 @@ class BlockStorage<KEY, VALUE> implements Closeable
     private boolean doneAdding;
     private long entryCount;
 
-    BlockStorage( Layout<KEY,VALUE> layout, ByteBufferFactory bufferFactory, FileSystemAbstraction fs, Path blockFile, Monitor monitor,
+    public BlockStorage( Layout<KEY,VALUE> layout, ByteBufferFactory bufferFactory, FileSystemAbstraction fs, Path blockFile, Monitor monitor,
             MemoryTracker memoryTracker ) throws IOException
     {
         this.layout = layout;
@@ -107,7 +107,7 @@ class BlockStorage<KEY, VALUE> implements Closeable
         monitor.entryAdded( entrySize );
     }
 
-    void doneAdding() throws IOException
+    public void doneAdding() throws IOException
     {
         if ( !bufferedEntries.isEmpty() )
         {
@@ -364,7 +364,7 @@ class BlockStorage<KEY, VALUE> implements Closeable
         fs.deleteFile( blockFile );
     }
 
-    BlockReader<KEY,VALUE> reader() throws IOException
+    public BlockReader<KEY,VALUE> reader() throws IOException
     {
         return reader( blockFile );
     }
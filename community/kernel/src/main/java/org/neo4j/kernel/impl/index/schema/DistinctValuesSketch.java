@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Incrementally maintained sampling statistics for a native index, i.e. the number of entries and a HyperLogLog sketch
+ * of the number of distinct value tuples. It's updated on every index update and persisted in the {@link GBPTree} header
+ * on checkpoint, which allows an {@link IndexSample} to be produced in constant time instead of scanning the whole index.
+ * <p>
+ * A HyperLogLog sketch can't forget values, so removed values will still count towards the distinct estimate.
+ * To keep the estimate from drifting too far the sketch considers itself stale when the number of removals since it was
+ * last built exceeds a fraction of the index size. A stale, or never built, sketch makes sampling fall back to a full scan,
+ * which in turn builds it again, see {@link FullScanNonUniqueIndexSampler}.
+ * <p>
+ * The full scan also builds an {@link IndexValueHistogram}, which can't be maintained incrementally and is only kept in memory.
+ * It's considered stale after as many updates as would make the sketch stale, which also makes sampling fall back to a full scan.
+ */
+class DistinctValuesSketch
+{
+    private static final int PRECISION = 11;
+    private static final int NUMBER_OF_REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / NUMBER_OF_REGISTERS);
+    private static final double STALE_REMOVALS_RATIO = 0.2;
+
+    private static final byte HEADER_MARKER = 'S';
+    private static final byte HEADER_VERSION = 1;
+    static final int HEADER_SIZE = Byte.BYTES + Byte.BYTES + Long.BYTES + Long.BYTES + NUMBER_OF_REGISTERS;
+
+    private final byte[] registers = new byte[NUMBER_OF_REGISTERS];
+    private long indexSize;
+    private long removalsSinceBuilt;
+    private boolean built;
+    private IndexValueHistogram histogram;
+    private long updatesSinceHistogram;
+
+    synchronized void add( Value[] values )
+    {
+        indexSize++;
+        updatesSinceHistogram++;
+        offer( hash( values ) );
+    }
+
+    synchronized void remove( Value[] values )
+    {
+        if ( indexSize > 0 )
+        {
+            indexSize--;
+        }
+        removalsSinceBuilt++;
+        updatesSinceHistogram++;
+    }
+
+    /**
+     * Used while building a sketch from a full scan of the index, where each value tuple is seen once per entry.
+     *
+     * @param values the value tuple of the entry.
+     * @param newValue whether or not this value tuple is different from the previously included one. Only distinct value tuples
+     * need to be hashed into the sketch since duplicates wouldn't change it anyway.
+     */
+    synchronized void addFromScan( Value[] values, boolean newValue )
+    {
+        indexSize++;
+        if ( newValue )
+        {
+            offer( hash( values ) );
+        }
+    }
+
+    /**
+     * Replaces the state of this sketch with the state of the given sketch, which has been built from a full scan of the index,
+     * and marks this sketch as built.
+     */
+    void replaceWith( DistinctValuesSketch builtSketch )
+    {
+        synchronized ( builtSketch )
+        {
+            synchronized ( this )
+            {
+                System.arraycopy( builtSketch.registers, 0, registers, 0, NUMBER_OF_REGISTERS );
+                indexSize = builtSketch.indexSize;
+                removalsSinceBuilt = 0;
+                built = true;
+                histogram = builtSketch.histogram;
+                updatesSinceHistogram = 0;
+            }
+        }
+    }
+
+    synchronized void clear()
+    {
+        Arrays.fill( registers, (byte) 0 );
+        indexSize = 0;
+        removalsSinceBuilt = 0;
+        built = false;
+        histogram = null;
+        updatesSinceHistogram = 0;
+    }
+
+    /**
+     * Sets the histogram built from the same full scan as this sketch.
+     */
+    synchronized void setHistogram( IndexValueHistogram histogram )
+    {
+        this.histogram = histogram;
+    }
+
+    /**
+     * @return {@code true} if this sketch has been built from a full scan at some point and hasn't seen too many removals since.
+     */
+    synchronized boolean isUsable()
+    {
+        return built && removalsSinceBuilt <= indexSize * STALE_REMOVALS_RATIO;
+    }
+
+    /**
+     * @return {@code true} if a histogram has been built by a full scan since this sketch was read from the header and there haven't been
+     * too many updates since.
+     */
+    synchronized boolean hasFreshHistogram()
+    {
+        return histogram != null && updatesSinceHistogram <= indexSize * STALE_REMOVALS_RATIO;
+    }
+
+    synchronized long indexSize()
+    {
+        return indexSize;
+    }
+
+    synchronized long estimateDistinctValues()
+    {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for ( byte register : registers )
+        {
+            sum += 1d / (1L << register);
+            if ( register == 0 )
+            {
+                zeroRegisters++;
+            }
+        }
+        double estimate = ALPHA * NUMBER_OF_REGISTERS * NUMBER_OF_REGISTERS / sum;
+        if ( estimate <= 2.5 * NUMBER_OF_REGISTERS && zeroRegisters > 0 )
+        {
+            // Small range correction, i.e. linear counting
+            estimate = NUMBER_OF_REGISTERS * Math.log( (double) NUMBER_OF_REGISTERS / zeroRegisters );
+        }
+        return Math.round( estimate );
+    }
+
+    /**
+     * @param unique whether or not the index is a uniqueness index, in which case the number of distinct values is known to be the index size.
+     * @return an {@link IndexSample} where the whole index is the sample.
+     */
+    synchronized IndexSample sample( boolean unique )
+    {
+        long uniqueValues = unique ? indexSize : Math.min( estimateDistinctValues(), indexSize );
+        return new IndexSample( indexSize, uniqueValues, indexSize, 0, histogram );
+    }
+
+    synchronized void write( PageCursor cursor )
+    {
+        if ( cursor.getCurrentPageSize() - cursor.getOffset() < HEADER_SIZE )
+        {
+            // Not enough space in the header, sampling will have to use full scans for this index
+            return;
+        }
+        cursor.putByte( HEADER_MARKER );
+        cursor.putByte( HEADER_VERSION );
+        cursor.putLong( built ? indexSize : -1 );
+        cursor.putLong( removalsSinceBuilt );
+        cursor.putBytes( registers );
+    }
+
+    /**
+     * Reads a sketch previously written with {@link #write(PageCursor)}. Headers written before sketches were introduced,
+     * or where the sketch didn't fit, will simply leave this sketch as not built.
+     */
+    synchronized void read( ByteBuffer headerData )
+    {
+        clear();
+        if ( headerData.remaining() < HEADER_SIZE || headerData.get() != HEADER_MARKER || headerData.get() != HEADER_VERSION )
+        {
+            return;
+        }
+        long readIndexSize = headerData.getLong();
+        long readRemovals = headerData.getLong();
+        headerData.get( registers );
+        if ( readIndexSize >= 0 )
+        {
+            indexSize = readIndexSize;
+            removalsSinceBuilt = readRemovals;
+            built = true;
+        }
+        else
+        {
+            Arrays.fill( registers, (byte) 0 );
+        }
+    }
+
+    private void offer( long hash )
+    {
+        int register = (int) (hash >>> (Long.SIZE - PRECISION));
+        // The rank is the position of the left-most 1-bit in the remaining bits, capped by guarding with a 1-bit at the end
+        byte rank = (byte) (Long.numberOfLeadingZeros( (hash << PRECISION) | (1L << (PRECISION - 1)) ) + 1);
+        if ( rank > registers[register] )
+        {
+            registers[register] = rank;
+        }
+    }
+
+    static long hash( Value[] values )
+    {
+        if ( values.length == 1 )
+        {
+            return values[0].hashCode64();
+        }
+        long hash = 1;
+        for ( Value value : values )
+        {
+            hash = 31 * hash + value.hashCode64();
+        }
+        // Final avalanche step, from MurmurHash3, since the combination above doesn't spread bits very well
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
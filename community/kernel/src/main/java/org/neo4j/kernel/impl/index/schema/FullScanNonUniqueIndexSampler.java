@@ -26,10 +26,15 @@ import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.api.index.NonUniqueIndexSampler;
+import org.neo4j.values.storable.Value;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #sample(PageCursorTracer)}.
+ * If given a {@link DistinctValuesSketch} it will be rebuilt from the scanned entries, such that subsequent samples can be
+ * served from it instead of from another full scan. For single property indexes the scan also builds an {@link IndexValueHistogram}
+ * of the values, since they are seen in order anyway.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
@@ -39,11 +44,18 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
 {
     private final GBPTree<KEY,VALUE> gbpTree;
     private final IndexLayout<KEY,VALUE> layout;
+    private final DistinctValuesSketch sketch;
 
     FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout )
+    {
+        this( gbpTree, layout, null );
+    }
+
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout, DistinctValuesSketch sketch )
     {
         this.gbpTree = gbpTree;
         this.layout = layout;
+        this.sketch = sketch;
     }
 
     @Override
@@ -56,6 +68,8 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        DistinctValuesSketch builtSketch = sketch != null ? new DistinctValuesSketch() : null;
+        IndexValueHistogram.Builder histogram = null;
         try ( Seeker<KEY,VALUE> seek = gbpTree.seek( lowest, highest, cursorTracer ) )
         {
             long sampledValues = 0;
@@ -67,20 +81,43 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                 prev = layout.copyKey( seek.key(), prev );
                 sampledValues++;
                 uniqueValues++;
+                includeInSketch( builtSketch, seek.key(), true );
+                Value[] runValues = seek.key().asValues();
+                long runCount = 1;
+                histogram = runValues.length == 1 ? IndexValueHistogram.builder() : null;
 
                 // Then do the rest
                 while ( seek.next() )
                 {
-                    if ( layout.compareValue( prev, seek.key() ) != 0 )
+                    boolean newValue = layout.compareValue( prev, seek.key() ) != 0;
+                    if ( newValue )
                     {
                         uniqueValues++;
                         layout.copyKey( seek.key(), prev );
+                        if ( histogram != null )
+                        {
+                            histogram.add( runValues[0], runCount );
+                            runValues = seek.key().asValues();
+                            runCount = 0;
+                        }
                     }
                     // else this is a duplicate of the previous one
                     sampledValues++;
+                    runCount++;
+                    includeInSketch( builtSketch, seek.key(), newValue );
                 }
+                if ( histogram != null )
+                {
+                    histogram.add( runValues[0], runCount );
+                }
+            }
+            IndexValueHistogram builtHistogram = histogram != null ? histogram.build() : null;
+            if ( builtSketch != null )
+            {
+                builtSketch.setHistogram( builtHistogram );
+                sketch.replaceWith( builtSketch );
             }
-            return new IndexSample( sampledValues, uniqueValues, sampledValues );
+            return new IndexSample( sampledValues, uniqueValues, sampledValues, 0, builtHistogram );
         }
         catch ( IOException e )
         {
@@ -88,6 +125,14 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         }
     }
 
+    private static <KEY extends NativeIndexKey<KEY>> void includeInSketch( DistinctValuesSketch builtSketch, KEY key, boolean newValue )
+    {
+        if ( builtSketch != null )
+        {
+            builtSketch.addFromScan( newValue ? key.asValues() : null, newValue );
+        }
+    }
+
     @Override
     public IndexSample sample( int numDocs, PageCursorTracer cursorTracer )
     {
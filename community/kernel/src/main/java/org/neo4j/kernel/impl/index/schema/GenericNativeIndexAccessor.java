@@ -32,7 +32,6 @@ import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.schema.IndexDescriptor;
-import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexEntriesReader;
 import org.neo4j.kernel.api.index.IndexReader;
@@ -57,7 +56,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
         this.configuration = configuration;
         this.tokenNameLookup = tokenNameLookup;
-        instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        instantiateTree( recoveryCleanupWorkCollector, headerReader, headerWriter );
     }
 
     @Override
@@ -70,7 +69,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
     public IndexReader newReader()
     {
         assertOpen();
-        return new GenericNativeIndexReader( tree, layout, descriptor, spaceFillingCurveSettings, configuration );
+        return new GenericNativeIndexReader( tree, layout, descriptor, spaceFillingCurveSettings, configuration, sketch );
     }
 
     @Override
@@ -79,13 +78,6 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
         validator.validate( entityId, tuple );
     }
 
-    @Override
-    public void force( IOLimiter ioLimiter, PageCursorTracer cursorTracer )
-    {
-        // This accessor needs to use the header writer here because coordinate reference systems may have changed since last checkpoint.
-        tree.checkpoint( ioLimiter, headerWriter, cursorTracer );
-    }
-
     @Override
     public Map<String,Value> indexConfig()
     {
@@ -37,6 +37,7 @@ import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 import static org.neo4j.internal.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.internal.helpers.collection.Iterators.iterator;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_ONLINE;
@@ -45,14 +46,17 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         implements IndexAccessor
 {
     private final NativeIndexUpdater<KEY,VALUE> singleUpdater;
+    final DistinctValuesSketch sketch = new DistinctValuesSketch();
     final NativeIndexHeaderWriter headerWriter;
+    final NativeIndexHeaderReader headerReader;
 
     NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
             IndexDescriptor descriptor, Consumer<PageCursor> additionalHeaderWriter )
     {
         super( databaseIndexContext, layout, indexFiles, descriptor, GBPTree.NO_MONITOR );
-        singleUpdater = new NativeIndexUpdater<>( layout.newKey(), layout.newValue() );
-        headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE, additionalHeaderWriter );
+        singleUpdater = new NativeIndexUpdater<>( layout.newKey(), layout.newValue(), sketch );
+        headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE, additionalHeaderWriter, sketch );
+        headerReader = new NativeIndexHeaderReader( NO_HEADER_READER, sketch );
     }
 
     @Override
@@ -80,7 +84,8 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
     @Override
     public void force( IOLimiter ioLimiter, PageCursorTracer cursorTracer )
     {
-        tree.checkpoint( ioLimiter, cursorTracer );
+        // Write the header on every checkpoint because the sketch, as well as e.g. coordinate reference systems, may have changed since last checkpoint.
+        tree.checkpoint( ioLimiter, headerWriter, cursorTracer );
     }
 
     @Override
@@ -33,12 +33,19 @@ import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_FAILE
 class NativeIndexHeaderReader implements Header.Reader
 {
     private final Header.Reader additionalReader;
+    private final DistinctValuesSketch sketch;
     byte state;
     String failureMessage;
 
     NativeIndexHeaderReader( Header.Reader additionalReader )
+    {
+        this( additionalReader, null );
+    }
+
+    NativeIndexHeaderReader( Header.Reader additionalReader, DistinctValuesSketch sketch )
     {
         this.additionalReader = additionalReader;
+        this.sketch = sketch;
     }
 
     @Override
@@ -54,6 +61,10 @@ class NativeIndexHeaderReader implements Header.Reader
             else
             {
                 additionalReader.read( headerData );
+                if ( sketch != null )
+                {
+                    sketch.read( headerData );
+                }
             }
         }
         catch ( BufferUnderflowException e )
@@ -61,6 +61,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     private final VALUE treeValue;
     private final UniqueIndexSampler uniqueSampler;
     private final Consumer<PageCursor> additionalHeaderWriter;
+    final DistinctValuesSketch sketch = new DistinctValuesSketch();
 
     private ConflictDetectingValueMerger<KEY,VALUE,Value[]> mainConflictDetector;
     private ConflictDetectingValueMerger<KEY,VALUE,Value[]> updatesConflictDetector;
@@ -88,7 +89,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         assertNotClosed();
 
         indexFiles.clear();
-        NativeIndexHeaderWriter headerWriter = new NativeIndexHeaderWriter( BYTE_POPULATING, additionalHeaderWriter );
+        NativeIndexHeaderWriter headerWriter = new NativeIndexHeaderWriter( BYTE_POPULATING, additionalHeaderWriter, sketch );
         instantiateTree( RecoveryCleanupWorkCollector.immediate(), headerWriter );
 
         // true:  tree uniqueness is (value,entityId)
@@ -209,12 +210,13 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     void flushTreeAndMarkAs( byte state, PageCursorTracer cursorTracer )
     {
         tree.checkpoint( IOLimiter.UNLIMITED,
-                new NativeIndexHeaderWriter( state, additionalHeaderWriter ), cursorTracer );
+                new NativeIndexHeaderWriter( state, additionalHeaderWriter, sketch ), cursorTracer );
     }
 
     IndexSample buildNonUniqueIndexSample( PageCursorTracer cursorTracer )
     {
-        return new FullScanNonUniqueIndexSampler<>( tree, layout ).sample( cursorTracer );
+        // Building the sample also builds the sketch, which will be written to the header when marking the index as online
+        return new FullScanNonUniqueIndexSampler<>( tree, layout, sketch ).sample( cursorTracer );
     }
 
     private void markTreeAsFailed( PageCursorTracer cursorTracer )
@@ -231,6 +233,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
             for ( IndexEntryUpdate<?> indexEntryUpdate : indexEntryUpdates )
             {
                 NativeIndexUpdater.processUpdate( treeKey, treeValue, indexEntryUpdate, writer, conflictDetector );
+                NativeIndexUpdater.updateSketch( sketch, indexEntryUpdate );
             }
         }
         catch ( IOException e )
@@ -21,12 +21,18 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
@@ -35,40 +41,59 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.values.storable.Value;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
+import static org.neo4j.io.IOUtils.closeAll;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> implements IndexReader
 {
     protected final IndexDescriptor descriptor;
     final IndexLayout<KEY,VALUE> layout;
     final GBPTree<KEY,VALUE> tree;
+    private final DistinctValuesSketch sketch;
+    private final List<NativePartitionedValueSeek> partitionedSeeks = new ArrayList<>();
 
-    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor )
+    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor, DistinctValuesSketch sketch )
     {
         this.tree = tree;
         this.layout = layout;
         this.descriptor = descriptor;
+        this.sketch = sketch;
     }
 
     @Override
     public void close()
     {
+        // Partitions which were never reserved still have their seekers open
+        partitionedSeeks.forEach( NativePartitionedValueSeek::close );
+        partitionedSeeks.clear();
     }
 
     @Override
     public IndexSampler createSampler()
     {
+        // The sketch is kept up to date by every update to the index and so, as long as it's usable, a sample can be produced from it
+        // without touching the tree at all. Single property indexes also need a fresh histogram, which only a full scan can build.
+        boolean needsHistogram = descriptor.schema().getPropertyIds().length == 1;
+        if ( sketch != null && sketch.isUsable() && (!needsHistogram || sketch.hasFreshHistogram()) )
+        {
+            return tracer -> sketch.sample( descriptor.isUnique() );
+        }
+
         // For a unique index there's an optimization, knowing that all values in it are unique, to simply count
         // the number of indexed values and create a sample for that count. The GBPTree doesn't have an O(1)
         // count mechanism, it will have to manually count the indexed values in it to get it.
         // For that reason this implementation opts for keeping complexity down by just using the existing
         // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
-        // be none in a unique index).
+        // be none in a unique index). The scan also rebuilds the sketch so that subsequent samples can use it.
 
-        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout );
+        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout, sketch );
         return tracer ->
         {
             try
@@ -132,6 +157,37 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, constraints, needFilter, context.cursorTracer() );
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, QueryContext context, IndexQueryConstraints constraints,
+            IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        requirePositive( desiredNumberOfPartitions );
+        if ( constraints.isOrdered() || constraints.skip().isPresent() || constraints.limit().isPresent() || !hasFullValuePrecision( query ) )
+        {
+            throw new IndexNotApplicableKernelException( "Partitioned seeks only support unordered, unlimited queries with full value precision, got " +
+                    Arrays.toString( query ) + " with order " + constraints.order() );
+        }
+        validateQuery( constraints, query );
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+        boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, query );
+        try
+        {
+            Collection<Seeker<KEY,VALUE>> seekers = isEmptyRange( treeKeyFrom, treeKeyTo )
+                                                    ? List.of()
+                                                    : tree.partitionedSeek( treeKeyFrom, treeKeyTo, desiredNumberOfPartitions, context.cursorTracer() );
+            NativePartitionedValueSeek seek = new NativePartitionedValueSeek( new ArrayList<>( seekers ), query, constraints, needFilter );
+            partitionedSeeks.add( seek );
+            return seek;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     void initializeFromToKeys( KEY treeKeyFrom, KEY treeKeyTo )
     {
         treeKeyFrom.initialize( Long.MIN_VALUE );
@@ -189,4 +245,62 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         return layout.compare( treeKeyFrom, treeKeyTo ) > 0;
     }
+
+    /**
+     * Hands out the seekers of a {@link GBPTree#partitionedSeek(Object, Object, int, PageCursorTracer) partitioned seek}, one to each client.
+     * A reserved seeker is closed by the progressor of its client, the others when this is closed. An empty range still has one, empty,
+     * partition, so that there is always a partition to hand out entries from elsewhere, like the transaction state, with.
+     */
+    private class NativePartitionedValueSeek implements PartitionedValueSeek
+    {
+        private final List<Seeker<KEY,VALUE>> seekers;
+        private final IndexQuery[] query;
+        private final IndexQueryConstraints constraints;
+        private final boolean needFilter;
+        private final int numberOfPartitions;
+        private final AtomicInteger nextPartition = new AtomicInteger();
+
+        NativePartitionedValueSeek( List<Seeker<KEY,VALUE>> seekers, IndexQuery[] query, IndexQueryConstraints constraints, boolean needFilter )
+        {
+            this.seekers = seekers;
+            this.query = query;
+            this.constraints = constraints;
+            this.needFilter = needFilter;
+            this.numberOfPartitions = max( 1, seekers.size() );
+        }
+
+        @Override
+        public int getNumberOfPartitions()
+        {
+            return numberOfPartitions;
+        }
+
+        @Override
+        public boolean reservePartition( IndexProgressor.EntityValueClient client )
+        {
+            int partition = nextPartition.getAndIncrement();
+            if ( partition >= numberOfPartitions )
+            {
+                return false;
+            }
+            IndexProgressor progressor = partition < seekers.size()
+                                         ? getIndexProgressor( seekers.get( partition ), client, needFilter, query )
+                                         : IndexProgressor.EMPTY;
+            client.initialize( descriptor, progressor, query, constraints, false );
+            return true;
+        }
+
+        void close()
+        {
+            int firstUnreserved = nextPartition.getAndSet( numberOfPartitions );
+            try
+            {
+                closeAll( seekers.subList( min( firstUnreserved, seekers.size() ), seekers.size() ) );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
 }
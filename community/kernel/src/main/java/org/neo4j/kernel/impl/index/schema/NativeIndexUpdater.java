@@ -33,15 +33,17 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
 {
     private final KEY treeKey;
     private final VALUE treeValue;
+    private final DistinctValuesSketch sketch;
     private final ConflictDetectingValueMerger<KEY,VALUE,Value[]> conflictDetectingValueMerger = new ThrowingConflictDetector<>( true );
     private Writer<KEY,VALUE> writer;
 
     private boolean closed = true;
 
-    NativeIndexUpdater( KEY treeKey, VALUE treeValue )
+    NativeIndexUpdater( KEY treeKey, VALUE treeValue, DistinctValuesSketch sketch )
     {
         this.treeKey = treeKey;
         this.treeValue = treeValue;
+        this.sketch = sketch;
     }
 
     NativeIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer )
@@ -61,6 +63,7 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     {
         assertOpen();
         processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+        updateSketch( sketch, update );
     }
 
     @Override
@@ -98,6 +101,28 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         }
     }
 
+    /**
+     * Keeps the {@link DistinctValuesSketch} in sync with an update which has been successfully applied to the tree.
+     */
+    static void updateSketch( DistinctValuesSketch sketch, IndexEntryUpdate<?> update )
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            sketch.add( update.values() );
+            break;
+        case CHANGED:
+            sketch.remove( update.beforeValues() );
+            sketch.add( update.values() );
+            break;
+        case REMOVED:
+            sketch.remove( update.values() );
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
     private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> void processRemove( KEY treeKey,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer )
     {
@@ -34,6 +34,7 @@ import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.values.storable.Value;
 
 import static java.lang.String.format;
@@ -107,6 +108,19 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
         }
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, QueryContext context, IndexQueryConstraints constraints,
+            IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        IndexSlot slot = slotSelector.selectSlot( query, IndexQuery::valueCategory );
+        if ( slot == null )
+        {
+            throw new IndexNotApplicableKernelException( "Partitioned seeks over all parts of a fusion index are not supported, got " +
+                    Arrays.toString( query ) );
+        }
+        return instanceSelector.select( slot ).valueSeek( desiredNumberOfPartitions, context, constraints, query );
+    }
+
     private static final class InnerException extends RuntimeException
     {
         private InnerException( IndexNotApplicableKernelException e )
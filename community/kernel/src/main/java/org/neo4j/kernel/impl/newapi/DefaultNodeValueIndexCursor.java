@@ -528,6 +528,13 @@ class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         this.read = read;
     }
 
+    @Override
+    public void skipAddedInTransactionState()
+    {
+        this.added = ImmutableEmptyLongIterator.INSTANCE;
+        this.addedWithValues = Collections.emptyIterator();
+    }
+
     @Override
     public void node( NodeCursor cursor )
     {
@@ -27,6 +27,7 @@ import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.TokenSet;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.kernel.api.AssertOpen;
+import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.storageengine.api.txstate.EntityState;
@@ -36,6 +37,7 @@ import org.neo4j.values.storable.ValueGroup;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_ENTITY;
 import static org.neo4j.kernel.impl.newapi.Read.NO_ID;
 import static org.neo4j.token.api.TokenConstants.NO_TOKEN;
+import static org.neo4j.values.storable.Values.NO_VALUE;
 
 public class DefaultPropertyCursor extends TraceableCursor implements PropertyCursor, Supplier<TokenSet>, IntSupplier
 {
@@ -71,6 +73,34 @@ public class DefaultPropertyCursor extends TraceableCursor implements PropertyCu
         init( read, assertOpen );
         this.type = NODE;
         storeCursor.initNodeProperties( reference );
+        initNodeState( nodeReference, read );
+    }
+
+    /**
+     * Like {@link #initNode(long, long, Read, AssertOpen)}, but reads the stored properties from the node the given store cursor is at,
+     * which lets the storage engine serve properties it keeps in the node itself without reading the node again.
+     *
+     * @param storeNodeCursor cursor at the node in the store, or {@code null} if the node was added in this transaction.
+     */
+    void initNode( long nodeReference, StorageNodeCursor storeNodeCursor, Read read, AssertOpen assertOpen )
+    {
+        assert nodeReference != NO_ID;
+
+        init( read, assertOpen );
+        this.type = NODE;
+        if ( storeNodeCursor != null )
+        {
+            storeNodeCursor.properties( storeCursor );
+        }
+        else
+        {
+            storeCursor.initNodeProperties( NO_ID );
+        }
+        initNodeState( nodeReference, read );
+    }
+
+    private void initNodeState( long nodeReference, Read read )
+    {
         this.entityReference = nodeReference;
 
         // Transaction state
@@ -232,16 +262,73 @@ public class DefaultPropertyCursor extends TraceableCursor implements PropertyCu
         {
             return false;
         }
-        while ( next() )
+        if ( propertiesState != null && propertiesState.propertyValue( property ) == NO_VALUE )
+        {
+            // Removed in this transaction, so there is no need to walk the property chain in the store to prove it absent
+            exhaust();
+            return false;
+        }
+
+        if ( txStateChangedProperties != null )
         {
-            if ( property == this.propertyKey() )
+            while ( txStateChangedProperties.hasNext() )
             {
-                return true;
+                txStateValue = txStateChangedProperties.next();
+                if ( txStateValue.propertyKeyId() == property )
+                {
+                    if ( tracer != null )
+                    {
+                        tracer.onProperty( property );
+                    }
+                    return true;
+                }
+            }
+            txStateChangedProperties = null;
+            txStateValue = null;
+        }
+
+        if ( !storeCursor.mayHavePropertyKey( property ) )
+        {
+            // The store knows the keys of the entity, so there is no need to walk the property chain to prove it absent
+            exhaust();
+            return false;
+        }
+
+        // Compare keys before doing any security check, a key occurs at most once in the chain
+        while ( storeCursor.next() )
+        {
+            if ( storeCursor.propertyKey() == property )
+            {
+                boolean skip = propertiesState != null && propertiesState.isPropertyChangedOrRemoved( property );
+                if ( !skip && allowed() )
+                {
+                    if ( tracer != null )
+                    {
+                        tracer.onProperty( property );
+                    }
+                    return true;
+                }
+                exhaust();
+                return false;
             }
         }
         return false;
     }
 
+    private void exhaust()
+    {
+        txStateChangedProperties = null;
+        txStateValue = null;
+        if ( isNode() )
+        {
+            storeCursor.initNodeProperties( NO_ID );
+        }
+        else
+        {
+            storeCursor.initRelationshipProperties( NO_ID );
+        }
+    }
+
     @Override
     public boolean isClosed()
     {
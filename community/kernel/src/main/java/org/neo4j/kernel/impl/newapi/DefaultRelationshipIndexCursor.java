@@ -19,34 +19,70 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.NodeCursor;
-import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
+import org.neo4j.internal.kernel.api.RelationshipValueIndexCursor;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.txstate.TransactionState;
+import org.neo4j.kernel.impl.newapi.TxStateIndexChanges.AddedAndRemoved;
+import org.neo4j.kernel.impl.newapi.TxStateIndexChanges.AddedWithValuesAndRemoved;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueTuple;
 
+import static org.neo4j.collection.PrimitiveLongCollections.mergeToSet;
 import static org.neo4j.kernel.impl.newapi.Read.NO_ID;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRangeSeek;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRangeSeekByPrefix;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForScan;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSeek;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSuffixOrContains;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForRangeSeek;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForRangeSeekByPrefix;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForScan;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForSuffixOrContains;
+import static org.neo4j.token.api.TokenConstants.NO_TOKEN;
 
-final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor> implements RelationshipIndexCursor, EntityIndexSeekClient
+final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor> implements RelationshipValueIndexCursor, EntityIndexSeekClient
 {
     private final CursorPool<DefaultRelationshipIndexCursor> pool;
     private final DefaultRelationshipScanCursor relationshipScanCursor;
     private Read read;
     private long relationship;
+    private long readRelationship;
     private float score;
+    private IndexQuery[] query;
+    private Value[] values;
+    private Value[] exactValues;
+    private boolean needsValues;
     private AccessMode accessMode;
     private int[] propertyIds;
     private boolean shortcutSecurity;
+    private LongIterator added = ImmutableEmptyLongIterator.INSTANCE;
+    private Iterator<NodeWithPropertyValues> addedWithValues = Collections.emptyIterator();
+    private LongSet removed = LongSets.immutable.empty();
 
     DefaultRelationshipIndexCursor( CursorPool<DefaultRelationshipIndexCursor> pool, DefaultRelationshipScanCursor relationshipScanCursor )
     {
         this.pool = pool;
         this.relationshipScanCursor = relationshipScanCursor;
         relationship = NO_ID;
+        readRelationship = NO_ID;
         score = Float.NaN;
     }
 
@@ -56,6 +92,13 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
         this.read = read;
     }
 
+    @Override
+    public void skipAddedInTransactionState()
+    {
+        this.added = ImmutableEmptyLongIterator.INSTANCE;
+        this.addedWithValues = Collections.emptyIterator();
+    }
+
     @Override
     public void initialize( IndexDescriptor descriptor, IndexProgressor progressor, IndexQuery[] query, IndexQueryConstraints constraints,
             boolean indexIncludesTransactionState )
@@ -69,32 +112,115 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
                     "but IndexOrder." + constraints.order() + " was requested." );
         }
 
-        if ( constraints.needsValues() )
+        this.needsValues = constraints.needsValues();
+        this.query = query;
+        shortcutSecurity = setupSecurity( descriptor );
+
+        if ( !indexIncludesTransactionState && read.hasTxStateWithChanges() )
         {
-            throw new IllegalArgumentException( "This relationship index cursor was told to fetch the values of the index entries, but this functionality " +
-                    "has not been implemented." );
+            applyTransactionState( descriptor, query );
         }
+    }
 
-        if ( !indexIncludesTransactionState && read.hasTxStateWithChanges() )
+    /**
+     * The index doesn't know about changes in this transaction. The index updates of the transaction state, keyed by schema and values,
+     * tell which relationships to hide from the index results and which to add to them, like for node indexes.
+     */
+    private void applyTransactionState( IndexDescriptor descriptor, IndexQuery[] query )
+    {
+        TransactionState txState = read.txState();
+
+        // Extract out the equality queries
+        List<Value> exactQueryValues = new ArrayList<>( query.length );
+        int i = 0;
+        while ( i < query.length && query[i] instanceof IndexQuery.ExactPredicate )
+        {
+            exactQueryValues.add( ((IndexQuery.ExactPredicate) query[i]).value() );
+            i++;
+        }
+        Value[] equalityPrefix = exactQueryValues.toArray( new Value[0] );
+
+        if ( i == query.length )
+        {
+            // Only exact queries, so the values of the added relationships are the ones of the query
+            AddedAndRemoved changes = indexUpdatesForSeek( txState, descriptor, ValueTuple.of( equalityPrefix ) );
+            added = changes.getAdded().longIterator();
+            exactValues = needsValues ? equalityPrefix : null;
+            removed = removed( txState, changes.getRemoved() );
+            return;
+        }
+
+        IndexQuery nextQuery = query[i];
+        switch ( nextQuery.type() )
         {
-            String index = descriptor.userDescription( read.ktx.tokenRead() );
-            throw new IllegalStateException( "There is transaction state in this transaction, and the index (" + index + ") does not take transaction " +
-                    "state into account. This means that the relationship index cursor has to account for the transaction state, but this has not been " +
-                    "implemented." );
+        case exists:
+            // If composite index all following will be exists as well so no need to consider those
+            if ( exactQueryValues.isEmpty() )
+            {
+                apply( txState, needsValues ? indexUpdatesWithValuesForScan( txState, descriptor, IndexOrder.NONE ) : null,
+                        needsValues ? null : indexUpdatesForScan( txState, descriptor, IndexOrder.NONE ) );
+            }
+            else
+            {
+                apply( txState, needsValues ? indexUpdatesWithValuesForRangeSeek( txState, descriptor, equalityPrefix, null, IndexOrder.NONE ) : null,
+                        needsValues ? null : indexUpdatesForRangeSeek( txState, descriptor, equalityPrefix, null, IndexOrder.NONE ) );
+            }
+            break;
+
+        case range:
+            IndexQuery.RangePredicate<?> range = (IndexQuery.RangePredicate<?>) nextQuery;
+            apply( txState, needsValues ? indexUpdatesWithValuesForRangeSeek( txState, descriptor, equalityPrefix, range, IndexOrder.NONE ) : null,
+                    needsValues ? null : indexUpdatesForRangeSeek( txState, descriptor, equalityPrefix, range, IndexOrder.NONE ) );
+            break;
+
+        case stringPrefix:
+            IndexQuery.StringPrefixPredicate prefix = (IndexQuery.StringPrefixPredicate) nextQuery;
+            apply( txState,
+                    needsValues ? indexUpdatesWithValuesForRangeSeekByPrefix( txState, descriptor, equalityPrefix, prefix.prefix(), IndexOrder.NONE ) : null,
+                    needsValues ? null : indexUpdatesForRangeSeekByPrefix( txState, descriptor, equalityPrefix, prefix.prefix(), IndexOrder.NONE ) );
+            break;
+
+        case stringSuffix:
+        case stringContains:
+            assert query.length == 1;
+            apply( txState, needsValues ? indexUpdatesWithValuesForSuffixOrContains( txState, descriptor, nextQuery, IndexOrder.NONE ) : null,
+                    needsValues ? null : indexUpdatesForSuffixOrContains( txState, descriptor, nextQuery, IndexOrder.NONE ) );
+            break;
+
+        default:
+            throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( query ) );
         }
+    }
 
-        shortcutSecurity = setupSecurity( descriptor, query );
+    private void apply( TransactionState txState, AddedWithValuesAndRemoved withValues, AddedAndRemoved withoutValues )
+    {
+        if ( withValues != null )
+        {
+            addedWithValues = withValues.getAdded().iterator();
+            removed = removed( txState, withValues.getRemoved() );
+        }
+        else
+        {
+            added = withoutValues.getAdded().longIterator();
+            removed = removed( txState, withoutValues.getRemoved() );
+        }
+    }
+
+    private LongSet removed( TransactionState txState, LongSet removedFromIndex )
+    {
+        return mergeToSet( txState.addedAndRemovedRelationships().getRemoved(), removedFromIndex );
     }
 
     @Override
     public boolean acceptEntity( long reference, float score, Value... values )
     {
-        if ( !allows( reference ) )
+        if ( removed.contains( reference ) || !allows( reference ) )
         {
             return false;
         }
         this.relationship = reference;
         this.score = score;
+        this.values = values;
         return true;
     }
 
@@ -105,8 +231,7 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
             return true;
         }
 
-        read.singleRelationship( reference, relationshipScanCursor );
-        if ( !relationshipScanCursor.next() )
+        if ( !readRelationship( reference ) )
         {
             return false;
         }
@@ -122,11 +247,27 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
         return true;
     }
 
+    /**
+     * Positions the relationship scan cursor at the given relationship, unless it is already there, for the security checks and for
+     * the type and end nodes of the relationship.
+     *
+     * @return {@code true} if the relationship exists and is visible to this transaction, otherwise {@code false}.
+     */
+    private boolean readRelationship( long reference )
+    {
+        if ( readRelationship != reference )
+        {
+            read.singleRelationship( reference, relationshipScanCursor );
+            readRelationship = relationshipScanCursor.next() ? reference : NO_ID;
+        }
+        return readRelationship != NO_ID;
+    }
+
     /**
      * If the current user is allowed to traverse all relationships  nodes and read the properties no matter what label
      * the node has, we can skip checking on every node we get back.
      */
-    private boolean setupSecurity( IndexDescriptor descriptor, IndexQuery[] query )
+    private boolean setupSecurity( IndexDescriptor descriptor )
     {
         if ( accessMode == null )
         {
@@ -158,7 +299,31 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
     @Override
     public boolean needsValues()
     {
-        return false;
+        return needsValues;
+    }
+
+    @Override
+    public int numberOfProperties()
+    {
+        return query == null ? 0 : query.length;
+    }
+
+    @Override
+    public int propertyKey( int offset )
+    {
+        return query[offset].propertyKeyId();
+    }
+
+    @Override
+    public boolean hasValue()
+    {
+        return values != null;
+    }
+
+    @Override
+    public Value propertyValue( int offset )
+    {
+        return values[offset];
     }
 
     @Override
@@ -170,31 +335,31 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
     @Override
     public void sourceNode( NodeCursor cursor )
     {
-        throw new UnsupportedOperationException( "We have not yet implemented tracking of the relationship end nodes in the relationship index cursor." );
+        read.singleNode( sourceNodeReference(), cursor );
     }
 
     @Override
     public void targetNode( NodeCursor cursor )
     {
-        throw new UnsupportedOperationException( "We have not yet implemented tracking of the relationship end nodes in the relationship index cursor." );
+        read.singleNode( targetNodeReference(), cursor );
     }
 
     @Override
     public int type()
     {
-        throw new UnsupportedOperationException( "We have not yet implemented tracking of the relationship type in the relationship index cursor." );
+        return readRelationship( relationship ) ? relationshipScanCursor.type() : NO_TOKEN;
     }
 
     @Override
     public long sourceNodeReference()
     {
-        throw new UnsupportedOperationException( "We have not yet implemented tracking of the relationship end nodes in the relationship index cursor." );
+        return readRelationship( relationship ) ? relationshipScanCursor.sourceNodeReference() : NO_ID;
     }
 
     @Override
     public long targetNodeReference()
     {
-        throw new UnsupportedOperationException( "We have not yet implemented tracking of the relationship end nodes in the relationship index cursor." );
+        return readRelationship( relationship ) ? relationshipScanCursor.targetNodeReference() : NO_ID;
     }
 
     @Override
@@ -206,6 +371,25 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
     @Override
     public boolean next()
     {
+        while ( added.hasNext() )
+        {
+            relationship = added.next();
+            if ( allows( relationship ) )
+            {
+                values = exactValues;
+                return nextAdded();
+            }
+        }
+        while ( addedWithValues.hasNext() )
+        {
+            NodeWithPropertyValues relationshipWithValues = addedWithValues.next();
+            relationship = relationshipWithValues.getNodeId();
+            if ( allows( relationship ) )
+            {
+                values = relationshipWithValues.getValues();
+                return nextAdded();
+            }
+        }
         boolean next = super.innerNext();
         if ( tracer != null && next )
         {
@@ -214,6 +398,16 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
         return next;
     }
 
+    private boolean nextAdded()
+    {
+        score = Float.NaN;
+        if ( tracer != null )
+        {
+            tracer.onRelationship( relationship );
+        }
+        return true;
+    }
+
     @Override
     public float score()
     {
@@ -228,7 +422,14 @@ final class DefaultRelationshipIndexCursor extends IndexCursor<IndexProgressor>
             closeProgressor();
             this.accessMode = null;
             this.relationship = NO_ID;
+            this.readRelationship = NO_ID;
             this.score = Float.NaN;
+            this.query = null;
+            this.values = null;
+            this.exactValues = null;
+            this.added = ImmutableEmptyLongIterator.INSTANCE;
+            this.addedWithValues = Collections.emptyIterator();
+            this.removed = LongSets.immutable.empty();
             pool.accept( this );
         }
     }
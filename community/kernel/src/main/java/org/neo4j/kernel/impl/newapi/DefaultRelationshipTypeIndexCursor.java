@@ -174,6 +174,18 @@ public class DefaultRelationshipTypeIndexCursor extends IndexCursor<IndexProgres
         }
     }
 
+    public void scan( IndexProgressor progressor, LongIterator added, LongSet removed, int type )
+    {
+        super.initialize( progressor );
+        this.added = added;
+        this.removed = removed;
+        this.type = type;
+        if ( tracer != null )
+        {
+            tracer.onRelationshipTypeScan( type );
+        }
+    }
+
     public void release()
     {
         // nothing to do
@@ -34,4 +34,10 @@ import org.neo4j.kernel.api.index.IndexProgressor;
 public interface EntityIndexSeekClient extends IndexProgressor.EntityValueClient
 {
     void setRead( Read read );
+
+    /**
+     * Leaves out the entities added in the transaction state from the results of the current seek. Used for all partitions but one of
+     * a partitioned seek, since each partition is given the full transaction state when initialized.
+     */
+    void skipAddedInTransactionState();
 }
@@ -25,9 +25,11 @@ import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.kernel.impl.api.index.IndexingService;
@@ -37,6 +39,7 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueTuple;
 
 import static org.neo4j.common.EntityType.NODE;
+import static org.neo4j.common.EntityType.RELATIONSHIP;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_PROPERTY_KEY;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 
@@ -88,7 +91,8 @@ public class IndexTxStateUpdater
             {
                 MemoryTracker memoryTracker = read.txState().memoryTracker();
                 int[] indexPropertyIds = index.schema().getPropertyIds();
-                Value[] values = getValueTuple( node, propertyCursor, NO_SUCH_PROPERTY_KEY, NO_VALUE, indexPropertyIds, materializedProperties, memoryTracker );
+                Value[] values = getValueTuple( node::properties, propertyCursor, NO_SUCH_PROPERTY_KEY, NO_VALUE, indexPropertyIds,
+                        materializedProperties, memoryTracker );
                 ValueTuple valueTuple = ValueTuple.of( values );
                 memoryTracker.allocateHeap( valueTuple.getShallowSize() );
                 switch ( changeType )
@@ -126,7 +130,7 @@ public class IndexTxStateUpdater
                     {
                         MemoryTracker memoryTracker = read.txState().memoryTracker();
                         SchemaDescriptor schema = index.schema();
-                        Value[] values = getValueTuple( node, propertyCursor, propertyKeyId, value, schema.getPropertyIds(), materializedProperties,
+                        Value[] values = getValueTuple( node::properties, propertyCursor, propertyKeyId, value, schema.getPropertyIds(), materializedProperties,
                                                         memoryTracker );
                         indexingService.validateBeforeCommit( index, values, node.nodeReference() );
                         ValueTuple valueTuple = ValueTuple.of( values );
@@ -148,7 +152,7 @@ public class IndexTxStateUpdater
                     {
                         MemoryTracker memoryTracker = read.txState().memoryTracker();
                         SchemaDescriptor schema = index.schema();
-                        Value[] values = getValueTuple( node, propertyCursor, propertyKeyId, value, schema.getPropertyIds(), materializedProperties,
+                        Value[] values = getValueTuple( node::properties, propertyCursor, propertyKeyId, value, schema.getPropertyIds(), materializedProperties,
                                                         memoryTracker );
                         ValueTuple valueTuple = ValueTuple.of( values );
                         memoryTracker.allocateHeap( valueTuple.getShallowSize() );
@@ -171,8 +175,8 @@ public class IndexTxStateUpdater
                         MemoryTracker memoryTracker = read.txState().memoryTracker();
                         SchemaDescriptor schema = index.schema();
                         int[] propertyIds = schema.getPropertyIds();
-                        Value[] valuesAfter =
-                                getValueTuple( node, propertyCursor, propertyKeyId, afterValue, propertyIds, materializedProperties, memoryTracker );
+                        Value[] valuesAfter = getValueTuple( node::properties, propertyCursor, propertyKeyId, afterValue, propertyIds, materializedProperties,
+                                memoryTracker );
 
                         // The valuesBefore tuple is just like valuesAfter, except is has the afterValue instead of the beforeValue
                         Value[] valuesBefore = Arrays.copyOf( valuesAfter, valuesAfter.length );
@@ -188,8 +192,57 @@ public class IndexTxStateUpdater
         }
     }
 
-    private Value[] getValueTuple( NodeCursor node, PropertyCursor propertyCursor, int changedPropertyKeyId, Value changedValue, int[] indexPropertyIds,
-            MutableIntObjectMap<Value> materializedValues, MemoryTracker memoryTracker )
+    /**
+     * A property of a relationship has been added, changed or removed, figure out what updates are needed to tx state.
+     * Relationships are only in an index when they have all of its properties.
+     *
+     * @param relationship cursor to the relationship where the change was applied
+     * @param propertyCursor cursor to the properties of relationship
+     * @param propertyKeyId the id of the changed property
+     * @param beforeValue the value before the change, or {@code NO_VALUE} if the property was added
+     * @param afterValue the value after the change, or {@code NO_VALUE} if the property was removed
+     */
+    void onRelationshipPropertyChange( RelationshipScanCursor relationship, PropertyCursor propertyCursor, int propertyKeyId, Value beforeValue,
+            Value afterValue )
+    {
+        assert noSchemaChangedInTx();
+        Collection<IndexDescriptor> indexes = storageReader.indexesGetRelated( new long[]{relationship.type()}, propertyKeyId, RELATIONSHIP );
+        if ( !indexes.isEmpty() )
+        {
+            MutableIntObjectMap<Value> materializedProperties = IntObjectMaps.mutable.empty();
+            for ( IndexDescriptor index : indexes )
+            {
+                MemoryTracker memoryTracker = read.txState().memoryTracker();
+                SchemaDescriptor schema = index.schema();
+                int[] propertyIds = schema.getPropertyIds();
+                Value[] valuesAfter = getValueTuple( relationship::properties, propertyCursor, propertyKeyId, afterValue, propertyIds,
+                        materializedProperties, memoryTracker );
+                Value[] valuesBefore = Arrays.copyOf( valuesAfter, valuesAfter.length );
+                valuesBefore[ArrayUtils.indexOf( propertyIds, propertyKeyId )] = beforeValue;
+
+                ValueTuple valuesTupleBefore = null;
+                ValueTuple valuesTupleAfter = null;
+                if ( !ArrayUtils.contains( valuesBefore, NO_VALUE ) )
+                {
+                    valuesTupleBefore = ValueTuple.of( valuesBefore );
+                    memoryTracker.allocateHeap( valuesTupleBefore.getShallowSize() );
+                }
+                if ( !ArrayUtils.contains( valuesAfter, NO_VALUE ) )
+                {
+                    indexingService.validateBeforeCommit( index, valuesAfter, relationship.relationshipReference() );
+                    valuesTupleAfter = ValueTuple.of( valuesAfter );
+                    memoryTracker.allocateHeap( valuesTupleAfter.getShallowSize() );
+                }
+                if ( valuesTupleBefore != null || valuesTupleAfter != null )
+                {
+                    read.txState().indexDoUpdateEntry( schema, relationship.relationshipReference(), valuesTupleBefore, valuesTupleAfter );
+                }
+            }
+        }
+    }
+
+    private Value[] getValueTuple( Consumer<PropertyCursor> entityProperties, PropertyCursor propertyCursor, int changedPropertyKeyId, Value changedValue,
+            int[] indexPropertyIds, MutableIntObjectMap<Value> materializedValues, MemoryTracker memoryTracker )
     {
         Value[] values = new Value[indexPropertyIds.length];
         int missing = 0;
@@ -205,11 +258,11 @@ public class IndexTxStateUpdater
             }
         }
 
-        // If we couldn't get all values that we wanted we need to load from the node. While we're loading values
+        // If we couldn't get all values that we wanted we need to load from the entity. While we're loading values
         // we'll place those values in the map so that other index updates from this change can just used them.
         if ( missing > 0 )
         {
-            node.properties( propertyCursor );
+            entityProperties.accept( propertyCursor );
             while ( missing > 0 && propertyCursor.next() )
             {
                 int k = ArrayUtils.indexOf( indexPropertyIds, propertyCursor.propertyKey() );
@@ -114,6 +114,7 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 import static org.neo4j.common.EntityType.NODE;
+import static org.neo4j.common.EntityType.RELATIONSHIP;
 import static org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationException.Phase.VALIDATION;
 import static org.neo4j.internal.kernel.api.exceptions.schema.SchemaKernelException.OperationContext.CONSTRAINT_CREATION;
 import static org.neo4j.internal.kernel.api.exceptions.schema.SchemaKernelException.OperationContext.INDEX_CREATION;
@@ -677,6 +678,7 @@ public class Operations implements Write, SchemaWrite
         {
             assertAllowsSetProperty( relationshipCursor.type(), propertyKey );
             ktx.txState().relationshipDoReplaceProperty( relationship, propertyKey, NO_VALUE, value );
+            updateRelationshipIndexes( propertyKey, NO_VALUE, value );
             return NO_VALUE;
         }
         else
@@ -685,6 +687,7 @@ public class Operations implements Write, SchemaWrite
             {
                 assertAllowsSetProperty( relationshipCursor.type(), propertyKey );
                 ktx.txState().relationshipDoReplaceProperty( relationship, propertyKey, existingValue, value );
+                updateRelationshipIndexes( propertyKey, existingValue, value );
             }
 
             return existingValue;
@@ -703,11 +706,20 @@ public class Operations implements Write, SchemaWrite
         {
             assertAllowsSetProperty( relationshipCursor.type(), propertyKey );
             ktx.txState().relationshipDoRemoveProperty( relationship, propertyKey );
+            updateRelationshipIndexes( propertyKey, existingValue, NO_VALUE );
         }
 
         return existingValue;
     }
 
+    private void updateRelationshipIndexes( int propertyKey, Value beforeValue, Value afterValue )
+    {
+        if ( storageReader.hasRelatedSchema( new long[]{relationshipCursor.type()}, propertyKey, RELATIONSHIP ) )
+        {
+            updater.onRelationshipPropertyChange( relationshipCursor, propertyCursor, propertyKey, beforeValue, afterValue );
+        }
+    }
+
     private Value readNodeProperty( int propertyKey )
     {
         nodeCursor.properties( propertyCursor );
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import java.util.Arrays;
+
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.exceptions.KernelException;
@@ -33,12 +35,14 @@ import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
 import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
+import org.neo4j.internal.kernel.api.RelationshipValueIndexCursor;
 import org.neo4j.internal.kernel.api.Scan;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
@@ -109,7 +113,7 @@ abstract class Read implements TxStateHolder,
 
         EntityIndexSeekClient client = (EntityIndexSeekClient) cursor;
         client.setRead( this );
-        IndexProgressor.EntityValueClient withFullPrecision = injectFullValuePrecision( client, query, indexSession.reader );
+        IndexProgressor.EntityValueClient withFullPrecision = injectFullValuePrecision( client, query, indexSession.reader, EntityType.NODE );
         indexSession.reader.query( this, withFullPrecision, constraints, query );
     }
 
@@ -120,18 +124,58 @@ abstract class Read implements TxStateHolder,
         ktx.assertOpen();
         if ( index.schema().entityType() != EntityType.RELATIONSHIP )
         {
-            throw new IndexNotApplicableKernelException( "Relationship index seek can only be performed on node indexes: " + index );
+            throw new IndexNotApplicableKernelException( "Relationship index seek can only be performed on relationship indexes: " + index );
         }
 
         EntityIndexSeekClient client = (EntityIndexSeekClient) cursor;
         IndexReader reader = indexReader( index, false );
         client.setRead( this );
-        IndexProgressor.EntityValueClient withFullPrecision = injectFullValuePrecision( client, query, reader );
+        IndexProgressor.EntityValueClient withFullPrecision = injectFullValuePrecision( client, query, reader, EntityType.RELATIONSHIP );
         reader.query( this, withFullPrecision, constraints, query );
     }
 
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        ktx.assertOpen();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index seek can only be performed on node indexes: " + index );
+        }
+
+        return partitionedValueSeek( indexSession.reader, desiredNumberOfPartitions, constraints, query );
+    }
+
+    @Override
+    public final PartitionedScan<RelationshipValueIndexCursor> relationshipIndexSeek( IndexDescriptor index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, IndexQuery... query ) throws IndexNotApplicableKernelException, IndexNotFoundKernelException
+    {
+        ktx.assertOpen();
+        if ( index.schema().entityType() != EntityType.RELATIONSHIP )
+        {
+            throw new IndexNotApplicableKernelException( "Relationship index seek can only be performed on relationship indexes: " + index );
+        }
+
+        return partitionedValueSeek( indexReader( index, false ), desiredNumberOfPartitions, constraints, query );
+    }
+
+    private <C extends org.neo4j.internal.kernel.api.Cursor> PartitionedScan<C> partitionedValueSeek( IndexReader reader, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        // Filtering lossy values needs cursors of its own, which would have to be allocated by the threads reading the partitions
+        if ( !reader.hasFullValuePrecision( query ) )
+        {
+            throw new IndexNotApplicableKernelException( "Partitioned seeks are only supported for queries with full value precision: " +
+                    Arrays.toString( query ) );
+        }
+        return new ValueIndexCursorPartitionedScan<>( this, reader.valueSeek( desiredNumberOfPartitions, this, constraints, query ) );
+    }
+
     private IndexProgressor.EntityValueClient injectFullValuePrecision( IndexProgressor.EntityValueClient cursor,
-            IndexQuery[] query, IndexReader reader )
+            IndexQuery[] query, IndexReader reader, EntityType entityType )
     {
         IndexProgressor.EntityValueClient target = cursor;
         if ( !reader.hasFullValuePrecision( query ) )
@@ -170,8 +214,16 @@ abstract class Read implements TxStateHolder,
             {
                 // filters[] can contain null elements. The non-null elements are the filters and each sit in the designated slot
                 // matching the values from the index.
-                target = new NodeValueClientFilter( target, cursors.allocateNodeCursor( cursorTracer ),
-                        cursors.allocatePropertyCursor( cursorTracer, memoryTracker() ), this, filters );
+                if ( entityType == EntityType.RELATIONSHIP )
+                {
+                    target = new RelationshipValueClientFilter( target, cursors.allocateRelationshipScanCursor( cursorTracer ),
+                            cursors.allocatePropertyCursor( cursorTracer, memoryTracker() ), this, filters );
+                }
+                else
+                {
+                    target = new NodeValueClientFilter( target, cursors.allocateNodeCursor( cursorTracer ),
+                            cursors.allocatePropertyCursor( cursorTracer, memoryTracker() ), this, filters );
+                }
             }
         }
         return target;
@@ -217,7 +269,7 @@ abstract class Read implements TxStateHolder,
             IndexQuery.ExactPredicate... query ) throws IndexNotApplicableKernelException
     {
         cursor.setRead( this );
-        IndexProgressor.EntityValueClient target = injectFullValuePrecision( cursor, query, indexReader );
+        IndexProgressor.EntityValueClient target = injectFullValuePrecision( cursor, query, indexReader, EntityType.NODE );
         // we never need values for exact predicates
         indexReader.query( this, target, unconstrained(), query );
     }
@@ -243,6 +295,23 @@ abstract class Read implements TxStateHolder,
         indexSession.reader.query( this, cursorImpl, constraints, IndexQuery.exists( firstProperty ) );
     }
 
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints ) throws KernelException
+    {
+        ktx.assertOpen();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index scan can only be performed on node indexes: " + index );
+        }
+
+        // for a scan, we simply query for existence of the first property, which covers all entries in an index
+        int firstProperty = indexSession.reference.schema().getPropertyIds()[0];
+        return partitionedValueSeek( indexSession.reader, desiredNumberOfPartitions, constraints, IndexQuery.exists( firstProperty ) );
+    }
+
     @Override
     public final void nodeLabelScan( int label, NodeLabelIndexCursor cursor, IndexOrder order )
     {
@@ -331,6 +400,20 @@ abstract class Read implements TxStateHolder,
         }
     }
 
+    @Override
+    public final Scan<RelationshipTypeIndexCursor> relationshipTypeScan( int type )
+    {
+        ktx.assertOpen();
+        if ( relationshipTypeScanStoreEnabled() )
+        {
+            return new RelationshipTypeIndexCursorScan( this, type, relationshipTypeScanReader().entityTokenScan( type, cursorTracer ), cursorTracer );
+        }
+        else
+        {
+            throw new IllegalStateException( "Cannot search relationship type scan store when feature is not enabled." );
+        }
+    }
+
     @Override
     public void relationships( long nodeReference, long reference, RelationshipSelection selection, RelationshipTraversalCursor cursor )
     {
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipScanCursor;
+import org.neo4j.kernel.api.index.IndexProgressor.EntityValueClient;
+
+/**
+ * {@link EntityValueClientFilter} for relationship indexes, reading property values which can't be read from the index from the relationship store.
+ */
+class RelationshipValueClientFilter extends EntityValueClientFilter
+{
+    private final RelationshipScanCursor relationship;
+    private final Read read;
+
+    RelationshipValueClientFilter( EntityValueClient target, RelationshipScanCursor relationship, PropertyCursor property, Read read, IndexQuery... filters )
+    {
+        super( target, property, filters );
+        this.relationship = relationship;
+        this.read = read;
+    }
+
+    @Override
+    boolean entityProperties( long reference, PropertyCursor property )
+    {
+        read.singleRelationship( reference, relationship );
+        if ( !relationship.next() )
+        {
+            return false;
+        }
+        relationship.properties( property );
+        return true;
+    }
+
+    @Override
+    void closeEntityCursor()
+    {
+        relationship.close();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
+
+/**
+ * Hands out the partitions of a {@link PartitionedValueSeek} to node or relationship value index cursors. Every partition sees the
+ * entities removed in the transaction, while the entities added in the transaction are only returned by the first reserved partition.
+ * <p>
+ * Reservations are synchronized since initializing a cursor reads, and lazily builds, the index updates of the transaction state.
+ */
+class ValueIndexCursorPartitionedScan<C extends Cursor> implements PartitionedScan<C>
+{
+    private final Read read;
+    private final PartitionedValueSeek valueSeek;
+    private boolean addedInTransactionStateReturned;
+
+    ValueIndexCursorPartitionedScan( Read read, PartitionedValueSeek valueSeek )
+    {
+        this.read = read;
+        this.valueSeek = valueSeek;
+    }
+
+    @Override
+    public int getNumberOfPartitions()
+    {
+        return valueSeek.getNumberOfPartitions();
+    }
+
+    @Override
+    public synchronized boolean reservePartition( C cursor )
+    {
+        read.ktx.assertOpen();
+        EntityIndexSeekClient client = (EntityIndexSeekClient) cursor;
+        client.setRead( read );
+        if ( !valueSeek.reservePartition( client ) )
+        {
+            return false;
+        }
+        if ( addedInTransactionStateReturned )
+        {
+            client.skipAddedInTransactionState();
+        }
+        addedInTransactionStateReturned = true;
+        return true;
+    }
+}
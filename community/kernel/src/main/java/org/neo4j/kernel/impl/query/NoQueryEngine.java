@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.query;
 import java.util.List;
 
 import org.neo4j.graphdb.Result;
+import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.values.virtual.MapValue;
 
 enum NoQueryEngine implements QueryExecutionEngine
@@ -53,6 +54,12 @@ enum NoQueryEngine implements QueryExecutionEngine
         throw noQueryEngine();
     }
 
+    @Override
+    public long prewarmQueryCaches( List<Pair<String,MapValue>> queries )
+    {
+        throw noQueryEngine();
+    }
+
     @Override
     public List<FunctionInformation> getProvidedLanguageFunctions()
     {
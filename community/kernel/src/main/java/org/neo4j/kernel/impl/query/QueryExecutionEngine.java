@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.query;
 import java.util.List;
 
 import org.neo4j.graphdb.Result;
+import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.values.virtual.MapValue;
 
 public interface QueryExecutionEngine
@@ -39,6 +40,14 @@ public interface QueryExecutionEngine
 
     long clearQueryCaches();
 
+    /**
+     * Compiles the given queries into the query caches without executing them.
+     *
+     * @param queries the queries to compile, each with parameters of the types it will be executed with
+     * @return the number of queries that were compiled and cached
+     */
+    long prewarmQueryCaches( List<Pair<String,MapValue>> queries );
+
     List<FunctionInformation> getProvidedLanguageFunctions();
 }
 
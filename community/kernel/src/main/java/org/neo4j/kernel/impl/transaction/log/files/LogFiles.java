@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log.files;
 
 import java.nio.file.Path;
 
+import org.neo4j.dbms.database.TransactionLogVersionProvider;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.CheckpointFile;
 import org.neo4j.kernel.lifecycle.Lifecycle;
@@ -43,4 +44,9 @@ public interface LogFiles extends Lifecycle
     boolean isLogFile( Path path );
 
     LogTailInformation getTailInformation();
+
+    /**
+     * @return provider of the version that log entries are currently written with.
+     */
+    TransactionLogVersionProvider getTransactionLogVersionProvider();
 }
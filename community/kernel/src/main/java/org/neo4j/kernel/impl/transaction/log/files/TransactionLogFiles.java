@@ -24,6 +24,7 @@ import java.io.UncheckedIOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Path;
 
+import org.neo4j.dbms.database.TransactionLogVersionProvider;
 import org.neo4j.internal.helpers.ArrayUtil;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.CheckpointFile;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.CompositeCheckpointLogFile;
@@ -41,11 +42,13 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     private final CheckpointFile checkpointLogFile;
     private final TransactionLogFile logFile;
     private final Path logsDirectory;
+    private final TransactionLogVersionProvider transactionLogVersionProvider;
     private LifeSupport logFilesLife;
 
     TransactionLogFiles( Path logsDirectory, String name, TransactionLogFilesContext context )
     {
         this.logsDirectory = logsDirectory;
+        this.transactionLogVersionProvider = context.getTransactionLogVersionProvider();
         this.logFile = new TransactionLogFile( this, context, name );
         this.checkpointLogFile = new CompositeCheckpointLogFile( this, context );
     }
@@ -115,6 +118,12 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         return logFile;
     }
 
+    @Override
+    public TransactionLogVersionProvider getTransactionLogVersionProvider()
+    {
+        return transactionLogVersionProvider;
+    }
+
     @Override
     public CheckpointFile getCheckpointFile()
     {
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.neo4j.collection.trackable.HeapTrackingArrayList;
+import org.neo4j.internal.kernel.api.DefaultCloseListenable;
+import org.neo4j.memory.Measurable;
+import org.neo4j.memory.MemoryTracker;
+
+import static java.util.Collections.emptyIterator;
+import static org.neo4j.kernel.impl.util.collection.LongProbeTable.SCOPED_MEMORY_TRACKER_SHALLOW_SIZE;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+
+/**
+ * A {@link LongProbeTable} that keeps its hash table, and the links between the values of a key, off-heap, so that it costs no objects
+ * per key. The values of a key form a circular list in which the table points at the last added value, which keeps them in insertion
+ * order at one table update per value. The values themselves stay on the heap.
+ */
+public class OffHeapLongProbeTable<V extends Measurable> extends DefaultCloseListenable
+{
+    private static final long SHALLOW_SIZE = shallowSizeOfInstance( OffHeapLongProbeTable.class );
+    private static final int INITIAL_CAPACITY = 32;
+    private static final long NO_VALUE = -1;
+
+    private final MemoryAllocator allocator;
+    private final MemoryTracker scopedMemoryTracker;
+    private LinearProbeLongLongHashMap lastValues;
+    private HeapTrackingArrayList<V> values;
+    private Memory nextValues;
+    private int capacity;
+
+    public static <V extends Measurable> OffHeapLongProbeTable<V> createOffHeapLongProbeTable( OffHeapBlockAllocator blockAllocator,
+            MemoryTracker memoryTracker )
+    {
+        MemoryTracker scopedMemoryTracker = memoryTracker.getScopedMemoryTracker();
+        scopedMemoryTracker.allocateHeap( SHALLOW_SIZE + SCOPED_MEMORY_TRACKER_SHALLOW_SIZE );
+        return new OffHeapLongProbeTable<>( new OffHeapMemoryAllocator( blockAllocator ), scopedMemoryTracker );
+    }
+
+    private OffHeapLongProbeTable( MemoryAllocator allocator, MemoryTracker scopedMemoryTracker )
+    {
+        this.allocator = allocator;
+        this.scopedMemoryTracker = scopedMemoryTracker;
+        this.lastValues = new LinearProbeLongLongHashMap( allocator, scopedMemoryTracker );
+        this.values = HeapTrackingArrayList.newArrayList( INITIAL_CAPACITY, scopedMemoryTracker );
+        this.nextValues = allocator.allocate( (long) INITIAL_CAPACITY * Long.BYTES, false, scopedMemoryTracker );
+        this.capacity = INITIAL_CAPACITY;
+    }
+
+    public void put( long key, V value )
+    {
+        int index = values.size();
+        values.add( value );
+        scopedMemoryTracker.allocateHeap( value.estimatedHeapUsage() );
+        if ( index == capacity )
+        {
+            grow();
+        }
+
+        long last = lastValues.getIfAbsent( key, NO_VALUE );
+        if ( last == NO_VALUE )
+        {
+            setNext( index, index );
+        }
+        else
+        {
+            setNext( index, nextIndex( last ) );
+            setNext( last, index );
+        }
+        lastValues.put( key, index );
+    }
+
+    public Iterator<V> get( long key )
+    {
+        long last = lastValues.getIfAbsent( key, NO_VALUE );
+        if ( last == NO_VALUE )
+        {
+            return emptyIterator();
+        }
+        return new Iterator<>()
+        {
+            private long current = nextIndex( last );
+            private boolean done;
+
+            @Override
+            public boolean hasNext()
+            {
+                return !done;
+            }
+
+            @Override
+            public V next()
+            {
+                if ( done )
+                {
+                    throw new NoSuchElementException();
+                }
+                V value = values.get( (int) current );
+                done = current == last;
+                current = nextIndex( current );
+                return value;
+            }
+        };
+    }
+
+    public boolean isEmpty()
+    {
+        return values.isEmpty();
+    }
+
+    private long nextIndex( long index )
+    {
+        return nextValues.readLong( index * Long.BYTES );
+    }
+
+    private void setNext( long index, long next )
+    {
+        nextValues.writeLong( index * Long.BYTES, next );
+    }
+
+    private void grow()
+    {
+        int newCapacity = capacity * 2;
+        Memory grown = allocator.allocate( (long) newCapacity * Long.BYTES, false, scopedMemoryTracker );
+        for ( long offset = 0; offset < (long) capacity * Long.BYTES; offset += Long.BYTES )
+        {
+            grown.writeLong( offset, nextValues.readLong( offset ) );
+        }
+        nextValues.free( scopedMemoryTracker );
+        nextValues = grown;
+        capacity = newCapacity;
+    }
+
+    @Override
+    public void closeInternal()
+    {
+        if ( values != null )
+        {
+            lastValues.close();
+            nextValues.free( scopedMemoryTracker );
+            values.close();
+            lastValues = null;
+            nextValues = null;
+            values = null;
+            scopedMemoryTracker.close();
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return values == null;
+    }
+}
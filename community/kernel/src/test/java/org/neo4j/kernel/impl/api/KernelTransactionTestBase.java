@@ -83,6 +83,7 @@ import org.neo4j.token.api.TokenHolder;
 import org.neo4j.values.storable.Value;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.RETURNS_MOCKS;
@@ -125,6 +126,7 @@ class KernelTransactionTestBase
                     any( CommandCreationContext.class ),
                     any( ResourceLocker.class ),
                     anyLong(),
+                    anyByte(),
                     any( TxStateVisitor.Decorator.class ), any( PageCursorTracer.class ), any( MemoryTracker.class ) );
     }
 
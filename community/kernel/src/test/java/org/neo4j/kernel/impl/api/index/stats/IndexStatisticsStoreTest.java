@@ -151,9 +151,9 @@ class IndexStatisticsStoreTest
             }
 
             store.checkpoint( UNLIMITED, cursorTracer );
-            assertThat( cursorTracer.pins() ).isEqualTo( 43 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 43 );
-            assertThat( cursorTracer.hits() ).isEqualTo( 35 );
+            assertThat( cursorTracer.pins() ).isEqualTo( 42 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 42 );
+            assertThat( cursorTracer.hits() ).isEqualTo( 34 );
             assertThat( cursorTracer.faults() ).isEqualTo( 8 );
         }
     }
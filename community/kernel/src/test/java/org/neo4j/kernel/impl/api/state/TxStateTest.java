@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.state;
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.eclipse.collections.api.IntIterable;
 import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.UnmodifiableMap;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
@@ -344,6 +345,24 @@ abstract class TxStateTest
         assertEqualDiffSets( addedNodes( 41L ), diffSets.get( ValueTuple.of( stringValue( "value41" ) ) ) );
     }
 
+    @Test
+    void shouldComputeIndexUpdatesOnTxStateWithRelationships()
+    {
+        // GIVEN
+        addNodesToIndex( indexOnRels ).withDefaultStringProperties( 42L );
+        addNodesToIndex( indexOnRels ).withDefaultStringProperties( 43L );
+        state.relationshipDoDelete( 43L, 3, 1, 2 );
+
+        // WHEN
+        UnmodifiableMap<ValueTuple,? extends LongDiffSets> diffSets = state.getIndexUpdates( indexOnRels.schema() );
+
+        // THEN
+        assertNotNull( diffSets );
+        assertEqualDiffSets( addedNodes( 42L ), diffSets.get( ValueTuple.of( stringValue( "value42" ) ) ) );
+        assertEqualDiffSets( addedNodes(), diffSets.get( ValueTuple.of( stringValue( "value43" ) ) ) );
+        assertNull( state.getIndexUpdates( indexOn_1_1.schema() ) );
+    }
+
     @Test
     void shouldComputeSortedIndexUpdatesOnTxStateWithAddedNodes()
     {
@@ -581,6 +600,31 @@ abstract class TxStateTest
         } );
     }
 
+    @Test
+    void shouldVisitNodesWithCompactedRelationshipsWithoutChangingData() throws Exception
+    {
+        // Given
+        state.nodeDoCompactRelationships( 1 );
+        state.nodeDoCompactRelationships( 2 );
+        state.nodeDoDelete( 2 );
+        state.nodeDoCompactRelationships( 3 );
+
+        // When
+        MutableLongSet compacted = new LongHashSet();
+        state.accept( new TxStateVisitor.Adapter()
+        {
+            @Override
+            public void visitCompactedNodeRelationships( long id )
+            {
+                compacted.add( id );
+            }
+        } );
+
+        // Then
+        assertEquals( newSetWith( 1, 3 ), compacted );
+        assertTrue( state.hasChanges() );
+    }
+
     @Test
     void shouldReportDeletedNodeIfItWasCreatedAndDeletedInSameTx()
     {
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.values.storable.Value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class DistinctValuesSketchTest
+{
+    @Test
+    void shouldEstimateNumberOfDistinctValues()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+        int distinct = 100_000;
+
+        // when
+        for ( int i = 0; i < distinct; i++ )
+        {
+            sketch.add( values( i ) );
+            sketch.add( values( i ) );
+        }
+
+        // then
+        IndexSample sample = sketch.sample( false );
+        assertEquals( 2 * distinct, sample.indexSize() );
+        assertEquals( 2 * distinct, sample.sampleSize() );
+        assertThat( sample.uniqueValues() ).isBetween( (long) (distinct * 0.93), (long) (distinct * 1.07) );
+    }
+
+    @Test
+    void shouldEstimateSmallNumberOfDistinctValuesClosely()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+
+        // when
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            sketch.add( values( i % 10 ) );
+        }
+
+        // then
+        assertThat( sketch.estimateDistinctValues() ).isBetween( 9L, 11L );
+    }
+
+    @Test
+    void shouldHashCompositeValuesAsTuples()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+
+        // when
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( new Value[]{intValue( i ), stringValue( "a" )} );
+            sketch.add( new Value[]{stringValue( "a" ), intValue( i )} );
+        }
+
+        // then
+        assertThat( sketch.estimateDistinctValues() ).isBetween( 190L, 210L );
+    }
+
+    @Test
+    void shouldReportUniqueIndexSampleFromIndexSize()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( values( i ) );
+        }
+        sketch.remove( values( 0 ) );
+
+        // when
+        IndexSample sample = sketch.sample( true );
+
+        // then
+        assertEquals( new IndexSample( 99, 99, 99 ), sample );
+    }
+
+    @Test
+    void shouldNotBeUsableBeforeBuilt()
+    {
+        // given
+        DistinctValuesSketch sketch = new DistinctValuesSketch();
+
+        // when
+        sketch.add( values( 1 ) );
+
+        // then
+        assertFalse( sketch.isUsable() );
+    }
+
+    @Test
+    void shouldBecomeStaleAfterManyRemovals()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( values( i ) );
+        }
+        assertTrue( sketch.isUsable() );
+
+        // when
+        for ( int i = 0; i < 50; i++ )
+        {
+            sketch.remove( values( i ) );
+        }
+
+        // then
+        assertFalse( sketch.isUsable() );
+    }
+
+    @Test
+    void shouldHaveStaleHistogramAfterManyUpdates()
+    {
+        // given
+        DistinctValuesSketch built = new DistinctValuesSketch();
+        for ( int i = 0; i < 100; i++ )
+        {
+            built.addFromScan( values( i ), true );
+        }
+        built.setHistogram( IndexValueHistogram.builder().add( intValue( 1 ), 100 ).build() );
+        DistinctValuesSketch sketch = new DistinctValuesSketch();
+        sketch.replaceWith( built );
+        assertTrue( sketch.hasFreshHistogram() );
+        assertThat( sketch.sample( false ).histogram() ).isNotNull();
+
+        // when
+        for ( int i = 0; i < 30; i++ )
+        {
+            sketch.add( values( 1_000 + i ) );
+        }
+
+        // then
+        assertTrue( sketch.isUsable() );
+        assertFalse( sketch.hasFreshHistogram() );
+    }
+
+    @Test
+    void shouldRoundTripThroughHeader()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            sketch.add( values( i ) );
+        }
+        byte[] header = new byte[DistinctValuesSketch.HEADER_SIZE];
+        PageCursor cursor = ByteArrayPageCursor.wrap( header );
+
+        // when
+        sketch.write( cursor );
+        DistinctValuesSketch read = new DistinctValuesSketch();
+        read.read( ByteBuffer.wrap( header ) );
+
+        // then
+        assertTrue( read.isUsable() );
+        assertFalse( read.hasFreshHistogram() );
+        assertEquals( sketch.sample( false ), read.sample( false ) );
+    }
+
+    @Test
+    void shouldReadAsNotBuiltFromHeaderWithoutSketch()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+        sketch.add( values( 1 ) );
+
+        // when
+        sketch.read( ByteBuffer.wrap( new byte[0] ) );
+
+        // then
+        assertFalse( sketch.isUsable() );
+        assertEquals( 0, sketch.indexSize() );
+    }
+
+    @Test
+    void shouldNotWriteSketchIfNotEnoughSpaceInHeader()
+    {
+        // given
+        DistinctValuesSketch sketch = builtSketch();
+        PageCursor cursor = ByteArrayPageCursor.wrap( DistinctValuesSketch.HEADER_SIZE - 1 );
+
+        // when
+        sketch.write( cursor );
+
+        // then
+        assertEquals( 0, cursor.getOffset() );
+    }
+
+    private static DistinctValuesSketch builtSketch()
+    {
+        DistinctValuesSketch sketch = new DistinctValuesSketch();
+        sketch.replaceWith( new DistinctValuesSketch() );
+        return sketch;
+    }
+
+    private static Value[] values( int value )
+    {
+        return new Value[]{intValue( value )};
+    }
+}
@@ -31,6 +31,7 @@ import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.NumberValue;
 import org.neo4j.values.storable.RandomValues;
@@ -39,6 +40,7 @@ import org.neo4j.values.storable.ValueType;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
@@ -47,6 +49,7 @@ import static org.neo4j.kernel.impl.index.schema.ValueCreatorUtil.FRACTION_DUPLI
 import static org.neo4j.kernel.impl.index.schema.ValueCreatorUtil.countUniqueValues;
 import static org.neo4j.values.storable.RandomValues.typesOfGroup;
 import static org.neo4j.values.storable.ValueGroup.NUMBER;
+import static org.neo4j.values.storable.Values.intValue;
 
 public class FullScanNonUniqueIndexSamplerTest extends NativeIndexTestUtil<GenericKey,NativeIndexValue>
 {
@@ -73,6 +76,34 @@ public class FullScanNonUniqueIndexSamplerTest extends NativeIndexTestUtil<Gener
         assertEquals( values.length, sample.indexSize() );
     }
 
+    @Test
+    void shouldBuildHistogramOfSkewedValues() throws Exception
+    {
+        // GIVEN 80 entries with the same value and 20 unique ones
+        Value[] values = new Value[100];
+        for ( int i = 0; i < values.length; i++ )
+        {
+            values[i] = intValue( i < 80 ? 7 : 100 + i );
+        }
+        buildTree( values );
+
+        // WHEN
+        IndexSample sample;
+        DistinctValuesSketch sketch = new DistinctValuesSketch();
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            sample = new FullScanNonUniqueIndexSampler<>( gbpTree, layout, sketch ).sample( NULL );
+        }
+
+        // THEN
+        IndexValueHistogram histogram = sample.histogram();
+        assertEquals( 100, histogram.totalCount() );
+        assertEquals( 0.8, histogram.equalityFraction( intValue( 7 ) ), 1e-9 );
+        assertEquals( 0.01, histogram.equalityFraction( intValue( 190 ) ), 1e-9 );
+        assertEquals( 0.2, histogram.rangeFraction( intValue( 100 ), true, null, false ), 1e-9 );
+        assertTrue( sketch.hasFreshHistogram() );
+    }
+
     @Test
     void tracePageCacheAccessOnSampling() throws IOException
     {
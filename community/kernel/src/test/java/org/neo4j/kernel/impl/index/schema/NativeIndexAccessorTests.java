@@ -57,6 +57,7 @@ import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexSampler;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
 import org.neo4j.test.rule.PageCacheConfig;
@@ -322,6 +323,36 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
         }
     }
 
+    @Test
+    void shouldReturnAllEntriesForExistsPredicateInPartitions() throws Exception
+    {
+        // given
+        IndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        processAll( updates );
+
+        // when
+        List<Long> result = new ArrayList<>();
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            PartitionedValueSeek seek = reader.valueSeek( 4, NULL_CONTEXT, unconstrained(), IndexQuery.exists( 0 ) );
+            for ( int i = 0; i < seek.getNumberOfPartitions(); i++ )
+            {
+                try ( NodeValueIterator partition = new NodeValueIterator() )
+                {
+                    assertTrue( seek.reservePartition( partition ) );
+                    while ( partition.hasNext() )
+                    {
+                        result.add( partition.next() );
+                    }
+                }
+            }
+            assertFalse( seek.reservePartition( new NodeValueIterator() ) );
+        }
+
+        // then
+        assertEntityIdHits( extractEntityIds( updates, alwaysTrue() ), result );
+    }
+
     @Test
     void shouldReturnMatchingEntriesForExactPredicate() throws Exception
     {
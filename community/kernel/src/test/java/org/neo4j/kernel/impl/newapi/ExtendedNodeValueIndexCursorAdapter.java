@@ -97,6 +97,11 @@ public class ExtendedNodeValueIndexCursorAdapter extends DefaultCloseListenable
     {
     }
 
+    @Override
+    public void skipAddedInTransactionState()
+    {
+    }
+
     @Override
     public void initialize( IndexDescriptor descriptor, IndexProgressor progressor, IndexQuery[] query, IndexQueryConstraints constraints,
             boolean indexIncludesTransactionState )
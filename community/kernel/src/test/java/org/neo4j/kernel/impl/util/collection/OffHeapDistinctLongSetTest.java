@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapDistinctLongSetTest
+{
+    private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
+    private final MemoryTracker memoryTracker = new LocalMemoryTracker();
+
+    private final OffHeapDistinctLongSet distinctSet = OffHeapDistinctLongSet.createOffHeapDistinctLongSet( blockAllocator, memoryTracker );
+
+    @AfterEach
+    void tearDown()
+    {
+        distinctSet.close();
+        blockAllocator.release();
+        assertEquals( 0, memoryTracker.estimatedHeapMemory(), "Leaking heap memory" );
+        assertEquals( 0, memoryTracker.usedNativeMemory(), "Leaking native memory" );
+    }
+
+    @Test
+    void shouldOnlyAddElementsOnce()
+    {
+        assertTrue( distinctSet.add( 0L ) );
+        assertFalse( distinctSet.add( 0L ) );
+        assertTrue( distinctSet.add( 1L ) );
+        assertTrue( distinctSet.add( 42L ) );
+        assertFalse( distinctSet.add( 42L ) );
+        assertTrue( memoryTracker.usedNativeMemory() > 0 );
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.storable.LongValue;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapLongProbeTableTest
+{
+    private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
+    private final MemoryTracker memoryTracker = new LocalMemoryTracker();
+
+    private final OffHeapLongProbeTable<LongValue> table = OffHeapLongProbeTable.createOffHeapLongProbeTable( blockAllocator, memoryTracker );
+
+    @AfterEach
+    void tearDown()
+    {
+        table.close();
+        blockAllocator.release();
+        assertEquals( 0, memoryTracker.estimatedHeapMemory(), "Leaking heap memory" );
+        assertEquals( 0, memoryTracker.usedNativeMemory(), "Leaking native memory" );
+    }
+
+    @Test
+    void shouldReturnValuesOfKeyInInsertionOrder()
+    {
+        // Sentinel keys of the off-heap hash table as well
+        table.put( 0, Values.longValue( 1L ) );
+        table.put( 1, Values.longValue( 2L ) );
+        table.put( 0, Values.longValue( 3L ) );
+        table.put( 2, Values.longValue( 4L ) );
+        table.put( 0, Values.longValue( 5L ) );
+
+        assertEquals( List.of( 1L, 3L, 5L ), values( table.get( 0 ) ) );
+        assertEquals( List.of( 2L ), values( table.get( 1 ) ) );
+        assertEquals( List.of( 4L ), values( table.get( 2 ) ) );
+        assertFalse( table.get( 3 ).hasNext() );
+    }
+
+    @Test
+    void shouldGrowPastInitialCapacity()
+    {
+        for ( long i = 0; i < 10_000; i++ )
+        {
+            table.put( i % 100, Values.longValue( i ) );
+        }
+
+        List<Long> values = values( table.get( 42 ) );
+        assertEquals( 100, values.size() );
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            assertEquals( 42L + 100 * i, values.get( i ) );
+        }
+    }
+
+    @Test
+    void shouldTrackNativeMemoryUntilClosed()
+    {
+        assertTrue( table.isEmpty() );
+        table.put( 2, Values.longValue( 1L ) );
+
+        assertFalse( table.isEmpty() );
+        assertTrue( memoryTracker.usedNativeMemory() > 0 );
+
+        table.close();
+        assertEquals( 0, memoryTracker.usedNativeMemory() );
+        assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+    }
+
+    private static List<Long> values( Iterator<LongValue> iterator )
+    {
+        List<Long> values = new ArrayList<>();
+        iterator.forEachRemaining( value -> values.add( value.longValue() ) );
+        return values;
+    }
+}
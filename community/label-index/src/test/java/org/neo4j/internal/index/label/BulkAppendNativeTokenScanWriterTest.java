@@ -189,6 +189,12 @@ class BulkAppendNativeTokenScanWriterTest
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public long removeRange( TokenScanKey fromInclusive, TokenScanKey toExclusive )
+        {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public void close()
         {
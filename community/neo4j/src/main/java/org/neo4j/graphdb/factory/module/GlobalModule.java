@@ -213,7 +213,7 @@ public class GlobalModule
                 logService.getInternalLog( Tracers.class ), globalMonitors, jobScheduler, globalClock ) );
         globalDependencies.satisfyDependency( tracers.getPageCacheTracer() );
 
-        collectionsFactorySupplier = createCollectionsFactorySupplier( globalConfig, globalLife );
+        collectionsFactorySupplier = createCollectionsFactorySupplier( globalConfig, globalLife, globalDependencies );
 
         pageCache = tryResolveOrCreate( PageCache.class,
                 () -> createPageCache( fileSystem, globalConfig, logService, tracers, jobScheduler, globalClock, memoryPools ) );
@@ -379,7 +379,7 @@ public class GlobalModule
         return pageCache;
     }
 
-    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life )
+    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life, Dependencies dependencies )
     {
         final TransactionStateMemoryAllocation allocation = config.get( tx_state_memory_allocation );
         switch ( allocation )
@@ -401,6 +401,8 @@ public class GlobalModule
                 sharedBlockAllocator = allocator;
             }
             life.add( onShutdown( sharedBlockAllocator::release ) );
+            // Also used by the hash tables of Cypher queries
+            dependencies.satisfyDependency( sharedBlockAllocator );
             return () -> new OffHeapCollectionsFactory( sharedBlockAllocator );
         default:
             throw new IllegalArgumentException( "Unknown transaction state memory allocation value: " + allocation );
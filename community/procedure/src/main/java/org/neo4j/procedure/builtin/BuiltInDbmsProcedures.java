@@ -48,6 +48,7 @@ import org.neo4j.fabric.transaction.FabricTransaction;
 import org.neo4j.fabric.transaction.TransactionManager;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.security.AuthorizationViolationException;
+import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature;
@@ -71,6 +72,7 @@ import org.neo4j.kernel.impl.api.KernelTransactions;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.query.FunctionInformation;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
+import org.neo4j.kernel.impl.util.ValueUtils;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.Admin;
@@ -80,6 +82,7 @@ import org.neo4j.procedure.Internal;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 import org.neo4j.storageengine.api.StoreIdProvider;
+import org.neo4j.values.virtual.MapValue;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
@@ -274,6 +277,36 @@ public class BuiltInDbmsProcedures
         return Stream.of( new StringResult( result ) );
     }
 
+    @Admin
+    @Description( "Compiles queries into the query caches without executing them, so that their first executions do not have to plan them. " +
+                  "Every query is given as a map with the query text under `query` and optionally, under `parameters`, " +
+                  "parameters of the types it will be executed with." )
+    @Procedure( name = "db.prewarmQueryCaches", mode = DBMS )
+    public Stream<StringResult> prewarmQueryCaches( @Name( "queries" ) List<Map<String,Object>> queries ) throws ProcedureException
+    {
+        List<Pair<String,MapValue>> queriesWithParameters = new ArrayList<>( queries.size() );
+        for ( Map<String,Object> query : queries )
+        {
+            Object queryText = query.get( "query" );
+            Object parameters = query.getOrDefault( "parameters", Collections.emptyMap() );
+            if ( !(queryText instanceof String) || !(parameters instanceof Map) )
+            {
+                throw new ProcedureException( ProcedureCallFailed,
+                        "Expected every query to be a map with a string `query` and an optional map of `parameters`, but got: %s", query );
+            }
+            @SuppressWarnings( "unchecked" )
+            MapValue parameterValues = ValueUtils.asMapValue( (Map<String,Object>) parameters );
+            queriesWithParameters.add( Pair.of( (String) queryText, parameterValues ) );
+        }
+
+        QueryExecutionEngine queryExecutionEngine = graph.getDependencyResolver().resolveDependency( QueryExecutionEngine.class );
+        long numberOfPrewarmedQueries = queryExecutionEngine.prewarmQueryCaches( queriesWithParameters );
+
+        String result = "Query caches prewarmed with " + numberOfPrewarmedQueries + " of " + queries.size() + " queries.";
+        log.info( "Called db.prewarmQueryCaches(): " + result );
+        return Stream.of( new StringResult( result ) );
+    }
+
     @Admin
     @SystemProcedure
     @Description( "Report the current status of the system database sub-graph schema." )
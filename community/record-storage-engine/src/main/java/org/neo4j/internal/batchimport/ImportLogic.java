@@ -51,11 +51,13 @@ import org.neo4j.internal.batchimport.staging.ExecutionSupervisors;
 import org.neo4j.internal.batchimport.staging.Stage;
 import org.neo4j.internal.batchimport.store.BatchingNeoStores;
 import org.neo4j.internal.counts.CountsBuilder;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.CountsComputer;
 import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
@@ -528,6 +530,13 @@ public class ImportLogic implements Closeable
                             progressMonitor.startSection( "Relationships" ), neoStore.getRelationshipTypeScanStore(), pageCacheTracer, memoryTracker ) );
                 }
 
+                @Override
+                public void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+                {
+                    // Groups have been defragmented at this point so the group ids written here are the final ones
+                    CountsComputer.computeGroupDegrees( neoStore.getRelationshipGroupStore(), neoStore.getRelationshipStore(), updater, cursorTracer );
+                }
+
                 @Override
                 public long lastCommittedTxId()
                 {
@@ -22,15 +22,17 @@ package org.neo4j.internal.counts;
 import java.util.concurrent.locks.Lock;
 
 import org.neo4j.counts.CountsAccessor;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
+import static org.neo4j.internal.counts.CountsKey.degreeKey;
 import static org.neo4j.internal.counts.CountsKey.nodeKey;
 import static org.neo4j.internal.counts.CountsKey.relationshipKey;
 
 /**
- * The implementation of {@link CountsAccessor.Updater} for the {@link GBPTreeCountsStore}.
+ * The implementation of {@link CountsAccessor.Updater} and {@link RelationshipGroupDegreesStore.Updater} for the {@link GBPTreeCountsStore}.
  * Writing happens inside the supplied {@link CountWriter}.
  */
-class CountUpdater implements CountsAccessor.Updater
+class CountUpdater implements GBPTreeCountsStore.Updater
 {
     private final CountWriter writer;
     private final Lock lock;
@@ -53,6 +55,12 @@ class CountUpdater implements CountsAccessor.Updater
         writer.write( relationshipKey( startLabelId, typeId, endLabelId ), delta );
     }
 
+    @Override
+    public void increment( long groupId, RelationshipDirection direction, long delta )
+    {
+        writer.write( degreeKey( groupId, direction ), delta );
+    }
+
     @Override
     public void close()
     {
@@ -31,6 +31,14 @@ public interface CountsBuilder
 {
     void initialize( CountsAccessor.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker );
 
+    /**
+     * Provides the degrees of all relationship groups, called right after {@link #initialize(CountsAccessor.Updater, PageCursorTracer, MemoryTracker)}.
+     * Builders of stores that can't contain dense nodes need not implement this.
+     */
+    default void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+    {
+    }
+
     long lastCommittedTxId();
 
     CountsBuilder EMPTY = new CountsBuilder()
@@ -32,10 +32,12 @@ class CountsHeader implements Header.Reader, Consumer<PageCursor>
 {
     private boolean wasRead;
     private long highestGapFreeTxId;
+    private boolean degreesComplete;
 
-    CountsHeader( long highestGapFreeTxId )
+    CountsHeader( long highestGapFreeTxId, boolean degreesComplete )
     {
         this.highestGapFreeTxId = highestGapFreeTxId;
+        this.degreesComplete = degreesComplete;
     }
 
     @Override
@@ -43,6 +45,7 @@ class CountsHeader implements Header.Reader, Consumer<PageCursor>
     {
         wasRead = true;
         highestGapFreeTxId = headerBytes.getLong();
+        degreesComplete = headerBytes.get() != 0;
     }
 
     boolean wasRead()
@@ -59,9 +62,19 @@ class CountsHeader implements Header.Reader, Consumer<PageCursor>
         return highestGapFreeTxId;
     }
 
+    /**
+     * @return whether or not the relationship group degrees in the tree were complete at the time of writing this header.
+     * Degrees are incomplete if transactions changing them have been written in a log format that doesn't carry degree commands.
+     */
+    boolean degreesComplete()
+    {
+        return degreesComplete;
+    }
+
     @Override
     public void accept( PageCursor cursor )
     {
         cursor.putLong( highestGapFreeTxId );
+        cursor.putByte( (byte) (degreesComplete ? 1 : 0) );
     }
 }
@@ -23,6 +23,7 @@ import java.util.Objects;
 
 import org.neo4j.counts.CountsVisitor;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 import static java.lang.String.format;
 
@@ -62,11 +63,22 @@ public class CountsKey
      */
     private static final byte TYPE_RELATIONSHIP = 2;
 
+    /**
+     * Key data layout for this type:
+     * <pre>
+     * first:  8B relationship group id
+     * second: 4B direction ordinal
+     * </pre>
+     */
+    private static final byte TYPE_DEGREE = 3;
+
     // Commonly used keys
     static final CountsKey MIN_COUNT = new CountsKey( TYPE_NODE, Long.MIN_VALUE, Integer.MIN_VALUE );
     static final CountsKey MAX_COUNT = new CountsKey( TYPE_RELATIONSHIP, Long.MAX_VALUE, Integer.MAX_VALUE );
     static final CountsKey MIN_STRAY_TX_ID = strayTxId( Long.MIN_VALUE );
     static final CountsKey MAX_STRAY_TX_ID = strayTxId( Long.MAX_VALUE );
+    static final CountsKey MIN_DEGREE = new CountsKey( TYPE_DEGREE, Long.MIN_VALUE, Integer.MIN_VALUE );
+    static final CountsKey MAX_DEGREE = new CountsKey( TYPE_DEGREE, Long.MAX_VALUE, Integer.MAX_VALUE );
 
     /**
      * Type of key, as defined by "TYPE_" constants in this class.
@@ -122,11 +134,27 @@ public class CountsKey
         return new CountsKey( TYPE_RELATIONSHIP, (startLabelId << Integer.SIZE) | (typeId & 0xFFFFFFFFL), (int) endLabelId );
     }
 
+    /**
+     * Public utility method for instantiating a {@link CountsKey} for the degree of a relationship group in one direction.
+     * @param groupId id of the relationship group.
+     * @param direction direction of the relationship chain in that group.
+     * @return a {@link CountsKey for the relationship group degree. The returned key can be put into {@link Map maps} and similar.
+     */
+    public static CountsKey degreeKey( long groupId, RelationshipDirection direction )
+    {
+        return new CountsKey( TYPE_DEGREE, groupId, direction.ordinal() );
+    }
+
     static CountsKey strayTxId( long txId )
     {
         return new CountsKey( TYPE_STRAY_TX_ID, txId, 0 );
     }
 
+    boolean isDegree()
+    {
+        return type == TYPE_DEGREE;
+    }
+
     // Implements hashCode/equals so that these instances can be keys in a map
     @Override
     public int hashCode()
@@ -155,6 +183,9 @@ public class CountsKey
         case TYPE_RELATIONSHIP:
             visitor.visitRelationshipCount( extractStartLabelId(), (int) first, second, count );
             break;
+        case TYPE_DEGREE:
+            // Degrees are not counts that a CountsVisitor knows about, they are only kept in this store for fast degree lookups
+            break;
         default:
             throw new IllegalArgumentException( "Unknown key type " + type );
         }
@@ -174,6 +205,8 @@ public class CountsKey
             return format( "Node[label:%d]", first );
         case TYPE_RELATIONSHIP:
             return format( "Relationship[startLabel:%d, type:%d, endLabel:%d]", extractStartLabelId(), (int) first, second );
+        case TYPE_DEGREE:
+            return format( "Degree[group:%d, direction:%s]", first, RelationshipDirection.values()[second] );
         case TYPE_STRAY_TX_ID:
             return format( "Stray tx id:%d", first );
         default:
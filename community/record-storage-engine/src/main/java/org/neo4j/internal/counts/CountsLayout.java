@@ -26,7 +26,7 @@ public class CountsLayout extends Layout.Adapter<CountsKey,CountsValue>
 {
     public CountsLayout()
     {
-        super( true, Layout.namedIdentifier( "CoLa", 987 ), 0, 1 );
+        super( true, Layout.namedIdentifier( "CoLa", 987 ), 0, 2 );
     }
 
     @Override
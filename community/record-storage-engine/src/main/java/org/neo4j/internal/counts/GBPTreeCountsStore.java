@@ -56,6 +56,7 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.util.Preconditions;
 import org.neo4j.util.concurrent.ArrayQueueOutOfOrderSequence;
 import org.neo4j.util.concurrent.OutOfOrderSequence;
@@ -64,6 +65,7 @@ import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.internal.counts.CountsKey.MAX_STRAY_TX_ID;
 import static org.neo4j.internal.counts.CountsKey.MIN_STRAY_TX_ID;
+import static org.neo4j.internal.counts.CountsKey.degreeKey;
 import static org.neo4j.internal.counts.CountsKey.nodeKey;
 import static org.neo4j.internal.counts.CountsKey.relationshipKey;
 import static org.neo4j.internal.counts.CountsKey.strayTxId;
@@ -79,7 +81,7 @@ import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
  * Checkpoint will acquire a write lock, wait for currently active appliers to close while at the same time blocking new appliers to start,
  * but doesn't wait for appliers that haven't even started yet, i.e. it doesn't require a gap-free transaction sequence to be completed.
  */
-public class GBPTreeCountsStore implements CountsStore
+public class GBPTreeCountsStore implements CountsStore, RelationshipGroupDegreesStore
 {
     public static final Monitor NO_MONITOR = txId -> {};
     private static final long NEEDS_REBUILDING_HIGH_ID = 0;
@@ -90,11 +92,13 @@ public class GBPTreeCountsStore implements CountsStore
     private final ReadWriteLock lock = new ReentrantReadWriteLock( true );
     private final CountsLayout layout = new CountsLayout();
     private final CountsBuilder initialCountsBuilder;
+    private final CountsBuilder degreesBuilder;
     private final boolean readOnly;
     private final Monitor monitor;
     private volatile ConcurrentHashMap<CountsKey,AtomicLong> changes = new ConcurrentHashMap<>();
     private final TxIdInformation txIdInformation;
     private volatile boolean started;
+    private volatile boolean degreesComplete;
 
     public GBPTreeCountsStore( PageCache pageCache, Path file, FileSystemAbstraction fileSystem, RecoveryCleanupWorkCollector recoveryCollector,
             CountsBuilder initialCountsBuilder, boolean readOnly, PageCacheTracer pageCacheTracer, Monitor monitor ) throws IOException
@@ -103,7 +107,7 @@ public class GBPTreeCountsStore implements CountsStore
         this.monitor = monitor;
 
         // First just read the header so that we can avoid creating it if this store is read-only
-        CountsHeader header = new CountsHeader( NEEDS_REBUILDING_HIGH_ID );
+        CountsHeader header = new CountsHeader( NEEDS_REBUILDING_HIGH_ID, true );
         GBPTree<CountsKey,CountsValue> instantiatedTree;
         try
         {
@@ -113,7 +117,7 @@ public class GBPTreeCountsStore implements CountsStore
         {
             // Corrupt, delete and rebuild
             fileSystem.deleteFileOrThrow( file );
-            header = new CountsHeader( NEEDS_REBUILDING_HIGH_ID );
+            header = new CountsHeader( NEEDS_REBUILDING_HIGH_ID, true );
             instantiatedTree = instantiateTree( pageCache, file, recoveryCollector, readOnly, header, pageCacheTracer );
         }
         this.tree = instantiatedTree;
@@ -127,6 +131,9 @@ public class GBPTreeCountsStore implements CountsStore
             // Only care about initial counts rebuilding if the tree was created right now when opening this tree
             // The actual rebuilding will happen in start()
             this.initialCountsBuilder = header.wasRead() && header.highestGapFreeTxId() != NEEDS_REBUILDING_HIGH_ID ? null : initialCountsBuilder;
+            // Degrees can be incomplete even if the counts are not, in which case only the degrees are rebuilt in start()
+            this.degreesBuilder = initialCountsBuilder;
+            this.degreesComplete = header.degreesComplete();
             successful = true;
         }
         finally
@@ -167,14 +174,57 @@ public class GBPTreeCountsStore implements CountsStore
             }
             Lock lock = lock( this.lock.writeLock() );
             long txId = initialCountsBuilder.lastCommittedTxId();
-            try ( CountsAccessor.Updater updater = new CountUpdater( new TreeWriter( tree.writer( cursorTracer ), idSequence, txId ), lock ) )
+            try ( Updater updater = new CountUpdater( new TreeWriter( tree.writer( cursorTracer ), idSequence, txId ), lock ) )
             {
                 initialCountsBuilder.initialize( updater, cursorTracer, memoryTracker );
+                initialCountsBuilder.initializeDegrees( updater, cursorTracer, memoryTracker );
             }
+            degreesComplete = true;
+        }
+        else if ( !degreesComplete && !readOnly )
+        {
+            rebuildDegrees( cursorTracer, memoryTracker );
         }
         started = true;
     }
 
+    /**
+     * Rebuilds all relationship group degrees from scratch, after recovery has been performed. This is needed when transactions
+     * changing degrees have been written in a log format that doesn't carry degree commands. The header keeps saying that the degrees
+     * are incomplete until the next checkpoint, so a crash before that will rebuild them again on the next start.
+     */
+    private void rebuildDegrees( PageCursorTracer cursorTracer, MemoryTracker memoryTracker ) throws IOException
+    {
+        Lock lock = lock( this.lock.writeLock() );
+        try
+        {
+            changes.keySet().removeIf( CountsKey::isDegree );
+            try ( Writer<CountsKey,CountsValue> writer = tree.writer( cursorTracer ) )
+            {
+                writer.removeRange( CountsKey.MIN_DEGREE, CountsKey.MAX_DEGREE );
+                CountsValue value = new CountsValue();
+                degreesBuilder.initializeDegrees( new RelationshipGroupDegreesStore.Updater()
+                {
+                    @Override
+                    public void increment( long groupId, RelationshipDirection direction, long delta )
+                    {
+                        merge( writer, degreeKey( groupId, direction ), value.initialize( delta ) );
+                    }
+
+                    @Override
+                    public void close()
+                    {   // the writer is closed below
+                    }
+                }, cursorTracer, memoryTracker );
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        degreesComplete = true;
+    }
+
     @Override
     public void close()
     {
@@ -184,7 +234,7 @@ public class GBPTreeCountsStore implements CountsStore
     // === Writes ===
 
     @Override
-    public CountsAccessor.Updater apply( long txId, PageCursorTracer cursorTracer )
+    public Updater apply( long txId, PageCursorTracer cursorTracer )
     {
         Preconditions.checkState( !readOnly, "This counts store is read-only" );
         Lock lock = lock( this.lock.readLock() );
@@ -214,7 +264,7 @@ public class GBPTreeCountsStore implements CountsStore
         return new CountUpdater( new MapWriter( key -> readCountFromTree( key, cursorTracer ), changes, idSequence, txId ), lock );
     }
 
-    public void checkpoint( IOLimiter ioLimiter, PageCursorTracer cursorTracer ) throws IOException
+    public synchronized void checkpoint( IOLimiter ioLimiter, PageCursorTracer cursorTracer ) throws IOException
     {
         if ( readOnly )
         {
@@ -250,7 +300,35 @@ public class GBPTreeCountsStore implements CountsStore
         updateTxIdInformationInTree( txIdSnapshot, cursorTracer );
 
         // Good, check-point all these changes
-        tree.checkpoint( ioLimiter, new CountsHeader( txIdSnapshot.highestGapFree()[0] ), cursorTracer );
+        tree.checkpoint( ioLimiter, new CountsHeader( txIdSnapshot.highestGapFree()[0], degreesComplete ), cursorTracer );
+    }
+
+    /**
+     * Marks the relationship group degrees as incomplete, to be called before a transaction that changes degrees without carrying
+     * degree commands is committed. Lookups of degrees are not to be relied upon from this point, see {@link #degreesComplete()},
+     * and the degrees are rebuilt on the next {@link #start(PageCursorTracer, MemoryTracker) start}. The incomplete state is written
+     * to the header by the next {@link #checkpoint(IOLimiter, PageCursorTracer) checkpoint}. If a crash happens before that,
+     * recovery catches the transaction again, see {@link #relationshipsChangedWithoutDegreeCommands(long)}.
+     */
+    public void markDegreesIncomplete()
+    {
+        degreesComplete = false;
+    }
+
+    /**
+     * Called when applying a transaction which changes relationships without carrying any degree commands. If the transaction
+     * is recovered and wasn't applied to this store before the crash, it may have been written in a log format without degree commands,
+     * and the checkpoint that would have recorded the degrees as incomplete may never have happened. The degrees are then marked
+     * as incomplete so that they get rebuilt on {@link #start(PageCursorTracer, MemoryTracker) start}.
+     *
+     * @param txId id of the transaction being applied.
+     */
+    public void relationshipsChangedWithoutDegreeCommands( long txId )
+    {
+        if ( !started && !txIdInformation.txIdIsAlreadyApplied( txId ) )
+        {
+            degreesComplete = false;
+        }
     }
 
     private void writeCountsChanges( ConcurrentHashMap<CountsKey,AtomicLong> changes, PageCursorTracer cursorTracer ) throws IOException
@@ -309,6 +387,18 @@ public class GBPTreeCountsStore implements CountsStore
         return read( relationshipKey( startLabelId, typeId, endLabelId ), cursorTracer );
     }
 
+    @Override
+    public long degree( long groupId, RelationshipDirection direction, PageCursorTracer cursorTracer )
+    {
+        return read( degreeKey( groupId, direction ), cursorTracer );
+    }
+
+    @Override
+    public boolean degreesComplete()
+    {
+        return degreesComplete;
+    }
+
     @Override
     public void accept( CountsVisitor visitor, PageCursorTracer cursorTracer )
     {
@@ -417,6 +507,38 @@ public class GBPTreeCountsStore implements CountsStore
         void ignoredTransaction( long txId );
     }
 
+    /**
+     * Updates both counts and relationship group degrees of a transaction, which are applied together.
+     */
+    public interface Updater extends CountsAccessor.Updater, RelationshipGroupDegreesStore.Updater
+    {
+        @Override
+        void close();
+    }
+
+    private static final Updater NO_OP_UPDATER = new Updater()
+    {
+        @Override
+        public void incrementNodeCount( long labelId, long delta )
+        {   // no-op
+        }
+
+        @Override
+        public void incrementRelationshipCount( long startLabelId, int typeId, long endLabelId, long delta )
+        {   // no-op
+        }
+
+        @Override
+        public void increment( long groupId, RelationshipDirection direction, long delta )
+        {   // no-op
+        }
+
+        @Override
+        public void close()
+        {   // no-op
+        }
+    };
+
     /**
      * Dumps the contents of a counts store.
      *
@@ -428,7 +550,7 @@ public class GBPTreeCountsStore implements CountsStore
     public static void dump( PageCache pageCache, Path file, PrintStream out, PageCursorTracer cursorTracer ) throws IOException
     {
         // First check if it even exists as we don't really want to create it as part of dumping it. readHeader will throw if not found
-        CountsHeader header = new CountsHeader( BASE_TX_ID );
+        CountsHeader header = new CountsHeader( BASE_TX_ID, true );
         GBPTree.readHeader( pageCache, file, header, cursorTracer );
 
         // Now open it and dump its contents
@@ -436,6 +558,7 @@ public class GBPTreeCountsStore implements CountsStore
                 RecoveryCleanupWorkCollector.ignore(), true, NULL, immutable.empty(), "Counts store" ) )
         {
             out.printf( "Highest gap-free txId: %d%n", header.highestGapFreeTxId() );
+            out.printf( "Degrees complete: %b%n", header.degreesComplete() );
             tree.visit( new GBPTreeVisitor.Adaptor<>()
             {
                 private CountsKey key;
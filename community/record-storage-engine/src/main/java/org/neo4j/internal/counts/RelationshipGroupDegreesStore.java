@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+/**
+ * Degrees of dense nodes, kept per relationship group and direction. Looking up a degree here doesn't require loading the first
+ * relationship record of the chain, which for dense nodes is typically scattered all over the relationship store.
+ */
+public interface RelationshipGroupDegreesStore
+{
+    /**
+     * @param groupId id of the relationship group.
+     * @param direction direction of the relationship chain in that group.
+     * @param cursorTracer underlying page cursor tracer.
+     * @return the number of relationships in the chain of the given group and direction.
+     */
+    long degree( long groupId, RelationshipDirection direction, PageCursorTracer cursorTracer );
+
+    /**
+     * @return whether or not {@link #degree(long, RelationshipDirection, PageCursorTracer)} can be relied upon. Degrees are incomplete
+     * after transactions have changed them without carrying degree commands, i.e. when written in an older log format, until they are rebuilt.
+     */
+    boolean degreesComplete();
+
+    /**
+     * Updater of degrees. Matches {@link RelationshipGroupDegreesStore} and has the writing equivalence of those methods.
+     */
+    interface Updater extends AutoCloseable
+    {
+        /**
+         * Increments (or decrements if delta is negative) the degree of the relationship chain of the given group and direction.
+         * @param groupId id of the relationship group.
+         * @param direction direction of the relationship chain in that group.
+         * @param delta delta (positive or negative) to apply for the chain.
+         */
+        void increment( long groupId, RelationshipDirection direction, long delta );
+
+        /**
+         * Closes this updater and ensures that degrees are applied as well as no more deltas can be applied after closed.
+         */
+        @Override
+        void close();
+    }
+
+    Updater NO_OP_UPDATER = new Updater()
+    {
+        @Override
+        public void increment( long groupId, RelationshipDirection direction, long delta )
+        {   // no-op
+        }
+
+        @Override
+        public void close()
+        {   // no-op
+        }
+    };
+}
@@ -46,6 +46,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.store.record.TokenRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.string.UTF8;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
@@ -219,6 +220,10 @@ public abstract class Command implements StorageCommand
 
     public static class NodeCommand extends BaseCommand<NodeRecord>
     {
+        static final byte NODE_DENSE = 0b0000_0001;
+        static final byte NODE_HAS_INLINED_PROPERTIES = 0b0000_0010;
+        static final byte NODE_HAS_RELATIONSHIP_TYPES = 0b0000_0100;
+        static final byte NODE_HAS_PROPERTY_KEYS = 0b0000_1000;
         static final long SHALLOW_SIZE = shallowSizeOfInstance( NodeCommand.class );
         static final long HEAP_SIZE = NodeCommand.SHALLOW_SIZE + 2 * NodeRecord.SHALLOW_SIZE;
 
@@ -252,13 +257,36 @@ public abstract class Command implements StorageCommand
             channel.put( flags );
             if ( record.inUse() )
             {
-                channel.put( record.isDense() ? (byte) 1 : (byte) 0 );
+                // Inlined properties, relationship types and property keys can only be read by the command reader of the 4.3 log format
+                // and onwards, which is why they are only written in transactions of that format, see TransactionRecordState
+                byte extra = bitFlags( bitFlag( record.isDense(), NODE_DENSE ),
+                                       bitFlag( record.hasInlinedProperties(), NODE_HAS_INLINED_PROPERTIES ),
+                                       bitFlag( record.hasKnownRelationshipTypes(), NODE_HAS_RELATIONSHIP_TYPES ),
+                                       bitFlag( record.hasKnownPropertyKeys(), NODE_HAS_PROPERTY_KEYS ) );
+                channel.put( extra );
                 channel.putLong( record.getNextRel() ).putLong( record.getNextProp() );
                 channel.putLong( record.getLabelField() );
                 if ( record.hasSecondaryUnitId() )
                 {
                     channel.putLong( record.getSecondaryUnitId() );
                 }
+                if ( record.hasInlinedProperties() )
+                {
+                    long[] inlinedPropertyBlocks = record.getInlinedPropertyBlocks();
+                    channel.put( (byte) inlinedPropertyBlocks.length );
+                    for ( long block : inlinedPropertyBlocks )
+                    {
+                        channel.putLong( block );
+                    }
+                }
+                if ( record.hasKnownRelationshipTypes() )
+                {
+                    channel.putLong( record.getRelationshipTypes() );
+                }
+                if ( record.hasKnownPropertyKeys() )
+                {
+                    channel.putLong( record.getPropertyKeys() );
+                }
             }
             // Always write dynamic label records because we want to know which ones have been deleted
             // especially if the node has been deleted.
@@ -1104,4 +1132,58 @@ public abstract class Command implements StorageCommand
                    .putLong( delta() );
         }
     }
+
+    public static class GroupDegreeCommand extends Command
+    {
+        static final long SHALLOW_SIZE = shallowSizeOfInstance( GroupDegreeCommand.class );
+
+        private final long groupId;
+        private final RelationshipDirection direction;
+        private final long delta;
+
+        public GroupDegreeCommand( long groupId, RelationshipDirection direction, long delta )
+        {
+            setup( groupId, Mode.UPDATE );
+            assert delta != 0 : "Tried to create a GroupDegreeCommand for something that didn't change any degree";
+            this.groupId = groupId;
+            this.direction = direction;
+            this.delta = delta;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format( "UpdateGroupDegree[(group:%d, %s) %s %d]", groupId, direction, delta < 0 ? "-" : "+", Math.abs( delta ) );
+        }
+
+        @Override
+        public boolean handle( CommandVisitor handler ) throws IOException
+        {
+            return handler.visitGroupDegreeCommand( this );
+        }
+
+        public long groupId()
+        {
+            return groupId;
+        }
+
+        public RelationshipDirection direction()
+        {
+            return direction;
+        }
+
+        public long delta()
+        {
+            return delta;
+        }
+
+        @Override
+        public void serialize( WritableChannel channel ) throws IOException
+        {
+            channel.put( NeoCommandType.UPDATE_GROUP_DEGREE_COMMAND );
+            channel.putLong( groupId() )
+                   .put( (byte) direction().ordinal() )
+                   .putLong( delta() );
+        }
+    }
 }
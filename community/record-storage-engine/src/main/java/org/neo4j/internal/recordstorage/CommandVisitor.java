@@ -21,6 +21,7 @@ package org.neo4j.internal.recordstorage;
 
 import java.io.IOException;
 
+import org.neo4j.internal.recordstorage.Command.GroupDegreeCommand;
 import org.neo4j.internal.recordstorage.Command.LabelTokenCommand;
 import org.neo4j.internal.recordstorage.Command.NodeCommand;
 import org.neo4j.internal.recordstorage.Command.NodeCountsCommand;
@@ -59,6 +60,8 @@ public interface CommandVisitor
 
     boolean visitRelationshipCountsCommand( RelationshipCountsCommand command ) throws IOException;
 
+    boolean visitGroupDegreeCommand( GroupDegreeCommand command ) throws IOException;
+
     /**
      * An empty implementation of a {@link CommandVisitor}. Allows you to implement only the methods you are
      * interested in. See also {@link TransactionApplier.Adapter} if need handle commands inside of a transaction, or
@@ -125,5 +128,11 @@ public interface CommandVisitor
         {
             return false;
         }
+
+        @Override
+        public boolean visitGroupDegreeCommand( GroupDegreeCommand command )
+        {
+            return false;
+        }
     }
 }
@@ -19,17 +19,23 @@
  */
 package org.neo4j.internal.recordstorage;
 
-import org.neo4j.counts.CountsAccessor;
+import org.neo4j.internal.counts.GBPTreeCountsStore;
 import org.neo4j.internal.recordstorage.Command.SchemaRuleCommand;
 
 class CountsStoreTransactionApplier extends TransactionApplier.Adapter
 {
-    private final CountsAccessor.Updater countsUpdater;
+    private final GBPTreeCountsStore countsStore;
+    private final long txId;
+    private final GBPTreeCountsStore.Updater countsUpdater;
     private boolean haveUpdates;
     private boolean countsUpdaterClosed;
+    private boolean relationshipChanges;
+    private boolean degreeChanges;
 
-    CountsStoreTransactionApplier( CountsAccessor.Updater countsUpdater )
+    CountsStoreTransactionApplier( GBPTreeCountsStore countsStore, long txId, GBPTreeCountsStore.Updater countsUpdater )
     {
+        this.countsStore = countsStore;
+        this.txId = txId;
         this.countsUpdater = countsUpdater;
     }
 
@@ -37,6 +43,11 @@ class CountsStoreTransactionApplier extends TransactionApplier.Adapter
     public void close()
     {
         closeCountsUpdaterIfOpen();
+        if ( relationshipChanges && !degreeChanges )
+        {
+            // Possibly a recovered transaction from a log format without degree commands, let the counts store decide
+            countsStore.relationshipsChangedWithoutDegreeCommands( txId );
+        }
     }
 
     private void closeCountsUpdaterIfOpen()
@@ -64,6 +75,29 @@ class CountsStoreTransactionApplier extends TransactionApplier.Adapter
         return false;
     }
 
+    @Override
+    public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+    {
+        relationshipChanges = true;
+        return false;
+    }
+
+    @Override
+    public boolean visitRelationshipGroupCommand( Command.RelationshipGroupCommand command )
+    {
+        relationshipChanges = true;
+        return false;
+    }
+
+    @Override
+    public boolean visitGroupDegreeCommand( Command.GroupDegreeCommand command )
+    {
+        haveUpdates = true;
+        degreeChanges = true;
+        countsUpdater.increment( command.groupId(), command.direction(), command.delta() );
+        return false;
+    }
+
     @Override
     public boolean visitSchemaRuleCommand( SchemaRuleCommand command )
     {
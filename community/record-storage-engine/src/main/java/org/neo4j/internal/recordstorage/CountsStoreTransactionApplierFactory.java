@@ -19,14 +19,14 @@
  */
 package org.neo4j.internal.recordstorage;
 
-import org.neo4j.counts.CountsStore;
+import org.neo4j.internal.counts.GBPTreeCountsStore;
 import org.neo4j.storageengine.api.CommandsToApply;
 
 class CountsStoreTransactionApplierFactory implements TransactionApplierFactory
 {
-    private final CountsStore countsStore;
+    private final GBPTreeCountsStore countsStore;
 
-    CountsStoreTransactionApplierFactory( CountsStore countsStore )
+    CountsStoreTransactionApplierFactory( GBPTreeCountsStore countsStore )
     {
         this.countsStore = countsStore;
     }
@@ -34,6 +34,7 @@ class CountsStoreTransactionApplierFactory implements TransactionApplierFactory
     @Override
     public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
     {
-        return new CountsStoreTransactionApplier( countsStore.apply( transaction.transactionId(), transaction.cursorTracer() ) );
+        long txId = transaction.transactionId();
+        return new CountsStoreTransactionApplier( countsStore, txId, countsStore.apply( txId, transaction.cursorTracer() ) );
     }
 }
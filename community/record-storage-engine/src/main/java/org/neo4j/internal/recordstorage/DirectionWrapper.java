@@ -20,10 +20,11 @@
 package org.neo4j.internal.recordstorage;
 
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 public enum DirectionWrapper
 {
-    OUTGOING()
+    OUTGOING( RelationshipDirection.OUTGOING )
     {
         @Override
         public long getNextRel( RelationshipGroupRecord group )
@@ -37,7 +38,7 @@ public enum DirectionWrapper
             group.setFirstOut( firstNextRel );
         }
     },
-    INCOMING()
+    INCOMING( RelationshipDirection.INCOMING )
     {
         @Override
         public long getNextRel( RelationshipGroupRecord group )
@@ -51,7 +52,7 @@ public enum DirectionWrapper
             group.setFirstIn( firstNextRel );
         }
     },
-    BOTH()
+    BOTH( RelationshipDirection.LOOP )
     {
         @Override
         public long getNextRel( RelationshipGroupRecord group )
@@ -66,6 +67,18 @@ public enum DirectionWrapper
         }
     };
 
+    private final RelationshipDirection direction;
+
+    DirectionWrapper( RelationshipDirection direction )
+    {
+        this.direction = direction;
+    }
+
+    public RelationshipDirection direction()
+    {
+        return direction;
+    }
+
     public abstract long getNextRel( RelationshipGroupRecord group );
 
     public abstract void setNextRel( RelationshipGroupRecord group, long firstNextRel );
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
+
+import java.util.Collection;
+
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.storageengine.api.StorageCommand;
+
+/**
+ * Collects changes to {@link RelationshipGroupDegreesStore relationship group degrees} of a transaction, with an additional capability
+ * of turning them into {@link StorageCommand commands} for storage.
+ */
+class GroupDegreesRecordState implements RelationshipGroupDegreesStore.Updater, RecordState
+{
+    private static final RelationshipDirection[] DIRECTIONS = RelationshipDirection.values();
+    private static final int DIRECTION_BITS = 2;
+    private static final long DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+
+    private final MutableLongLongMap degreeDeltas = new LongLongHashMap();
+
+    @Override
+    public void increment( long groupId, RelationshipDirection direction, long delta )
+    {
+        degreeDeltas.addToValue( (groupId << DIRECTION_BITS) | direction.ordinal(), delta );
+    }
+
+    boolean hasChanges()
+    {
+        return degreeDeltas.anySatisfy( delta -> delta != 0 );
+    }
+
+    @Override
+    public void close()
+    {   // Nothing to close, the changes are kept until extracted
+    }
+
+    @Override
+    public void extractCommands( Collection<StorageCommand> target, MemoryTracker memoryTracker )
+    {
+        memoryTracker.allocateHeap( degreeDeltas.size() * Command.GroupDegreeCommand.SHALLOW_SIZE );
+        degreeDeltas.forEachKeyValue( ( key, delta ) ->
+        {
+            if ( delta != 0 )
+            {
+                target.add( new Command.GroupDegreeCommand( key >>> DIRECTION_BITS, DIRECTIONS[(int) (key & DIRECTION_MASK)], delta ) );
+            }
+        } );
+    }
+}
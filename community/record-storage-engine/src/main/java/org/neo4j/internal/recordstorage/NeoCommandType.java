@@ -42,4 +42,5 @@ public interface NeoCommandType
     byte UPDATE_RELATIONSHIP_COUNTS_COMMAND = (byte) 16;
     byte UPDATE_NODE_COUNTS_COMMAND = (byte) 17;
     byte SCHEMA_RULE_COMMAND = (byte) 18;
+    byte UPDATE_GROUP_DEGREE_COMMAND = (byte) 19;
 }
@@ -21,6 +21,7 @@ package org.neo4j.internal.recordstorage;
 
 import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.diagnostics.NamedDiagnosticsProvider;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.util.FeatureToggles;
 
@@ -72,6 +73,30 @@ public abstract class NeoStoresDiagnostics extends NamedDiagnosticsProvider
         }
     }
 
+    public static class NeoStoreRelationshipChainLocality extends NeoStoresDiagnostics
+    {
+        private static final String CHAIN_LOCALITY_LOGGER_TAG = "chainLocalityLogger";
+        private static final int SAMPLED_NODES = 1_000;
+        private static final int MAX_RECORDS = 100_000;
+
+        private final PageCacheTracer pageCacheTracer;
+
+        NeoStoreRelationshipChainLocality( NeoStores neoStores, PageCacheTracer pageCacheTracer )
+        {
+            super( neoStores, "Relationship chain locality" );
+            this.pageCacheTracer = pageCacheTracer;
+        }
+
+        @Override
+        protected void dump( NeoStores neoStores, DiagnosticsLogger logger )
+        {
+            try ( var cursorTracer = pageCacheTracer.createPageCursorTracer( CHAIN_LOCALITY_LOGGER_TAG ) )
+            {
+                logger.log( RelationshipChainLocality.sample( neoStores, SAMPLED_NODES, MAX_RECORDS, cursorTracer ).toString() );
+            }
+        }
+    }
+
     private final NeoStores neoStores;
 
     NeoStoresDiagnostics( NeoStores neoStores, String message )
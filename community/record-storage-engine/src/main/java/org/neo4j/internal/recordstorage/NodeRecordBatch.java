@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.kernel.impl.store.RecordBatch;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+
+/**
+ * Keeps the fields of the in-use node records of a page in primitive arrays so that a scan can step through them
+ * without going back to the page cache for every record.
+ */
+class NodeRecordBatch implements RecordBatch<NodeRecord>
+{
+    private final long[] ids;
+    private final long[] nextProps;
+    private final long[] nextRels;
+    private final long[] labelFields;
+    private final boolean[] dense;
+    private final long[][] inlinedPropertyBlocks;
+    private final long[] relationshipTypes;
+    private final long[] propertyKeys;
+    private int size;
+    private int position;
+
+    NodeRecordBatch( int capacity )
+    {
+        this.ids = new long[capacity];
+        this.nextProps = new long[capacity];
+        this.nextRels = new long[capacity];
+        this.labelFields = new long[capacity];
+        this.dense = new boolean[capacity];
+        this.inlinedPropertyBlocks = new long[capacity][];
+        this.relationshipTypes = new long[capacity];
+        this.propertyKeys = new long[capacity];
+    }
+
+    @Override
+    public void clear()
+    {
+        size = 0;
+        position = 0;
+    }
+
+    @Override
+    public void add( NodeRecord record )
+    {
+        ids[size] = record.getId();
+        nextProps[size] = record.getNextProp();
+        nextRels[size] = record.getNextRel();
+        labelFields[size] = record.getLabelField();
+        dense[size] = record.isDense();
+        // The record is read into again for the next node of the batch, which may overwrite its blocks
+        long[] blocks = record.getInlinedPropertyBlocks();
+        inlinedPropertyBlocks[size] = blocks.length == 0 ? blocks : blocks.clone();
+        relationshipTypes[size] = record.getRelationshipTypes();
+        propertyKeys[size] = record.getPropertyKeys();
+        size++;
+    }
+
+    boolean hasNext()
+    {
+        return position < size;
+    }
+
+    /**
+     * Loads the next node of this batch into {@code target}.
+     */
+    void next( NodeRecord target )
+    {
+        int index = position++;
+        target.initialize( true, nextProps[index], dense[index], nextRels[index], labelFields[index] );
+        target.setInlinedPropertyBlocks( inlinedPropertyBlocks[index] );
+        target.setRelationshipTypes( relationshipTypes[index] );
+        target.setPropertyKeys( propertyKeys[index] );
+        target.setId( ids[index] );
+    }
+}
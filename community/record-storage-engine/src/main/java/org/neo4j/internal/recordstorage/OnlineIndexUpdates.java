@@ -166,7 +166,7 @@ public class OnlineIndexUpdates implements IndexUpdates
                 EntityUpdates.forEntity( nodeId, complete ).withTokens( nodeLabelsBefore ).withTokensAfter( nodeLabelsAfter );
 
         // Then look for property changes
-        converter.convertPropertyRecord( propertyCommandsForNode, nodePropertyUpdates );
+        converter.convertPropertyRecord( nodeChanges, propertyCommandsForNode, nodePropertyUpdates );
         return nodePropertyUpdates;
     }
 
@@ -73,7 +73,8 @@ public class PropertyCommandsExtractor extends TransactionApplier.Adapter
         return before != after ||
                 // Because we don't know here, there may have been changes to a dynamic label record
                 // even though it still points to the same one
-                fieldPointsToDynamicRecordOfLabels( before ) || fieldPointsToDynamicRecordOfLabels( after );
+                fieldPointsToDynamicRecordOfLabels( before ) || fieldPointsToDynamicRecordOfLabels( after ) ||
+                command.getBefore().hasInlinedProperties() || command.getAfter().hasInlinedProperties();
     }
 
     @Override
@@ -20,6 +20,7 @@
 package org.neo4j.internal.recordstorage;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.neo4j.internal.id.IdSequence;
@@ -29,6 +30,7 @@ import org.neo4j.kernel.impl.store.DynamicRecordAllocator;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -36,6 +38,8 @@ import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.storable.Value;
 
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+
 public class PropertyCreator
 {
     private final DynamicRecordAllocator stringRecordAllocator;
@@ -68,9 +72,41 @@ public class PropertyCreator
             RecordProxy<P, ?> primitiveRecordChange, int propertyKey, Value value,
             RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords )
     {
-        PropertyBlock block = encodePropertyValue( propertyKey, value );
+        primitiveSetPropertyBlock( primitiveRecordChange, encodePropertyValue( propertyKey, value ), propertyRecords );
+    }
+
+    /**
+     * Moves the {@link NodeRecord#getInlinedProperties() inlined properties} of a node into its property chain. This is done before changing
+     * any of its properties, so that the inlined properties of a node are only ever the ones it was created with. That keeps them correct
+     * without having to tell inlined properties and chain properties apart when updating them.
+     */
+    public void spillInlinedProperties( RecordProxy<NodeRecord, ?> node, RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords )
+    {
+        NodeRecord record = node.forReadingLinkage();
+        if ( !record.hasInlinedProperties() )
+        {
+            return;
+        }
+        List<PropertyBlock> inlinedProperties = record.getInlinedProperties();
+        node.forChangingData().setInlinedPropertyBlocks( EMPTY_LONG_ARRAY );
+        for ( PropertyBlock block : inlinedProperties )
+        {
+            // Inlined properties are numbers and booleans, which never have dynamic records, so their blocks can be moved as they are
+            primitiveSetPropertyBlock( node, block, propertyRecords );
+        }
+    }
+
+    private <P extends PrimitiveRecord> void primitiveSetPropertyBlock( RecordProxy<P, ?> primitiveRecordChange, PropertyBlock block,
+            RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords )
+    {
+        int propertyKey = block.getKeyIndexId();
         P primitive = primitiveRecordChange.forReadingLinkage();
         assert traverser.assertPropertyChain( primitive, propertyRecords );
+        if ( primitive instanceof NodeRecord && !((NodeRecord) primitive).mayHavePropertyKey( propertyKey ) )
+        {
+            // Keep the property keys of the node up to date, wherever in the chain the block ends up
+            ((NodeRecord) primitiveRecordChange.forChangingLinkage()).addPropertyKey( propertyKey );
+        }
 
         // Traverse the existing property chain. Tracking two things along the way:
         // - (a) Free space for this block (candidateHost)
@@ -22,6 +22,7 @@ package org.neo4j.internal.recordstorage;
 import org.neo4j.internal.recordstorage.RecordAccess.RecordProxy;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -150,6 +151,27 @@ public class PropertyDeleter
         {
             unlinkPropertyRecord( propRecord, propertyRecords, primitiveProxy );
         }
+        removePropertyKey( primitiveProxy, propertyKey );
+    }
+
+    /**
+     * Keeps the {@link NodeRecord#getPropertyKeys() property keys} of a node up to date after removing one of its properties.
+     */
+    private static <P extends PrimitiveRecord> void removePropertyKey( RecordProxy<P,Void> primitiveProxy, int propertyKey )
+    {
+        P primitive = primitiveProxy.forReadingLinkage();
+        if ( primitive instanceof NodeRecord && ((NodeRecord) primitive).hasKnownPropertyKeys() )
+        {
+            NodeRecord node = (NodeRecord) primitive;
+            // Keys sharing a bit can't be removed one by one, but all of them are gone along with the last property
+            long propertyKeys = Record.NO_NEXT_PROPERTY.is( node.getNextProp() ) && !node.hasInlinedProperties()
+                                ? NodeRecord.NO_PROPERTY_KEYS
+                                : NodeRecord.withoutPropertyKey( node.getPropertyKeys(), propertyKey );
+            if ( propertyKeys != node.getPropertyKeys() )
+            {
+                ((NodeRecord) primitiveProxy.forChangingLinkage()).setPropertyKeys( propertyKeys );
+            }
+        }
     }
 
     private <P extends PrimitiveRecord> void unlinkPropertyRecord( PropertyRecord propRecord,
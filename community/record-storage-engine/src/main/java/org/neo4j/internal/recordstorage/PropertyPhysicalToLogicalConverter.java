@@ -24,6 +24,7 @@ import java.util.Comparator;
 
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.values.storable.Value;
@@ -50,7 +51,18 @@ public class PropertyPhysicalToLogicalConverter
      */
     public void convertPropertyRecord( EntityCommandGrouper<?>.Cursor changes, EntityUpdates.Builder properties )
     {
-        mapBlocks( changes );
+        convertPropertyRecord( null, changes, properties );
+    }
+
+    /**
+     * Converts physical changes to PropertyRecords and to the inlined properties of a node into logical updates.
+     * Moving an inlined property into the property chain shows up as the same property in the before and after state, i.e. no update.
+     *
+     * @param nodeChanges changes to the node record, or {@code null} if the node record didn't change.
+     */
+    public void convertPropertyRecord( Command.NodeCommand nodeChanges, EntityCommandGrouper<?>.Cursor changes, EntityUpdates.Builder properties )
+    {
+        mapBlocks( nodeChanges, changes );
 
         int bc = 0;
         int ac = 0;
@@ -118,10 +130,15 @@ public class PropertyPhysicalToLogicalConverter
         }
     }
 
-    private void mapBlocks( EntityCommandGrouper<?>.Cursor changes )
+    private void mapBlocks( Command.NodeCommand nodeChanges, EntityCommandGrouper<?>.Cursor changes )
     {
         beforeBlocksCursor = 0;
         afterBlocksCursor = 0;
+        if ( nodeChanges != null )
+        {
+            mapInlinedBlocks( nodeChanges.getBefore(), true );
+            mapInlinedBlocks( nodeChanges.getAfter(), false );
+        }
         while ( true )
         {
             Command.PropertyCommand change = changes.nextProperty();
@@ -132,25 +149,53 @@ public class PropertyPhysicalToLogicalConverter
 
             for ( PropertyBlock block : change.getBefore() )
             {
-                if ( beforeBlocksCursor == beforeBlocks.length )
-                {
-                    beforeBlocks = Arrays.copyOf( beforeBlocks, beforeBlocksCursor * 2 );
-                }
-                beforeBlocks[beforeBlocksCursor++] = block;
+                addBeforeBlock( block );
             }
             for ( PropertyBlock block : change.getAfter() )
             {
-                if ( afterBlocksCursor == afterBlocks.length )
-                {
-                    afterBlocks = Arrays.copyOf( afterBlocks, afterBlocksCursor * 2 );
-                }
-                afterBlocks[afterBlocksCursor++] = block;
+                addAfterBlock( block );
             }
         }
         Arrays.sort( beforeBlocks, 0, beforeBlocksCursor, BLOCK_COMPARATOR );
         Arrays.sort( afterBlocks, 0, afterBlocksCursor, BLOCK_COMPARATOR );
     }
 
+    private void mapInlinedBlocks( NodeRecord node, boolean before )
+    {
+        if ( node.inUse() && node.hasInlinedProperties() )
+        {
+            for ( PropertyBlock block : node.getInlinedProperties() )
+            {
+                if ( before )
+                {
+                    addBeforeBlock( block );
+                }
+                else
+                {
+                    addAfterBlock( block );
+                }
+            }
+        }
+    }
+
+    private void addBeforeBlock( PropertyBlock block )
+    {
+        if ( beforeBlocksCursor == beforeBlocks.length )
+        {
+            beforeBlocks = Arrays.copyOf( beforeBlocks, beforeBlocksCursor * 2 );
+        }
+        beforeBlocks[beforeBlocksCursor++] = block;
+    }
+
+    private void addAfterBlock( PropertyBlock block )
+    {
+        if ( afterBlocksCursor == afterBlocks.length )
+        {
+            afterBlocks = Arrays.copyOf( afterBlocks, afterBlocksCursor * 2 );
+        }
+        afterBlocks[afterBlocksCursor++] = block;
+    }
+
     private Value valueOf( PropertyBlock block )
     {
         if ( block == null )
@@ -26,6 +26,7 @@ import java.util.function.Consumer;
 
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -44,6 +45,10 @@ public class PropertyTraverser
      * Traverses a property record chain and finds the record containing the property with key {@code propertyKey}.
      * If none is found and {@code strict} is {@code true} then {@link IllegalStateException} is thrown,
      * otherwise id value of {@link Record#NO_NEXT_PROPERTY} is returned.
+     * <p>
+     * {@link NodeRecord#getInlinedProperties() Inlined properties} of a node are not in any property record, so they are not found here.
+     * Move them into the chain with {@link PropertyCreator#spillInlinedProperties(RecordAccess.RecordProxy, RecordAccess)} before
+     * changing properties of a node, or use {@link #hasProperty(PrimitiveRecord, int, RecordAccess)} to only look for a property.
      *
      * @param primitive {@link PrimitiveRecord} which is the owner of the chain.
      * @param propertyKey property key token id to look for.
@@ -77,6 +82,38 @@ public class PropertyTraverser
         return Record.NO_NEXT_PROPERTY.intValue();
     }
 
+    /**
+     * Whether or not the given entity has a property with key {@code propertyKey}, either inlined in its record or in its property chain.
+     */
+    public boolean hasProperty( PrimitiveRecord primitive, int propertyKey, RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords )
+    {
+        if ( primitive instanceof NodeRecord )
+        {
+            for ( PropertyBlock block : ((NodeRecord) primitive).getInlinedProperties() )
+            {
+                if ( block.getKeyIndexId() == propertyKey )
+                {
+                    return true;
+                }
+            }
+        }
+        return !Record.NO_NEXT_PROPERTY.is( findPropertyRecordContaining( primitive, propertyKey, propertyRecords, false ) );
+    }
+
+    /**
+     * Visits all properties of the given entity, the ones {@link NodeRecord#getInlinedProperties() inlined in its record} first,
+     * followed by the ones in its property chain.
+     */
+    public void getProperties( PrimitiveRecord primitive, RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords,
+            Consumer<PropertyBlock> collector )
+    {
+        if ( primitive instanceof NodeRecord )
+        {
+            ((NodeRecord) primitive).getInlinedProperties().forEach( collector );
+        }
+        getPropertyChain( primitive.getNextProp(), propertyRecords, collector );
+    }
+
     public void getPropertyChain( long nextProp,
             RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords,
             Consumer<PropertyBlock> collector )
@@ -22,6 +22,7 @@ package org.neo4j.internal.recordstorage;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
 
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.NodeLabelsField;
@@ -49,24 +50,27 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private final PageCursorTracer cursorTracer;
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
+    private final RelationshipGroupDegreesStore groupDegreesStore;
     private PageCursor pageCursor;
     private long next;
     private long highMark;
-    private long nextStoreReference;
     private boolean open;
     private boolean batched;
+    private NodeRecordBatch pageBatch;
     private RecordRelationshipGroupCursor groupCursor;
     private RecordRelationshipTraversalCursor relationshipCursor;
     private RecordRelationshipScanCursor relationshipScanCursor;
     private RecordLoadOverride loadMode;
 
-    RecordNodeCursor( NodeStore read, RelationshipStore relationshipStore, RelationshipGroupStore groupStore, PageCursorTracer cursorTracer )
+    RecordNodeCursor( NodeStore read, RelationshipStore relationshipStore, RelationshipGroupStore groupStore,
+            RelationshipGroupDegreesStore groupDegreesStore, PageCursorTracer cursorTracer )
     {
         super( NO_ID );
         this.read = read;
         this.cursorTracer = cursorTracer;
         this.relationshipStore = relationshipStore;
         this.groupStore = groupStore;
+        this.groupDegreesStore = groupDegreesStore;
         this.loadMode = RecordLoadOverride.none();
     }
 
@@ -83,9 +87,9 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         this.next = 0;
         this.highMark = nodeHighMark();
-        this.nextStoreReference = NO_ID;
         this.open = true;
         this.batched = false;
+        clearPageBatch();
     }
 
     @Override
@@ -102,7 +106,6 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         this.next = reference >= 0 ? reference : NO_ID;
         //This marks the cursor as a "single cursor"
         this.highMark = NO_ID;
-        this.nextStoreReference = NO_ID;
         this.open = true;
         this.batched = false;
     }
@@ -116,7 +119,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         this.batched = true;
         this.open = true;
-        this.nextStoreReference = NO_ID;
+        clearPageBatch();
 
         return ((RecordNodeScan) scan).scanBatch( sizeHint , this);
     }
@@ -164,7 +167,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public boolean hasProperties()
     {
-        return nextProp != NO_ID;
+        return nextProp != NO_ID || hasInlinedProperties();
     }
 
     @Override
@@ -191,6 +194,14 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public int[] relationshipTypes()
     {
+        if ( !isDense() )
+        {
+            int[] knownTypes = knownRelationshipTypes();
+            if ( knownTypes != null )
+            {
+                return knownTypes;
+            }
+        }
         MutableIntSet types = IntSets.mutable.empty();
         if ( !isDense() )
         {
@@ -205,7 +216,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         {
             if ( groupCursor == null )
             {
-                groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, cursorTracer, loadMode );
+                groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, cursorTracer, loadMode );
             }
             groupCursor.init( entityReference(), getNextRel(), true );
             while ( groupCursor.next() )
@@ -287,7 +298,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         {
             if ( groupCursor == null )
             {
-                groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, cursorTracer, loadMode );
+                groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, cursorTracer, loadMode );
             }
             groupCursor.init( entityReference(), getNextRel(), isDense() );
             int criteriaMet = 0;
@@ -340,13 +351,21 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public long propertiesReference()
     {
-        return getNextProp();
+        return hasInlinedProperties() ? RecordPropertyCursor.inlinedNodePropertiesReference( getId() ) : getNextProp();
     }
 
     @Override
     public void properties( StoragePropertyCursor propertyCursor )
     {
-        propertyCursor.initNodeProperties( getNextProp() );
+        if ( hasInlinedProperties() || hasKnownPropertyKeys() )
+        {
+            // Hand over the inlined properties and property keys directly, instead of having the property cursor read this node record again
+            ((RecordPropertyCursor) propertyCursor).initNodeProperties( getInlinedPropertyBlocks(), getNextProp(), getPropertyKeys() );
+        }
+        else
+        {
+            propertyCursor.initNodeProperties( getNextProp() );
+        }
     }
 
     @Override
@@ -358,43 +377,36 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             return false;
         }
 
-        do
+        if ( isSingle() )
         {
-            if ( nextStoreReference == next )
-            {
-                nodeAdvance( this, pageCursor );
-                next++;
-                nextStoreReference++;
-            }
-            else
-            {
-                node( this, next++, pageCursor );
-                nextStoreReference = next;
-            }
+            node( this, next, pageCursor );
+            next = NO_ID;
+            return inUse();
+        }
 
+        while ( !pageBatch.hasNext() )
+        {
             if ( next > highMark )
             {
-                if ( isSingle() || batched )
-                {
-                    //we are a "single cursor" or a "batched scan"
-                    //we don't want to set a new highMark
-                    next = NO_ID;
-                    return inUse();
-                }
-                else
+                if ( !batched )
                 {
                     //we are a "scan cursor"
                     //Check if there is a new high mark
                     highMark = nodeHighMark();
-                    if ( next > highMark )
-                    {
-                        next = NO_ID;
-                        return inUse();
-                    }
+                }
+                if ( batched || next > highMark )
+                {
+                    //we are a "batched scan", or a "scan cursor" that has reached the end
+                    next = NO_ID;
+                    setId( NO_ID );
+                    clear();
+                    return false;
                 }
             }
+            // Read all the remaining records on the page of the next record in one go
+            next = read.readRecordsOnPage( next, highMark, this, loadMode.orElse( RecordLoad.CHECK ).lenient(), pageCursor, pageBatch );
         }
-        while ( !inUse() );
+        pageBatch.next( this );
         return true;
     }
 
@@ -411,6 +423,10 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private void resetState()
     {
         next = NO_ID;
+        if ( pageBatch != null )
+        {
+            pageBatch.clear();
+        }
         setId( NO_ID );
         clear();
         this.loadMode = RecordLoadOverride.none();
@@ -487,8 +503,12 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         read.getRecordByCursor( reference, record, loadMode.orElse( RecordLoad.CHECK ).lenient(), pageCursor );
     }
 
-    private void nodeAdvance( NodeRecord record, PageCursor pageCursor )
+    private void clearPageBatch()
     {
-        read.nextRecordByCursor( record, loadMode.orElse( RecordLoad.CHECK ).lenient(), pageCursor );
+        if ( pageBatch == null )
+        {
+            pageBatch = new NodeRecordBatch( read.getRecordsPerPage() );
+        }
+        pageBatch.clear();
     }
 }
@@ -27,12 +27,15 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.GeometryType;
 import org.neo4j.kernel.impl.store.LongerShortString;
+import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.ShortArray;
 import org.neo4j.kernel.impl.store.TemporalType;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
@@ -57,8 +60,15 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     private static final int MAX_BYTES_IN_SHORT_STRING_OR_SHORT_ARRAY = 32;
     private static final int INITIAL_POSITION = -1;
     public static final int DEFAULT_PROPERTY_BUFFER_CAPACITY = 512;
+    /**
+     * Marks a properties reference as the id of a node with {@link NodeRecord#getInlinedPropertyBlocks() inlined properties},
+     * which are read from the node record before following its property chain. Like {@link RelationshipReferenceEncoding},
+     * this makes the reference appear negative so that it can't be mistaken for a property record id.
+     */
+    private static final long INLINED_NODE_PROPERTIES_MARKER = 0x8000_0000_0000_0000L;
 
     private final PropertyStore propertyStore;
+    private final NodeStore nodeStore;
     private final PageCursorTracer cursorTracer;
     private final MemoryTracker memoryTracker;
     private long next;
@@ -68,13 +78,17 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     private PageCursor page;
     private PageCursor stringPage;
     private PageCursor arrayPage;
+    private PageCursor nodePage;
+    private NodeRecord node;
+    private long propertyKeys;
     private boolean open;
     private RecordLoadOverride loadMode;
 
-    RecordPropertyCursor( PropertyStore propertyStore, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+    RecordPropertyCursor( PropertyStore propertyStore, NodeStore nodeStore, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
     {
         super( NO_ID );
         this.propertyStore = propertyStore;
+        this.nodeStore = nodeStore;
         this.cursorTracer = cursorTracer;
         this.memoryTracker = memoryTracker;
         loadMode = RecordLoadOverride.none();
@@ -83,9 +97,56 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     @Override
     public void initNodeProperties( long reference )
     {
+        if ( reference != NO_ID && (reference & INLINED_NODE_PROPERTIES_MARKER) != 0 )
+        {
+            long nodeId = reference & ~INLINED_NODE_PROPERTIES_MARKER;
+            if ( node == null )
+            {
+                node = nodeStore.newRecord();
+                nodePage = nodeStore.openPageCursorForReading( nodeId, cursorTracer );
+            }
+            nodeStore.getRecordByCursor( nodeId, node, loadMode.orElse( RecordLoad.CHECK ).lenient(), nodePage );
+            if ( node.inUse() )
+            {
+                initNodeProperties( node.getInlinedPropertyBlocks(), node.getNextProp(), node.getPropertyKeys() );
+                return;
+            }
+            reference = NO_ID;
+        }
         init( reference );
     }
 
+    /**
+     * Reads the given inlined properties of a node before following its property chain.
+     *
+     * @param inlinedPropertyBlocks the {@link NodeRecord#getInlinedPropertyBlocks() inlined property blocks} of the node.
+     * @param reference the first property record in the property chain of the node.
+     * @param propertyKeys the {@link NodeRecord#getPropertyKeys() property keys} of the node, for {@link #mayHavePropertyKey(int)}.
+     */
+    void initNodeProperties( long[] inlinedPropertyBlocks, long reference, long propertyKeys )
+    {
+        init( reference );
+        this.propertyKeys = propertyKeys;
+        if ( inlinedPropertyBlocks.length > 0 )
+        {
+            // Present the inlined properties as a property record in front of the chain
+            initialize( true, NO_ID, reference );
+            for ( long block : inlinedPropertyBlocks )
+            {
+                addLoadedBlock( block );
+            }
+            this.block = INITIAL_POSITION;
+        }
+    }
+
+    /**
+     * @return a properties reference to a node with inlined properties, for {@link #initNodeProperties(long)}.
+     */
+    static long inlinedNodePropertiesReference( long nodeId )
+    {
+        return nodeId | INLINED_NODE_PROPERTIES_MARKER;
+    }
+
     @Override
     public void initRelationshipProperties( long reference )
     {
@@ -115,9 +176,16 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
 
         // Store state
         this.next = reference;
+        this.propertyKeys = NodeRecord.UNKNOWN_PROPERTY_KEYS;
         this.open = true;
     }
 
+    @Override
+    public boolean mayHavePropertyKey( int propertyKey )
+    {
+        return NodeRecord.mayHavePropertyKey( propertyKeys, propertyKey );
+    }
+
     @Override
     public boolean next()
     {
@@ -404,6 +472,11 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
             arrayPage.close();
             arrayPage = null;
         }
+        if ( nodePage != null )
+        {
+            nodePage.close();
+            nodePage = null;
+        }
         if ( page != null )
         {
             page.close();
@@ -441,11 +514,7 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
 
     private TextValue string( RecordPropertyCursor cursor, long reference, PageCursor page )
     {
-        propertyStore.loadString( reference, cursor, page, loadMode.orElse( ALWAYS ) );
-        buffer.flip();
-        byte[] bytes = new byte[buffer.limit()];
-        buffer.get( bytes );
-        return Values.utf8Value( bytes );
+        return Values.utf8Value( propertyStore.loadString( reference, cursor, page, loadMode.orElse( ALWAYS ) ) );
     }
 
     private ArrayValue array( RecordPropertyCursor cursor, long reference, PageCursor page )
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
@@ -26,6 +27,7 @@ import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 import static org.neo4j.kernel.impl.store.record.RecordLoad.ALWAYS;
 
@@ -33,6 +35,7 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
 {
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
+    private final RelationshipGroupDegreesStore groupDegreesStore;
     private final PageCursorTracer cursorTracer;
     private final RelationshipRecord edge = new RelationshipRecord( NO_ID );
 
@@ -43,10 +46,20 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
 
     RecordRelationshipGroupCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, PageCursorTracer cursorTracer,
             RecordLoadOverride loadMode )
+    {
+        this( relationshipStore, groupStore, null, cursorTracer, loadMode );
+    }
+
+    /**
+     * @param groupDegreesStore where to look up the degrees of the groups, or {@code null} to count them from the first relationship of each chain.
+     */
+    RecordRelationshipGroupCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
+            PageCursorTracer cursorTracer, RecordLoadOverride loadMode )
     {
         super( NO_ID );
         this.relationshipStore = relationshipStore;
         this.groupStore = groupStore;
+        this.groupDegreesStore = groupDegreesStore;
         this.cursorTracer = cursorTracer;
         this.loadMode = loadMode;
     }
@@ -97,25 +110,29 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
 
     int outgoingCount()
     {
-        return count( outgoingRawId() );
+        return count( outgoingRawId(), RelationshipDirection.OUTGOING );
     }
 
     int incomingCount()
     {
-        return count( incomingRawId() );
+        return count( incomingRawId(), RelationshipDirection.INCOMING );
     }
 
     int loopCount()
     {
-        return count( loopsRawId() );
+        return count( loopsRawId(), RelationshipDirection.LOOP );
     }
 
-    private int count( long reference )
+    private int count( long reference, RelationshipDirection direction )
     {
         if ( reference == NO_ID )
         {
             return 0;
         }
+        if ( groupDegreesStore != null && groupDegreesStore.degreesComplete() )
+        {
+            return (int) groupDegreesStore.degree( getId(), direction, cursorTracer );
+        }
         if ( edgePage == null )
         {
             edgePage = relationshipStore.openPageCursorForReading( reference, cursorTracer );
@@ -23,6 +23,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.storageengine.api.ReadTracer;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
@@ -50,6 +51,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private PageCursor pageCursor;
     private final RecordRelationshipGroupCursor group;
     private GroupState groupState;
+    private int highestSelectedType;
     private boolean open;
 
     RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, PageCursorTracer cursorTracer )
@@ -60,9 +62,31 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
 
     void init( RecordNodeCursor nodeCursor, RelationshipSelection selection )
     {
+        if ( !nodeCursor.isDense() && !mayHaveSelectedTypes( nodeCursor, selection ) )
+        {
+            // The relationship types kept in the node record tell that no relationship in the chain can be part of this selection
+            resetState();
+            return;
+        }
         init( nodeCursor.entityReference(), nodeCursor.getNextRel(), nodeCursor.isDense(), selection );
     }
 
+    private static boolean mayHaveSelectedTypes( NodeRecord node, RelationshipSelection selection )
+    {
+        if ( !selection.isTypeLimited() || !node.hasKnownRelationshipTypes() )
+        {
+            return true;
+        }
+        for ( int i = 0; i < selection.numberOfCriteria(); i++ )
+        {
+            if ( node.mayHaveRelationshipType( selection.criterion( i ).type() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void init( long nodeReference, long reference, RelationshipSelection selection )
     {
@@ -91,6 +115,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         {
             // The reference points to a relationship group record
             groups( nodeReference, reference );
+            highestSelectedType = highestSelectedType( selection );
         }
         else
         {
@@ -229,6 +254,11 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                 {
                     tracer.dbHit();
                 }
+                if ( group.getType() > highestSelectedType )
+                {
+                    // Groups are sorted by type in the chain, so none of the remaining groups can be part of this selection
+                    return;
+                }
                 if ( !selection.test( group.getType() ) )
                 {
                     // This type isn't part of this selection, so skip the whole group
@@ -267,6 +297,23 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
     }
 
+    /**
+     * @return the highest relationship type id that the given selection can select, or {@link Integer#MAX_VALUE} if it isn't limited on type.
+     */
+    private static int highestSelectedType( RelationshipSelection selection )
+    {
+        if ( !selection.isTypeLimited() )
+        {
+            return Integer.MAX_VALUE;
+        }
+        int highest = -1;
+        for ( int i = 0; i < selection.numberOfCriteria(); i++ )
+        {
+            highest = Math.max( highest, selection.criterion( i ).type() );
+        }
+        return highest;
+    }
+
     private void initializePageCursor()
     {
         if ( pageCursor == null )
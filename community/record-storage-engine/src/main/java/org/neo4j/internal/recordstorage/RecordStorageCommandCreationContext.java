@@ -40,6 +40,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     private final MemoryTracker memoryTracker;
     private final RelationshipCreator relationshipCreator;
     private final RelationshipDeleter relationshipDeleter;
+    private final RelationshipGroupCompactor relationshipGroupCompactor;
     private final PropertyCreator propertyCreator;
     private final PropertyDeleter propertyDeleter;
     private final PageCursorTracer cursorTracer;
@@ -55,6 +56,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
         PropertyTraverser propertyTraverser = new PropertyTraverser( cursorTracer );
         this.propertyDeleter = new PropertyDeleter( propertyTraverser, cursorTracer );
         this.relationshipDeleter = new RelationshipDeleter( relationshipGroupGetter, propertyDeleter, cursorTracer );
+        this.relationshipGroupCompactor = new RelationshipGroupCompactor( neoStores.getRelationshipGroupStore(), cursorTracer );
         PropertyStore propertyStore = neoStores.getPropertyStore();
         this.propertyCreator = new PropertyCreator(
                 new StandardDynamicRecordAllocator( propertyStore.getStringStore(), propertyStore.getStringStore().getRecordDataSize() ),
@@ -109,11 +111,13 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     }
 
     TransactionRecordState createTransactionRecordState( IntegrityValidator integrityValidator, long lastTransactionIdWhenStarted,
-            ResourceLocker locks )
+            ResourceLocker locks, boolean groupDegreeCommands, boolean inlineNodeProperties, boolean nodeRelationshipTypes,
+            boolean nodePropertyKeys )
     {
         RecordChangeSet recordChangeSet = new RecordChangeSet( loaders, memoryTracker );
         return new TransactionRecordState( neoStores, integrityValidator,
                 recordChangeSet, lastTransactionIdWhenStarted, locks,
-                relationshipCreator, relationshipDeleter, propertyCreator, propertyDeleter, cursorTracer, memoryTracker );
+                relationshipCreator, relationshipDeleter, relationshipGroupCompactor, propertyCreator, propertyDeleter, groupDegreeCommands,
+                inlineNodeProperties, nodeRelationshipTypes, nodePropertyKeys, cursorTracer, memoryTracker );
     }
 }
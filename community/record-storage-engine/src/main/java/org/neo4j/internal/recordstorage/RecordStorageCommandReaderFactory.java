@@ -39,6 +39,8 @@ public class RecordStorageCommandReaderFactory implements CommandReaderFactory
             return PhysicalLogCommandReaderV4_0.INSTANCE;
         case PhysicalLogCommandReaderV4_2.FORMAT_ID:
             return PhysicalLogCommandReaderV4_2.INSTANCE;
+        case PhysicalLogCommandReaderV4_3.FORMAT_ID:
+            return PhysicalLogCommandReaderV4_3.INSTANCE;
         default:
             throw new IllegalArgumentException( "Unsupported command format [id=" + logEntryVersion + "]" );
         }
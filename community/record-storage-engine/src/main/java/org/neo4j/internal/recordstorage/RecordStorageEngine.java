@@ -36,6 +36,7 @@ import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.counts.GBPTreeCountsStore;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.diagnostics.DiagnosticsManager;
 import org.neo4j.internal.id.IdController;
@@ -48,6 +49,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationExcep
 import org.neo4j.internal.kernel.api.exceptions.schema.CreateConstraintFailureException;
 import org.neo4j.internal.recordstorage.NeoStoresDiagnostics.NeoStoreIdUsage;
 import org.neo4j.internal.recordstorage.NeoStoresDiagnostics.NeoStoreRecords;
+import org.neo4j.internal.recordstorage.NeoStoresDiagnostics.NeoStoreRelationshipChainLocality;
 import org.neo4j.internal.recordstorage.NeoStoresDiagnostics.NeoStoreVersions;
 import org.neo4j.internal.schema.IndexConfigCompleter;
 import org.neo4j.internal.schema.SchemaState;
@@ -117,6 +119,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final ConstraintRuleAccessor constraintSemantics;
     private final LockService lockService;
     private final boolean consistencyCheckApply;
+    private final boolean chainLocalityDiagnostics;
+    private final Log log;
     private WorkSync<EntityTokenUpdateListener,TokenUpdateWork> labelScanStoreSync;
     private WorkSync<EntityTokenUpdateListener,TokenUpdateWork> relationshipTypeScanStoreSync;
     private WorkSync<IndexUpdateListener,IndexUpdatesWork> indexUpdatesSync;
@@ -160,6 +164,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         this.idController = idController;
         this.cacheTracer = cacheTracer;
         this.otherMemoryTracker = otherMemoryTracker;
+        this.log = logProvider.getLog( getClass() );
 
         StoreFactory factory = new StoreFactory( databaseLayout, config, idGeneratorFactory, pageCache, fs, logProvider, cacheTracer );
         neoStores = factory.openAllNeoStores( createStoreIfNotExists );
@@ -181,6 +186,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             countsStore = openCountsStore( pageCache, fs, databaseLayout, config, logProvider, recoveryCleanupWorkCollector, cacheTracer );
 
             consistencyCheckApply = config.get( GraphDatabaseInternalSettings.consistency_check_on_apply );
+            chainLocalityDiagnostics = config.get( GraphDatabaseInternalSettings.relationship_chain_locality_diagnostics );
         }
         catch ( Throwable failure )
         {
@@ -245,6 +251,13 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                     log.warn( "Counts store rebuild completed." );
                 }
 
+                @Override
+                public void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+                {
+                    new CountsComputer( neoStores, pageCache, pageCacheTracer, layout, memoryTracker, log )
+                            .initializeDegrees( updater, cursorTracer, memoryTracker );
+                }
+
                 @Override
                 public long lastCommittedTxId()
                 {
@@ -261,7 +274,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public RecordStorageReader newReader()
     {
-        return new RecordStorageReader( tokenHolders, neoStores, countsStore, schemaCache );
+        return new RecordStorageReader( tokenHolders, neoStores, countsStore, countsStore, schemaCache );
     }
 
     @Override
@@ -313,6 +326,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             CommandCreationContext commandCreationContext,
             ResourceLocker locks,
             long lastTransactionIdWhenStarted,
+            byte logEntryVersion,
             TxStateVisitor.Decorator additionalTxStateVisitor,
             PageCursorTracer cursorTracer,
             MemoryTracker transactionMemoryTracker )
@@ -324,7 +338,14 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             // this storage engine itself, anything else is considered a bug. And we do know the inner workings
             // of the storage statements that we create.
             RecordStorageCommandCreationContext creationContext = (RecordStorageCommandCreationContext) commandCreationContext;
-            TransactionRecordState recordState = creationContext.createTransactionRecordState( integrityValidator, lastTransactionIdWhenStarted, locks );
+            // Group degree commands, inlined node properties, node relationship types and node property keys can only be read
+            // by the command reader of the 4.3 log format and onwards
+            boolean groupDegreeCommands = logEntryVersion >= PhysicalLogCommandReaderV4_3.FORMAT_ID;
+            boolean inlineNodeProperties = logEntryVersion >= PhysicalLogCommandReaderV4_3.FORMAT_ID;
+            boolean nodeRelationshipTypes = logEntryVersion >= PhysicalLogCommandReaderV4_3.FORMAT_ID;
+            boolean nodePropertyKeys = logEntryVersion >= PhysicalLogCommandReaderV4_3.FORMAT_ID;
+            TransactionRecordState recordState = creationContext.createTransactionRecordState( integrityValidator, lastTransactionIdWhenStarted, locks,
+                    groupDegreeCommands, inlineNodeProperties, nodeRelationshipTypes, nodePropertyKeys );
 
             // Visit transaction state and populate these record state objects
             TxStateVisitor txStateVisitor = new TransactionToRecordStateVisitor( recordState, schemaState,
@@ -340,6 +361,15 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             // Convert record state into commands
             recordState.extractCommands( commands, transactionMemoryTracker );
             countsRecordState.extractCommands( commands, transactionMemoryTracker );
+            if ( !groupDegreeCommands && recordState.hasGroupDegreeChanges() )
+            {
+                // These degree changes will not reach the counts store, so have it stop trusting its degrees until they're rebuilt
+                countsStore.markDegreesIncomplete();
+            }
+            if ( recordState.groupCompactionStatistics().nodes() > 0 )
+            {
+                log.info( recordState.groupCompactionStatistics().toString() );
+            }
         }
     }
 
@@ -436,6 +466,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         DiagnosticsManager.dump( new NeoStoreIdUsage( neoStores ), errorLog, diagnosticsLog );
         DiagnosticsManager.dump( new NeoStoreRecords( neoStores ), errorLog, diagnosticsLog );
         DiagnosticsManager.dump( new NeoStoreVersions( neoStores ), errorLog, diagnosticsLog );
+        if ( chainLocalityDiagnostics )
+        {
+            DiagnosticsManager.dump( new NeoStoreRelationshipChainLocality( neoStores, cacheTracer ), errorLog, diagnosticsLog );
+        }
     }
 
     @Override
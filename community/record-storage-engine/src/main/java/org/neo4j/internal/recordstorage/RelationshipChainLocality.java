@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.LENIENT_CHECK;
+
+/**
+ * Measures how scattered relationship chains are over the pages of the relationship store. Follows the relationship chains of
+ * a sample of nodes, spread evenly over the node id space, and counts how often two consecutive relationships of a chain live
+ * on different pages. Every such page switch is a potential random page access for an expansion of that node.
+ * The relationship group chains of dense nodes are measured the same way, over the pages of the relationship group store.
+ * <p>
+ * The number of node, group and relationship records read is bounded, so sampling a large store stops once that many records
+ * were read, even if not all sampled nodes were visited.
+ * <p>
+ * Reads are lenient since this can run against a live store, a chain that changes while being followed is simply cut short.
+ */
+class RelationshipChainLocality
+{
+    private final int recordsPerPage;
+    private final int groupRecordsPerPage;
+    private final long maxRecords;
+    private long records;
+    private long chains;
+    private long relationships;
+    private long pageSwitches;
+    private long groupChains;
+    private long groups;
+    private long groupPageSwitches;
+
+    private RelationshipChainLocality( int recordsPerPage, int groupRecordsPerPage, long maxRecords )
+    {
+        this.recordsPerPage = recordsPerPage;
+        this.groupRecordsPerPage = groupRecordsPerPage;
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * @param neoStores stores to measure.
+     * @param maxNodes max number of nodes to sample.
+     * @param maxRecords max number of records to read, in total.
+     * @param cursorTracer underlying page cursor tracer.
+     * @return the locality of the sampled chains.
+     */
+    static RelationshipChainLocality sample( NeoStores neoStores, int maxNodes, long maxRecords, PageCursorTracer cursorTracer )
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        RelationshipGroupStore groupStore = neoStores.getRelationshipGroupStore();
+        RelationshipChainLocality locality = new RelationshipChainLocality( relationshipStore.getRecordsPerPage(), groupStore.getRecordsPerPage(),
+                maxRecords );
+
+        long highId = nodeStore.getHighId();
+        long stride = max( 1, highId / maxNodes );
+        NodeRecord node = nodeStore.newRecord();
+        RelationshipRecord relationship = relationshipStore.newRecord();
+        RelationshipGroupRecord group = groupStore.newRecord();
+        try ( PageCursor nodeCursor = nodeStore.openPageCursorForReading( 0, cursorTracer );
+              PageCursor relationshipCursor = relationshipStore.openPageCursorForReading( 0, cursorTracer );
+              PageCursor groupCursor = groupStore.openPageCursorForReading( 0, cursorTracer ) )
+        {
+            for ( long nodeId = 0; nodeId < highId && locality.canRead(); nodeId += stride )
+            {
+                nodeStore.getRecordByCursor( nodeId, node, LENIENT_CHECK, nodeCursor );
+                locality.records++;
+                if ( !node.inUse() || NULL_REFERENCE.is( node.getNextRel() ) )
+                {
+                    continue;
+                }
+                if ( !node.isDense() )
+                {
+                    locality.followChain( nodeId, node.getNextRel(), relationshipStore, relationship, relationshipCursor );
+                    continue;
+                }
+                locality.groupChains++;
+                long previousGroupPage = -1;
+                long groupId = node.getNextRel();
+                while ( !NULL_REFERENCE.is( groupId ) && locality.canRead() )
+                {
+                    groupStore.getRecordByCursor( groupId, group, LENIENT_CHECK, groupCursor );
+                    locality.records++;
+                    if ( !group.inUse() )
+                    {
+                        break;
+                    }
+                    long groupPage = groupId / locality.groupRecordsPerPage;
+                    if ( previousGroupPage != -1 && groupPage != previousGroupPage )
+                    {
+                        locality.groupPageSwitches++;
+                    }
+                    previousGroupPage = groupPage;
+                    locality.groups++;
+                    locality.followChain( nodeId, group.getFirstOut(), relationshipStore, relationship, relationshipCursor );
+                    locality.followChain( nodeId, group.getFirstIn(), relationshipStore, relationship, relationshipCursor );
+                    locality.followChain( nodeId, group.getFirstLoop(), relationshipStore, relationship, relationshipCursor );
+                    groupId = group.getNext();
+                }
+            }
+        }
+        return locality;
+    }
+
+    private void followChain( long nodeId, long firstRelationship, RelationshipStore relationshipStore, RelationshipRecord relationship,
+            PageCursor relationshipCursor )
+    {
+        if ( NULL_REFERENCE.is( firstRelationship ) || !canRead() )
+        {
+            return;
+        }
+        chains++;
+        long previousPage = -1;
+        long relationshipId = firstRelationship;
+        while ( !NULL_REFERENCE.is( relationshipId ) && canRead() )
+        {
+            relationshipStore.getRecordByCursor( relationshipId, relationship, LENIENT_CHECK, relationshipCursor );
+            records++;
+            if ( !relationship.inUse() )
+            {
+                break;
+            }
+            long page = relationshipId / recordsPerPage;
+            if ( previousPage != -1 && page != previousPage )
+            {
+                pageSwitches++;
+            }
+            previousPage = page;
+            relationships++;
+            relationshipId = relationship.getFirstNode() == nodeId ? relationship.getFirstNextRel() : relationship.getSecondNextRel();
+        }
+    }
+
+    private boolean canRead()
+    {
+        return records < maxRecords;
+    }
+
+    long records()
+    {
+        return records;
+    }
+
+    long chains()
+    {
+        return chains;
+    }
+
+    long relationships()
+    {
+        return relationships;
+    }
+
+    long pageSwitches()
+    {
+        return pageSwitches;
+    }
+
+    long groupChains()
+    {
+        return groupChains;
+    }
+
+    long groups()
+    {
+        return groups;
+    }
+
+    long groupPageSwitches()
+    {
+        return groupPageSwitches;
+    }
+
+    /**
+     * @return the fraction of steps between two consecutive relationships in a chain that stayed on the same page,
+     * {@code 1} if no such steps were sampled.
+     */
+    double locality()
+    {
+        long steps = relationships - chains;
+        return fractionOnSamePage( steps, pageSwitches );
+    }
+
+    /**
+     * @return the fraction of steps between two consecutive relationship groups of a dense node that stayed on the same page,
+     * {@code 1} if no such steps were sampled.
+     */
+    double groupLocality()
+    {
+        return fractionOnSamePage( groups - groupChains, groupPageSwitches );
+    }
+
+    private static double fractionOnSamePage( long steps, long pageSwitches )
+    {
+        return steps <= 0 ? 1 : 1 - (double) pageSwitches / steps;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "Relationship chain locality: records=%d chains=%d relationships=%d pageSwitches=%d locality=%.2f " +
+                        "groupChains=%d groups=%d groupPageSwitches=%d groupLocality=%.2f",
+                records, chains, relationships, pageSwitches, locality(), groupChains, groups, groupPageSwitches, groupLocality() );
+    }
+}
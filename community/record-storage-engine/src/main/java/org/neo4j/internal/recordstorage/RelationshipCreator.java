@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.recordstorage.RecordAccess.RecordProxy;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.InvalidRecordException;
@@ -52,22 +53,24 @@ public class RelationshipCreator
      *            have.
      * @param firstNodeId The id of the start node.
      * @param secondNodeId The id of the end node.
+     * @param groupDegreesUpdater receives the degree changes of relationship groups of dense nodes.
      */
-    public void relationshipCreate( long id, int type, long firstNodeId, long secondNodeId, RecordAccessSet recordChangeSet, ResourceLocker locks )
+    public void relationshipCreate( long id, int type, long firstNodeId, long secondNodeId, RecordAccessSet recordChangeSet,
+            RelationshipGroupDegreesStore.Updater groupDegreesUpdater, ResourceLocker locks )
     {
         RecordProxy<NodeRecord,Void> firstNode = recordChangeSet.getNodeRecords().getOrLoad( firstNodeId, null, cursorTracer );
         RecordProxy<NodeRecord,Void> secondNode =
                 firstNodeId == secondNodeId ? firstNode : recordChangeSet.getNodeRecords().getOrLoad( secondNodeId, null, cursorTracer );
         convertNodeToDenseIfNecessary( firstNode, recordChangeSet.getRelRecords(),
-                recordChangeSet.getRelGroupRecords(), locks );
+                recordChangeSet.getRelGroupRecords(), groupDegreesUpdater, locks );
         convertNodeToDenseIfNecessary( secondNode, recordChangeSet.getRelRecords(),
-                recordChangeSet.getRelGroupRecords(), locks );
+                recordChangeSet.getRelGroupRecords(), groupDegreesUpdater, locks );
         RelationshipRecord record = recordChangeSet.getRelRecords().create( id, null, cursorTracer ).forChangingLinkage();
         record.setLinks( firstNodeId, secondNodeId, type );
         record.setInUse( true );
         record.setCreated();
         connectRelationship( firstNode, secondNode, record, recordChangeSet.getRelRecords(),
-                recordChangeSet.getRelGroupRecords(), locks );
+                recordChangeSet.getRelGroupRecords(), groupDegreesUpdater, locks );
     }
 
     static int relCount( long nodeId, RelationshipRecord rel )
@@ -77,7 +80,8 @@ public class RelationshipCreator
 
     private void convertNodeToDenseIfNecessary( RecordProxy<NodeRecord,Void> nodeChange,
             RecordAccess<RelationshipRecord, Void> relRecords,
-            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, ResourceLocker locks )
+            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, RelationshipGroupDegreesStore.Updater groupDegreesUpdater,
+            ResourceLocker locks )
     {
         NodeRecord node = nodeChange.forReadingLinkage();
         if ( node.isDense() )
@@ -96,7 +100,7 @@ public class RelationshipCreator
                 // changed in the meantime.
                 relChange = relRecords.getOrLoad( relId, null, cursorTracer );
 
-                convertNodeToDenseNode( nodeChange, relChange.forChangingLinkage(), relRecords, relGroupRecords, locks );
+                convertNodeToDenseNode( nodeChange, relChange.forChangingLinkage(), relRecords, relGroupRecords, groupDegreesUpdater, locks );
             }
         }
     }
@@ -104,7 +108,8 @@ public class RelationshipCreator
     private void connectRelationship( RecordProxy<NodeRecord,Void> firstNodeChange,
             RecordProxy<NodeRecord,Void> secondNodeChange, RelationshipRecord rel,
             RecordAccess<RelationshipRecord, Void> relRecords,
-            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, ResourceLocker locks )
+            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, RelationshipGroupDegreesStore.Updater groupDegreesUpdater,
+            ResourceLocker locks )
     {
         // Assertion interpreted: if node is a normal node and we're trying to create a
         // relationship that we already have as first rel for that node --> error
@@ -128,7 +133,7 @@ public class RelationshipCreator
         }
         else
         {
-            connectRelationshipToDenseNode( firstNodeChange, rel, relRecords, relGroupRecords, locks );
+            connectRelationshipToDenseNode( firstNodeChange, rel, relRecords, relGroupRecords, groupDegreesUpdater, locks );
         }
 
         if ( !secondNode.isDense() )
@@ -145,24 +150,27 @@ public class RelationshipCreator
         }
         else if ( firstNode.getId() != secondNode.getId() )
         {
-            connectRelationshipToDenseNode( secondNodeChange, rel, relRecords, relGroupRecords, locks );
+            connectRelationshipToDenseNode( secondNodeChange, rel, relRecords, relGroupRecords, groupDegreesUpdater, locks );
         }
 
         if ( !firstNode.isDense() )
         {
             firstNodeChange.forChangingLinkage();
             firstNode.setNextRel( rel.getId() );
+            firstNode.addRelationshipType( rel.getType() );
         }
         if ( !secondNode.isDense() )
         {
             secondNodeChange.forChangingLinkage();
             secondNode.setNextRel( rel.getId() );
+            secondNode.addRelationshipType( rel.getType() );
         }
     }
 
     private void connectRelationshipToDenseNode( RecordProxy<NodeRecord,Void> nodeChange, RelationshipRecord rel,
             RecordAccess<RelationshipRecord, Void> relRecords,
-            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, ResourceLocker locks )
+            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, RelationshipGroupDegreesStore.Updater groupDegreesUpdater,
+            ResourceLocker locks )
     {
         var relationshipGroup = relGroupGetter.getOrCreateRelationshipGroup( nodeChange, rel.getType(), relGroupRecords );
         RelationshipGroupRecord group = relationshipGroup.forChangingData();
@@ -172,6 +180,7 @@ public class RelationshipCreator
         setCorrectNextRel( node, rel, nextRel );
         connect( node.getId(), nextRel, rel, relRecords, locks );
         dir.setNextRel( group, rel.getId() );
+        groupDegreesUpdater.increment( group.getId(), dir.direction(), 1 );
     }
 
     private void connect( NodeRecord node, RelationshipRecord rel,
@@ -182,7 +191,8 @@ public class RelationshipCreator
 
     private void convertNodeToDenseNode( RecordProxy<NodeRecord,Void> nodeChange, RelationshipRecord firstRel,
             RecordAccess<RelationshipRecord, Void> relRecords,
-            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, ResourceLocker locks )
+            RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, RelationshipGroupDegreesStore.Updater groupDegreesUpdater,
+            ResourceLocker locks )
     {
         NodeRecord node = nodeChange.forChangingLinkage();
         node.setDense( true );
@@ -193,7 +203,7 @@ public class RelationshipCreator
         {
             // Get the next relationship id before connecting it (where linkage is overwritten)
             relId = relChain( relRecord, node.getId() ).get( relRecord );
-            connectRelationshipToDenseNode( nodeChange, relRecord, relRecords, relGroupRecords, locks );
+            connectRelationshipToDenseNode( nodeChange, relRecord, relRecords, relGroupRecords, groupDegreesUpdater, locks );
             if ( relId != Record.NO_NEXT_RELATIONSHIP.intValue() )
             {   // Lock and load the next relationship in the chain
                 locks.acquireExclusive( LockTracer.NONE, ResourceTypes.RELATIONSHIP, relId );
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.recordstorage.RecordAccess.RecordProxy;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.InvalidRecordException;
@@ -52,13 +53,14 @@ class RelationshipDeleter
      * transaction.
      *
      * @param id The id of the relationship to delete.
+     * @param groupDegreesUpdater receives the degree changes of relationship groups of dense nodes.
      */
-    void relDelete( long id, RecordAccessSet recordChanges, ResourceLocker locks )
+    void relDelete( long id, RecordAccessSet recordChanges, RelationshipGroupDegreesStore.Updater groupDegreesUpdater, ResourceLocker locks )
     {
         RelationshipRecord record = recordChanges.getRelRecords().getOrLoad( id, null, cursorTracer ).forChangingLinkage();
         propertyChainDeleter.deletePropertyChain( record, recordChanges.getPropertyRecords() );
         disconnectRelationship( record, recordChanges, locks );
-        updateNodesForDeletedRelationship( record, recordChanges, locks );
+        updateNodesForDeletedRelationship( record, recordChanges, groupDegreesUpdater, locks );
         record.setInUse( false );
         record.setType( -1 );
     }
@@ -102,7 +104,7 @@ class RelationshipDeleter
     }
 
     private void updateNodesForDeletedRelationship( RelationshipRecord rel, RecordAccessSet recordChanges,
-            ResourceLocker locks )
+            RelationshipGroupDegreesStore.Updater groupDegreesUpdater, ResourceLocker locks )
     {
         RecordProxy<NodeRecord, Void> startNodeChange = recordChanges.getNodeRecords().getOrLoad( rel.getFirstNode(), null, cursorTracer );
         RecordProxy<NodeRecord, Void> endNodeChange = recordChanges.getNodeRecords().getOrLoad( rel.getSecondNode(), null, cursorTracer );
@@ -129,6 +131,7 @@ class RelationshipDeleter
             assert groupChange != null : "Relationship group " + rel.getType() + " should have existed here";
             RelationshipGroupRecord group = groupChange.forReadingData();
             DirectionWrapper dir = DirectionIdentifier.wrapDirection( rel, startNode );
+            groupDegreesUpdater.increment( group.getId(), dir.direction(), -1 );
             if ( rel.isFirstInFirstChain() )
             {
                 group = groupChange.forChangingData();
@@ -177,6 +180,7 @@ class RelationshipDeleter
             } // Else this is a loop-rel and the group was deleted when dealing with the start node
             if ( !loop )
             {
+                groupDegreesUpdater.increment( groupChange.getKey(), dir.direction(), -1 );
                 decrementTotalRelationshipCount( endNode.getId(), rel, dir.getNextRel( groupChange.forChangingData() ),
                         recordChanges.getRelRecords(), locks );
             }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
+import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.internal.id.IdRange;
+import org.neo4j.internal.recordstorage.RecordAccess.RecordProxy;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+import static java.lang.String.format;
+import static org.neo4j.internal.recordstorage.RelationshipCreator.relCount;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+
+/**
+ * Moves the relationship group chain of a dense node into consecutive group ids, in chain order, so that expanding the node reads
+ * its groups from as few pages of the relationship group store as possible. The old group records are deleted and the
+ * {@link RelationshipGroupDegreesStore degrees} of the groups are moved along with them. The relationship chains themselves are left
+ * where they are, the new groups point to the same relationships as the old ones did.
+ * <p>
+ * The caller is expected to hold an exclusive lock on the node, which also keeps relationships of the node from being created or deleted.
+ */
+class RelationshipGroupCompactor
+{
+    private final IdGenerator idGenerator;
+    private final int recordsPerPage;
+    private final PageCursorTracer cursorTracer;
+
+    RelationshipGroupCompactor( RelationshipGroupStore groupStore, PageCursorTracer cursorTracer )
+    {
+        this.idGenerator = groupStore.getIdGenerator();
+        this.recordsPerPage = groupStore.getRecordsPerPage();
+        this.cursorTracer = cursorTracer;
+    }
+
+    /**
+     * Compacts the relationship group chain of the given node, unless the node isn't dense or its groups already have consecutive ids.
+     *
+     * @param nodeId the node to compact the group chain of.
+     * @param recordChanges the record changes of the transaction.
+     * @param groupDegreesUpdater receives the degree changes of the moved relationship groups.
+     * @param statistics receives how many groups were moved and how scattered they were before and after.
+     */
+    void compact( long nodeId, RecordAccessSet recordChanges, RelationshipGroupDegreesStore.Updater groupDegreesUpdater, Statistics statistics )
+    {
+        RecordProxy<NodeRecord,Void> nodeChange = recordChanges.getNodeRecords().getOrLoad( nodeId, null, cursorTracer );
+        NodeRecord node = nodeChange.forReadingLinkage();
+        if ( !node.inUse() || !node.isDense() || NULL_REFERENCE.is( node.getNextRel() ) )
+        {
+            return;
+        }
+
+        RecordAccess<RelationshipGroupRecord,Integer> groupRecords = recordChanges.getRelGroupRecords();
+        List<RecordProxy<RelationshipGroupRecord,Integer>> chain = new ArrayList<>();
+        boolean consecutive = true;
+        long previousId = NULL_REFERENCE.longValue();
+        for ( long groupId = node.getNextRel(); !NULL_REFERENCE.is( groupId ); )
+        {
+            RecordProxy<RelationshipGroupRecord,Integer> groupChange = groupRecords.getOrLoad( groupId, null, cursorTracer );
+            consecutive &= NULL_REFERENCE.is( previousId ) || groupId == previousId + 1;
+            chain.add( groupChange );
+            previousId = groupId;
+            groupId = groupChange.forReadingData().getNext();
+        }
+        if ( consecutive )
+        {
+            return;
+        }
+
+        IdRange range = idGenerator.nextIdBatch( chain.size(), true, cursorTracer );
+        assert range.getDefragIds().length == 0 && range.getRangeLength() == chain.size() : "Expected consecutive ids, got " + range;
+        long firstId = range.getRangeStart();
+        long previousPageBefore = -1;
+        for ( int i = 0; i < chain.size(); i++ )
+        {
+            RelationshipGroupRecord oldGroup = chain.get( i ).forChangingData();
+            long newId = firstId + i;
+            long next = i == chain.size() - 1 ? NULL_REFERENCE.longValue() : newId + 1;
+            RelationshipGroupRecord newGroup = groupRecords.create( newId, oldGroup.getType(), cursorTracer ).forChangingData();
+            newGroup.initialize( true, oldGroup.getType(), oldGroup.getFirstOut(), oldGroup.getFirstIn(), oldGroup.getFirstLoop(), nodeId, next );
+            newGroup.setCreated();
+
+            moveDegree( nodeId, oldGroup.getId(), newId, oldGroup.getFirstOut(), RelationshipDirection.OUTGOING, recordChanges, groupDegreesUpdater );
+            moveDegree( nodeId, oldGroup.getId(), newId, oldGroup.getFirstIn(), RelationshipDirection.INCOMING, recordChanges, groupDegreesUpdater );
+            moveDegree( nodeId, oldGroup.getId(), newId, oldGroup.getFirstLoop(), RelationshipDirection.LOOP, recordChanges, groupDegreesUpdater );
+
+            long pageBefore = oldGroup.getId() / recordsPerPage;
+            if ( previousPageBefore != -1 && pageBefore != previousPageBefore )
+            {
+                statistics.pageSwitchesBefore++;
+            }
+            previousPageBefore = pageBefore;
+            if ( i > 0 && newId / recordsPerPage != (newId - 1) / recordsPerPage )
+            {
+                statistics.pageSwitchesAfter++;
+            }
+            oldGroup.setInUse( false );
+        }
+        nodeChange.forChangingLinkage().setNextRel( firstId );
+        statistics.nodes++;
+        statistics.groups += chain.size();
+    }
+
+    private void moveDegree( long nodeId, long fromGroupId, long toGroupId, long firstRelationshipId, RelationshipDirection direction,
+            RecordAccessSet recordChanges, RelationshipGroupDegreesStore.Updater groupDegreesUpdater )
+    {
+        if ( NULL_REFERENCE.is( firstRelationshipId ) )
+        {
+            return;
+        }
+        // The first relationship in a chain keeps the length of that chain
+        RelationshipRecord firstRelationship = recordChanges.getRelRecords().getOrLoad( firstRelationshipId, null, cursorTracer ).forReadingLinkage();
+        long degree = relCount( nodeId, firstRelationship );
+        groupDegreesUpdater.increment( fromGroupId, direction, -degree );
+        groupDegreesUpdater.increment( toGroupId, direction, degree );
+    }
+
+    /**
+     * Sums up the relationship group chains compacted by a transaction.
+     */
+    static class Statistics
+    {
+        private long nodes;
+        private long groups;
+        private long pageSwitchesBefore;
+        private long pageSwitchesAfter;
+
+        long nodes()
+        {
+            return nodes;
+        }
+
+        long groups()
+        {
+            return groups;
+        }
+
+        long pageSwitchesBefore()
+        {
+            return pageSwitchesBefore;
+        }
+
+        long pageSwitchesAfter()
+        {
+            return pageSwitchesAfter;
+        }
+
+        @Override
+        public String toString()
+        {
+            return format( "Compacted relationship group chains of %d nodes: groups=%d groupPageSwitchesBefore=%d groupPageSwitchesAfter=%d",
+                    nodes, groups, pageSwitchesBefore, pageSwitchesAfter );
+        }
+    }
+}
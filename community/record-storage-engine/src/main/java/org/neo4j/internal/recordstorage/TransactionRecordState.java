@@ -19,6 +19,9 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -41,11 +44,14 @@ import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.TokenStore;
+import org.neo4j.kernel.impl.store.format.RecordStorageCapability;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesNodeRecordFormat;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
@@ -59,10 +65,16 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
 
 import static java.lang.String.format;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
 import static org.neo4j.kernel.impl.store.PropertyStore.encodeString;
+import static org.neo4j.kernel.impl.store.record.NodeRecord.NO_PROPERTY_KEYS;
+import static org.neo4j.kernel.impl.store.record.NodeRecord.NO_RELATIONSHIP_TYPES;
+import static org.neo4j.kernel.impl.store.record.NodeRecord.UNKNOWN_PROPERTY_KEYS;
+import static org.neo4j.kernel.impl.store.record.NodeRecord.UNKNOWN_RELATIONSHIP_TYPES;
 
 /**
  * Transaction containing {@link Command commands} reflecting the operations performed in the transaction.
@@ -91,16 +103,27 @@ public class TransactionRecordState implements RecordState
     private final ResourceLocker locks;
     private final RelationshipCreator relationshipCreator;
     private final RelationshipDeleter relationshipDeleter;
+    private final RelationshipGroupCompactor relationshipGroupCompactor;
     private final PropertyCreator propertyCreator;
     private final PropertyDeleter propertyDeleter;
     private final PageCursorTracer cursorTracer;
     private final MemoryTracker memoryTracker;
+    private final GroupDegreesRecordState groupDegrees = new GroupDegreesRecordState();
+    private final RelationshipGroupCompactor.Statistics groupCompactionStatistics = new RelationshipGroupCompactor.Statistics();
+    private final boolean groupDegreeCommands;
+    private final boolean inlineNodeProperties;
+    private final boolean hasNodeRelationshipTypes;
+    private final boolean nodeRelationshipTypes;
+    private final boolean nodePropertyKeys;
+    private MutableLongSet nodesWithDeletedRelationships;
 
     private boolean prepared;
 
     TransactionRecordState( NeoStores neoStores, IntegrityValidator integrityValidator, RecordChangeSet recordChangeSet,
             long lastCommittedTxWhenTransactionStarted, ResourceLocker locks, RelationshipCreator relationshipCreator, RelationshipDeleter relationshipDeleter,
-            PropertyCreator propertyCreator, PropertyDeleter propertyDeleter, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+            RelationshipGroupCompactor relationshipGroupCompactor, PropertyCreator propertyCreator, PropertyDeleter propertyDeleter,
+            boolean groupDegreeCommands, boolean inlineNodeProperties, boolean nodeRelationshipTypes, boolean nodePropertyKeys,
+            PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
     {
         this.neoStores = neoStores;
         this.nodeStore = neoStores.getNodeStore();
@@ -113,8 +136,14 @@ public class TransactionRecordState implements RecordState
         this.locks = locks;
         this.relationshipCreator = relationshipCreator;
         this.relationshipDeleter = relationshipDeleter;
+        this.relationshipGroupCompactor = relationshipGroupCompactor;
         this.propertyCreator = propertyCreator;
         this.propertyDeleter = propertyDeleter;
+        this.groupDegreeCommands = groupDegreeCommands;
+        this.inlineNodeProperties = inlineNodeProperties && neoStores.getRecordFormats().hasCapability( RecordStorageCapability.INLINED_NODE_PROPERTIES );
+        this.hasNodeRelationshipTypes = neoStores.getRecordFormats().hasCapability( RecordStorageCapability.NODE_RELATIONSHIP_TYPES );
+        this.nodeRelationshipTypes = nodeRelationshipTypes && hasNodeRelationshipTypes;
+        this.nodePropertyKeys = nodePropertyKeys && neoStores.getRecordFormats().hasCapability( RecordStorageCapability.NODE_PROPERTY_KEYS );
         this.cursorTracer = cursorTracer;
         this.memoryTracker = memoryTracker;
     }
@@ -125,6 +154,16 @@ public class TransactionRecordState implements RecordState
         assert !prepared : "Transaction has already been prepared";
 
         integrityValidator.validateTransactionStartKnowledge( lastCommittedTxWhenTransactionStarted );
+        updateNodeRelationshipTypes();
+        if ( !nodePropertyKeys )
+        {
+            // Property keys are kept up to date by PropertyCreator and PropertyDeleter, but transactions in log formats
+            // that can't carry them leave them unknown instead
+            for ( RecordProxy<NodeRecord,Void> change : recordChangeSet.getNodeRecords().changes() )
+            {
+                change.forReadingLinkage().setPropertyKeys( UNKNOWN_PROPERTY_KEYS );
+            }
+        }
 
         int noOfCommands = recordChangeSet.changeSize();
 
@@ -269,9 +308,31 @@ public class TransactionRecordState implements RecordState
         assert commands.size() == noOfCommands - skippedCommands : format( "Expected %d final commands, got %d " +
                 "instead, with %d skipped", noOfCommands, commands.size(), skippedCommands );
 
+        if ( groupDegreeCommands )
+        {
+            groupDegrees.extractCommands( commands, memoryTracker );
+        }
+
         prepared = true;
     }
 
+    /**
+     * @return whether or not this transaction changes the degree of any relationship group, regardless of whether or not
+     * those changes are extracted as commands.
+     */
+    boolean hasGroupDegreeChanges()
+    {
+        return groupDegrees.hasChanges();
+    }
+
+    /**
+     * @return the relationship group chains compacted by this transaction.
+     */
+    RelationshipGroupCompactor.Statistics groupCompactionStatistics()
+    {
+        return groupCompactionStatistics;
+    }
+
     private <RECORD extends AbstractBaseRecord> RECORD prepared(
             RecordProxy<RECORD,?> proxy, RecordStore<RECORD> store )
     {
@@ -282,12 +343,75 @@ public class TransactionRecordState implements RecordState
 
     void relCreate( long id, int typeId, long startNodeId, long endNodeId )
     {
-        relationshipCreator.relationshipCreate( id, typeId, startNodeId, endNodeId, recordChangeSet, locks );
+        relationshipCreator.relationshipCreate( id, typeId, startNodeId, endNodeId, recordChangeSet, groupDegrees, locks );
     }
 
     void relDelete( long relId )
     {
-        relationshipDeleter.relDelete( relId, recordChangeSet, locks );
+        if ( hasNodeRelationshipTypes )
+        {
+            RelationshipRecord record = recordChangeSet.getRelRecords().getOrLoad( relId, null, cursorTracer ).forReadingLinkage();
+            if ( nodesWithDeletedRelationships == null )
+            {
+                nodesWithDeletedRelationships = LongSets.mutable.empty();
+            }
+            nodesWithDeletedRelationships.add( record.getFirstNode() );
+            nodesWithDeletedRelationships.add( record.getSecondNode() );
+        }
+        relationshipDeleter.relDelete( relId, recordChangeSet, groupDegrees, locks );
+    }
+
+    /**
+     * Moves the relationship groups of a dense node into consecutive ids, see {@link RelationshipGroupCompactor}.
+     */
+    void compactRelationshipGroups( long nodeId )
+    {
+        relationshipGroupCompactor.compact( nodeId, recordChangeSet, groupDegrees, groupCompactionStatistics );
+    }
+
+    /**
+     * Relationship types of sparse nodes are only added to when creating relationships, so here they're brought up to date for nodes
+     * that had relationships deleted. Transactions in log formats that can't carry them leave them unknown instead.
+     */
+    private void updateNodeRelationshipTypes()
+    {
+        RecordAccess<NodeRecord,Void> nodeRecords = recordChangeSet.getNodeRecords();
+        if ( nodesWithDeletedRelationships != null )
+        {
+            nodesWithDeletedRelationships.forEach( nodeId ->
+            {
+                RecordProxy<NodeRecord,Void> nodeChange = nodeRecords.getOrLoad( nodeId, null, cursorTracer );
+                NodeRecord node = nodeChange.forReadingLinkage();
+                if ( node.inUse() && !node.isDense() && node.hasKnownRelationshipTypes() )
+                {
+                    long relationshipTypes = nodeRelationshipTypes ? relationshipTypesOfChain( node ) : UNKNOWN_RELATIONSHIP_TYPES;
+                    if ( relationshipTypes != node.getRelationshipTypes() )
+                    {
+                        nodeChange.forChangingLinkage().setRelationshipTypes( relationshipTypes );
+                    }
+                }
+            } );
+        }
+        if ( !nodeRelationshipTypes )
+        {
+            for ( RecordProxy<NodeRecord,Void> change : nodeRecords.changes() )
+            {
+                change.forReadingLinkage().setRelationshipTypes( UNKNOWN_RELATIONSHIP_TYPES );
+            }
+        }
+    }
+
+    private long relationshipTypesOfChain( NodeRecord node )
+    {
+        long relationshipTypes = NO_RELATIONSHIP_TYPES;
+        long relId = node.getNextRel();
+        while ( relId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipRecord rel = recordChangeSet.getRelRecords().getOrLoad( relId, null, cursorTracer ).forReadingLinkage();
+            relationshipTypes = NodeRecord.withRelationshipType( relationshipTypes, rel.getType() );
+            relId = rel.getFirstNode() == node.getId() ? rel.getFirstNextRel() : rel.getSecondNextRel();
+        }
+        return relationshipTypes;
     }
 
     private void addFiltered( Collection<StorageCommand> target, Mode mode, Command[]... commands )
@@ -320,6 +444,9 @@ public class TransactionRecordState implements RecordState
         nodeRecord.setInUse( false );
         nodeRecord.setLabelField( Record.NO_LABELS_FIELD.intValue(),
                 markNotInUse( nodeRecord.getDynamicLabelRecords() ) );
+        nodeRecord.setInlinedPropertyBlocks( EMPTY_LONG_ARRAY );
+        nodeRecord.setRelationshipTypes( UNKNOWN_RELATIONSHIP_TYPES );
+        nodeRecord.setPropertyKeys( UNKNOWN_PROPERTY_KEYS );
         getAndDeletePropertyChain( nodeRecord );
     }
 
@@ -360,6 +487,7 @@ public class TransactionRecordState implements RecordState
     public void nodeRemoveProperty( long nodeId, int propertyKey )
     {
         RecordProxy<NodeRecord, Void> node = recordChangeSet.getNodeRecords().getOrLoad( nodeId, null, cursorTracer );
+        propertyCreator.spillInlinedProperties( node, recordChangeSet.getPropertyRecords() );
         propertyDeleter.removeProperty( node, propertyKey, recordChangeSet.getPropertyRecords() );
     }
 
@@ -386,6 +514,7 @@ public class TransactionRecordState implements RecordState
     void nodeChangeProperty( long nodeId, int propertyKey, Value value )
     {
         RecordProxy<NodeRecord, Void> node = recordChangeSet.getNodeRecords().getOrLoad( nodeId, null, cursorTracer );
+        propertyCreator.spillInlinedProperties( node, recordChangeSet.getPropertyRecords() );
         propertyCreator.primitiveSetProperty( node, propertyKey, value, recordChangeSet.getPropertyRecords() );
     }
 
@@ -411,9 +540,46 @@ public class TransactionRecordState implements RecordState
     void nodeAddProperty( long nodeId, int propertyKey, Value value )
     {
         RecordProxy<NodeRecord, Void> node = recordChangeSet.getNodeRecords().getOrLoad( nodeId, null, cursorTracer );
+        if ( !node.forReadingLinkage().isCreated() )
+        {
+            propertyCreator.spillInlinedProperties( node, recordChangeSet.getPropertyRecords() );
+        }
+        else if ( inlineNodeProperties && inlineProperty( node, propertyKey, value ) )
+        {
+            return;
+        }
         propertyCreator.primitiveSetProperty( node, propertyKey, value, recordChangeSet.getPropertyRecords() );
     }
 
+    /**
+     * Puts a property of a node created in this transaction in the node record, if it is a number or boolean and there's room for it.
+     * Such values are encoded in property blocks alone, they never need dynamic records.
+     *
+     * @return whether or not the property was inlined.
+     */
+    private boolean inlineProperty( RecordProxy<NodeRecord, Void> node, int propertyKey, Value value )
+    {
+        ValueGroup valueGroup = value.valueGroup();
+        if ( valueGroup != ValueGroup.NUMBER && valueGroup != ValueGroup.BOOLEAN )
+        {
+            return false;
+        }
+        PropertyBlock block = new PropertyBlock();
+        propertyStore.encodeValue( block, propertyKey, value, cursorTracer, memoryTracker );
+        long[] inlined = node.forReadingLinkage().getInlinedPropertyBlocks();
+        long[] valueBlocks = block.getValueBlocks();
+        if ( inlined.length + valueBlocks.length > InlinedPropertiesNodeRecordFormat.INLINED_PROPERTY_BLOCKS )
+        {
+            return false;
+        }
+        long[] blocks = Arrays.copyOf( inlined, inlined.length + valueBlocks.length );
+        System.arraycopy( valueBlocks, 0, blocks, inlined.length, valueBlocks.length );
+        NodeRecord record = node.forChangingData();
+        record.setInlinedPropertyBlocks( blocks );
+        record.addPropertyKey( propertyKey );
+        return true;
+    }
+
     void addLabelToNode( long labelId, long nodeId )
     {
         NodeRecord nodeRecord = recordChangeSet.getNodeRecords().getOrLoad( nodeId, null, cursorTracer ).forChangingData();
@@ -436,6 +602,14 @@ public class TransactionRecordState implements RecordState
         NodeRecord nodeRecord = recordChangeSet.getNodeRecords().create( nodeId, null, cursorTracer ).forChangingData();
         nodeRecord.setInUse( true );
         nodeRecord.setCreated();
+        if ( nodeRelationshipTypes )
+        {
+            nodeRecord.setRelationshipTypes( NO_RELATIONSHIP_TYPES );
+        }
+        if ( nodePropertyKeys )
+        {
+            nodeRecord.setPropertyKeys( NO_PROPERTY_KEYS );
+        }
     }
 
     /**
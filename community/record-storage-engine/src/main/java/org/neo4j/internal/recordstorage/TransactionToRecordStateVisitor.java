@@ -253,4 +253,10 @@ class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter
     {
         recordState.createRelationshipTypeToken( name, id, internal );
     }
+
+    @Override
+    public void visitCompactedNodeRelationships( long id )
+    {
+        recordState.compactRelationshipGroups( id );
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.snapshot;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.neo4j.token.api.NamedToken;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshotFormat.ABSENT;
+import static org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshotFormat.FLOATING_POINT;
+import static org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshotFormat.INTEGRAL;
+
+/**
+ * Read access to a snapshot written by {@link ColumnarSnapshotWriter}. The whole file is memory mapped and all accessors read straight
+ * from the mapped memory, so there's nothing loaded onto the heap up front except the header. Instances are safe for concurrent reads.
+ * <p>
+ * Nodes are addressed by node id, from {@code 0} to {@link #nodeCount()}, where ids of nodes that weren't in use are present but empty.
+ * Relationships are addressed by their position in the outgoing adjacency lists, from {@code 0} to {@link #relationshipCount()}.
+ */
+public class ColumnarSnapshot implements AutoCloseable
+{
+    private final ColumnarSnapshotFormat layout;
+    private final MappedSnapshotFile file;
+
+    private ColumnarSnapshot( ColumnarSnapshotFormat layout, MappedSnapshotFile file )
+    {
+        this.layout = layout;
+        this.file = file;
+    }
+
+    public static ColumnarSnapshot open( Path path ) throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open( path, READ ) )
+        {
+            MappedSnapshotFile file = MappedSnapshotFile.map( channel, FileChannel.MapMode.READ_ONLY, channel.size() );
+            try
+            {
+                ColumnarSnapshotFormat layout = ColumnarSnapshotFormat.deserializeHeader( file.header() );
+                if ( layout.size != channel.size() )
+                {
+                    throw new IllegalStateException( format( "Snapshot file %s has size %d, expected %d", path, channel.size(), layout.size ) );
+                }
+                return new ColumnarSnapshot( layout, file );
+            }
+            catch ( RuntimeException e )
+            {
+                file.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the number of node ids in this snapshot, including ids of nodes that weren't in use.
+     */
+    public long nodeCount()
+    {
+        return layout.nodeCount;
+    }
+
+    /**
+     * @return the number of relationships in this snapshot.
+     */
+    public long relationshipCount()
+    {
+        return layout.relationshipCount;
+    }
+
+    public List<NamedToken> labelTokens()
+    {
+        return layout.labelTokens;
+    }
+
+    public List<NamedToken> relationshipTypeTokens()
+    {
+        return layout.relationshipTypeTokens;
+    }
+
+    public boolean nodeInUse( long node )
+    {
+        return file.getByte( layout.nodeInUse + node ) != 0;
+    }
+
+    public int labelCount( long node )
+    {
+        return (int) (labelOffset( node + 1 ) - labelOffset( node ));
+    }
+
+    /**
+     * @param node node id.
+     * @param index index of the label of this node, between {@code 0} and {@link #labelCount(long)}.
+     * @return label token id.
+     */
+    public int label( long node, int index )
+    {
+        return file.getInt( layout.labels + (labelOffset( node ) + index) * Integer.BYTES );
+    }
+
+    /**
+     * @return number of outgoing relationships of the given node.
+     */
+    public long degree( long node )
+    {
+        return adjacencyOffset( node + 1 ) - adjacencyOffset( node );
+    }
+
+    /**
+     * @return position of the first outgoing relationship of the given node, the following {@link #degree(long)} positions
+     * are the rest of its outgoing relationships.
+     */
+    public long adjacencyOffset( long node )
+    {
+        return file.getLong( layout.adjacencyOffsets + node * Long.BYTES );
+    }
+
+    public long target( long position )
+    {
+        return file.getLong( layout.targets + position * Long.BYTES );
+    }
+
+    public long relationshipId( long position )
+    {
+        return file.getLong( layout.relationshipIds + position * Long.BYTES );
+    }
+
+    public int relationshipType( long position )
+    {
+        return file.getInt( layout.types + position * Integer.BYTES );
+    }
+
+    /**
+     * @param key property key name.
+     * @return the column for the given node property, indexed by node id.
+     * @throws IllegalArgumentException if the property wasn't selected when writing this snapshot.
+     */
+    public PropertyColumn nodeProperty( String key )
+    {
+        int column = column( layout.nodeColumns, key );
+        return new PropertyColumn( file, layout.nodeColumnKinds[column], layout.nodeColumnValues[column] );
+    }
+
+    /**
+     * @param key property key name.
+     * @return the column for the given relationship property, indexed by relationship position.
+     * @throws IllegalArgumentException if the property wasn't selected when writing this snapshot.
+     */
+    public PropertyColumn relationshipProperty( String key )
+    {
+        int column = column( layout.relationshipColumns, key );
+        return new PropertyColumn( file, layout.relationshipColumnKinds[column], layout.relationshipColumnValues[column] );
+    }
+
+    @Override
+    public void close()
+    {
+        file.close();
+    }
+
+    private long labelOffset( long node )
+    {
+        return file.getLong( layout.labelOffsets + node * Long.BYTES );
+    }
+
+    private static int column( List<String> columns, String key )
+    {
+        int column = columns.indexOf( key );
+        if ( column == -1 )
+        {
+            throw new IllegalArgumentException( format( "Property '%s' is not part of this snapshot, available properties are %s", key, columns ) );
+        }
+        return column;
+    }
+
+    /**
+     * A column of numeric property values. Integral values are kept as longs and floating point values as doubles,
+     * both can be read as either with the usual primitive conversion.
+     */
+    public static class PropertyColumn
+    {
+        private final MappedSnapshotFile file;
+        private final long kinds;
+        private final long values;
+
+        private PropertyColumn( MappedSnapshotFile file, long kinds, long values )
+        {
+            this.file = file;
+            this.kinds = kinds;
+            this.values = values;
+        }
+
+        public boolean hasValue( long index )
+        {
+            return file.getByte( kinds + index ) != ABSENT;
+        }
+
+        public boolean isFloatingPoint( long index )
+        {
+            return file.getByte( kinds + index ) == FLOATING_POINT;
+        }
+
+        public long longValue( long index )
+        {
+            long raw = file.getLong( values + index * Long.BYTES );
+            return file.getByte( kinds + index ) == INTEGRAL ? raw : (long) Double.longBitsToDouble( raw );
+        }
+
+        public double doubleValue( long index )
+        {
+            long raw = file.getLong( values + index * Long.BYTES );
+            return file.getByte( kinds + index ) == FLOATING_POINT ? Double.longBitsToDouble( raw ) : raw;
+        }
+    }
+}
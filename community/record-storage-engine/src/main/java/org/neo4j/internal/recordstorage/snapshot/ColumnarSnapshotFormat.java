@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.snapshot;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.token.api.NamedToken;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Layout of a columnar snapshot file. The file starts with a header, followed by a number of sections, each aligned to 8 bytes:
+ * <ol>
+ *     <li>node in use, one byte per node id</li>
+ *     <li>label offsets, {@code nodeCount + 1} longs, labels of node {@code n} are at {@code [labelOffsets[n], labelOffsets[n + 1])}</li>
+ *     <li>labels, one int label token id per label entry</li>
+ *     <li>adjacency offsets, {@code nodeCount + 1} longs, outgoing relationships of node {@code n} are at positions
+ *     {@code [adjacencyOffsets[n], adjacencyOffsets[n + 1])}</li>
+ *     <li>targets, one long target node id per relationship position</li>
+ *     <li>relationship ids, one long per relationship position</li>
+ *     <li>relationship types, one int relationship type token id per relationship position</li>
+ *     <li>for each node property column: one kind byte per node id and one long value per node id</li>
+ *     <li>for each relationship property column: one kind byte per relationship position and one long value per relationship position</li>
+ * </ol>
+ * All values are big endian. A property value is stored as a long for {@link #INTEGRAL} kinds and as the raw bits of a double
+ * for {@link #FLOATING_POINT} kinds.
+ */
+final class ColumnarSnapshotFormat
+{
+    static final long MAGIC = 0x4E454F34_43535231L;
+    static final int VERSION = 1;
+
+    static final byte ABSENT = 0;
+    static final byte INTEGRAL = 1;
+    static final byte FLOATING_POINT = 2;
+
+    final long nodeCount;
+    final long relationshipCount;
+    final long labelEntryCount;
+    final List<NamedToken> labelTokens;
+    final List<NamedToken> relationshipTypeTokens;
+    final List<String> nodeColumns;
+    final List<String> relationshipColumns;
+
+    final int headerSize;
+    final long nodeInUse;
+    final long labelOffsets;
+    final long labels;
+    final long adjacencyOffsets;
+    final long targets;
+    final long relationshipIds;
+    final long types;
+    final long[] nodeColumnKinds;
+    final long[] nodeColumnValues;
+    final long[] relationshipColumnKinds;
+    final long[] relationshipColumnValues;
+    final long size;
+
+    ColumnarSnapshotFormat( long nodeCount, long relationshipCount, long labelEntryCount, List<NamedToken> labelTokens,
+            List<NamedToken> relationshipTypeTokens, List<String> nodeColumns, List<String> relationshipColumns )
+    {
+        this.nodeCount = nodeCount;
+        this.relationshipCount = relationshipCount;
+        this.labelEntryCount = labelEntryCount;
+        this.labelTokens = labelTokens;
+        this.relationshipTypeTokens = relationshipTypeTokens;
+        this.nodeColumns = nodeColumns;
+        this.relationshipColumns = relationshipColumns;
+
+        this.headerSize = headerSize();
+        long offset = align( headerSize );
+        nodeInUse = offset;
+        offset = align( offset + nodeCount );
+        labelOffsets = offset;
+        offset = align( offset + (nodeCount + 1) * Long.BYTES );
+        labels = offset;
+        offset = align( offset + labelEntryCount * Integer.BYTES );
+        adjacencyOffsets = offset;
+        offset = align( offset + (nodeCount + 1) * Long.BYTES );
+        targets = offset;
+        offset = align( offset + relationshipCount * Long.BYTES );
+        relationshipIds = offset;
+        offset = align( offset + relationshipCount * Long.BYTES );
+        types = offset;
+        offset = align( offset + relationshipCount * Integer.BYTES );
+        nodeColumnKinds = new long[nodeColumns.size()];
+        nodeColumnValues = new long[nodeColumns.size()];
+        for ( int i = 0; i < nodeColumns.size(); i++ )
+        {
+            nodeColumnKinds[i] = offset;
+            offset = align( offset + nodeCount );
+            nodeColumnValues[i] = offset;
+            offset = align( offset + nodeCount * Long.BYTES );
+        }
+        relationshipColumnKinds = new long[relationshipColumns.size()];
+        relationshipColumnValues = new long[relationshipColumns.size()];
+        for ( int i = 0; i < relationshipColumns.size(); i++ )
+        {
+            relationshipColumnKinds[i] = offset;
+            offset = align( offset + relationshipCount );
+            relationshipColumnValues[i] = offset;
+            offset = align( offset + relationshipCount * Long.BYTES );
+        }
+        this.size = offset;
+    }
+
+    ByteBuffer serializeHeader()
+    {
+        ByteBuffer header = ByteBuffer.allocate( headerSize );
+        header.putLong( MAGIC );
+        header.putInt( VERSION );
+        header.putLong( nodeCount );
+        header.putLong( relationshipCount );
+        header.putLong( labelEntryCount );
+        putTokens( header, labelTokens );
+        putTokens( header, relationshipTypeTokens );
+        putStrings( header, nodeColumns );
+        putStrings( header, relationshipColumns );
+        header.flip();
+        return header;
+    }
+
+    static ColumnarSnapshotFormat deserializeHeader( ByteBuffer header )
+    {
+        long magic = header.getLong();
+        if ( magic != MAGIC )
+        {
+            throw new IllegalStateException( format( "Not a columnar snapshot file, unexpected magic number %x", magic ) );
+        }
+        int version = header.getInt();
+        if ( version != VERSION )
+        {
+            throw new IllegalStateException( format( "Unsupported columnar snapshot version %d, expected %d", version, VERSION ) );
+        }
+        long nodeCount = header.getLong();
+        long relationshipCount = header.getLong();
+        long labelEntryCount = header.getLong();
+        List<NamedToken> labelTokens = getTokens( header );
+        List<NamedToken> relationshipTypeTokens = getTokens( header );
+        List<String> nodeColumns = getStrings( header );
+        List<String> relationshipColumns = getStrings( header );
+        return new ColumnarSnapshotFormat( nodeCount, relationshipCount, labelEntryCount, labelTokens, relationshipTypeTokens, nodeColumns,
+                relationshipColumns );
+    }
+
+    private int headerSize()
+    {
+        int size = Long.BYTES + Integer.BYTES + 3 * Long.BYTES;
+        size += tokensSize( labelTokens );
+        size += tokensSize( relationshipTypeTokens );
+        size += stringsSize( nodeColumns );
+        size += stringsSize( relationshipColumns );
+        return size;
+    }
+
+    private static long align( long offset )
+    {
+        return (offset + Long.BYTES - 1) & ~(Long.BYTES - 1);
+    }
+
+    private static int tokensSize( List<NamedToken> tokens )
+    {
+        int size = Integer.BYTES;
+        for ( NamedToken token : tokens )
+        {
+            size += Integer.BYTES + stringSize( token.name() );
+        }
+        return size;
+    }
+
+    private static int stringsSize( List<String> strings )
+    {
+        int size = Integer.BYTES;
+        for ( String string : strings )
+        {
+            size += stringSize( string );
+        }
+        return size;
+    }
+
+    private static int stringSize( String string )
+    {
+        return Integer.BYTES + string.getBytes( UTF_8 ).length;
+    }
+
+    private static void putTokens( ByteBuffer buffer, List<NamedToken> tokens )
+    {
+        buffer.putInt( tokens.size() );
+        for ( NamedToken token : tokens )
+        {
+            buffer.putInt( token.id() );
+            putString( buffer, token.name() );
+        }
+    }
+
+    private static void putStrings( ByteBuffer buffer, List<String> strings )
+    {
+        buffer.putInt( strings.size() );
+        for ( String string : strings )
+        {
+            putString( buffer, string );
+        }
+    }
+
+    private static void putString( ByteBuffer buffer, String string )
+    {
+        byte[] bytes = string.getBytes( UTF_8 );
+        buffer.putInt( bytes.length );
+        buffer.put( bytes );
+    }
+
+    private static List<NamedToken> getTokens( ByteBuffer buffer )
+    {
+        int count = buffer.getInt();
+        List<NamedToken> tokens = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            int id = buffer.getInt();
+            tokens.add( new NamedToken( getString( buffer ), id ) );
+        }
+        return tokens;
+    }
+
+    private static List<String> getStrings( ByteBuffer buffer )
+    {
+        int count = buffer.getInt();
+        List<String> strings = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            strings.add( getString( buffer ) );
+        }
+        return strings;
+    }
+
+    private static String getString( ByteBuffer buffer )
+    {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get( bytes );
+        return new String( bytes, UTF_8 );
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.snapshot;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.internal.helpers.NamedThreadFactory;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.token.api.NamedToken;
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.Value;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshotFormat.FLOATING_POINT;
+import static org.neo4j.internal.recordstorage.snapshot.ColumnarSnapshotFormat.INTEGRAL;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+import static org.neo4j.util.Preconditions.checkArgument;
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * Writes a columnar snapshot of the nodes, labels, relationships and selected numeric properties in a record store into a single file,
+ * which can then be memory mapped and read using {@link ColumnarSnapshot}. Relationships are laid out as outgoing adjacency lists
+ * in compressed sparse row form, the order of relationships within the adjacency list of a node is unspecified.
+ * <p>
+ * The node and relationship stores are scanned in parallel, twice each: once to count labels and degrees and once to write
+ * the actual data into the mapped file. The stores must not be modified while the snapshot is written, i.e. this is meant to
+ * run against a database which is not started.
+ * <p>
+ * Besides the mapped file this needs 12 bytes of heap per node id for label counts and adjacency offsets.
+ */
+public class ColumnarSnapshotWriter
+{
+    private static final String SNAPSHOT_WRITER_TAG = "columnarSnapshotWriter";
+    private static final int BATCH_SIZE = 10_000;
+    private static final long MAX_NODE_COUNT = Integer.MAX_VALUE - 8;
+
+    private final NeoStores neoStores;
+    private final int numberOfThreads;
+    private final PageCacheTracer pageCacheTracer;
+
+    public ColumnarSnapshotWriter( NeoStores neoStores, int numberOfThreads, PageCacheTracer pageCacheTracer )
+    {
+        this.neoStores = neoStores;
+        this.numberOfThreads = requirePositive( numberOfThreads );
+        this.pageCacheTracer = pageCacheTracer;
+    }
+
+    /**
+     * Writes a snapshot into a new file.
+     *
+     * @param file the file to write the snapshot to, must not already exist.
+     * @param nodePropertyKeys names of node properties to write as columns. Only numeric values are included.
+     * @param relationshipPropertyKeys names of relationship properties to write as columns. Only numeric values are included.
+     * @throws IOException on I/O error writing the file.
+     * @throws IllegalArgumentException if any of the property keys doesn't exist in the store, or the store has too many nodes.
+     */
+    public void write( Path file, List<String> nodePropertyKeys, List<String> relationshipPropertyKeys ) throws IOException
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        long nodeCount = nodeStore.getHighId();
+        checkArgument( nodeCount <= MAX_NODE_COUNT, "Snapshots of stores with more than %d node ids are not supported, this store has %d",
+                MAX_NODE_COUNT, nodeCount );
+
+        List<NamedToken> labelTokens;
+        List<NamedToken> relationshipTypeTokens;
+        int[] nodePropertyKeyIds;
+        int[] relationshipPropertyKeyIds;
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( SNAPSHOT_WRITER_TAG ) )
+        {
+            labelTokens = neoStores.getLabelTokenStore().getAllReadableTokens( cursorTracer );
+            relationshipTypeTokens = neoStores.getRelationshipTypeTokenStore().getAllReadableTokens( cursorTracer );
+            List<NamedToken> propertyKeyTokens = neoStores.getPropertyKeyTokenStore().getAllReadableTokens( cursorTracer );
+            nodePropertyKeyIds = propertyKeyIds( propertyKeyTokens, nodePropertyKeys );
+            relationshipPropertyKeyIds = propertyKeyIds( propertyKeyTokens, relationshipPropertyKeys );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( numberOfThreads, new NamedThreadFactory( "ColumnarSnapshotWriter" ) );
+        try
+        {
+            int[] labelCounts = new int[(int) nodeCount];
+            scan( executor, nodeCount, ( context, nodeId ) ->
+            {
+                NodeRecord node = context.node( nodeId );
+                if ( node.inUse() )
+                {
+                    labelCounts[(int) nodeId] = NodeLabelsField.get( node, nodeStore, context.cursorTracer ).length;
+                }
+            } );
+            AtomicLongArray adjacency = new AtomicLongArray( (int) nodeCount );
+            scan( executor, relationshipStore.getHighId(), ( context, relationshipId ) ->
+            {
+                RelationshipRecord relationship = context.relationship( relationshipId );
+                if ( relationship.inUse() )
+                {
+                    adjacency.incrementAndGet( (int) relationship.getFirstNode() );
+                }
+            } );
+
+            long labelEntryCount = 0;
+            long relationshipCount = 0;
+            for ( int i = 0; i < nodeCount; i++ )
+            {
+                labelEntryCount += labelCounts[i];
+                relationshipCount += adjacency.get( i );
+            }
+            ColumnarSnapshotFormat layout = new ColumnarSnapshotFormat( nodeCount, relationshipCount, labelEntryCount, labelTokens,
+                    relationshipTypeTokens, nodePropertyKeys, relationshipPropertyKeys );
+
+            try ( FileChannel channel = FileChannel.open( file, CREATE_NEW, READ, WRITE ) )
+            {
+                channel.write( layout.serializeHeader(), 0 );
+                try ( MappedSnapshotFile snapshot = MappedSnapshotFile.map( channel, FileChannel.MapMode.READ_WRITE, layout.size ) )
+                {
+                    // Turn counts into offsets, the adjacency offsets also act as insertion points for the relationship pass
+                    long labelOffset = 0;
+                    long adjacencyOffset = 0;
+                    for ( int i = 0; i < nodeCount; i++ )
+                    {
+                        snapshot.putLong( layout.labelOffsets + (long) i * Long.BYTES, labelOffset );
+                        snapshot.putLong( layout.adjacencyOffsets + (long) i * Long.BYTES, adjacencyOffset );
+                        labelOffset += labelCounts[i];
+                        adjacencyOffset += adjacency.getAndSet( i, adjacencyOffset );
+                    }
+                    snapshot.putLong( layout.labelOffsets + nodeCount * Long.BYTES, labelOffset );
+                    snapshot.putLong( layout.adjacencyOffsets + nodeCount * Long.BYTES, adjacencyOffset );
+
+                    scan( executor, nodeCount, ( context, nodeId ) ->
+                    {
+                        NodeRecord node = context.node( nodeId );
+                        if ( node.inUse() )
+                        {
+                            snapshot.putByte( layout.nodeInUse + nodeId, (byte) 1 );
+                            long[] labels = NodeLabelsField.get( node, nodeStore, context.cursorTracer );
+                            long offset = snapshot.getLong( layout.labelOffsets + nodeId * Long.BYTES );
+                            for ( int i = 0; i < labels.length; i++ )
+                            {
+                                snapshot.putInt( layout.labels + (offset + i) * Integer.BYTES, (int) labels[i] );
+                            }
+                            context.nodeProperties( node, nodePropertyKeyIds, snapshot, layout.nodeColumnKinds, layout.nodeColumnValues, nodeId );
+                        }
+                    } );
+                    scan( executor, relationshipStore.getHighId(), ( context, relationshipId ) ->
+                    {
+                        RelationshipRecord relationship = context.relationship( relationshipId );
+                        if ( relationship.inUse() )
+                        {
+                            long position = adjacency.getAndIncrement( (int) relationship.getFirstNode() );
+                            snapshot.putLong( layout.targets + position * Long.BYTES, relationship.getSecondNode() );
+                            snapshot.putLong( layout.relationshipIds + position * Long.BYTES, relationshipId );
+                            snapshot.putInt( layout.types + position * Integer.BYTES, relationship.getType() );
+                            context.properties( relationship.getNextProp(), relationshipPropertyKeyIds, snapshot, layout.relationshipColumnKinds,
+                                    layout.relationshipColumnValues, position );
+                        }
+                    } );
+                    snapshot.force();
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int[] propertyKeyIds( List<NamedToken> propertyKeyTokens, List<String> propertyKeys )
+    {
+        int[] ids = new int[propertyKeys.size()];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            String key = propertyKeys.get( i );
+            ids[i] = propertyKeyTokens.stream().filter( token -> token.name().equals( key ) ).mapToInt( NamedToken::id ).findFirst()
+                    .orElseThrow( () -> new IllegalArgumentException( format( "Property key '%s' does not exist in this store", key ) ) );
+        }
+        return ids;
+    }
+
+    /**
+     * Visits all ids up to {@code highId} using all threads, each thread working on batches of consecutive ids.
+     */
+    private void scan( ExecutorService executor, long highId, RecordVisitor visitor ) throws IOException
+    {
+        AtomicLong nextBatch = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>( numberOfThreads );
+        for ( int i = 0; i < numberOfThreads; i++ )
+        {
+            workers.add( executor.submit( () ->
+            {
+                try ( ScanContext context = new ScanContext( neoStores, pageCacheTracer.createPageCursorTracer( SNAPSHOT_WRITER_TAG ) ) )
+                {
+                    long from;
+                    while ( (from = nextBatch.getAndAdd( BATCH_SIZE )) < highId )
+                    {
+                        long to = min( from + BATCH_SIZE, highId );
+                        for ( long id = from; id < to; id++ )
+                        {
+                            visitor.visit( context, id );
+                        }
+                    }
+                }
+            } ) );
+        }
+        for ( Future<?> worker : workers )
+        {
+            try
+            {
+                worker.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while writing snapshot", e );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Failed to write snapshot", e.getCause() );
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor
+    {
+        void visit( ScanContext context, long id );
+    }
+
+    /**
+     * Cursors and records used by a single scanning thread.
+     */
+    private static class ScanContext implements AutoCloseable
+    {
+        private final NodeStore nodeStore;
+        private final RelationshipStore relationshipStore;
+        private final PropertyStore propertyStore;
+        private final PageCursorTracer cursorTracer;
+        private final PageCursor nodeCursor;
+        private final PageCursor relationshipCursor;
+        private final PageCursor propertyCursor;
+        private final NodeRecord node;
+        private final RelationshipRecord relationship;
+        private final PropertyRecord property;
+
+        ScanContext( NeoStores neoStores, PageCursorTracer cursorTracer )
+        {
+            this.nodeStore = neoStores.getNodeStore();
+            this.relationshipStore = neoStores.getRelationshipStore();
+            this.propertyStore = neoStores.getPropertyStore();
+            this.cursorTracer = cursorTracer;
+            this.nodeCursor = nodeStore.openPageCursorForReadingWithPrefetching( 0, cursorTracer );
+            this.relationshipCursor = relationshipStore.openPageCursorForReadingWithPrefetching( 0, cursorTracer );
+            this.propertyCursor = propertyStore.openPageCursorForReading( 0, cursorTracer );
+            this.node = nodeStore.newRecord();
+            this.relationship = relationshipStore.newRecord();
+            this.property = propertyStore.newRecord();
+        }
+
+        NodeRecord node( long id )
+        {
+            nodeStore.getRecordByCursor( id, node, CHECK, nodeCursor );
+            return node;
+        }
+
+        RelationshipRecord relationship( long id )
+        {
+            relationshipStore.getRecordByCursor( id, relationship, CHECK, relationshipCursor );
+            return relationship;
+        }
+
+        /**
+         * Like {@link #properties(long, int[], MappedSnapshotFile, long[], long[], long)}, but for the properties of a node,
+         * which may also have properties inlined in its record.
+         */
+        void nodeProperties( NodeRecord node, int[] keyIds, MappedSnapshotFile snapshot, long[] kinds, long[] values, long index )
+        {
+            if ( keyIds.length == 0 )
+            {
+                return;
+            }
+            if ( node.hasInlinedProperties() )
+            {
+                for ( PropertyBlock block : node.getInlinedProperties() )
+                {
+                    property( block, keyIds, snapshot, kinds, values, index );
+                }
+            }
+            properties( node.getNextProp(), keyIds, snapshot, kinds, values, index );
+        }
+
+        /**
+         * Writes numeric values of the selected property keys in the property chain starting at {@code firstProperty}
+         * into their columns at {@code index}.
+         */
+        void properties( long firstProperty, int[] keyIds, MappedSnapshotFile snapshot, long[] kinds, long[] values, long index )
+        {
+            if ( keyIds.length == 0 )
+            {
+                return;
+            }
+            long next = firstProperty;
+            while ( !NULL_REFERENCE.is( next ) )
+            {
+                propertyStore.getRecordByCursor( next, property, CHECK, propertyCursor );
+                if ( !property.inUse() )
+                {
+                    return;
+                }
+                for ( PropertyBlock block : property )
+                {
+                    property( block, keyIds, snapshot, kinds, values, index );
+                }
+                next = property.getNextProp();
+            }
+        }
+
+        private void property( PropertyBlock block, int[] keyIds, MappedSnapshotFile snapshot, long[] kinds, long[] values, long index )
+        {
+            int column = indexOf( keyIds, block.getKeyIndexId() );
+            if ( column != -1 && isNumeric( block ) )
+            {
+                Value value = block.newPropertyValue( propertyStore, cursorTracer );
+                if ( value instanceof IntegralValue )
+                {
+                    snapshot.putByte( kinds[column] + index, INTEGRAL );
+                    snapshot.putLong( values[column] + index * Long.BYTES, ((IntegralValue) value).longValue() );
+                }
+                else if ( value instanceof FloatingPointValue )
+                {
+                    snapshot.putByte( kinds[column] + index, FLOATING_POINT );
+                    snapshot.putLong( values[column] + index * Long.BYTES, Double.doubleToRawLongBits( ((FloatingPointValue) value).doubleValue() ) );
+                }
+            }
+        }
+
+        private static boolean isNumeric( PropertyBlock block )
+        {
+            switch ( block.getType() )
+            {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        private static int indexOf( int[] keyIds, int keyId )
+        {
+            for ( int i = 0; i < keyIds.length; i++ )
+            {
+                if ( keyIds[i] == keyId )
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close()
+        {
+            nodeCursor.close();
+            relationshipCursor.close();
+            propertyCursor.close();
+            cursorTracer.close();
+        }
+    }
+}
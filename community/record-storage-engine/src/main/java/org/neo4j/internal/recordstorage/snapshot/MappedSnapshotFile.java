@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+
+import static java.lang.Math.min;
+
+/**
+ * A file, or the first part of a file, mapped into memory in chunks so that regions larger than what a single
+ * {@link MappedByteBuffer} can address are supported. Values are accessed by absolute byte offset into the file.
+ * <p>
+ * Callers must keep values aligned to their size, which together with the chunk size being a power of two means that
+ * no single value ever spans two chunks.
+ */
+final class MappedSnapshotFile implements AutoCloseable
+{
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final MappedByteBuffer[] chunks;
+
+    private MappedSnapshotFile( MappedByteBuffer[] chunks )
+    {
+        this.chunks = chunks;
+    }
+
+    static MappedSnapshotFile map( FileChannel channel, FileChannel.MapMode mode, long size ) throws IOException
+    {
+        int numberOfChunks = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[numberOfChunks];
+        try
+        {
+            for ( int i = 0; i < numberOfChunks; i++ )
+            {
+                long position = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map( mode, position, min( size - position, 1L << CHUNK_SHIFT ) );
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            new MappedSnapshotFile( chunks ).close();
+            throw e;
+        }
+        return new MappedSnapshotFile( chunks );
+    }
+
+    byte getByte( long offset )
+    {
+        return chunk( offset ).get( position( offset ) );
+    }
+
+    void putByte( long offset, byte value )
+    {
+        chunk( offset ).put( position( offset ), value );
+    }
+
+    int getInt( long offset )
+    {
+        return chunk( offset ).getInt( position( offset ) );
+    }
+
+    void putInt( long offset, int value )
+    {
+        chunk( offset ).putInt( position( offset ), value );
+    }
+
+    long getLong( long offset )
+    {
+        return chunk( offset ).getLong( position( offset ) );
+    }
+
+    void putLong( long offset, long value )
+    {
+        chunk( offset ).putLong( position( offset ), value );
+    }
+
+    /**
+     * @return a view of the first chunk, positioned at the start of the file, for sequential reading of a header.
+     */
+    ByteBuffer header()
+    {
+        ByteBuffer header = chunks[0].duplicate();
+        header.position( 0 );
+        return header;
+    }
+
+    void force()
+    {
+        for ( MappedByteBuffer chunk : chunks )
+        {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        for ( int i = 0; i < chunks.length; i++ )
+        {
+            if ( chunks[i] != null )
+            {
+                UnsafeUtil.invokeCleaner( chunks[i] );
+                chunks[i] = null;
+            }
+        }
+    }
+
+    private MappedByteBuffer chunk( long offset )
+    {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)];
+    }
+
+    private static int position( long offset )
+    {
+        return (int) (offset & CHUNK_MASK);
+    }
+}
@@ -57,6 +57,7 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.util.concurrent.Runnables;
 
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
@@ -922,6 +923,54 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         }
     }
 
+    /**
+     * Reads the records from {@code id} up to and including {@code maxId}, although never past the end of the page that {@code id} lives on,
+     * and hands the ones that are in use to {@code batch}. As opposed to reading them one by one the page is only pinned, and
+     * checked for concurrent writes, once for all of them.
+     *
+     * @param id the first record id to read.
+     * @param maxId the highest record id to read.
+     * @param record scratch record to read into before handing it to {@code batch}.
+     * @param mode {@link RecordLoad} mode to read with.
+     * @param cursor {@link PageCursor} to read with.
+     * @param batch receives the in-use records read from the page.
+     * @return the id following the last record that was read, i.e. where to continue reading from.
+     */
+    public long readRecordsOnPage( long id, long maxId, RECORD record, RecordLoad mode, PageCursor cursor, RecordBatch<RECORD> batch )
+    {
+        long pageId = pageIdForRecord( id );
+        long lastId = min( maxId, (pageId + 1) * recordsPerPage - 1 );
+        batch.clear();
+        try
+        {
+            if ( cursor.next( pageId ) )
+            {
+                do
+                {
+                    batch.clear();
+                    for ( long recordId = id; recordId <= lastId; recordId++ )
+                    {
+                        record.setId( recordId );
+                        record.setInUse( false );
+                        cursor.setOffset( offsetForId( recordId ) );
+                        recordFormat.read( record, cursor, mode, recordSize, recordsPerPage );
+                        if ( record.inUse() )
+                        {
+                            batch.add( record );
+                        }
+                    }
+                }
+                while ( cursor.shouldRetry() );
+                checkForDecodingErrors( cursor, lastId, mode );
+            }
+            return lastId + 1;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     private void readRecordFromPage( long id, RECORD record, RecordLoad mode, PageCursor cursor ) throws IOException
     {
         cursor.mark();
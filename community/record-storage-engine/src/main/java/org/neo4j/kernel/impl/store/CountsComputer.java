@@ -27,20 +27,29 @@ import org.neo4j.internal.batchimport.RelationshipCountsStage;
 import org.neo4j.internal.batchimport.cache.NodeLabelsCache;
 import org.neo4j.internal.batchimport.cache.NumberArrayFactory;
 import org.neo4j.internal.counts.CountsBuilder;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.logging.Log;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 import static org.neo4j.internal.batchimport.cache.NumberArrayFactory.NO_MONITOR;
 import static org.neo4j.internal.batchimport.staging.ExecutionSupervisors.superviseDynamicExecution;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
 
 public class CountsComputer implements CountsBuilder
 {
     private final NodeStore nodes;
     private final RelationshipStore relationships;
+    private final RelationshipGroupStore groups;
     private final int highLabelId;
     private final int highRelationshipTypeId;
     private final long lastCommittedTransactionId;
@@ -54,27 +63,29 @@ public class CountsComputer implements CountsBuilder
             MemoryTracker memoryTracker, Log log )
     {
         this( stores.getMetaDataStore().getLastCommittedTransactionId(),
-                stores.getNodeStore(), stores.getRelationshipStore(),
+                stores.getNodeStore(), stores.getRelationshipStore(), stores.getRelationshipGroupStore(),
                 (int) stores.getLabelTokenStore().getHighId(),
                 (int) stores.getRelationshipTypeTokenStore().getHighId(),
                 NumberArrayFactory.auto( pageCache, pageCacheTracer, databaseLayout.databaseDirectory(), true, NO_MONITOR, log ),
                 databaseLayout, pageCacheTracer, memoryTracker );
     }
 
-    private CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, int highLabelId, int highRelationshipTypeId,
-            NumberArrayFactory numberArrayFactory, DatabaseLayout databaseLayout, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker )
+    private CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, RelationshipGroupStore groups,
+            int highLabelId, int highRelationshipTypeId, NumberArrayFactory numberArrayFactory, DatabaseLayout databaseLayout,
+            PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker )
     {
-        this( lastCommittedTransactionId, nodes, relationships, highLabelId, highRelationshipTypeId,
+        this( lastCommittedTransactionId, nodes, relationships, groups, highLabelId, highRelationshipTypeId,
                 numberArrayFactory, databaseLayout, ProgressReporter.SILENT, pageCacheTracer, memoryTracker );
     }
 
-    public CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, int highLabelId, int highRelationshipTypeId,
-            NumberArrayFactory numberArrayFactory, DatabaseLayout databaseLayout, ProgressReporter progressMonitor,
-            PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker )
+    public CountsComputer( long lastCommittedTransactionId, NodeStore nodes, RelationshipStore relationships, RelationshipGroupStore groups,
+            int highLabelId, int highRelationshipTypeId, NumberArrayFactory numberArrayFactory, DatabaseLayout databaseLayout,
+            ProgressReporter progressMonitor, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker )
     {
         this.lastCommittedTransactionId = lastCommittedTransactionId;
         this.nodes = nodes;
         this.relationships = relationships;
+        this.groups = groups;
         this.highLabelId = highLabelId;
         this.highRelationshipTypeId = highRelationshipTypeId;
         this.numberArrayFactory = numberArrayFactory;
@@ -116,6 +127,51 @@ public class CountsComputer implements CountsBuilder
         }
     }
 
+    @Override
+    public void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+    {
+        computeGroupDegrees( groups, relationships, updater, cursorTracer );
+    }
+
+    /**
+     * Computes degrees for all relationship groups in the given store by reading the relationship count kept in the first relationship
+     * of each group chain and feeds them to the given {@code updater}.
+     */
+    public static void computeGroupDegrees( RelationshipGroupStore groups, RelationshipStore relationships,
+            RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer )
+    {
+        RelationshipGroupRecord group = groups.newRecord();
+        RelationshipRecord relationship = relationships.newRecord();
+        long highId = groups.getHighId();
+        try ( PageCursor groupCursor = groups.openPageCursorForReadingWithPrefetching( 0, cursorTracer );
+              PageCursor relationshipCursor = relationships.openPageCursorForReading( 0, cursorTracer ) )
+        {
+            for ( long id = groups.getNumberOfReservedLowIds(); id < highId; id++ )
+            {
+                groups.getRecordByCursor( id, group, CHECK, groupCursor );
+                if ( group.inUse() )
+                {
+                    computeChainDegree( group, group.getFirstOut(), RelationshipDirection.OUTGOING, relationships, relationship, relationshipCursor, updater );
+                    computeChainDegree( group, group.getFirstIn(), RelationshipDirection.INCOMING, relationships, relationship, relationshipCursor, updater );
+                    computeChainDegree( group, group.getFirstLoop(), RelationshipDirection.LOOP, relationships, relationship, relationshipCursor, updater );
+                }
+            }
+        }
+    }
+
+    private static void computeChainDegree( RelationshipGroupRecord group, long firstRelationship, RelationshipDirection direction,
+            RelationshipStore relationships, RelationshipRecord relationship, PageCursor relationshipCursor, RelationshipGroupDegreesStore.Updater updater )
+    {
+        if ( firstRelationship == Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            return;
+        }
+        relationships.getRecordByCursor( firstRelationship, relationship, NORMAL, relationshipCursor );
+        long owningNode = group.getOwningNode();
+        long degree = owningNode == relationship.getFirstNode() ? relationship.getFirstPrevRel() : relationship.getSecondPrevRel();
+        updater.increment( group.getId(), direction, degree );
+    }
+
     @Override
     public long lastCommittedTxId()
     {
@@ -353,35 +353,59 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return arrayStore.openPageCursorForReading( reference, cursorTracer );
     }
 
-    public void loadString( long reference, RecordPropertyCursor propertyCursor, PageCursor page, RecordLoad loadMode )
+    /**
+     * Loads the UTF-8 encoded bytes of the string starting at {@code reference}. A string that fits in a single dynamic record
+     * is returned as the payload array that record was read into, without going through the property cursor buffer,
+     * since that array is freshly allocated for this read and not shared with anything else.
+     *
+     * @return the UTF-8 bytes of the string, owned by the caller.
+     */
+    public byte[] loadString( long reference, RecordPropertyCursor propertyCursor, PageCursor page, RecordLoad loadMode )
     {
-        readDynamic( stringStore, reference, propertyCursor, page, loadMode );
+        DynamicRecord record = stringStore.newRecord();
+        stringStore.getRecordByCursor( reference, record, loadMode, page );
+        if ( record.getNextBlock() == NO_ID )
+        {
+            return record.getData();
+        }
+        var buffer = readDynamic( stringStore, record, propertyCursor, page, loadMode );
+        buffer.flip();
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get( bytes );
+        return bytes;
     }
 
     public void loadArray( long reference, RecordPropertyCursor propertyCursor, PageCursor page, RecordLoad loadMode )
     {
-        readDynamic( arrayStore, reference, propertyCursor, page, loadMode );
+        DynamicRecord record = arrayStore.newRecord();
+        arrayStore.getRecordByCursor( reference, record, loadMode, page );
+        readDynamic( arrayStore, record, propertyCursor, page, loadMode );
     }
 
-    private static void readDynamic( AbstractDynamicStore store, long reference, RecordPropertyCursor propertyCursor,
+    /**
+     * Appends the payload of {@code record}, which has already been read, and the rest of its chain to the property cursor buffer.
+     */
+    private static ByteBuffer readDynamic( AbstractDynamicStore store, DynamicRecord record, RecordPropertyCursor propertyCursor,
             PageCursor page, RecordLoad loadMode )
     {
         var buffer = propertyCursor.getOrCreateClearBuffer();
-        DynamicRecord record = store.newRecord();
-        do
+        while ( true )
         {
-            //We need to load forcefully here since otherwise we can have inconsistent reads
-            //for properties across blocks, see org.neo4j.graphdb.ConsistentPropertyReadsIT
-            store.getRecordByCursor( reference, record, loadMode, page );
-            reference = record.getNextBlock();
+            long reference = record.getNextBlock();
             byte[] data = record.getData();
             if ( buffer.remaining() < data.length )
             {
                 buffer = propertyCursor.growBuffer( data.length );
             }
             buffer.put( data, 0, data.length );
+            if ( reference == NO_ID )
+            {
+                return buffer;
+            }
+            //We need to load forcefully here since otherwise we can have inconsistent reads
+            //for properties across blocks, see org.neo4j.graphdb.ConsistentPropertyReadsIT
+            store.getRecordByCursor( reference, record, loadMode, page );
         }
-        while ( reference != NO_ID );
     }
 
     private static class PropertyBlockValueWriter extends TemporalValueWriterAdapter<IllegalArgumentException>
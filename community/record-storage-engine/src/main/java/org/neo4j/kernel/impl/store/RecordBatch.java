@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+
+/**
+ * Receives in-use records read in bulk, one page at a time, by
+ * {@link CommonAbstractStore#readRecordsOnPage(long, long, AbstractBaseRecord, RecordLoad, PageCursor, RecordBatch)}.
+ */
+public interface RecordBatch<RECORD extends AbstractBaseRecord>
+{
+    /**
+     * Discards all records added so far. Called before a page is read, and again if it has to be re-read
+     * because of a concurrent write to it.
+     */
+    void clear();
+
+    /**
+     * Adds a record that is in use. The record instance is reused for the next record, so its contents must be copied.
+     *
+     * @param record the record to add.
+     */
+    void add( RECORD record );
+}
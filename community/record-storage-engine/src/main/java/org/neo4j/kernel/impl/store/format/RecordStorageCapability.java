@@ -77,7 +77,22 @@ public enum RecordStorageCapability implements Capability
      * ID files (neostore.xyz.id) are backed by {@link GBPTree}, transactional and recoverable.
      */
     GBPTREE_ID_FILES( false, CapabilityType.STORE ),
-    GBPTREE_COUNTS_STORE( CapabilityType.STORE );
+    GBPTREE_COUNTS_STORE( CapabilityType.STORE ),
+
+    /**
+     * Node records have room for a few small properties, which are read before the property chain.
+     */
+    INLINED_NODE_PROPERTIES( CapabilityType.FORMAT, CapabilityType.STORE ),
+
+    /**
+     * Node records keep the types of the relationships of sparse nodes, so that type-limited expansions can skip the relationship chain.
+     */
+    NODE_RELATIONSHIP_TYPES( CapabilityType.FORMAT, CapabilityType.STORE ),
+
+    /**
+     * Node records keep the keys of their properties, so that looking for a property a node doesn't have can skip the property chain.
+     */
+    NODE_PROPERTY_KEYS( CapabilityType.FORMAT, CapabilityType.STORE );
 
     private final CapabilityType[] types;
     private boolean additive;
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.inlined;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.format.standard.NodeRecordFormat;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+
+import static java.lang.Math.min;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.impl.store.PropertyType.BLOCKS_USED_FOR_BAD_TYPE_OR_ENCODING;
+
+/**
+ * Node record of the standard format, followed by room for {@link #INLINED_PROPERTY_BLOCKS} property blocks,
+ * see {@link NodeRecord#getInlinedPropertyBlocks()}, the {@link NodeRecord#getRelationshipTypes() relationship types}
+ * and the {@link NodeRecord#getPropertyKeys() property keys} of the node. Unused blocks are written as zeros,
+ * which is never the first block of a property.
+ */
+public class InlinedPropertiesNodeRecordFormat extends NodeRecordFormat
+{
+    public static final int INLINED_PROPERTY_BLOCKS = 4;
+    // standard node record + inlined property blocks + relationship types + property keys
+    public static final int RECORD_SIZE = NodeRecordFormat.RECORD_SIZE + INLINED_PROPERTY_BLOCKS * Long.BYTES + Long.BYTES + Long.BYTES;
+
+    public InlinedPropertiesNodeRecordFormat()
+    {
+        super( RECORD_SIZE, true );
+    }
+
+    @Override
+    public void read( NodeRecord record, PageCursor cursor, RecordLoad mode, int recordSize, int recordsPerPage )
+    {
+        // Reading the record resets its inlined blocks, keep them to reuse the array for a record with as many blocks
+        long[] previousBlocks = record.getInlinedPropertyBlocks();
+        super.read( record, cursor, mode, recordSize, recordsPerPage );
+        if ( mode.shouldLoad( record.inUse() ) )
+        {
+            int blocksOffset = cursor.getOffset();
+            // A zero block ends the properties, unless it's a value block of the property before it
+            int length = 0;
+            long block;
+            while ( length < INLINED_PROPERTY_BLOCKS && (block = cursor.getLong( blocksOffset + length * Long.BYTES )) != 0 )
+            {
+                PropertyType type = PropertyType.getPropertyTypeOrNull( block );
+                int blocksUsed = type == null ? BLOCKS_USED_FOR_BAD_TYPE_OR_ENCODING : type.calculateNumberOfBlocksUsed( block );
+                if ( blocksUsed <= 0 )
+                {
+                    // Can happen in an inconsistent read, which the page cursor will have us retry
+                    break;
+                }
+                length = min( INLINED_PROPERTY_BLOCKS, length + blocksUsed );
+            }
+            long[] blocks = length == 0 ? EMPTY_LONG_ARRAY : previousBlocks.length == length ? previousBlocks : new long[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                blocks[i] = cursor.getLong( blocksOffset + i * Long.BYTES );
+            }
+            record.setInlinedPropertyBlocks( blocks );
+            cursor.setOffset( blocksOffset + INLINED_PROPERTY_BLOCKS * Long.BYTES );
+            record.setRelationshipTypes( cursor.getLong() );
+            record.setPropertyKeys( cursor.getLong() );
+        }
+    }
+
+    @Override
+    public void write( NodeRecord record, PageCursor cursor, int recordSize, int recordsPerPage )
+    {
+        super.write( record, cursor, recordSize, recordsPerPage );
+        if ( record.inUse() )
+        {
+            long[] blocks = record.getInlinedPropertyBlocks();
+            if ( blocks.length > INLINED_PROPERTY_BLOCKS )
+            {
+                throw new IllegalArgumentException( record + " has more inlined property blocks than the " + INLINED_PROPERTY_BLOCKS + " that fit" );
+            }
+            for ( int i = 0; i < INLINED_PROPERTY_BLOCKS; i++ )
+            {
+                cursor.putLong( i < blocks.length ? blocks[i] : 0 );
+            }
+            cursor.putLong( record.getRelationshipTypes() );
+            cursor.putLong( record.getPropertyKeys() );
+        }
+    }
+}
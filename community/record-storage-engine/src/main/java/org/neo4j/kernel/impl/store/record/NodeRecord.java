@@ -20,10 +20,15 @@
 package org.neo4j.kernel.impl.store.record;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
+import org.neo4j.kernel.impl.store.PropertyType;
+
 import static java.util.Collections.emptyList;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.internal.helpers.collection.Iterables.filter;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
 import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
@@ -31,11 +36,36 @@ import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
 public class NodeRecord extends PrimitiveRecord
 {
     public static final long SHALLOW_SIZE = shallowSizeOfInstance( NodeRecord.class );
+    /**
+     * {@link #getRelationshipTypes() Relationship types} of a node where they aren't known, which means that any type may be present.
+     */
+    public static final long UNKNOWN_RELATIONSHIP_TYPES = 0;
+    // Relationship types and property keys are kept as sets of token ids, in the same way
+    private static final long KNOWN_TOKENS_BIT = 1L << 63;
+    private static final long HIGH_TOKENS_BIT = 1L << 62;
+    /**
+     * {@link #getRelationshipTypes() Relationship types} of a node known to have no relationships.
+     */
+    public static final long NO_RELATIONSHIP_TYPES = KNOWN_TOKENS_BIT;
+    /**
+     * {@link #getPropertyKeys() Property keys} of a node where they aren't known, which means that any key may be present.
+     */
+    public static final long UNKNOWN_PROPERTY_KEYS = 0;
+    /**
+     * {@link #getPropertyKeys() Property keys} of a node known to have no properties.
+     */
+    public static final long NO_PROPERTY_KEYS = KNOWN_TOKENS_BIT;
+    // Tokens with an id below this have a bit of their own, the ones above share HIGH_TOKENS_BIT
+    private static final int MAX_TOKEN_BITS = 62;
+
     private long nextRel;
     private long labels;
     private Collection<DynamicRecord> dynamicLabelRecords;
     private boolean isLight;
     private boolean dense;
+    private long[] inlinedPropertyBlocks = EMPTY_LONG_ARRAY;
+    private long relationshipTypes = UNKNOWN_RELATIONSHIP_TYPES;
+    private long propertyKeys = UNKNOWN_PROPERTY_KEYS;
 
     public NodeRecord( long id )
     {
@@ -61,6 +91,9 @@ public class NodeRecord extends PrimitiveRecord
         }
         this.isLight = other.isLight;
         this.dense = other.dense;
+        this.inlinedPropertyBlocks = other.inlinedPropertyBlocks.length == 0 ? EMPTY_LONG_ARRAY : other.inlinedPropertyBlocks.clone();
+        this.relationshipTypes = other.relationshipTypes;
+        this.propertyKeys = other.propertyKeys;
     }
 
     public NodeRecord initialize( boolean inUse, long nextProp, boolean dense, long nextRel, long labels )
@@ -71,6 +104,9 @@ public class NodeRecord extends PrimitiveRecord
         this.labels = labels;
         this.dynamicLabelRecords = emptyList();
         this.isLight = true;
+        this.inlinedPropertyBlocks = EMPTY_LONG_ARRAY;
+        this.relationshipTypes = UNKNOWN_RELATIONSHIP_TYPES;
+        this.propertyKeys = UNKNOWN_PROPERTY_KEYS;
         return this;
     }
 
@@ -139,6 +175,180 @@ public class NodeRecord extends PrimitiveRecord
         this.dense = dense;
     }
 
+    /**
+     * Property blocks kept in the node record itself, for record formats that have room for them. These properties come before
+     * the ones in the property chain starting at {@link #getNextProp()}, and a property key is in at most one of the two places.
+     *
+     * @return the inlined property blocks. Record formats may read the blocks of another record into the same array when reading
+     * into this record, so copy them to keep them around.
+     */
+    public long[] getInlinedPropertyBlocks()
+    {
+        return inlinedPropertyBlocks;
+    }
+
+    public void setInlinedPropertyBlocks( long[] inlinedPropertyBlocks )
+    {
+        this.inlinedPropertyBlocks = inlinedPropertyBlocks;
+    }
+
+    public boolean hasInlinedProperties()
+    {
+        return inlinedPropertyBlocks.length > 0;
+    }
+
+    /**
+     * @return the {@link PropertyBlock property blocks} of the {@link #getInlinedPropertyBlocks() inlined properties}.
+     */
+    public List<PropertyBlock> getInlinedProperties()
+    {
+        List<PropertyBlock> properties = new ArrayList<>();
+        int index = 0;
+        while ( index < inlinedPropertyBlocks.length )
+        {
+            PropertyType type = PropertyType.getPropertyTypeOrThrow( inlinedPropertyBlocks[index] );
+            int length = type.calculateNumberOfBlocksUsed( inlinedPropertyBlocks[index] );
+            PropertyBlock block = new PropertyBlock();
+            block.setValueBlocks( Arrays.copyOfRange( inlinedPropertyBlocks, index, index + length ) );
+            properties.add( block );
+            index += length;
+        }
+        return properties;
+    }
+
+    /**
+     * The types of the relationships in the chain of a sparse node, for record formats that have room for them. Either
+     * {@link #UNKNOWN_RELATIONSHIP_TYPES} or an exact set of types where each type below 62 has a bit of its own and the higher types
+     * share one bit. Only maintained for sparse nodes, so ignore it for dense nodes.
+     *
+     * @return the relationship types of this node, see {@link #mayHaveRelationshipType(int)} and {@link #knownRelationshipTypes()}.
+     */
+    public long getRelationshipTypes()
+    {
+        return relationshipTypes;
+    }
+
+    public void setRelationshipTypes( long relationshipTypes )
+    {
+        this.relationshipTypes = relationshipTypes;
+    }
+
+    public boolean hasKnownRelationshipTypes()
+    {
+        return relationshipTypes != UNKNOWN_RELATIONSHIP_TYPES;
+    }
+
+    /**
+     * Adds a type to the {@link #getRelationshipTypes() relationship types} of this node, unless they are unknown.
+     */
+    public void addRelationshipType( int type )
+    {
+        if ( hasKnownRelationshipTypes() )
+        {
+            relationshipTypes = withRelationshipType( relationshipTypes, type );
+        }
+    }
+
+    /**
+     * @return the given known {@link #getRelationshipTypes() relationship types} with the given type added.
+     */
+    public static long withRelationshipType( long relationshipTypes, int type )
+    {
+        return relationshipTypes | tokenBit( type );
+    }
+
+    /**
+     * @return {@code false} if this node is known to not have relationships of the given type, otherwise {@code true}.
+     */
+    public boolean mayHaveRelationshipType( int type )
+    {
+        return !hasKnownRelationshipTypes() || (relationshipTypes & tokenBit( type )) != 0;
+    }
+
+    /**
+     * @return the exact types of the relationships of this node, or {@code null} if they are unknown or include types
+     * too high to have a bit of their own.
+     */
+    public int[] knownRelationshipTypes()
+    {
+        if ( !hasKnownRelationshipTypes() || (relationshipTypes & HIGH_TOKENS_BIT) != 0 )
+        {
+            return null;
+        }
+        int[] types = new int[Long.bitCount( relationshipTypes ) - 1];
+        long bits = relationshipTypes & ~KNOWN_TOKENS_BIT;
+        for ( int i = 0; i < types.length; i++ )
+        {
+            types[i] = Long.numberOfTrailingZeros( bits );
+            bits &= bits - 1;
+        }
+        return types;
+    }
+
+    /**
+     * The keys of the properties of a node, both inlined and in its property chain, for record formats that have room for them.
+     * Either {@link #UNKNOWN_PROPERTY_KEYS} or a set of keys in the same form as the {@link #getRelationshipTypes() relationship types},
+     * exact for keys below 62 while the higher keys share one bit, which stays set until the node has no properties at all.
+     *
+     * @return the property keys of this node, see {@link #mayHavePropertyKey(long, int)}.
+     */
+    public long getPropertyKeys()
+    {
+        return propertyKeys;
+    }
+
+    public void setPropertyKeys( long propertyKeys )
+    {
+        this.propertyKeys = propertyKeys;
+    }
+
+    public boolean hasKnownPropertyKeys()
+    {
+        return propertyKeys != UNKNOWN_PROPERTY_KEYS;
+    }
+
+    /**
+     * Adds a key to the {@link #getPropertyKeys() property keys} of this node, unless they are unknown.
+     */
+    public void addPropertyKey( int key )
+    {
+        if ( hasKnownPropertyKeys() )
+        {
+            propertyKeys |= tokenBit( key );
+        }
+    }
+
+    /**
+     * @return the given {@link #getPropertyKeys() property keys} with the given key removed, unless they are unknown or the key shares
+     * its bit with other keys.
+     */
+    public static long withoutPropertyKey( long propertyKeys, int key )
+    {
+        return propertyKeys != UNKNOWN_PROPERTY_KEYS && key < MAX_TOKEN_BITS ? propertyKeys & ~tokenBit( key ) : propertyKeys;
+    }
+
+    /**
+     * @return {@code false} if this node is known to not have a property with the given key, otherwise {@code true}.
+     */
+    public boolean mayHavePropertyKey( int key )
+    {
+        return mayHavePropertyKey( propertyKeys, key );
+    }
+
+    /**
+     * @param propertyKeys {@link #getPropertyKeys() property keys} of a node.
+     * @return {@code false} if the given property keys are known to not include the given key, otherwise {@code true}.
+     */
+    public static boolean mayHavePropertyKey( long propertyKeys, int key )
+    {
+        return propertyKeys == UNKNOWN_PROPERTY_KEYS || (propertyKeys & tokenBit( key )) != 0;
+    }
+
+    private static long tokenBit( int token )
+    {
+        return token < MAX_TOKEN_BITS ? 1L << token : HIGH_TOKENS_BIT;
+    }
+
     @Override
     public String toString()
     {
@@ -152,6 +362,9 @@ public class NodeRecord extends PrimitiveRecord
                ",created=" + isCreated() +
                "," + denseInfo +
                ",prop=" + getNextProp() +
+               (hasInlinedProperties() ? ",inlinedProps=" + Arrays.toString( inlinedPropertyBlocks ) : "") +
+               (hasKnownRelationshipTypes() ? ",relTypes=" + Long.toHexString( relationshipTypes ) : "") +
+               (hasKnownPropertyKeys() ? ",propKeys=" + Long.toHexString( propertyKeys ) : "") +
                ",labels=" + parseLabelsField( this ) +
                "," + lightHeavyInfo +
                secondaryUnitToString() + "]";
@@ -172,7 +385,8 @@ public class NodeRecord extends PrimitiveRecord
     @Override
     public int hashCode()
     {
-        return Objects.hash( super.hashCode(), nextRel, labels, dense );
+        return Objects.hash( super.hashCode(), nextRel, labels, dense, Arrays.hashCode( inlinedPropertyBlocks ), relationshipTypes,
+                propertyKeys );
     }
 
     @Override
@@ -183,6 +397,8 @@ public class NodeRecord extends PrimitiveRecord
             return false;
         }
         NodeRecord other = (NodeRecord) obj;
-        return nextRel == other.nextRel && labels == other.labels && dense == other.dense;
+        return nextRel == other.nextRel && labels == other.labels && dense == other.dense &&
+               Arrays.equals( inlinedPropertyBlocks, other.inlinedPropertyBlocks ) && relationshipTypes == other.relationshipTypes &&
+               propertyKeys == other.propertyKeys;
     }
 }
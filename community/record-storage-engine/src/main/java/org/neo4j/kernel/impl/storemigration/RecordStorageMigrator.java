@@ -279,6 +279,8 @@ public class RecordStorageMigrator extends AbstractStoreMigrationParticipant
     {
         // Just read from the old store (nodes, relationships, highLabelId, highRelationshipTypeId). This way we don't have to try and figure
         // out which stores, if any, have been migrated to the new format. The counts themselves are equivalent in both the old and the migrated stores.
+        // Relationship group degrees are keyed by group id, which is only stable if the group store wasn't rewritten. If it was, then it was
+        // rewritten by the batch importer which also built a counts store (degrees included) in the migration directory, which is then used as-is.
         StoreFactory oldStoreFactory = createStoreFactory( directoryLayout, oldFormat, new ScanOnOpenReadOnlyIdGeneratorFactory() );
         try ( NeoStores oldStores = oldStoreFactory.openAllNeoStores();
                 GBPTreeCountsStore countsStore = new GBPTreeCountsStore( pageCache, migrationLayout.countStore(), fileSystem, immediate(),
@@ -82,6 +82,9 @@ import static org.neo4j.internal.counts.GBPTreeCountsStore.NO_MONITOR;
 import static org.neo4j.io.pagecache.IOLimiter.UNLIMITED;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
 import static org.neo4j.test.OtherThreadExecutor.command;
 import static org.neo4j.test.Race.throwing;
@@ -230,6 +233,156 @@ class GBPTreeCountsStoreTest
         assertEquals( 5, countsStore.relationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_2, LABEL_ID_2, NULL ) );
     }
 
+    @Test
+    void shouldUpdateAndReadSomeGroupDegrees() throws Exception
+    {
+        // given
+        long groupId = 12;
+        long txId = BASE_TX_ID;
+        try ( GBPTreeCountsStore.Updater updater = countsStore.apply( ++txId, NULL ) )
+        {
+            updater.increment( groupId, OUTGOING, 100 );
+            updater.increment( groupId, LOOP, 3 );
+            updater.incrementNodeCount( LABEL_ID_1, 10 );
+        }
+        try ( GBPTreeCountsStore.Updater updater = countsStore.apply( ++txId, NULL ) )
+        {
+            updater.increment( groupId, OUTGOING, -1 ); // now at 99
+            updater.increment( groupId, INCOMING, 5 );
+        }
+
+        // when
+        checkpointAndRestartCountsStore();
+
+        // then
+        assertEquals( 99, countsStore.degree( groupId, OUTGOING, NULL ) );
+        assertEquals( 5, countsStore.degree( groupId, INCOMING, NULL ) );
+        assertEquals( 3, countsStore.degree( groupId, LOOP, NULL ) );
+        assertEquals( 0, countsStore.degree( groupId + 1, OUTGOING, NULL ) );
+        // degrees should not be visible among the regular counts
+        assertEquals( 10, countsStore.nodeCount( LABEL_ID_1, NULL ) );
+    }
+
+    @Test
+    void shouldUseCountsBuilderForGroupDegreesOnCreation() throws Exception
+    {
+        // given
+        long groupId = 4;
+        closeCountsStore();
+        deleteCountsStore();
+
+        // when
+        openCountsStore( new TestableCountsBuilder( BASE_TX_ID )
+        {
+            @Override
+            public void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+            {
+                updater.increment( groupId, INCOMING, 70 );
+            }
+        } );
+
+        // then
+        assertEquals( 70, countsStore.degree( groupId, INCOMING, NULL ) );
+        assertEquals( 0, countsStore.degree( groupId, OUTGOING, NULL ) );
+    }
+
+    @Test
+    void shouldRebuildOnlyDegreesOnStartAfterMarkedIncomplete() throws Exception
+    {
+        // given
+        long groupId = 4;
+        long staleGroupId = 5;
+        try ( GBPTreeCountsStore.Updater updater = countsStore.apply( BASE_TX_ID + 1, NULL ) )
+        {
+            updater.increment( groupId, OUTGOING, 10 );
+            updater.increment( staleGroupId, INCOMING, 3 );
+            updater.incrementNodeCount( LABEL_ID_1, 10 );
+        }
+
+        // when
+        countsStore.markDegreesIncomplete();
+        assertFalse( countsStore.degreesComplete() );
+        countsStore.checkpoint( UNLIMITED, NULL );
+        closeCountsStore();
+        TestableCountsBuilder builder = new TestableCountsBuilder( BASE_TX_ID + 1 )
+        {
+            @Override
+            public void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+            {
+                updater.increment( groupId, OUTGOING, 12 );
+            }
+        };
+        openCountsStore( builder );
+
+        // then
+        assertTrue( countsStore.degreesComplete() );
+        assertFalse( builder.initializeCalled );
+        assertEquals( 12, countsStore.degree( groupId, OUTGOING, NULL ) );
+        assertEquals( 0, countsStore.degree( staleGroupId, INCOMING, NULL ) );
+        assertEquals( 10, countsStore.nodeCount( LABEL_ID_1, NULL ) );
+    }
+
+    @Test
+    void shouldRebuildDegreesOnStartAfterRecoveringTransactionWithoutDegreeCommands() throws Exception
+    {
+        // given
+        long groupId = 4;
+        try ( GBPTreeCountsStore.Updater updater = countsStore.apply( BASE_TX_ID + 1, NULL ) )
+        {
+            updater.increment( groupId, OUTGOING, 10 );
+        }
+        countsStore.checkpoint( UNLIMITED, NULL );
+        // a transaction changing degrees without degree commands, then a crash before the next checkpoint
+        countsStore.markDegreesIncomplete();
+        closeCountsStore();
+        TestableCountsBuilder builder = new TestableCountsBuilder( BASE_TX_ID + 2 )
+        {
+            @Override
+            public void initializeDegrees( RelationshipGroupDegreesStore.Updater updater, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+            {
+                updater.increment( groupId, OUTGOING, 11 );
+            }
+        };
+
+        // when
+        instantiateCountsStore( builder, false, NO_MONITOR );
+        assertTrue( countsStore.degreesComplete() );
+        countsStore.apply( BASE_TX_ID + 2, NULL ).close();
+        countsStore.relationshipsChangedWithoutDegreeCommands( BASE_TX_ID + 2 );
+        countsStore.start( NULL, INSTANCE );
+
+        // then
+        assertTrue( countsStore.degreesComplete() );
+        assertFalse( builder.initializeCalled );
+        assertEquals( 11, countsStore.degree( groupId, OUTGOING, NULL ) );
+    }
+
+    @Test
+    void shouldIgnoreRelationshipsChangedWithoutDegreeCommandsAfterStart()
+    {
+        // when
+        countsStore.relationshipsChangedWithoutDegreeCommands( BASE_TX_ID + 1 );
+
+        // then
+        assertTrue( countsStore.degreesComplete() );
+    }
+
+    @Test
+    void shouldKeepDegreesIncompleteInReadOnlyMode() throws Exception
+    {
+        // given
+        countsStore.markDegreesIncomplete();
+        countsStore.checkpoint( UNLIMITED, NULL );
+        closeCountsStore();
+
+        // when
+        instantiateCountsStore( CountsBuilder.EMPTY, true, NO_MONITOR );
+        countsStore.start( NULL, INSTANCE );
+
+        // then
+        assertFalse( countsStore.degreesComplete() );
+    }
+
     @Test
     void shouldCheckpointAndRecoverConsistentlyUnderStressfulLoad() throws Throwable
     {
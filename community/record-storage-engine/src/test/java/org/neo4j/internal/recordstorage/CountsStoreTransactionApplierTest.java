@@ -21,8 +21,7 @@ package org.neo4j.internal.recordstorage;
 
 import org.junit.jupiter.api.Test;
 
-import org.neo4j.counts.CountsAccessor;
-import org.neo4j.counts.CountsStore;
+import org.neo4j.internal.counts.GBPTreeCountsStore;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +29,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
 import static org.neo4j.token.api.TokenConstants.ANY_LABEL;
 
 class CountsStoreTransactionApplierTest
@@ -38,8 +38,8 @@ class CountsStoreTransactionApplierTest
     void shouldNotifyCacheAccessOnHowManyUpdatesOnCountsWeHadSoFar() throws Exception
     {
         // GIVEN
-        final CountsStore counts = mock( CountsStore.class );
-        final CountsAccessor.Updater updater = mock( CountsAccessor.Updater.class );
+        final GBPTreeCountsStore counts = mock( GBPTreeCountsStore.class );
+        final GBPTreeCountsStore.Updater updater = mock( GBPTreeCountsStore.Updater.class );
         when( counts.apply( anyLong(), any( PageCursorTracer.class ) ) ).thenReturn( updater );
         final CountsStoreTransactionApplierFactory applier = new CountsStoreTransactionApplierFactory( counts );
 
@@ -52,4 +52,23 @@ class CountsStoreTransactionApplierTest
         // THEN
         verify( updater ).incrementNodeCount( ANY_LABEL, 1 );
     }
+
+    @Test
+    void shouldApplyGroupDegreeChangesToCountsUpdater() throws Exception
+    {
+        // GIVEN
+        final GBPTreeCountsStore counts = mock( GBPTreeCountsStore.class );
+        final GBPTreeCountsStore.Updater updater = mock( GBPTreeCountsStore.Updater.class );
+        when( counts.apply( anyLong(), any( PageCursorTracer.class ) ) ).thenReturn( updater );
+        final CountsStoreTransactionApplierFactory applier = new CountsStoreTransactionApplierFactory( counts );
+
+        // WHEN
+        try ( TransactionApplier txApplier = applier.startTx( new GroupOfCommands( 2L ), mock( BatchContext.class ) ) )
+        {
+            txApplier.visitGroupDegreeCommand( new Command.GroupDegreeCommand( 10, OUTGOING, -3 ) );
+        }
+
+        // THEN
+        verify( updater ).increment( 10, OUTGOING, -3 );
+    }
 }
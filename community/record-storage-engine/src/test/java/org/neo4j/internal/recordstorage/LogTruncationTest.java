@@ -43,6 +43,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StorageCommand;
 
 import static java.lang.reflect.Modifier.isAbstract;
@@ -57,7 +58,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 class LogTruncationTest
 {
     private final InMemoryClosableChannel inMemoryChannel = new InMemoryClosableChannel();
-    private final PhysicalLogCommandReaderV4_0 reader = new PhysicalLogCommandReaderV4_0();
+    private final PhysicalLogCommandReaderV4_3 reader = new PhysicalLogCommandReaderV4_3();
     /** Stores all known commands, and an arbitrary set of different permutations for them */
     private final Map<Class<?>, Command[]> permutations = new HashMap<>();
     {
@@ -97,6 +98,9 @@ class LogTruncationTest
         permutations.put( NodeCountsCommand.class, new Command[]{new NodeCountsCommand( 42, 11 )} );
         permutations.put( RelationshipCountsCommand.class,
                 new Command[]{new RelationshipCountsCommand( 17, 2, 13, -2 )} );
+        permutations.put( Command.GroupDegreeCommand.class, new Command[]{
+                new Command.GroupDegreeCommand( 42, RelationshipDirection.OUTGOING, 11 ),
+                new Command.GroupDegreeCommand( 3, RelationshipDirection.LOOP, -5 )} );
     }
 
     @Test
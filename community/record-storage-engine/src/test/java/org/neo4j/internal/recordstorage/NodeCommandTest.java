@@ -39,15 +39,18 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeLabels;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.storageengine.api.CommandReader;
 import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.values.storable.Values;
 
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -217,6 +220,37 @@ class NodeCommandTest
         assertThat( result.getAfter().getDynamicLabelRecords() ).isEqualTo( operand );
     }
 
+    @Test
+    void shouldSerializeInlinedPropertiesInLatestFormat() throws Exception
+    {
+        // Given
+        NodeRecord before = new NodeRecord( 12 ).initialize( false, 2, true, 1, 0 );
+        before.setInUse( true );
+        before.setInlinedPropertyBlocks( new long[]{inlinedIntBlock( 3, 42 )} );
+        NodeRecord after = new NodeRecord( 12 ).initialize( false, 2, true, 1, 0 );
+        after.setInUse( true );
+        Command.NodeCommand cmd = new Command.NodeCommand( before, after );
+
+        // When
+        channel.reset();
+        cmd.serialize( channel );
+        Command.NodeCommand result = (Command.NodeCommand) new PhysicalLogCommandReaderV4_3().read( channel );
+
+        // Then
+        assertThat( result.getBefore() ).isEqualTo( cmd.getBefore() );
+        assertThat( result.getAfter() ).isEqualTo( cmd.getAfter() );
+        assertThat( result.getBefore().getInlinedPropertyBlocks() ).isEqualTo( before.getInlinedPropertyBlocks() );
+        assertThat( result.getBefore().isDense() ).isTrue();
+        assertThat( result.getAfter().hasInlinedProperties() ).isFalse();
+    }
+
+    private static long inlinedIntBlock( int propertyKey, int value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, propertyKey, Values.intValue( value ), null, null, true, NULL, INSTANCE );
+        return block.getSingleValueBlock();
+    }
+
     private static DynamicRecord dynamicRecord( long id, boolean inUse, boolean isStartRecord, long nextBlock, int type, byte[] data )
     {
         DynamicRecord record = new DynamicRecord( id ).initialize( inUse, isStartRecord, nextBlock, type );
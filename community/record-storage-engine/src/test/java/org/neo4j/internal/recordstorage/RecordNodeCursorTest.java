@@ -19,9 +19,11 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.Test;
 
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RecordBatch;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -48,6 +50,8 @@ import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
 
 class RecordNodeCursorTest
 {
+    private static final int RECORDS_PER_PAGE = 16;
+
     @Test
     void shouldConsiderHighestPossibleIdInUseInScan()
     {
@@ -55,22 +59,27 @@ class RecordNodeCursorTest
         NodeStore nodeStore = mock( NodeStore.class );
         when( nodeStore.getHighestPossibleIdInUse( NULL ) ).thenReturn( 200L );
         when( nodeStore.getHighId() ).thenReturn( 20L );
+        when( nodeStore.getRecordsPerPage() ).thenReturn( RECORDS_PER_PAGE );
         doAnswer( invocationOnMock ->
         {
             long id = invocationOnMock.getArgument( 0 );
-            NodeRecord record = invocationOnMock.getArgument( 1 );
-            record.setId( id );
-            record.initialize( id == 200, 1L, false, 1L, NO_LABELS_FIELD.longValue() );
-            return null;
-        } ).when( nodeStore ).getRecordByCursor( anyLong(), any(), any(), any() );
-        doAnswer( invocationOnMock ->
-        {
-            NodeRecord record = invocationOnMock.getArgument( 0 );
-            record.setId( record.getId() + 1 );
-            record.initialize( record.getId() == 200, 1L, false, 1L, 0L );
-            return null;
-        } ).when( nodeStore ).nextRecordByCursor( any(), any(), any() );
-        RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, null, null, NULL );
+            long maxId = invocationOnMock.getArgument( 1 );
+            NodeRecord record = invocationOnMock.getArgument( 2 );
+            RecordBatch<NodeRecord> batch = invocationOnMock.getArgument( 5 );
+            long lastId = Math.min( maxId, (id / RECORDS_PER_PAGE + 1) * RECORDS_PER_PAGE - 1 );
+            batch.clear();
+            for ( long recordId = id; recordId <= lastId; recordId++ )
+            {
+                record.setId( recordId );
+                record.initialize( recordId == 200, 1L, false, 1L, NO_LABELS_FIELD.longValue() );
+                if ( record.inUse() )
+                {
+                    batch.add( record );
+                }
+            }
+            return lastId + 1;
+        } ).when( nodeStore ).readRecordsOnPage( anyLong(), anyLong(), any(), any(), any(), any() );
+        RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, null, null, null, NULL );
 
         // when
         cursor.scan();
@@ -81,6 +90,50 @@ class RecordNodeCursorTest
         assertFalse( cursor.next() );
     }
 
+    @Test
+    void shouldScanNodesInUseAcrossPages()
+    {
+        // given
+        NodeStore nodeStore = mock( NodeStore.class );
+        long[] nodesInUse = {0, 3, RECORDS_PER_PAGE - 1, RECORDS_PER_PAGE, 3 * RECORDS_PER_PAGE + 5};
+        when( nodeStore.getHighestPossibleIdInUse( NULL ) ).thenReturn( nodesInUse[nodesInUse.length - 1] );
+        when( nodeStore.getRecordsPerPage() ).thenReturn( RECORDS_PER_PAGE );
+        doAnswer( invocationOnMock ->
+        {
+            long id = invocationOnMock.getArgument( 0 );
+            long maxId = invocationOnMock.getArgument( 1 );
+            NodeRecord record = invocationOnMock.getArgument( 2 );
+            RecordBatch<NodeRecord> batch = invocationOnMock.getArgument( 5 );
+            long lastId = Math.min( maxId, (id / RECORDS_PER_PAGE + 1) * RECORDS_PER_PAGE - 1 );
+            batch.clear();
+            for ( long recordId = id; recordId <= lastId; recordId++ )
+            {
+                record.setId( recordId );
+                record.initialize( ArrayUtils.contains( nodesInUse, recordId ), recordId + 1, false, recordId + 2, NO_LABELS_FIELD.longValue() );
+                if ( record.inUse() )
+                {
+                    batch.add( record );
+                }
+            }
+            return lastId + 1;
+        } ).when( nodeStore ).readRecordsOnPage( anyLong(), anyLong(), any(), any(), any(), any() );
+        RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, null, null, null, NULL );
+
+        // when
+        cursor.scan();
+
+        // then
+        for ( long nodeId : nodesInUse )
+        {
+            assertTrue( cursor.next() );
+            assertEquals( nodeId, cursor.entityReference() );
+            assertEquals( nodeId + 1, cursor.propertiesReference() );
+            assertEquals( nodeId + 2, cursor.getNextRel() );
+        }
+        assertFalse( cursor.next() );
+        verify( nodeStore, never() ).getRecordByCursor( anyLong(), any(), any(), any() );
+    }
+
     @Test
     void shouldChooseFastTotalDegreeLookupWhenPossible()
     {
@@ -109,7 +162,7 @@ class RecordNodeCursorTest
             return null;
         } ).when( relationshipStore ).getRecordByCursor( eq( relationshipId ), any(), any(), any() );
         RelationshipGroupStore groupStore = mock( RelationshipGroupStore.class );
-        RecordNodeCursor nodeCursor = new RecordNodeCursor( nodeStore, relationshipStore, groupStore, NULL );
+        RecordNodeCursor nodeCursor = new RecordNodeCursor( nodeStore, relationshipStore, groupStore, null, NULL );
 
         // when
         nodeCursor.single( nodeId );
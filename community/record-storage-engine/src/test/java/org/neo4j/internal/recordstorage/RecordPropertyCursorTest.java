@@ -49,6 +49,7 @@ import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -123,6 +124,46 @@ public class RecordPropertyCursorTest
         assertPropertyChain( valuesB, firstPropertyIdB, cursor );
     }
 
+    @Test
+    void shouldReadStringsOfSingleAndMultipleDynamicRecords()
+    {
+        // given
+        int dataSize = neoStores.getPropertyStore().getStringStore().getRecordDataSize();
+        Value[] values = new Value[]{
+                Values.stringValue( "a".repeat( dataSize - 1 ) ),
+                Values.stringValue( "b".repeat( dataSize ) ),
+                Values.stringValue( "c".repeat( dataSize + 1 ) ),
+                Values.stringValue( "d".repeat( dataSize * 5 + 3 ) ),
+                Values.stringValue( "\u00e5\u00e4\u00f6".repeat( dataSize ) )};
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+
+        // then
+        RecordPropertyCursor cursor = createCursor();
+        assertPropertyChain( values, firstPropertyId, cursor );
+        assertPropertyChain( values, firstPropertyId, cursor );
+    }
+
+    @Test
+    void shouldNotShareBytesBetweenStringValuesReadFromSingleDynamicRecords()
+    {
+        // given
+        int length = neoStores.getPropertyStore().getStringStore().getRecordDataSize() - 1;
+        Value[] values = new Value[]{Values.stringValue( "a".repeat( length ) ), Values.stringValue( "b".repeat( length ) )};
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.initNodeProperties( firstPropertyId );
+        Map<Integer, Value> read = new HashMap<>();
+        while ( cursor.next() )
+        {
+            read.put( cursor.propertyKey(), cursor.propertyValue() );
+        }
+
+        // then
+        assertEquals( asMap( values ), read );
+    }
+
     @Test
     void closeShouldBeIdempotent()
     {
@@ -138,7 +179,7 @@ public class RecordPropertyCursorTest
 
     protected RecordPropertyCursor createCursor()
     {
-        return new RecordPropertyCursor( neoStores.getPropertyStore(), NULL, INSTANCE );
+        return new RecordPropertyCursor( neoStores.getPropertyStore(), neoStores.getNodeStore(), NULL, INSTANCE );
     }
 
     protected static void assertPropertyChain( Value[] values, long firstPropertyId, RecordPropertyCursor cursor )
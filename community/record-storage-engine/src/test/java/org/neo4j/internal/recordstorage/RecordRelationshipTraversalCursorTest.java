@@ -52,6 +52,7 @@ import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.ReadTracer;
 import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
@@ -275,6 +276,37 @@ public class RecordRelationshipTraversalCursorTest
         }
     }
 
+    @Test
+    void shouldNotVisitGroupsAfterHighestSelectedTypeOnDenseNode()
+    {
+        // given
+        long reference = createRelationshipStructure( true, concatArrays(
+                homogenousRelationships( 2, TYPE1, OUTGOING ),
+                homogenousRelationships( 2, TYPE2, OUTGOING ),
+                homogenousRelationships( 2, TYPE3, OUTGOING ) ) );
+
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            GroupHitCounter groupHits = new GroupHitCounter();
+            cursor.setTracer( groupHits );
+
+            // when
+            cursor.init( FIRST_OWNING_NODE, reference, selection( TYPE1, Direction.OUTGOING ) );
+
+            // then the TYPE2 group tells us that there can be no more TYPE1 relationships, so the TYPE3 group is never read
+            assertRelationships( cursor, 2, Direction.OUTGOING, TYPE1 );
+            assertEquals( 2, groupHits.count );
+
+            // when
+            groupHits.count = 0;
+            cursor.init( FIRST_OWNING_NODE, reference, selection( new int[]{TYPE1, TYPE3}, Direction.OUTGOING ) );
+
+            // then
+            assertRelationships( cursor, 4, Direction.OUTGOING, TYPE1, TYPE3 );
+            assertEquals( 3, groupHits.count );
+        }
+    }
+
     private void assertRelationships( RecordRelationshipTraversalCursor cursor, int count, Direction direction, int... types )
     {
         IntSet expectedTypes = IntSets.immutable.of( types );
@@ -438,4 +470,35 @@ public class RecordRelationshipTraversalCursorTest
             return Integer.compare( direction.ordinal(), o.direction.ordinal() );
         }
     }
+
+    private static class GroupHitCounter implements ReadTracer
+    {
+        private int count;
+
+        @Override
+        public void onNode( long nodeReference )
+        {
+        }
+
+        @Override
+        public void onAllNodesScan()
+        {
+        }
+
+        @Override
+        public void onRelationship( long relationshipReference )
+        {
+        }
+
+        @Override
+        public void onProperty( int propertyKey )
+        {
+        }
+
+        @Override
+        public void dbHit()
+        {
+            count++;
+        }
+    }
 }
@@ -339,6 +339,11 @@ class RecordStorageEngineTest
                     return transactionApplier.visitRelationshipCountsCommand( command );
                 }
 
+                public boolean visitGroupDegreeCommand( Command.GroupDegreeCommand command ) throws IOException
+                {
+                    return transactionApplier.visitGroupDegreeCommand( command );
+                }
+
                 public void close() throws Exception
                 {
                     applierCloseCall.accept( true );
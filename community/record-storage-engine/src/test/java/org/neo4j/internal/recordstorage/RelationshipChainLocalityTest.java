@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class RelationshipChainLocalityTest
+{
+    private static final int CHAIN_LENGTH = 10;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+
+    @BeforeEach
+    void setupStores()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate() );
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs,
+                Standard.LATEST_RECORD_FORMATS, NullLogProvider.getInstance(), PageCacheTracer.NULL, Sets.immutable.empty() );
+        neoStores = storeFactory.openAllNeoStores( true );
+    }
+
+    @AfterEach
+    void shutDownStores()
+    {
+        neoStores.close();
+    }
+
+    @Test
+    void shouldReportFullLocalityForEmptyStore()
+    {
+        RelationshipChainLocality locality = RelationshipChainLocality.sample( neoStores, 100, 100, NULL );
+
+        assertEquals( 0, locality.chains() );
+        assertEquals( 0, locality.relationships() );
+        assertEquals( 1, locality.locality() );
+    }
+
+    @Test
+    void shouldReportFullLocalityForChainOnSinglePage()
+    {
+        createChain( 0, 1 );
+
+        RelationshipChainLocality locality = RelationshipChainLocality.sample( neoStores, 100, 100, NULL );
+
+        assertEquals( 1, locality.chains() );
+        assertEquals( CHAIN_LENGTH, locality.relationships() );
+        assertEquals( 0, locality.pageSwitches() );
+        assertEquals( 1, locality.locality() );
+    }
+
+    @Test
+    void shouldCountPageSwitchesForScatteredChain()
+    {
+        createChain( 0, neoStores.getRelationshipStore().getRecordsPerPage() );
+
+        RelationshipChainLocality locality = RelationshipChainLocality.sample( neoStores, 100, 100, NULL );
+
+        assertEquals( 1, locality.chains() );
+        assertEquals( CHAIN_LENGTH, locality.relationships() );
+        assertEquals( CHAIN_LENGTH - 1, locality.pageSwitches() );
+        assertEquals( 0, locality.locality() );
+    }
+
+    @Test
+    void shouldLimitRecordsRead()
+    {
+        createChain( 0, neoStores.getRelationshipStore().getRecordsPerPage() );
+
+        // the node record and three relationship records
+        RelationshipChainLocality locality = RelationshipChainLocality.sample( neoStores, 100, 4, NULL );
+
+        assertEquals( 4, locality.records() );
+        assertEquals( 3, locality.relationships() );
+        assertEquals( 2, locality.pageSwitches() );
+        assertThat( locality.toString() ).contains( "records=4", "chains=1", "relationships=3", "pageSwitches=2" );
+    }
+
+    @Test
+    void shouldCountPageSwitchesForScatteredGroupChain()
+    {
+        createGroupChain( 0, neoStores.getRelationshipGroupStore().getRecordsPerPage() );
+        createGroupChain( 1, 1 );
+
+        RelationshipChainLocality locality = RelationshipChainLocality.sample( neoStores, 100, 100, NULL );
+
+        assertEquals( 2, locality.groupChains() );
+        assertEquals( 2 * CHAIN_LENGTH, locality.groups() );
+        assertEquals( CHAIN_LENGTH - 1, locality.groupPageSwitches() );
+        assertEquals( 0.5, locality.groupLocality() );
+        assertThat( locality.toString() ).contains( "groupChains=2", "groups=20", "groupPageSwitches=9" );
+    }
+
+    /**
+     * Creates a sparse node with a chain of {@link #CHAIN_LENGTH} loops, with relationship ids {@code idStride} apart.
+     */
+    private void createChain( long nodeId, int idStride )
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        for ( int i = 0; i < CHAIN_LENGTH; i++ )
+        {
+            long id = (long) i * idStride;
+            long next = i == CHAIN_LENGTH - 1 ? NO_NEXT_RELATIONSHIP.longValue() : id + idStride;
+            long prev = i == 0 ? CHAIN_LENGTH : id - idStride;
+            RelationshipRecord relationship = new RelationshipRecord( id );
+            relationship.initialize( true, NO_NEXT_PROPERTY.longValue(), nodeId, nodeId, 0, prev, next, prev, next, i == 0, i == 0 );
+            relationshipStore.updateRecord( relationship, NULL );
+        }
+        nodeStore.updateRecord( new NodeRecord( nodeId ).initialize( true, NO_NEXT_PROPERTY.longValue(), false, 0, NO_LABELS_FIELD.longValue() ), NULL );
+        nodeStore.setHighId( nodeId + 1 );
+        relationshipStore.setHighId( (long) (CHAIN_LENGTH - 1) * idStride + 1 );
+    }
+
+    /**
+     * Creates a dense node with a chain of {@link #CHAIN_LENGTH} empty relationship groups, with group ids {@code idStride} apart,
+     * after the group ids already in use.
+     */
+    private void createGroupChain( long nodeId, int idStride )
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        RelationshipGroupStore groupStore = neoStores.getRelationshipGroupStore();
+        long firstId = groupStore.getHighId();
+        for ( int i = 0; i < CHAIN_LENGTH; i++ )
+        {
+            long id = firstId + (long) i * idStride;
+            long next = i == CHAIN_LENGTH - 1 ? NO_NEXT_RELATIONSHIP.longValue() : id + idStride;
+            RelationshipGroupRecord group = new RelationshipGroupRecord( id ).initialize( true, i, NO_NEXT_RELATIONSHIP.longValue(),
+                    NO_NEXT_RELATIONSHIP.longValue(), NO_NEXT_RELATIONSHIP.longValue(), nodeId, next );
+            groupStore.updateRecord( group, NULL );
+        }
+        nodeStore.updateRecord( new NodeRecord( nodeId ).initialize( true, NO_NEXT_PROPERTY.longValue(), true, firstId, NO_LABELS_FIELD.longValue() ), NULL );
+        nodeStore.setHighId( Math.max( nodeStore.getHighId(), nodeId + 1 ) );
+        groupStore.setHighId( firstId + (long) (CHAIN_LENGTH - 1) * idStride + 1 );
+    }
+}
@@ -21,6 +21,7 @@ package org.neo4j.internal.recordstorage;
 
 import org.junit.jupiter.api.Test;
 
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
@@ -197,7 +198,7 @@ class RelationshipCreatorTest
     {
         RelationshipCreator logic = new RelationshipCreator( newRelGroupGetter( givenState ), denseNodeThreshold, PageCursorTracer.NULL );
 
-        logic.relationshipCreate( nextRelId( givenState ), 0, fromNode, toNode, changeset, ResourceLocker.IGNORE );
+        logic.relationshipCreate( nextRelId( givenState ), 0, fromNode, toNode, changeset, RelationshipGroupDegreesStore.NO_OP_UPDATER, ResourceLocker.IGNORE );
     }
 
     private static long nextRelId( AbstractBaseRecord[] existingRecords )
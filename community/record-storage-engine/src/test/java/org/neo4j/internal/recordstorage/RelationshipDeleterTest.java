@@ -37,6 +37,7 @@ import org.neo4j.memory.EmptyMemoryTracker;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.counts.RelationshipGroupDegreesStore.NO_OP_UPDATER;
 import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
 import static org.neo4j.lock.ResourceLocker.IGNORE;
@@ -85,7 +86,7 @@ class RelationshipDeleterTest
         relationshipStore.put( relC, new RelationshipRecord( relC ).initialize( true, NULL, startNode, otherNode2, type, relB, NULL, 1, NULL, false, true ) );
 
         // when deleting relB
-        deleter.relDelete( relB, recordChanges, IGNORE );
+        deleter.relDelete( relB, recordChanges, NO_OP_UPDATER, IGNORE );
 
         // then relA should be updated with correct degrees, i.e. from 3 -> 2 on both its chains
         RecordAccess.RecordProxy<RelationshipRecord,Void> relAChange = recordChanges.getRelRecords().getIfLoaded( relA );
@@ -115,7 +116,7 @@ class RelationshipDeleterTest
         relationshipStore.put( relC, new RelationshipRecord( relC ).initialize( true, NULL, node, node, type, relB, NULL, relB, NULL, false, false ) );
 
         // when deleting relB
-        deleter.relDelete( relB, recordChanges, IGNORE );
+        deleter.relDelete( relB, recordChanges, NO_OP_UPDATER, IGNORE );
 
         // then relA should be updated with correct degrees, i.e. from 3 -> 2 on both its chains
         RecordAccess.RecordProxy<RelationshipRecord,Void> relAChange = recordChanges.getRelRecords().getIfLoaded( relA );
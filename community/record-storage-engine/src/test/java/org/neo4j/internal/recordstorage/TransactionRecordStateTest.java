@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -59,7 +60,9 @@ import org.neo4j.io.fs.FlushableChannel;
 import org.neo4j.io.fs.ReadPastEndException;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.DynamicArrayStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
@@ -67,6 +70,7 @@ import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_3;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -82,8 +86,12 @@ import org.neo4j.lock.ResourceLocker;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.StandardConstraintRuleAccessor;
 import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageNodeCursor;
+import org.neo4j.storageengine.api.StoragePropertyCursor;
+import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
 import org.neo4j.test.extension.Inject;
@@ -127,6 +135,7 @@ import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.IndexEntryUpdate.add;
 import static org.neo4j.storageengine.api.IndexEntryUpdate.change;
 import static org.neo4j.storageengine.api.IndexEntryUpdate.remove;
+import static org.neo4j.storageengine.api.RelationshipSelection.selection;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
 
 @EphemeralNeo4jLayoutExtension
@@ -616,9 +625,254 @@ class TransactionRecordStateTest
         assertCommand( commandIterator.next(), RelationshipCommand.class );
         assertCommand( commandIterator.next(), Command.RelationshipGroupCommand.class );
         assertCommand( commandIterator.next(), NodeCommand.class );
+        // group degree changes come last
+        assertCommand( commandIterator.next(), Command.GroupDegreeCommand.class );
         assertFalse( commandIterator.hasNext() );
     }
 
+    @Test
+    void shouldNotExtractGroupDegreeCommandsForOlderLogFormat() throws Throwable
+    {
+        neoStores = createStores( Config.defaults( dense_node_threshold, 1 ) );
+        TransactionRecordState recordState = newTransactionRecordState( false );
+        long nodeId = 0;
+        recordState.nodeCreate( nodeId );
+        recordState.relCreate( 1, 0, nodeId, nodeId );
+        recordState.relCreate( 2, 0, nodeId, nodeId );
+
+        // WHEN
+        Collection<StorageCommand> commands = new ArrayList<>();
+        recordState.extractCommands( commands, INSTANCE );
+
+        // THEN
+        assertTrue( recordState.hasGroupDegreeChanges() );
+        assertThat( commands ).noneMatch( command -> command instanceof Command.GroupDegreeCommand );
+    }
+
+    @Test
+    void shouldInlineSmallPropertiesOfCreatedNodes() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = 0;
+        recordState.nodeCreate( nodeId );
+        recordState.nodeAddProperty( nodeId, propertyId1, value1 );
+        recordState.nodeAddProperty( nodeId, propertyId2, value2 );
+        recordState.nodeAddProperty( nodeId, 5, Values.of( true ) );
+
+        // WHEN
+        List<StorageCommand> commands = new ArrayList<>();
+        recordState.extractCommands( commands, INSTANCE );
+
+        // THEN the number and the boolean are in the node record, the string in the property chain
+        NodeCommand nodeCommand = (NodeCommand) single( filter( command -> command instanceof NodeCommand, commands ) );
+        assertThat( nodeCommand.getAfter().getInlinedProperties() ).extracting( PropertyBlock::getKeyIndexId ).containsExactly( propertyId2, 5 );
+        PropertyCommand propertyCommand = (PropertyCommand) single( filter( command -> command instanceof PropertyCommand, commands ) );
+        assertThat( propertyCommand.getAfter().getPropertyBlock( propertyId1 ) ).isNotNull();
+
+        apply( transaction( commands ) );
+        assertThat( nodeProperties( nodeId ) ).isEqualTo( Map.of( propertyId1, value1, propertyId2, value2, 5, Values.of( true ) ) );
+    }
+
+    @Test
+    void shouldSpillInlinedPropertiesIntoChainWhenChangingProperties() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = 0;
+        Value value3 = Values.of( 5L );
+        recordState.nodeCreate( nodeId );
+        addLabelsToNode( recordState, nodeId, oneLabelId );
+        recordState.nodeAddProperty( nodeId, propertyId1, Values.of( 1.5 ) );
+        recordState.nodeAddProperty( nodeId, propertyId2, value2 );
+        apply( recordState );
+        createIndex( labelIdOne, propertyId1 );
+        IndexDescriptor rule2 = createIndex( labelIdOne, propertyId2 );
+
+        // WHEN
+        recordState = newTransactionRecordState();
+        recordState.nodeChangeProperty( nodeId, propertyId2, value3 );
+        CommandsToApply transaction = transaction( recordState );
+        var indexUpdates = indexUpdatesOf( neoStores, transaction );
+
+        // THEN moving the unchanged property into the chain is not an index update
+        assertEquals( asSet( change( nodeId, rule2, value2, value3 ) ), asSet( single( indexUpdates ) ) );
+        apply( transaction );
+        assertFalse( neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL ).hasInlinedProperties() );
+        assertThat( nodeProperties( nodeId ) ).isEqualTo( Map.of( propertyId1, Values.of( 1.5 ), propertyId2, value3 ) );
+    }
+
+    @Test
+    void shouldNotInlinePropertiesForOlderLogFormat() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState( false );
+        long nodeId = 0;
+        recordState.nodeCreate( nodeId );
+        recordState.nodeAddProperty( nodeId, propertyId2, value2 );
+
+        // WHEN
+        List<StorageCommand> commands = new ArrayList<>();
+        recordState.extractCommands( commands, INSTANCE );
+
+        // THEN
+        assertThat( commands ).noneMatch( command -> command instanceof NodeCommand && ((NodeCommand) command).getAfter().hasInlinedProperties() );
+        assertThat( commands ).anyMatch( command -> command instanceof PropertyCommand );
+    }
+
+    @Test
+    void shouldKeepRelationshipTypesOfSparseNodes() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = 0;
+        long otherNodeId = 1;
+        recordState.nodeCreate( nodeId );
+        recordState.nodeCreate( otherNodeId );
+        long relId1 = neoStores.getRelationshipStore().nextId( NULL );
+        long relId2 = neoStores.getRelationshipStore().nextId( NULL );
+        long relId3 = neoStores.getRelationshipStore().nextId( NULL );
+        recordState.relCreate( relId1, 1, nodeId, otherNodeId );
+        recordState.relCreate( relId2, 2, otherNodeId, nodeId );
+        recordState.relCreate( relId3, 1, nodeId, nodeId );
+        apply( recordState );
+        assertThat( relationshipTypes( nodeId ) ).containsExactlyInAnyOrder( 1, 2 );
+        assertThat( relationshipTypes( otherNodeId ) ).containsExactlyInAnyOrder( 1, 2 );
+
+        // WHEN deleting the only relationship of a type, and one of two of another type
+        recordState = newTransactionRecordState();
+        recordState.relDelete( relId2 );
+        recordState.relDelete( relId3 );
+        apply( recordState );
+
+        // THEN
+        assertThat( relationshipTypes( nodeId ) ).containsExactly( 1 );
+        assertThat( relationshipTypes( otherNodeId ) ).containsExactly( 1 );
+        assertThat( neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL ).knownRelationshipTypes() ).containsExactly( 1 );
+    }
+
+    @Test
+    void shouldNotReadRelationshipChainOfSparseNodeWithoutSelectedTypes() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        recordState.nodeCreate( nodeId );
+        createRelationships( neoStores, recordState, nodeId, 1, OUTGOING, 10 );
+        apply( recordState );
+
+        var pageCacheTracer = new DefaultPageCacheTracer();
+        try ( RecordStorageReader reader = new RecordStorageReader( neoStores );
+              StorageNodeCursor nodeCursor = reader.allocateNodeCursor( NULL );
+              PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( "shouldNotReadRelationshipChainOfSparseNodeWithoutSelectedTypes" );
+              StorageRelationshipTraversalCursor relationshipCursor = reader.allocateRelationshipTraversalCursor( cursorTracer ) )
+        {
+            nodeCursor.single( nodeId );
+            assertTrue( nodeCursor.next() );
+
+            // WHEN
+            nodeCursor.relationships( relationshipCursor, selection( new int[]{0, 2}, Direction.BOTH ) );
+
+            // THEN
+            assertFalse( relationshipCursor.next() );
+            assertEquals( 0, cursorTracer.pins() );
+
+            // and WHEN
+            nodeCursor.relationships( relationshipCursor, selection( new int[]{0, 1}, Direction.BOTH ) );
+
+            // THEN
+            assertEquals( 10, countRelationships( relationshipCursor ) );
+        }
+    }
+
+    @Test
+    void shouldNotKeepRelationshipTypesForOlderLogFormat() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        recordState.nodeCreate( nodeId );
+        createRelationships( neoStores, recordState, nodeId, 1, OUTGOING, 1 );
+        apply( recordState );
+        assertTrue( neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL ).hasKnownRelationshipTypes() );
+
+        // WHEN
+        recordState = newTransactionRecordState( false );
+        createRelationships( neoStores, recordState, nodeId, 2, INCOMING, 1 );
+        List<StorageCommand> commands = new ArrayList<>();
+        recordState.extractCommands( commands, INSTANCE );
+
+        // THEN the relationship types are forgotten rather than left to go out of date
+        assertThat( commands ).noneMatch( command -> command instanceof NodeCommand && ((NodeCommand) command).getAfter().hasKnownRelationshipTypes() );
+        apply( transaction( commands ) );
+        assertFalse( neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL ).hasKnownRelationshipTypes() );
+        assertThat( relationshipTypes( nodeId ) ).containsExactlyInAnyOrder( 1, 2 );
+    }
+
+    @Test
+    void shouldKeepPropertyKeysOfNodes() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        int highPropertyId = 100;
+        recordState.nodeCreate( nodeId );
+        recordState.nodeAddProperty( nodeId, propertyId1, value1 );
+        recordState.nodeAddProperty( nodeId, propertyId2, value2 );
+        recordState.nodeAddProperty( nodeId, highPropertyId, Values.of( 5 ) );
+        apply( recordState );
+        assertTrue( mayHavePropertyKey( nodeId, propertyId1 ) );
+        assertTrue( mayHavePropertyKey( nodeId, propertyId2 ) );
+        assertTrue( mayHavePropertyKey( nodeId, highPropertyId ) );
+        assertFalse( mayHavePropertyKey( nodeId, 3 ) );
+
+        // WHEN
+        recordState = newTransactionRecordState();
+        recordState.nodeRemoveProperty( nodeId, propertyId1 );
+        recordState.nodeRemoveProperty( nodeId, highPropertyId );
+        apply( recordState );
+
+        // THEN the high key shares its bit with other keys, so it's only forgotten along with the last property
+        assertFalse( mayHavePropertyKey( nodeId, propertyId1 ) );
+        assertTrue( mayHavePropertyKey( nodeId, propertyId2 ) );
+        assertTrue( mayHavePropertyKey( nodeId, highPropertyId ) );
+
+        // and WHEN
+        recordState = newTransactionRecordState();
+        recordState.nodeRemoveProperty( nodeId, propertyId2 );
+        apply( recordState );
+
+        // THEN
+        NodeRecord node = neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL );
+        assertEquals( NodeRecord.NO_PROPERTY_KEYS, node.getPropertyKeys() );
+        assertFalse( mayHavePropertyKey( nodeId, highPropertyId ) );
+    }
+
+    @Test
+    void shouldNotKeepPropertyKeysForOlderLogFormat() throws Throwable
+    {
+        neoStores = createStores( Config.defaults(), InlinedPropertiesV4_3.RECORD_FORMATS );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        recordState.nodeCreate( nodeId );
+        recordState.nodeAddProperty( nodeId, propertyId1, value1 );
+        apply( recordState );
+        assertFalse( mayHavePropertyKey( nodeId, propertyId2 ) );
+
+        // WHEN
+        recordState = newTransactionRecordState( false );
+        recordState.nodeAddProperty( nodeId, propertyId2, value2 );
+        List<StorageCommand> commands = new ArrayList<>();
+        recordState.extractCommands( commands, INSTANCE );
+
+        // THEN the property keys are forgotten rather than left to go out of date
+        assertThat( commands ).noneMatch( command -> command instanceof NodeCommand && ((NodeCommand) command).getAfter().hasKnownPropertyKeys() );
+        apply( transaction( commands ) );
+        assertFalse( neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL ).hasKnownPropertyKeys() );
+        assertTrue( mayHavePropertyKey( nodeId, propertyId2 ) );
+        assertThat( nodeProperties( nodeId ) ).isEqualTo( Map.of( propertyId1, value1, propertyId2, value2 ) );
+    }
+
     @Test
     void shouldExtractUpdateCommandsInCorrectOrder() throws Throwable
     {
@@ -655,6 +909,8 @@ class TransactionRecordStateTest
         assertCommand( commandIterator.next(), RelationshipCommand.class );
         assertCommand( commandIterator.next(), RelationshipCommand.class );
         assertCommand( commandIterator.next(), Command.RelationshipGroupCommand.class );
+        // group degree changes come last
+        assertCommand( commandIterator.next(), Command.GroupDegreeCommand.class );
         assertFalse( commandIterator.hasNext() );
     }
 
@@ -738,9 +994,47 @@ class TransactionRecordStateTest
         assertCommand( commandIterator.next(), NodeCommand.class );
         // property deletes come last.
         assertCommand( commandIterator.next(), PropertyCommand.class );
+        // group degree changes come last
+        assertCommand( commandIterator.next(), Command.GroupDegreeCommand.class );
         assertFalse( commandIterator.hasNext() );
     }
 
+    @Test
+    void shouldExtractGroupDegreeChangesForDenseNodes() throws Exception
+    {
+        // given
+        neoStores = createStores( Config.defaults( dense_node_threshold, 1 ) );
+        TransactionRecordState recordState = newTransactionRecordState();
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        int type = 0;
+        recordState.nodeCreate( nodeId );
+        long[] outgoing = createRelationships( neoStores, recordState, nodeId, type, OUTGOING, 5 );
+        createRelationships( neoStores, recordState, nodeId, type, INCOMING, 3 );
+        apply( transaction( recordState ) );
+
+        // when
+        recordState = newTransactionRecordState();
+        recordState.relDelete( outgoing[0] );
+        recordState.relDelete( outgoing[1] );
+        createRelationships( neoStores, recordState, nodeId, type, INCOMING, 1 );
+        Collection<StorageCommand> commands = new ArrayList<>();
+        recordState.extractCommands( commands, INSTANCE );
+
+        // then
+        long groupId = neoStores.getNodeStore().getRecord( nodeId, new NodeRecord( nodeId ), NORMAL, NULL ).getNextRel();
+        Map<RelationshipDirection,Long> degreeDeltas = new EnumMap<>( RelationshipDirection.class );
+        for ( StorageCommand command : commands )
+        {
+            if ( command instanceof Command.GroupDegreeCommand )
+            {
+                Command.GroupDegreeCommand degreeCommand = (Command.GroupDegreeCommand) command;
+                assertEquals( groupId, degreeCommand.groupId() );
+                degreeDeltas.put( degreeCommand.direction(), degreeCommand.delta() );
+            }
+        }
+        assertEquals( Map.of( RelationshipDirection.OUTGOING, -2L, RelationshipDirection.INCOMING, 1L ), degreeDeltas );
+    }
+
     @Test
     void shouldValidateConstraintIndexAsPartOfExtraction() throws Throwable
     {
@@ -1576,6 +1870,11 @@ class TransactionRecordStateTest
     }
 
     private TransactionRecordState newTransactionRecordState()
+    {
+        return newTransactionRecordState( true );
+    }
+
+    private TransactionRecordState newTransactionRecordState( boolean logFormatV4_3 )
     {
         Loaders loaders = new Loaders( neoStores );
         recordChangeSet = new RecordChangeSet( loaders, INSTANCE );
@@ -1585,8 +1884,9 @@ class TransactionRecordStateTest
         return new TransactionRecordState( neoStores, integrityValidator, recordChangeSet, 0, ResourceLocker.IGNORE,
                 new RelationshipCreator( relationshipGroupGetter, neoStores.getRelationshipGroupStore().getStoreHeaderInt(), NULL ),
                 new RelationshipDeleter( relationshipGroupGetter, propertyDeleter, NULL ),
+                new RelationshipGroupCompactor( neoStores.getRelationshipGroupStore(), NULL ),
                 new PropertyCreator( neoStores.getPropertyStore(), propertyTraverser, NULL, INSTANCE ),
-                propertyDeleter, NULL, INSTANCE );
+                propertyDeleter, logFormatV4_3, logFormatV4_3, logFormatV4_3, logFormatV4_3, NULL, INSTANCE );
     }
 
     private static CommandsToApply transaction( TransactionRecordState recordState ) throws TransactionFailureException
@@ -1624,6 +1924,66 @@ class TransactionRecordStateTest
         return (RelationshipGroupCommand) single( filter( t -> t instanceof RelationshipGroupCommand, commands ) );
     }
 
+    private int[] relationshipTypes( long nodeId )
+    {
+        try ( RecordStorageReader reader = new RecordStorageReader( neoStores );
+              StorageNodeCursor nodeCursor = reader.allocateNodeCursor( NULL ) )
+        {
+            nodeCursor.single( nodeId );
+            assertTrue( nodeCursor.next() );
+            return nodeCursor.relationshipTypes();
+        }
+    }
+
+    private boolean mayHavePropertyKey( long nodeId, int propertyKey )
+    {
+        try ( RecordStorageReader reader = new RecordStorageReader( neoStores );
+              StorageNodeCursor nodeCursor = reader.allocateNodeCursor( NULL );
+              StoragePropertyCursor propertyCursor = reader.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            nodeCursor.single( nodeId );
+            assertTrue( nodeCursor.next() );
+            nodeCursor.properties( propertyCursor );
+            return propertyCursor.mayHavePropertyKey( propertyKey );
+        }
+    }
+
+    private static int countRelationships( StorageRelationshipTraversalCursor relationshipCursor )
+    {
+        int count = 0;
+        while ( relationshipCursor.next() )
+        {
+            count++;
+        }
+        return count;
+    }
+
+    private Map<Integer,Value> nodeProperties( long nodeId )
+    {
+        Map<Integer,Value> properties = new HashMap<>();
+        try ( RecordStorageReader reader = new RecordStorageReader( neoStores );
+              StorageNodeCursor nodeCursor = reader.allocateNodeCursor( NULL );
+              StoragePropertyCursor propertyCursor = reader.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            nodeCursor.single( nodeId );
+            assertTrue( nodeCursor.next() );
+            nodeCursor.properties( propertyCursor );
+            while ( propertyCursor.next() )
+            {
+                properties.put( propertyCursor.propertyKey(), propertyCursor.propertyValue() );
+            }
+            // Reading the properties by reference, as the kernel API allows, should see the same properties
+            Map<Integer,Value> propertiesByReference = new HashMap<>();
+            propertyCursor.initNodeProperties( nodeCursor.propertiesReference() );
+            while ( propertyCursor.next() )
+            {
+                propertiesByReference.put( propertyCursor.propertyKey(), propertyCursor.propertyValue() );
+            }
+            assertEquals( properties, propertiesByReference );
+        }
+        return properties;
+    }
+
     private IndexDescriptor createIndex( int labelId, int... propertyKeyIds )
     {
         long id = nextRuleId++;
@@ -36,6 +36,7 @@ import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
@@ -155,9 +156,10 @@ class WriteTransactionCommandOrderingTest
         when( neoStores.getRelationshipGroupStore() ).thenReturn( relationshipGroupStore );
         RelationshipStore relationshipStore = mock( RelationshipStore.class );
         when( neoStores.getRelationshipStore() ).thenReturn( relationshipStore );
+        when( neoStores.getRecordFormats() ).thenReturn( Standard.LATEST_RECORD_FORMATS );
 
         return new TransactionRecordState( neoStores, mock( IntegrityValidator.class ), recordChangeSet,
-                0, null, null, null, null, null, NULL, INSTANCE );
+                0, null, null, null, null, null, null, true, false, false, false, NULL, INSTANCE );
     }
 
     private static class OrderVerifyingCommandHandler extends CommandVisitor.Adapter
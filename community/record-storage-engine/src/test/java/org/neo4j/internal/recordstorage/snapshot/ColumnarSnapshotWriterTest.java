@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.snapshot;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.InlineNodeLabels;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.TokenStore;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.inlined.InlinedPropertiesV4_3;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.store.record.TokenRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.token.api.NamedToken;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class ColumnarSnapshotWriterTest
+{
+    private static final int PERSON = 0;
+    private static final int CITY = 1;
+    private static final int KNOWS = 0;
+    private static final int LIVES_IN = 1;
+    private static final int AGE = 0;
+    private static final int NAME = 1;
+    private static final int WEIGHT = 2;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private DatabaseLayout databaseLayout;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private NeoStores neoStores;
+
+    @BeforeEach
+    void setupStores()
+    {
+        openStores( Standard.LATEST_RECORD_FORMATS );
+    }
+
+    private void openStores( RecordFormats formats )
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate() );
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs,
+                formats, NullLogProvider.getInstance(), PageCacheTracer.NULL, Sets.immutable.empty() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        createTokens( neoStores.getLabelTokenStore(), "Person", "City" );
+        createTokens( neoStores.getRelationshipTypeTokenStore(), "KNOWS", "LIVES_IN" );
+        createTokens( neoStores.getPropertyKeyTokenStore(), "age", "name", "weight" );
+    }
+
+    @AfterEach
+    void shutDownStores()
+    {
+        neoStores.close();
+    }
+
+    @Test
+    void shouldWriteNodesLabelsAndRelationships() throws IOException
+    {
+        // given
+        createNode( 0, new long[]{PERSON} );
+        createNode( 1, new long[]{PERSON, CITY} );
+        createNode( 3, new long[0] );
+        createRelationship( 0, 0, 1, KNOWS );
+        createRelationship( 1, 0, 3, LIVES_IN );
+        createRelationship( 2, 1, 0, KNOWS );
+        createRelationship( 4, 3, 3, KNOWS );
+
+        // when
+        Path file = testDirectory.file( "snapshot" );
+        new ColumnarSnapshotWriter( neoStores, 2, PageCacheTracer.NULL ).write( file, List.of(), List.of() );
+
+        // then
+        try ( ColumnarSnapshot snapshot = ColumnarSnapshot.open( file ) )
+        {
+            assertEquals( 4, snapshot.nodeCount() );
+            assertEquals( 4, snapshot.relationshipCount() );
+            assertThat( snapshot.labelTokens() ).containsExactly( new NamedToken( "Person", PERSON ), new NamedToken( "City", CITY ) );
+            assertThat( snapshot.relationshipTypeTokens() ).containsExactly( new NamedToken( "KNOWS", KNOWS ), new NamedToken( "LIVES_IN", LIVES_IN ) );
+
+            assertTrue( snapshot.nodeInUse( 0 ) );
+            assertTrue( snapshot.nodeInUse( 1 ) );
+            assertFalse( snapshot.nodeInUse( 2 ) );
+            assertTrue( snapshot.nodeInUse( 3 ) );
+
+            assertThat( labels( snapshot, 0 ) ).containsExactly( PERSON );
+            assertThat( labels( snapshot, 1 ) ).containsExactlyInAnyOrder( PERSON, CITY );
+            assertThat( labels( snapshot, 2 ) ).isEmpty();
+            assertThat( labels( snapshot, 3 ) ).isEmpty();
+
+            assertThat( relationships( snapshot, 0 ) ).containsExactlyInAnyOrder( "-[0:KNOWS]->1", "-[1:LIVES_IN]->3" );
+            assertThat( relationships( snapshot, 1 ) ).containsExactly( "-[2:KNOWS]->0" );
+            assertThat( relationships( snapshot, 2 ) ).isEmpty();
+            assertThat( relationships( snapshot, 3 ) ).containsExactly( "-[4:KNOWS]->3" );
+        }
+    }
+
+    @Test
+    void shouldWriteNumericPropertyColumns() throws IOException
+    {
+        // given
+        createNode( 0, new long[]{PERSON}, property( AGE, Values.intValue( 30 ) ), property( NAME, Values.stringValue( "Alice" ) ) );
+        createNode( 1, new long[]{PERSON}, property( AGE, Values.doubleValue( 40.5 ) ) );
+        createNode( 2, new long[]{CITY}, property( NAME, Values.stringValue( "Malmö" ) ) );
+        createRelationship( 0, 0, 1, KNOWS, property( WEIGHT, Values.doubleValue( 0.25 ) ) );
+        createRelationship( 1, 1, 0, KNOWS, property( WEIGHT, Values.longValue( 3 ) ) );
+        createRelationship( 2, 0, 2, LIVES_IN );
+
+        // when
+        Path file = testDirectory.file( "snapshot" );
+        new ColumnarSnapshotWriter( neoStores, 2, PageCacheTracer.NULL ).write( file, List.of( "age", "name" ), List.of( "weight" ) );
+
+        // then
+        try ( ColumnarSnapshot snapshot = ColumnarSnapshot.open( file ) )
+        {
+            ColumnarSnapshot.PropertyColumn age = snapshot.nodeProperty( "age" );
+            assertTrue( age.hasValue( 0 ) );
+            assertFalse( age.isFloatingPoint( 0 ) );
+            assertEquals( 30, age.longValue( 0 ) );
+            assertEquals( 30D, age.doubleValue( 0 ) );
+            assertTrue( age.hasValue( 1 ) );
+            assertTrue( age.isFloatingPoint( 1 ) );
+            assertEquals( 40.5D, age.doubleValue( 1 ) );
+            assertEquals( 40, age.longValue( 1 ) );
+            assertFalse( age.hasValue( 2 ) );
+
+            // non-numeric values are left out
+            ColumnarSnapshot.PropertyColumn name = snapshot.nodeProperty( "name" );
+            assertFalse( name.hasValue( 0 ) );
+            assertFalse( name.hasValue( 2 ) );
+
+            ColumnarSnapshot.PropertyColumn weight = snapshot.relationshipProperty( "weight" );
+            for ( long position = 0; position < snapshot.relationshipCount(); position++ )
+            {
+                long relationshipId = snapshot.relationshipId( position );
+                if ( relationshipId == 0 )
+                {
+                    assertEquals( 0.25D, weight.doubleValue( position ) );
+                }
+                else if ( relationshipId == 1 )
+                {
+                    assertEquals( 3, weight.longValue( position ) );
+                }
+                else
+                {
+                    assertFalse( weight.hasValue( position ) );
+                }
+            }
+            assertThrows( IllegalArgumentException.class, () -> snapshot.relationshipProperty( "age" ) );
+        }
+    }
+
+    @Test
+    void shouldWriteInlinedNodeProperties() throws IOException
+    {
+        // given a store of a format with properties inlined in node records
+        neoStores.close();
+        fs.deleteRecursively( databaseLayout.databaseDirectory() );
+        openStores( InlinedPropertiesV4_3.RECORD_FORMATS );
+        createNode( 0, new long[]{PERSON} );
+        createNode( 1, new long[]{PERSON}, property( AGE, Values.intValue( 40 ) ) );
+        NodeStore nodeStore = neoStores.getNodeStore();
+        NodeRecord node = nodeStore.getRecord( 0, nodeStore.newRecord(), NORMAL, NULL );
+        node.setInlinedPropertyBlocks( property( AGE, Values.intValue( 30 ) ).getValueBlocks() );
+        nodeStore.updateRecord( node, NULL );
+
+        // when
+        Path file = testDirectory.file( "snapshot" );
+        new ColumnarSnapshotWriter( neoStores, 2, PageCacheTracer.NULL ).write( file, List.of( "age" ), List.of() );
+
+        // then
+        try ( ColumnarSnapshot snapshot = ColumnarSnapshot.open( file ) )
+        {
+            ColumnarSnapshot.PropertyColumn age = snapshot.nodeProperty( "age" );
+            assertTrue( age.hasValue( 0 ) );
+            assertEquals( 30, age.longValue( 0 ) );
+            assertTrue( age.hasValue( 1 ) );
+            assertEquals( 40, age.longValue( 1 ) );
+        }
+    }
+
+    @Test
+    void shouldWriteLargeGraphUsingManyThreads() throws IOException
+    {
+        // given a ring which spans many scan batches
+        int nodes = 25_000;
+        for ( int i = 0; i < nodes; i++ )
+        {
+            createNode( i, new long[]{i % 2}, property( AGE, Values.intValue( i ) ) );
+            createRelationship( i, i, (i + 1) % nodes, KNOWS );
+        }
+
+        // when
+        Path file = testDirectory.file( "snapshot" );
+        new ColumnarSnapshotWriter( neoStores, 4, PageCacheTracer.NULL ).write( file, List.of( "age" ), List.of() );
+
+        // then
+        try ( ColumnarSnapshot snapshot = ColumnarSnapshot.open( file ) )
+        {
+            assertEquals( nodes, snapshot.nodeCount() );
+            assertEquals( nodes, snapshot.relationshipCount() );
+            ColumnarSnapshot.PropertyColumn age = snapshot.nodeProperty( "age" );
+            for ( int i = 0; i < nodes; i++ )
+            {
+                assertEquals( 1, snapshot.labelCount( i ) );
+                assertEquals( i % 2, snapshot.label( i, 0 ) );
+                assertEquals( i, age.longValue( i ) );
+                assertEquals( 1, snapshot.degree( i ) );
+                long position = snapshot.adjacencyOffset( i );
+                assertEquals( (i + 1) % nodes, snapshot.target( position ) );
+                assertEquals( i, snapshot.relationshipId( position ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldFailOnUnknownPropertyKey()
+    {
+        Path file = testDirectory.file( "snapshot" );
+        ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter( neoStores, 1, PageCacheTracer.NULL );
+
+        assertThrows( IllegalArgumentException.class, () -> writer.write( file, List.of( "unknown" ), List.of() ) );
+        assertFalse( Files.exists( file ) );
+    }
+
+    @Test
+    void shouldNotOverwriteExistingFile() throws IOException
+    {
+        Path file = testDirectory.createFile( "snapshot" );
+        ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter( neoStores, 1, PageCacheTracer.NULL );
+
+        assertThrows( FileAlreadyExistsException.class, () -> writer.write( file, List.of(), List.of() ) );
+    }
+
+    private static int[] labels( ColumnarSnapshot snapshot, long node )
+    {
+        int[] labels = new int[snapshot.labelCount( node )];
+        for ( int i = 0; i < labels.length; i++ )
+        {
+            labels[i] = snapshot.label( node, i );
+        }
+        return labels;
+    }
+
+    private static Set<String> relationships( ColumnarSnapshot snapshot, long node )
+    {
+        Set<String> relationships = new HashSet<>();
+        long offset = snapshot.adjacencyOffset( node );
+        for ( long position = offset; position < offset + snapshot.degree( node ); position++ )
+        {
+            String type = snapshot.relationshipTypeTokens().get( snapshot.relationshipType( position ) ).name();
+            relationships.add( "-[" + snapshot.relationshipId( position ) + ":" + type + "]->" + snapshot.target( position ) );
+        }
+        return relationships;
+    }
+
+    private PropertyBlock property( int key, Value value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        neoStores.getPropertyStore().encodeValue( block, key, value, NULL, INSTANCE );
+        return block;
+    }
+
+    private long createProperties( PropertyBlock... properties )
+    {
+        if ( properties.length == 0 )
+        {
+            return NO_NEXT_PROPERTY.longValue();
+        }
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        PropertyRecord record = propertyStore.newRecord();
+        record.setId( propertyStore.nextId( NULL ) );
+        record.setInUse( true );
+        for ( PropertyBlock property : properties )
+        {
+            record.addPropertyBlock( property );
+        }
+        propertyStore.updateRecord( record, NULL );
+        return record.getId();
+    }
+
+    private void createNode( long id, long[] labels, PropertyBlock... properties )
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        NodeRecord node = new NodeRecord( id ).initialize( true, createProperties( properties ), false, NO_NEXT_RELATIONSHIP.longValue(),
+                NO_LABELS_FIELD.longValue() );
+        InlineNodeLabels.putSorted( node, labels, nodeStore, null, NULL, INSTANCE );
+        nodeStore.updateRecord( node, NULL );
+        nodeStore.setHighestPossibleIdInUse( Math.max( id, nodeStore.getHighestPossibleIdInUse( NULL ) ) );
+    }
+
+    private void createRelationship( long id, long source, long target, int type, PropertyBlock... properties )
+    {
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        long noRelationship = NO_NEXT_RELATIONSHIP.longValue();
+        RelationshipRecord relationship = new RelationshipRecord( id );
+        relationship.initialize( true, createProperties( properties ), source, target, type, noRelationship, noRelationship, noRelationship,
+                noRelationship, true, true );
+        relationshipStore.updateRecord( relationship, NULL );
+        relationshipStore.setHighestPossibleIdInUse( Math.max( id, relationshipStore.getHighestPossibleIdInUse( NULL ) ) );
+    }
+
+    private static <T extends TokenRecord> void createTokens( TokenStore<T> tokenStore, String... names )
+    {
+        for ( String name : names )
+        {
+            T record = tokenStore.newRecord();
+            record.setInUse( true );
+            record.setCreated();
+            Collection<DynamicRecord> nameRecords = tokenStore.allocateNameRecords( name.getBytes( StandardCharsets.UTF_8 ), NULL, INSTANCE );
+            record.setNameId( (int) nameRecords.iterator().next().getId() );
+            record.addNameRecords( nameRecords );
+            record.setId( tokenStore.nextId( NULL ) );
+            for ( DynamicRecord nameRecord : nameRecords )
+            {
+                tokenStore.getNameStore().updateRecord( nameRecord, NULL );
+            }
+            tokenStore.updateRecord( record, NULL );
+        }
+    }
+}
@@ -32,6 +32,9 @@ import org.neo4j.kernel.impl.store.record.Record;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.neo4j.internal.helpers.collection.Iterables.asList;
@@ -114,6 +117,74 @@ class NodeRecordTest
         assertThat( toString ).contains( unused.toString() );
     }
 
+    @Test
+    void shouldKeepKnownRelationshipTypes()
+    {
+        NodeRecord node = newUsedNodeRecord( 0 );
+        node.setRelationshipTypes( NodeRecord.NO_RELATIONSHIP_TYPES );
+        assertThat( node.knownRelationshipTypes() ).isEmpty();
+        assertFalse( node.mayHaveRelationshipType( 0 ) );
+
+        node.addRelationshipType( 3 );
+        node.addRelationshipType( 61 );
+        node.addRelationshipType( 3 );
+
+        assertThat( node.knownRelationshipTypes() ).containsExactly( 3, 61 );
+        assertTrue( node.mayHaveRelationshipType( 3 ) );
+        assertTrue( node.mayHaveRelationshipType( 61 ) );
+        assertFalse( node.mayHaveRelationshipType( 4 ) );
+        assertFalse( node.mayHaveRelationshipType( 62 ) );
+    }
+
+    @Test
+    void shouldShareRelationshipTypeBitBetweenHighTypes()
+    {
+        NodeRecord node = newUsedNodeRecord( 0 );
+        node.setRelationshipTypes( NodeRecord.NO_RELATIONSHIP_TYPES );
+
+        node.addRelationshipType( 100 );
+
+        assertNull( node.knownRelationshipTypes() );
+        assertTrue( node.mayHaveRelationshipType( 100 ) );
+        assertTrue( node.mayHaveRelationshipType( 62 ) );
+        assertFalse( node.mayHaveRelationshipType( 1 ) );
+    }
+
+    @Test
+    void shouldNotKnowRelationshipTypesUnlessToldTo()
+    {
+        NodeRecord node = newUsedNodeRecord( 0 );
+
+        node.addRelationshipType( 3 );
+
+        assertFalse( node.hasKnownRelationshipTypes() );
+        assertNull( node.knownRelationshipTypes() );
+        assertTrue( node.mayHaveRelationshipType( 4 ) );
+    }
+
+    @Test
+    void shouldKeepKnownPropertyKeys()
+    {
+        NodeRecord node = newUsedNodeRecord( 0 );
+        assertTrue( node.mayHavePropertyKey( 3 ) );
+        node.setPropertyKeys( NodeRecord.NO_PROPERTY_KEYS );
+        assertFalse( node.mayHavePropertyKey( 3 ) );
+
+        node.addPropertyKey( 3 );
+        node.addPropertyKey( 100 );
+
+        assertTrue( node.mayHavePropertyKey( 3 ) );
+        assertTrue( node.mayHavePropertyKey( 100 ) );
+        assertTrue( node.mayHavePropertyKey( 62 ) );
+        assertFalse( node.mayHavePropertyKey( 4 ) );
+
+        node.setPropertyKeys( NodeRecord.withoutPropertyKey( node.getPropertyKeys(), 3 ) );
+        node.setPropertyKeys( NodeRecord.withoutPropertyKey( node.getPropertyKeys(), 100 ) );
+
+        assertFalse( node.mayHavePropertyKey( 3 ) );
+        assertTrue( node.mayHavePropertyKey( 100 ) );
+    }
+
     private static DynamicRecord newDeletedDynamicRecord( long id )
     {
         DynamicRecord record = new DynamicRecord( id );
@@ -32,6 +32,7 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.LongSupplier;
 
@@ -47,6 +48,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.DelegatingPageCache;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -81,6 +83,7 @@ import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
@@ -410,6 +413,67 @@ class NodeStoreTest
         assertThat( e.getMessage(), containsString( loadedRecord.toString() ) );
     }
 
+    @Test
+    void shouldReadInUseRecordsOfOnePageAtATime()
+    {
+        // given
+        nodeStore = newNodeStore( fs );
+        int recordsPerPage = nodeStore.getRecordsPerPage();
+        long highId = recordsPerPage + 3;
+        for ( long nodeId = 0; nodeId < highId; nodeId++ )
+        {
+            boolean inUse = nodeId % 3 == 0 || nodeId == recordsPerPage - 1;
+            nodeStore.updateRecord( new NodeRecord( nodeId ).initialize( inUse, nodeId * 10, false, nodeId * 100, NO_LABELS_FIELD.longValue() ), NULL );
+        }
+        nodeStore.setHighestPossibleIdInUse( highId - 1 );
+        List<NodeRecord> readRecords = new ArrayList<>();
+        RecordBatch<NodeRecord> batch = new RecordBatch<>()
+        {
+            @Override
+            public void clear()
+            {
+                readRecords.clear();
+            }
+
+            @Override
+            public void add( NodeRecord record )
+            {
+                readRecords.add( new NodeRecord( record ) );
+            }
+        };
+
+        try ( PageCursor cursor = nodeStore.openPageCursorForReading( 0, NULL ) )
+        {
+            // when
+            long next = nodeStore.readRecordsOnPage( 2, Long.MAX_VALUE, nodeStore.newRecord(), NORMAL, cursor, batch );
+
+            // then the rest of the first page was read
+            assertEquals( recordsPerPage, next );
+            assertEquals( nodesInUse( 2, recordsPerPage - 1 ), readRecords );
+
+            // and when reading the next page, bounded by a max id
+            next = nodeStore.readRecordsOnPage( next, recordsPerPage + 1, nodeStore.newRecord(), NORMAL, cursor, batch );
+
+            // then
+            assertEquals( recordsPerPage + 2, next );
+            assertEquals( nodesInUse( recordsPerPage, recordsPerPage + 1 ), readRecords );
+        }
+    }
+
+    private List<NodeRecord> nodesInUse( long fromId, long toId )
+    {
+        List<NodeRecord> inUse = new ArrayList<>();
+        for ( long nodeId = fromId; nodeId <= toId; nodeId++ )
+        {
+            NodeRecord record = nodeStore.getRecord( nodeId, nodeStore.newRecord(), CHECK, NULL );
+            if ( record.inUse() )
+            {
+                inUse.add( record );
+            }
+        }
+        return inUse;
+    }
+
     private NodeStore newNodeStore( FileSystemAbstraction fs )
     {
         return newNodeStore( fs, pageCacheExtension.getPageCache( fs ) );
@@ -73,6 +73,7 @@ class AbstractBaseRecordCopyTest
             random.nextBytes( bytes );
             return bytes;
         } );
+        dataProviders.put( long[].class, () -> random.random().longs( random.nextInt( MAX_RANDOM_ARRAY ) ).toArray() );
         dataProviders.put( DynamicRecord.class, () -> randomPopulatedRecord( new DynamicRecord( -1 ) ) );
     }
 
@@ -41,8 +41,8 @@ public interface StorageEngine extends Lifecycle
 {
     /**
      * @return a new {@link CommandCreationContext} meant to be kept for multiple calls to
-     * {@link #createCommands(Collection, ReadableTransactionState, StorageReader, CommandCreationContext, ResourceLocker, long, TxStateVisitor.Decorator,
-     * PageCursorTracer, MemoryTracker)}.
+     * {@link #createCommands(Collection, ReadableTransactionState, StorageReader, CommandCreationContext, ResourceLocker, long, byte,
+     * TxStateVisitor.Decorator, PageCursorTracer, MemoryTracker)}.
      * Must be {@link CommandCreationContext#close() closed} after used, before being discarded.
      */
     CommandCreationContext newCommandCreationContext( PageCursorTracer cursorTracer, MemoryTracker memoryTracker );
@@ -87,6 +87,8 @@ public interface StorageEngine extends Lifecycle
      * The EntityLocker interface is a subset of Locks.Client interface, just to fit in while it's here.
      * @param lastTransactionIdWhenStarted transaction id which was seen as last committed when this
      * transaction started, i.e. before any changes were made and before any data was read.
+     * @param logEntryVersion version of the log entries that the commands will be written with. The generated commands must be readable by
+     * the {@link CommandReader} that {@link StorageEngineFactory#commandReaderFactory()} hands out for this version.
      * @param additionalTxStateVisitor any additional tx state visitor decoration.
      * @param cursorTracer underlying page cursor tracer
      * @param memoryTracker to report allocations to
@@ -99,6 +101,7 @@ public interface StorageEngine extends Lifecycle
             CommandCreationContext creationContext,
             ResourceLocker locks,
             long lastTransactionIdWhenStarted,
+            byte logEntryVersion,
             TxStateVisitor.Decorator additionalTxStateVisitor,
             PageCursorTracer cursorTracer,
             MemoryTracker memoryTracker )
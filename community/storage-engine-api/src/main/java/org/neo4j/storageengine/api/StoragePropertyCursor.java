@@ -39,6 +39,18 @@ public interface StoragePropertyCursor extends StorageCursor
      */
     void initRelationshipProperties( long reference );
 
+    /**
+     * Tells whether or not the properties this cursor is initialized for may include the given key, without reading them.
+     * Storage engines that know the property keys of an entity can use this to prove a property absent cheaply.
+     *
+     * @param propertyKey the property key token id to look for.
+     * @return {@code false} if {@link #next()} is known to never reach a property with the given key, otherwise {@code true}.
+     */
+    default boolean mayHavePropertyKey( int propertyKey )
+    {
+        return true;
+    }
+
     /**
      * @return property key of the property this cursor currently is placed at.
      */
@@ -67,6 +67,14 @@ public interface TxStateVisitor extends AutoCloseable
 
     void visitCreatedRelationshipTypeToken( long id, String name, boolean internal );
 
+    /**
+     * The relationships of the node with the given id should be compacted, i.e. laid out closer together in the store. This doesn't change
+     * any data, it's up to the storage engine what, if anything, to do about it.
+     *
+     * @param id id of the node to compact the relationships of.
+     */
+    void visitCompactedNodeRelationships( long id );
+
     @Override
     void close();
 
@@ -144,6 +152,11 @@ public interface TxStateVisitor extends AutoCloseable
         {
         }
 
+        @Override
+        public void visitCompactedNodeRelationships( long id )
+        {
+        }
+
         @Override
         public void close()
         {
@@ -251,6 +264,12 @@ public interface TxStateVisitor extends AutoCloseable
             actual.visitCreatedRelationshipTypeToken( id, name, internal );
         }
 
+        @Override
+        public void visitCompactedNodeRelationships( long id )
+        {
+            actual.visitCompactedNodeRelationships( id );
+        }
+
         @Override
         public void close()
         {
@@ -29,11 +29,11 @@ import org.neo4j.storageengine.api.StorageCommand;
 
 public class LogEntryParserSetV4_2 extends LogEntryParserSet
 {
-    public static final LogEntryParserSet V4_2 = new LogEntryParserSetV4_2();
+    public static final LogEntryParserSet V4_2 = new LogEntryParserSetV4_2( LogEntryParserSetVersion.LogEntryV4_2 );
 
-    private LogEntryParserSetV4_2()
+    LogEntryParserSetV4_2( LogEntryParserSetVersion version )
     {
-        super( LogEntryParserSetVersion.LogEntryV4_2 );
+        super( version );
         register( new LogEntryParser( LogEntryTypeCodes.TX_START )
         {
             @Override
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+/**
+ * The log entries themselves are unchanged from {@link LogEntryParserSetV4_2}, this version only signals that commands
+ * may be of a newer command set, i.e. one that includes relationship group degree commands.
+ */
+public class LogEntryParserSetV4_3 extends LogEntryParserSetV4_2
+{
+    public static final LogEntryParserSet V4_3 = new LogEntryParserSetV4_3();
+
+    private LogEntryParserSetV4_3()
+    {
+        super( LogEntryParserSetVersion.LogEntryV4_3 );
+    }
+}
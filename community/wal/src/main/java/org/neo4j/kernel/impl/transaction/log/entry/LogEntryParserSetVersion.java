@@ -23,7 +23,8 @@ public enum LogEntryParserSetVersion
 {
     LogEntryV2_3( (byte) -10 ), // 2.3 to 3.5.
     LogEntryV4_0( (byte) 1 ), // 4.0 to 4.1. Added checksums to the log files.
-    LogEntryV4_2( (byte) 2 ), // 4.2+. Removed checkpoint entries.
+    LogEntryV4_2( (byte) 2 ), // 4.2. Removed checkpoint entries.
+    LogEntryV4_3( (byte) 4 ), // 4.3+. Added relationship group degree commands.
 
     CheckpointEntryV4_2( (byte) 3 ); // 4.2+. Checkpoint entries in separate file.
 
@@ -28,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryParserSetV2_3.V2_3;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryParserSetV4_0.V4_0;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryParserSetV4_2.V4_2;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryParserSetV4_3.V4_3;
 import static org.neo4j.kernel.impl.transaction.log.entry.TransactionLogVersionSelector.INSTANCE;
 
 class TransactionLogVersionSelectorTest
@@ -38,6 +39,7 @@ class TransactionLogVersionSelectorTest
         assertEquals( V2_3, INSTANCE.select( V2_3.versionByte() ) );
         assertEquals( V4_0, INSTANCE.select( V4_0.versionByte() ) );
         assertEquals( V4_2, INSTANCE.select( V4_2.versionByte() ) );
+        assertEquals( V4_3, INSTANCE.select( V4_3.versionByte() ) );
     }
 
     @Test
@@ -63,6 +65,7 @@ class TransactionLogVersionSelectorTest
     {
         assertTrue( INSTANCE.moreRecentVersionExists( V2_3.versionByte() ) );
         assertTrue( INSTANCE.moreRecentVersionExists( V4_0.versionByte() ) );
-        assertFalse( INSTANCE.moreRecentVersionExists( V4_2.versionByte() ) );
+        assertTrue( INSTANCE.moreRecentVersionExists( V4_2.versionByte() ) );
+        assertFalse( INSTANCE.moreRecentVersionExists( V4_3.versionByte() ) );
     }
 }